@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the CXF benchmarks with the GC profiler attached so that, next to the
+ * throughput and sampled latency percentiles, every result also reports the
+ * number of bytes allocated per operation (gc.alloc.rate.norm).
+ * <p>
+ * Usage: <code>BenchmarkRunner [includeRegex] [resultFile]</code>. The results are
+ * written in JSON so that runs of different revisions can be compared.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        //utility class
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        String result = args.length > 1 ? args[1] : "jmh-result.json";
+        Options opts = new OptionsBuilder()
+            .include(BenchmarkRunner.class.getPackage().getName() + "\\." + include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(result)
+            .build();
+        new Runner(opts).run();
+    }
+}
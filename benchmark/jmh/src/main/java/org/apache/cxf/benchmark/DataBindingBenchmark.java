@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.aegis.databinding.AegisDatabinding;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.frontend.ClientProxyFactoryBean;
+import org.apache.cxf.frontend.ServerFactoryBean;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full SOAP round trips through the <code>local</code> transport, once with the JAXB
+ * databinding (JAX-WS frontend) and once with Aegis (simple frontend). Both directions
+ * go through the Stax interceptors, the SOAP binding and the databinding readers and writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataBindingBenchmark {
+    private static final String JAXB_ADDRESS = "local://benchmark/jaxb";
+    private static final String AEGIS_ADDRESS = "local://benchmark/aegis";
+
+    @Param({"1", "100" })
+    private int addressCount;
+
+    private Bus bus;
+    private Server jaxbServer;
+    private Server aegisServer;
+    private CustomerService jaxbClient;
+    private CustomerService aegisClient;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        bus = BusFactory.newInstance().createBus();
+        BusFactory.setDefaultBus(bus);
+
+        JaxWsServerFactoryBean jaxbSf = new JaxWsServerFactoryBean();
+        jaxbSf.setBus(bus);
+        jaxbSf.setServiceBean(new CustomerServiceImpl());
+        jaxbSf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        jaxbSf.setAddress(JAXB_ADDRESS);
+        jaxbServer = jaxbSf.create();
+
+        JaxWsProxyFactoryBean jaxbCf = new JaxWsProxyFactoryBean();
+        jaxbCf.setBus(bus);
+        jaxbCf.setServiceClass(CustomerService.class);
+        jaxbCf.setAddress(JAXB_ADDRESS);
+        jaxbClient = jaxbCf.create(CustomerService.class);
+
+        ServerFactoryBean aegisSf = new ServerFactoryBean();
+        aegisSf.setBus(bus);
+        aegisSf.setServiceClass(CustomerService.class);
+        aegisSf.setServiceBean(new CustomerServiceImpl());
+        aegisSf.setDataBinding(new AegisDatabinding());
+        aegisSf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        aegisSf.setAddress(AEGIS_ADDRESS);
+        aegisServer = aegisSf.create();
+
+        ClientProxyFactoryBean aegisCf = new ClientProxyFactoryBean();
+        aegisCf.setBus(bus);
+        aegisCf.setServiceClass(CustomerService.class);
+        aegisCf.setDataBinding(new AegisDatabinding());
+        aegisCf.setAddress(AEGIS_ADDRESS);
+        aegisClient = aegisCf.create(CustomerService.class);
+
+        customer = new Customer(123L, "John", "john@example.org", addressCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jaxbServer.destroy();
+        aegisServer.destroy();
+        bus.shutdown(true);
+        BusFactory.setDefaultBus(null);
+    }
+
+    @Benchmark
+    public Customer jaxb() {
+        return jaxbClient.echo(customer);
+    }
+
+    @Benchmark
+    public Customer aegis() {
+        return aegisClient.echo(customer);
+    }
+}
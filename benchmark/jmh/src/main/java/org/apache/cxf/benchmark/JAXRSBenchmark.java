@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JAX-RS proxy calls through the <code>local</code> transport, exercising resource and
+ * method selection in <code>JAXRSInInterceptor</code>, the JAXB message body reader and
+ * writer and <code>JAXRSOutInterceptor</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JAXRSBenchmark {
+    private static final String ADDRESS = "local://benchmark/jaxrs";
+
+    /**
+     * Piped dispatch serializes the messages as bytes, direct dispatch passes them as is.
+     */
+    @Param({"false", "true" })
+    private boolean directDispatch;
+
+    private Bus bus;
+    private Server server;
+    private CustomerResource client;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        bus = BusFactory.newInstance().createBus();
+        BusFactory.setDefaultBus(bus);
+
+        JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
+        sf.setBus(bus);
+        sf.setResourceClasses(CustomerResourceImpl.class);
+        sf.setResourceProvider(CustomerResourceImpl.class,
+                               new SingletonResourceProvider(new CustomerResourceImpl(), true));
+        sf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        sf.setAddress(ADDRESS);
+        server = sf.create();
+
+        JAXRSClientFactoryBean cf = new JAXRSClientFactoryBean();
+        cf.setBus(bus);
+        cf.setAddress(ADDRESS);
+        cf.setResourceClass(CustomerResource.class);
+        cf.setThreadSafe(true);
+        client = cf.create(CustomerResource.class);
+        if (directDispatch) {
+            WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, "true");
+        }
+        customer = new Customer(123L, "John", "john@example.org", 4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.destroy();
+        bus.shutdown(true);
+        BusFactory.setDefaultBus(null);
+    }
+
+    @Benchmark
+    public Customer get() {
+        return client.getCustomer(123L);
+    }
+
+    @Benchmark
+    public Customer post() {
+        return client.echo(customer);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.bus.managers.PhaseManagerImpl;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseChainCache;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of obtaining a chain from the {@link PhaseChainCache} and running a
+ * message through it with {@link PhaseInterceptorChain#doIntercept(Message)}, which is
+ * what every endpoint and client does for each message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseInterceptorChainBenchmark {
+
+    @Param({"10", "40" })
+    private int interceptorCount;
+
+    private final PhaseChainCache cache = new PhaseChainCache();
+    private SortedSet<Phase> phases;
+    private List<Interceptor<? extends Message>> interceptors;
+
+    @Setup
+    public void setUp() {
+        phases = new PhaseManagerImpl().getInPhases();
+        Phase[] phaseArray = phases.toArray(new Phase[0]);
+        interceptors = new ArrayList<>(interceptorCount);
+        for (int x = 0; x < interceptorCount; x++) {
+            interceptors.add(new CountingInterceptor(phaseArray[x % phaseArray.length].getName(), x));
+        }
+    }
+
+    @Benchmark
+    public PhaseInterceptorChain cachedChain() {
+        return cache.get(phases, interceptors);
+    }
+
+    @Benchmark
+    public boolean doIntercept(Blackhole bh) {
+        PhaseInterceptorChain chain = cache.get(phases, interceptors);
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        message.setInterceptorChain(chain);
+        boolean result = chain.doIntercept(message);
+        bh.consume(message);
+        return result;
+    }
+
+    static final class CountingInterceptor extends AbstractPhaseInterceptor<Message> {
+        private int invocations;
+
+        CountingInterceptor(String phase, int idx) {
+            super(CountingInterceptor.class.getName() + idx, phase);
+        }
+
+        public void handleMessage(Message message) {
+            invocations++;
+        }
+    }
+}
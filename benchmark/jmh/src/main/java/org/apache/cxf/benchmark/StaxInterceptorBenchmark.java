@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.cxf.bus.managers.PhaseManagerImpl;
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.StaxInInterceptor;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseChainCache;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drives {@link StaxInInterceptor} and {@link StaxOutInterceptor} (together with the
+ * ending interceptors they register) through a real {@link PhaseInterceptorChain}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaxInterceptorBenchmark {
+
+    @Param({"10", "1000" })
+    private int elementCount;
+
+    private final PhaseChainCache inCache = new PhaseChainCache();
+    private final PhaseChainCache outCache = new PhaseChainCache();
+    private SortedSet<Phase> inPhases;
+    private SortedSet<Phase> outPhases;
+    private List<Interceptor<? extends Message>> inInterceptors;
+    private List<Interceptor<? extends Message>> outInterceptors;
+    private byte[] payload;
+    private LoadingByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        PhaseManagerImpl phaseManager = new PhaseManagerImpl();
+        inPhases = phaseManager.getInPhases();
+        outPhases = phaseManager.getOutPhases();
+        inInterceptors = Arrays.asList(new StaxInInterceptor(), new ReadingInterceptor());
+        outInterceptors = Arrays.asList(new StaxOutInterceptor(), new WritingInterceptor(elementCount));
+
+        StringBuilder b = new StringBuilder(65536);
+        b.append("<ns:customers xmlns:ns=\"http://benchmark.cxf.apache.org/\">");
+        for (int x = 0; x < elementCount; x++) {
+            b.append("<ns:customer id=\"").append(x).append("\"><ns:name>John</ns:name></ns:customer>");
+        }
+        b.append("</ns:customers>");
+        payload = b.toString().getBytes(StandardCharsets.UTF_8);
+        out = new LoadingByteArrayOutputStream(payload.length);
+    }
+
+    @Benchmark
+    public Object staxIn() {
+        PhaseInterceptorChain chain = inCache.get(inPhases, inInterceptors);
+        Message message = createMessage(chain);
+        message.put(Message.CONTENT_TYPE, "text/xml");
+        message.setContent(InputStream.class, new ByteArrayInputStream(payload));
+        chain.doIntercept(message);
+        return message.get(ReadingInterceptor.class);
+    }
+
+    @Benchmark
+    public int staxOut() {
+        out.reset();
+        PhaseInterceptorChain chain = outCache.get(outPhases, outInterceptors);
+        Message message = createMessage(chain);
+        message.setContent(OutputStream.class, out);
+        chain.doIntercept(message);
+        return out.size();
+    }
+
+    private static Message createMessage(PhaseInterceptorChain chain) {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        message.setExchange(exchange);
+        message.setInterceptorChain(chain);
+        return message;
+    }
+
+    /**
+     * Pulls every event from the reader created by the StaxInInterceptor.
+     */
+    static final class ReadingInterceptor extends AbstractPhaseInterceptor<Message> {
+        ReadingInterceptor() {
+            super(Phase.UNMARSHAL);
+        }
+
+        public void handleMessage(Message message) {
+            XMLStreamReader reader = message.getContent(XMLStreamReader.class);
+            int events = 0;
+            try {
+                while (reader.hasNext()) {
+                    reader.next();
+                    events++;
+                }
+            } catch (XMLStreamException e) {
+                throw new Fault(e);
+            }
+            message.put(ReadingInterceptor.class.getName(), events);
+        }
+    }
+
+    /**
+     * Writes a document to the writer created by the StaxOutInterceptor.
+     */
+    static final class WritingInterceptor extends AbstractPhaseInterceptor<Message> {
+        private final int count;
+
+        WritingInterceptor(int count) {
+            super(Phase.MARSHAL);
+            this.count = count;
+        }
+
+        public void handleMessage(Message message) {
+            XMLStreamWriter writer = message.getContent(XMLStreamWriter.class);
+            try {
+                writer.writeStartElement("ns", "customers", "http://benchmark.cxf.apache.org/");
+                writer.writeNamespace("ns", "http://benchmark.cxf.apache.org/");
+                for (int x = 0; x < count; x++) {
+                    writer.writeStartElement("ns", "customer", "http://benchmark.cxf.apache.org/");
+                    writer.writeAttribute("id", Integer.toString(x));
+                    writer.writeStartElement("ns", "name", "http://benchmark.cxf.apache.org/");
+                    writer.writeCharacters("John");
+                    writer.writeEndElement();
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new Fault(e);
+            }
+        }
+    }
+}
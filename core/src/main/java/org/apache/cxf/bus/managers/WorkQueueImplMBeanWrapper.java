@@ -122,6 +122,11 @@ public class WorkQueueImplMBeanWrapper implements ManagedComponent {
         aWorkQueue.setLowWaterMark(lwm);
     }
 
+    @ManagedAttribute(description = "The WorkQueue runs its tasks on virtual threads")
+    public boolean isVirtualThreads() {
+        return aWorkQueue.isVirtualThreads();
+    }
+
     public ObjectName getObjectName() throws JMException {
         return new ObjectName(objectName);
     }
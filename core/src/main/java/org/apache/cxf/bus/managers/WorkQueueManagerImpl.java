@@ -33,6 +33,7 @@ import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
 import org.apache.cxf.common.injection.NoJSR250Annotations;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.workqueue.AutomaticWorkQueue;
@@ -44,6 +45,11 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
 
     public static final String DEFAULT_QUEUE_NAME = "default";
     public static final String DEFAULT_WORKQUEUE_BEAN_NAME = "cxf.default.workqueue";
+    /**
+     * Bus property, if set to true the work queues created by the manager run their tasks
+     * on virtual threads, see AutomaticWorkQueueImpl.setVirtualThreads.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "org.apache.cxf.workqueue.virtualThreads";
 
     private static final Logger LOG =
         LogUtils.getL7dLogger(WorkQueueManagerImpl.class);
@@ -197,7 +203,10 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
     }
 
     private AutomaticWorkQueue createAutomaticWorkQueue() {
-        AutomaticWorkQueue q = new AutomaticWorkQueueImpl(DEFAULT_QUEUE_NAME);
+        AutomaticWorkQueueImpl q = new AutomaticWorkQueueImpl(DEFAULT_QUEUE_NAME);
+        if (bus != null) {
+            q.setVirtualThreads(PropertyUtils.isTrue(bus.getProperty(VIRTUAL_THREADS_PROPERTY)));
+        }
         addNamedWorkQueue(DEFAULT_QUEUE_NAME, q);
         return q;
     }
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocator of the fixed size ByteBuffer segments used by the pooled buffer mode
+ * of {@link CachedOutputStream}. Implementations may hand out heap or direct buffers
+ * and must be thread safe as a single pool is shared by all streams of a Bus.
+ */
+public interface ByteBufferPool {
+
+    /**
+     * Returns a cleared buffer, either a recycled one or a newly allocated one.
+     */
+    ByteBuffer acquire();
+
+    /**
+     * Returns a buffer obtained from {@link #acquire()} to the pool. The buffer
+     * must not be used by the caller anymore.
+     */
+    void release(ByteBuffer buffer);
+
+}
@@ -71,6 +71,43 @@ public final class CachedConstants {
     public static final String CIPHER_TRANSFORMATION_BUS_PROP =
         "bus.io.CachedOutputStream.CipherTransformation";
 
+    /**
+     * System property which, when set to true, makes CachedOutputStream and CachedWriter read their
+     * temporary files through memory mappings released on close, and write them to channel backed
+     * streams with FileChannel.transferTo. Ignored when a cipher transformation is set. Not enabled
+     * by default.
+     */
+    public static final String MAPPED_SPILL_SYS_PROP =
+        "org.apache.cxf.io.CachedOutputStream.MappedSpill";
+
+    /**
+     * Bus property enabling the memory mapped reads of the temporary files for the streams created
+     * with that bus, it takes precedence over {@link #MAPPED_SPILL_SYS_PROP}.
+     */
+    public static final String MAPPED_SPILL_BUS_PROP =
+        "bus.io.CachedOutputStream.MappedSpill";
+
+    /**
+     * Enables the pooled buffer mode of CachedOutputStream. The value is either a ByteBufferPool
+     * instance or one of "heap" and "direct" to let the Bus create and share a DefaultByteBufferPool
+     * of heap or direct ByteBuffers. The in memory content is then kept in pooled segments instead
+     * of a byte[]. Not enabled by default.
+     */
+    public static final String BUFFER_POOL_BUS_PROP =
+        "bus.io.CachedOutputStream.BufferPool";
+
+    /**
+     * The size in bytes of the segments of the Bus created buffer pool. The default value is 16K.
+     */
+    public static final String BUFFER_POOL_SEGMENT_SIZE_BUS_PROP =
+        "bus.io.CachedOutputStream.BufferPool.SegmentSize";
+
+    /**
+     * The maximum number of idle segments kept by the Bus created buffer pool. The default value is 1024.
+     */
+    public static final String BUFFER_POOL_MAX_SIZE_BUS_PROP =
+        "bus.io.CachedOutputStream.BufferPool.MaxSize";
+
     private CachedConstants() {
         // complete
     }
@@ -25,13 +25,19 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,6 +48,7 @@ import javax.crypto.CipherOutputStream;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.helpers.FileUtils;
 import org.apache.cxf.helpers.IOUtils;
@@ -54,6 +61,7 @@ public class CachedOutputStream extends OutputStream {
     private static long defaultMaxSize;
     private static String defaultCipherTransformation;
     private static boolean thresholdSysPropSet;
+    private static boolean defaultMappedSpill;
 
     static {
         String s = SystemPropertyAction.getPropertyOrNull(CachedConstants.OUTPUT_DIRECTORY_SYS_PROP);
@@ -71,6 +79,7 @@ public class CachedOutputStream extends OutputStream {
         setDefaultThreshold(-1);
         setDefaultMaxSize(-1);
         setDefaultCipherTransformation(null);
+        setDefaultMappedSpill(null);
     }
 
     protected boolean outputLocked;
@@ -80,6 +89,7 @@ public class CachedOutputStream extends OutputStream {
     private long maxSize = defaultMaxSize;
     private File outputDir = DEFAULT_TEMP_DIR;
     private String cipherTransformation = defaultCipherTransformation;
+    private boolean mappedSpill = defaultMappedSpill;
 
     private long totalLength;
 
@@ -89,6 +99,7 @@ public class CachedOutputStream extends OutputStream {
     private File tempFile;
     private boolean allowDeleteOfFile = true;
     private CipherPair ciphers;
+    private ByteBufferPool bufferPool;
 
     private List<CachedOutputStreamCallback> callbacks;
 
@@ -100,9 +111,10 @@ public class CachedOutputStream extends OutputStream {
 
     public CachedOutputStream(long threshold) {
         this.threshold = threshold;
-        currentStream = new LoadingByteArrayOutputStream(2048);
-        inmem = true;
         readBusProperties();
+        currentStream = bufferPool == null
+            ? new LoadingByteArrayOutputStream(2048) : new PooledByteBufferOutputStream(bufferPool);
+        inmem = true;
     }
 
     private void readBusProperties() {
@@ -127,6 +139,37 @@ public class CachedOutputStream extends OutputStream {
                     outputDir = f;
                 }
             }
+            Object m = b.getProperty(CachedConstants.MAPPED_SPILL_BUS_PROP);
+            if (m != null) {
+                mappedSpill = PropertyUtils.isTrue(m);
+            }
+            bufferPool = getBufferPool(b);
+        }
+    }
+
+    private static ByteBufferPool getBufferPool(Bus b) {
+        Object v = b.getProperty(CachedConstants.BUFFER_POOL_BUS_PROP);
+        if (v == null || v instanceof ByteBufferPool) {
+            return (ByteBufferPool)v;
+        }
+        synchronized (b) {
+            v = b.getProperty(CachedConstants.BUFFER_POOL_BUS_PROP);
+            if (v instanceof ByteBufferPool) {
+                return (ByteBufferPool)v;
+            }
+            String type = v.toString();
+            if (!"heap".equalsIgnoreCase(type) && !"direct".equalsIgnoreCase(type)) {
+                return null;
+            }
+            String s = getBusProperty(b, CachedConstants.BUFFER_POOL_SEGMENT_SIZE_BUS_PROP, null);
+            int segmentSize = s == null ? DefaultByteBufferPool.DEFAULT_SEGMENT_SIZE : Integer.parseInt(s);
+            s = getBusProperty(b, CachedConstants.BUFFER_POOL_MAX_SIZE_BUS_PROP, null);
+            int maxPooled = s == null ? DefaultByteBufferPool.DEFAULT_MAX_POOLED : Integer.parseInt(s);
+            ByteBufferPool pool = new DefaultByteBufferPool(segmentSize, maxPooled,
+                                                            "direct".equalsIgnoreCase(type));
+            // replace the type name so that all streams of this Bus share the pool
+            b.setProperty(CachedConstants.BUFFER_POOL_BUS_PROP, pool);
+            return pool;
         }
     }
 
@@ -266,6 +309,9 @@ public class CachedOutputStream extends OutputStream {
                     if (copyOldContent && byteOut.size() > 0) {
                         byteOut.writeTo(out);
                     }
+                    if (byteOut instanceof PooledByteBufferOutputStream) {
+                        byteOut.reset();
+                    }
                 } else {
                     throw new IOException("Unknown format of currentStream");
                 }
@@ -304,6 +350,16 @@ public class CachedOutputStream extends OutputStream {
             }
             throw new IOException("Unknown format of currentStream");
         }
+        if (isMappedSpill()) {
+            ByteBuffer buf = MappedFileInputStream.map(tempFile);
+            try {
+                byte[] bytes = new byte[buf.remaining()];
+                buf.get(bytes);
+                return bytes;
+            } finally {
+                MappedFileInputStream.unmap(buf);
+            }
+        }
         // read the file
         try (InputStream fin = createInputStream(tempFile)) {
             return IOUtils.readBytesFromStream(fin);
@@ -318,6 +374,22 @@ public class CachedOutputStream extends OutputStream {
             } else {
                 throw new IOException("Unknown format of currentStream");
             }
+        } else if (isMappedSpill()) {
+            WritableByteChannel channel = getChannel(out);
+            if (channel != null) {
+                out.flush();
+                try (FileChannel fc = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+                    long pos = 0;
+                    long len = fc.size();
+                    while (pos < len) {
+                        pos += fc.transferTo(pos, len - pos, channel);
+                    }
+                }
+            } else {
+                try (MappedFileInputStream fin = new MappedFileInputStream(tempFile)) {
+                    fin.transferTo(Channels.newChannel(out));
+                }
+            }
         } else {
             // read the file
             InputStream fin = createInputStream(tempFile);
@@ -325,6 +397,15 @@ public class CachedOutputStream extends OutputStream {
         }
     }
 
+    private static WritableByteChannel getChannel(OutputStream out) {
+        if (out instanceof FileOutputStream) {
+            return ((FileOutputStream)out).getChannel();
+        } else if (out instanceof WritableByteChannel) {
+            return (WritableByteChannel)out;
+        }
+        return null;
+    }
+
     public void writeCacheTo(StringBuilder out, long limit) throws IOException {
         writeCacheTo(out, StandardCharsets.UTF_8.name(), limit);
     }
@@ -481,6 +562,10 @@ public class CachedOutputStream extends OutputStream {
             bout.writeTo(currentStream);
             inmem = false;
             streamList.add(currentStream);
+            if (bout instanceof PooledByteBufferOutputStream) {
+                // the segments go back to the pool, the content is in the file now
+                bout.reset();
+            }
         } catch (Exception ex) {
             //Could be IOException or SecurityException or other issues.
             //Don't care what, just keep it in memory.
@@ -503,6 +588,8 @@ public class CachedOutputStream extends OutputStream {
         if (inmem) {
             if (currentStream instanceof LoadingByteArrayOutputStream) {
                 return ((LoadingByteArrayOutputStream) currentStream).createInputStream();
+            } else if (currentStream instanceof PooledByteBufferOutputStream) {
+                return ((PooledByteBufferOutputStream) currentStream).createInputStream();
             } else if (currentStream instanceof ByteArrayOutputStream) {
                 return new ByteArrayInputStream(((ByteArrayOutputStream) currentStream).toByteArray());
             } else {
@@ -510,6 +597,11 @@ public class CachedOutputStream extends OutputStream {
             }
         }
         try {
+            if (isMappedSpill()) {
+                InputStream mappedInputStream = new TransferableMappedInputStream(tempFile);
+                streamList.add(mappedInputStream);
+                return mappedInputStream;
+            }
             InputStream fileInputStream = new TransferableFileInputStream(tempFile);
             streamList.add(fileInputStream);
             if (cipherTransformation != null) {
@@ -576,6 +668,18 @@ public class CachedOutputStream extends OutputStream {
         this.cipherTransformation = cipherTransformation;
     }
 
+    /**
+     * Reads the temporary file through a memory mapping, see CachedConstants.MAPPED_SPILL_BUS_PROP.
+     */
+    public void setMappedSpill(boolean mappedSpill) {
+        this.mappedSpill = mappedSpill;
+    }
+
+    private boolean isMappedSpill() {
+        return mappedSpill && cipherTransformation == null
+            && tempFile != null && MappedFileInputStream.canMap(tempFile);
+    }
+
     public static void setDefaultMaxSize(long l) {
         if (l == -1) {
             String s = SystemPropertyAction.getProperty(CachedConstants.MAX_SIZE_SYS_PROP, "-1");
@@ -610,6 +714,13 @@ public class CachedOutputStream extends OutputStream {
         defaultCipherTransformation = n;
     }
 
+    public static void setDefaultMappedSpill(Boolean b) {
+        if (b == null) {
+            b = Boolean.valueOf(SystemPropertyAction.getProperty(CachedConstants.MAPPED_SPILL_SYS_PROP, "false"));
+        }
+        defaultMappedSpill = b;
+    }
+
     private OutputStream createOutputStream(File file) throws IOException {
         OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
         if (cipherTransformation != null) {
@@ -634,6 +745,9 @@ public class CachedOutputStream extends OutputStream {
     }
 
     private InputStream createInputStream(File file) throws IOException {
+        if (isMappedSpill()) {
+            return new MappedFileInputStream(file);
+        }
         InputStream in = Files.newInputStream(file.toPath());
         if (cipherTransformation != null) {
             in = new CipherInputStream(in, ciphers.getDecryptor()) {
@@ -682,4 +796,38 @@ public class CachedOutputStream extends OutputStream {
             }
         }
     }
+
+    private class TransferableMappedInputStream extends MappedFileInputStream implements Transferable {
+        private File sourceFile;
+
+        TransferableMappedInputStream(File sourceFile) throws IOException {
+            super(sourceFile);
+            this.sourceFile = sourceFile;
+        }
+
+        public void close() throws IOException {
+            if (!isClosed()) {
+                super.close();
+                maybeDeleteTempFile(this);
+            }
+        }
+
+        @Override
+        public void transferTo(File destinationFile) throws IOException {
+            if (isClosed()) {
+                throw new IOException("Stream closed");
+            }
+            //We've cached the file so try renaming.
+            boolean transfered = sourceFile.renameTo(destinationFile);
+            if (!transfered) {
+                // write the mapped content out instead
+                try (FileChannel out = FileChannel.open(destinationFile.toPath(), StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    transferTo(out);
+                }
+                close();
+            }
+        }
+    }
 }
@@ -32,6 +32,8 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.GeneralSecurityException;
@@ -44,6 +46,7 @@ import javax.crypto.CipherOutputStream;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.helpers.FileUtils;
 import org.apache.cxf.helpers.IOUtils;
@@ -55,6 +58,7 @@ public class CachedWriter extends Writer {
     private static int defaultThreshold;
     private static long defaultMaxSize;
     private static String defaultCipherTransformation;
+    private static boolean defaultMappedSpill;
 
     static {
 
@@ -77,6 +81,7 @@ public class CachedWriter extends Writer {
         setDefaultThreshold(-1);
         setDefaultMaxSize(-1);
         setDefaultCipherTransformation(null);
+        setDefaultMappedSpill(null);
     }
 
     protected boolean outputLocked;
@@ -87,6 +92,7 @@ public class CachedWriter extends Writer {
     private long maxSize = defaultMaxSize;
     private File outputDir = DEFAULT_TEMP_DIR;
     private String cipherTransformation = defaultCipherTransformation;
+    private boolean mappedSpill = defaultMappedSpill;
 
     private long totalLength;
 
@@ -147,6 +153,10 @@ public class CachedWriter extends Writer {
                     outputDir = f;
                 }
             }
+            Object m = b.getProperty(CachedConstants.MAPPED_SPILL_BUS_PROP);
+            if (m != null) {
+                mappedSpill = PropertyUtils.isTrue(m);
+            }
         }
     }
 
@@ -322,6 +332,18 @@ public class CachedWriter extends Writer {
             }
             throw new IOException("Unknown format of currentStream");
         }
+        if (isMappedSpill()) {
+            ByteBuffer mapped = MappedFileInputStream.map(tempFile);
+            CharBuffer buf;
+            try {
+                buf = UTF_8.decode(mapped);
+            } finally {
+                MappedFileInputStream.unmap(mapped);
+            }
+            char[] chars = new char[buf.remaining()];
+            buf.get(chars);
+            return chars;
+        }
         // read the file
         try (Reader fin = createInputStreamReader(tempFile)) {
             CharArrayWriter out = new CharArrayWriter((int)tempFile.length());
@@ -505,6 +527,19 @@ public class CachedWriter extends Writer {
             return null;
         }
         try {
+            if (isMappedSpill()) {
+                InputStream mappedInputStream = new MappedFileInputStream(tempFile) {
+                    @Override
+                    public void close() throws IOException {
+                        if (!isClosed()) {
+                            super.close();
+                            maybeDeleteTempFile(this);
+                        }
+                    }
+                };
+                streamList.add(mappedInputStream);
+                return new InputStreamReader(mappedInputStream, StandardCharsets.UTF_8);
+            }
             InputStream fileInputStream = new FileInputStream(tempFile) {
                 boolean closed;
                 
@@ -576,6 +611,18 @@ public class CachedWriter extends Writer {
         this.cipherTransformation = cipherTransformation;
     }
 
+    /**
+     * Reads the temporary file through a memory mapping, see CachedConstants.MAPPED_SPILL_BUS_PROP.
+     */
+    public void setMappedSpill(boolean mappedSpill) {
+        this.mappedSpill = mappedSpill;
+    }
+
+    private boolean isMappedSpill() {
+        return mappedSpill && cipherTransformation == null
+            && tempFile != null && MappedFileInputStream.canMap(tempFile);
+    }
+
     public static void setDefaultMaxSize(long l) {
         if (l == -1) {
             String s = System.getProperty(CachedConstants.MAX_SIZE_SYS_PROP);
@@ -610,6 +657,13 @@ public class CachedWriter extends Writer {
         defaultCipherTransformation = n;
     }
 
+    public static void setDefaultMappedSpill(Boolean b) {
+        if (b == null) {
+            b = Boolean.valueOf(SystemPropertyAction.getProperty(CachedConstants.MAPPED_SPILL_SYS_PROP, "false"));
+        }
+        defaultMappedSpill = b;
+    }
+
     private OutputStreamWriter createOutputStreamWriter(File file) throws IOException {
         OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
         if (cipherTransformation != null) {
@@ -645,6 +699,9 @@ public class CachedWriter extends Writer {
     }
 
     private InputStreamReader createInputStreamReader(File file) throws IOException {
+        if (isMappedSpill()) {
+            return new InputStreamReader(new MappedFileInputStream(file), UTF_8);
+        }
         InputStream in = Files.newInputStream(file.toPath());
         if (cipherTransformation != null) {
             in = new CipherInputStream(in, ciphers.getDecryptor()) {
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, lock free {@link ByteBufferPool} handing out heap or direct segments of a
+ * fixed size. Released segments are kept for reuse until <code>maxPooled</code>
+ * segments are idle, any further segment is left to the garbage collector.
+ */
+public class DefaultByteBufferPool implements ByteBufferPool {
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024;
+    public static final int DEFAULT_MAX_POOLED = 1024;
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+    private final int segmentSize;
+    private final int maxPooled;
+    private final boolean direct;
+
+    public DefaultByteBufferPool() {
+        this(DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_POOLED, false);
+    }
+
+    public DefaultByteBufferPool(int segmentSize, int maxPooled, boolean direct) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            return buffer;
+        }
+        allocated.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(segmentSize) : ByteBuffer.allocate(segmentSize);
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null
+            || buffer.capacity() != segmentSize
+            || buffer.isDirect() != direct
+            || buffer.isReadOnly()) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return the number of idle segments currently held by the pool
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+
+    /**
+     * @return the number of segments allocated because the pool was empty
+     */
+    public long getAllocatedCount() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * An InputStream reading a file through a read only MappedByteBuffer. The file channel is closed
+ * as soon as the file is mapped, the mapping is released when the stream is closed so that the
+ * file can be deleted on platforms which do not allow deleting mapped files.
+ */
+class MappedFileInputStream extends InputStream {
+    private static final Logger LOG = LogUtils.getL7dLogger(MappedFileInputStream.class);
+    private static final Unmapper UNMAPPER = createUnmapper();
+    private ByteBuffer buffer;
+    private boolean closed;
+
+    MappedFileInputStream(File file) throws IOException {
+        buffer = map(file);
+        buffer.mark();
+    }
+
+    /**
+     * Returns true if the file is small enough to be mapped into a single buffer.
+     */
+    static boolean canMap(File file) {
+        return file.length() <= Integer.MAX_VALUE;
+    }
+
+    static MappedByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Releases the mapping of the buffer. The buffer must not be used afterwards. If the mapping
+     * can not be released on this JVM it is left to the garbage collector.
+     */
+    static void unmap(ByteBuffer buf) {
+        if (UNMAPPER != null && buf != null && buf.isDirect()) {
+            try {
+                UNMAPPER.unmap(buf);
+            } catch (Exception ex) {
+                LOG.log(Level.FINE, "Mapped buffer can not be released", ex);
+            }
+        }
+    }
+
+    private static Unmapper createUnmapper() {
+        try {
+            // Java 9 and newer
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            return buf -> invokeCleaner.invoke(unsafe, buf);
+        } catch (Exception ex) {
+            // fall through to the Java 8 cleaner
+        }
+        try {
+            final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buf -> {
+                Object c = cleaner.invoke(buf);
+                if (c != null) {
+                    clean.invoke(c);
+                }
+            };
+        } catch (Exception ex) {
+            LOG.log(Level.FINE, "Mapped buffers will be released by the garbage collector", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the remaining content to the channel, without copying it to the heap first.
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        checkClosed();
+        long count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkClosed();
+        if (n <= 0) {
+            return 0;
+        }
+        int s = (int)Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + s);
+        return s;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return closed ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        if (!closed) {
+            buffer.mark();
+        }
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        checkClosed();
+        buffer.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            ByteBuffer buf = buffer;
+            buffer = null;
+            unmap(buf);
+        }
+    }
+
+    protected boolean isClosed() {
+        return closed;
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private interface Unmapper {
+        void unmap(ByteBuffer buf) throws Exception;
+    }
+}
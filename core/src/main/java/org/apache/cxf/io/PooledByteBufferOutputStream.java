@@ -0,0 +1,388 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subclass of ByteArrayOutputStream that keeps its content in a chain of fixed size
+ * ByteBuffer segments obtained from a {@link ByteBufferPool} instead of a single,
+ * continuously re-allocated byte[].
+ * <p>
+ * InputStreams created with {@link #createInputStream()} read directly from the segments
+ * and {@link #writeTo(OutputStream)} writes the segments without copying them first
+ * when they are heap buffers. Closing the stream keeps its content. The segments are
+ * handed back to the pool when the stream is reset, or once it is closed and the last
+ * InputStream created from it has been closed, after that the stream is empty.
+ */
+public class PooledByteBufferOutputStream extends ByteArrayOutputStream {
+    private final ByteBufferPool pool;
+    private Segments segments;
+    private ByteBuffer current;
+    private int size;
+
+    public PooledByteBufferOutputStream(ByteBufferPool pool) {
+        super(0);
+        this.pool = pool;
+        this.segments = new Segments(pool);
+    }
+
+    public ByteBufferPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void write(int b) {
+        if (current == null || !current.hasRemaining()) {
+            nextSegment();
+        }
+        current.put((byte)b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (current == null || !current.hasRemaining()) {
+                nextSegment();
+            }
+            int n = Math.min(len, current.remaining());
+            current.put(b, off, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    private void nextSegment() {
+        current = pool.acquire();
+        segments.buffers.add(current);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] copy = null;
+        int remaining = size();
+        for (ByteBuffer bb : segments.buffers) {
+            int len = Math.min(remaining, bb.capacity());
+            if (bb.hasArray()) {
+                out.write(bb.array(), bb.arrayOffset(), len);
+            } else {
+                if (copy == null) {
+                    copy = new byte[Math.min(remaining, bb.capacity())];
+                }
+                ByteBuffer view = (ByteBuffer)bb.duplicate().clear();
+                int left = len;
+                while (left > 0) {
+                    int n = Math.min(left, copy.length);
+                    view.get(copy, 0, n);
+                    out.write(copy, 0, n);
+                    left -= n;
+                }
+            }
+            remaining -= len;
+        }
+    }
+
+    /**
+     * Writes the content to the channel without any intermediate copies, this also
+     * applies to direct segments.
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        int remaining = size();
+        for (ByteBuffer bb : segments.buffers) {
+            int len = Math.min(remaining, bb.capacity());
+            ByteBuffer view = (ByteBuffer)bb.duplicate().clear().limit(len);
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+            remaining -= len;
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        int length = size();
+        byte[] bytes = new byte[length];
+        int pos = 0;
+        for (ByteBuffer bb : segments.buffers) {
+            int len = Math.min(length - pos, bb.capacity());
+            if (bb.hasArray()) {
+                System.arraycopy(bb.array(), bb.arrayOffset(), bytes, pos, len);
+            } else {
+                ((ByteBuffer)bb.duplicate().clear()).get(bytes, pos, len);
+            }
+            pos += len;
+        }
+        return bytes;
+    }
+
+    /**
+     * Creates an InputStream over the current content, the segments are not copied.
+     * The stream holds on to the segments until it is closed so it stays valid after
+     * this output stream is closed.
+     */
+    public InputStream createInputStream() {
+        if (!segments.retain()) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        return new SegmentInputStream(segments, segments.buffers.toArray(new ByteBuffer[0]), size);
+    }
+
+    @Override
+    public int size() {
+        return segments.isReleased() ? 0 : size;
+    }
+
+    /**
+     * Releases the segments held by this stream, the stream is empty afterwards.
+     */
+    @Override
+    public void reset() {
+        segments.releaseOwner();
+        segments = new Segments(pool);
+        current = null;
+        size = 0;
+    }
+
+    /**
+     * Keeps the content so that it can still be read. The segments go back to the pool
+     * once the InputStreams created from this stream have been closed, or on reset.
+     */
+    @Override
+    public void close() {
+        segments.closeOwner();
+    }
+
+    @Override
+    public String toString() {
+        return new String(toByteArray());
+    }
+
+    @Override
+    public String toString(String charsetName) throws UnsupportedEncodingException {
+        return new String(toByteArray(), charsetName);
+    }
+
+    public String toString(Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    /**
+     * The segments shared by the output stream and the input streams created from it.
+     * They are returned to the pool once the last of them lets go.
+     */
+    private static final class Segments {
+        final List<ByteBuffer> buffers = new ArrayList<>(4);
+        // one reference is held by the output stream, one by each open InputStream
+        final AtomicInteger refs = new AtomicInteger(1);
+        final AtomicBoolean ownerHeld = new AtomicBoolean(true);
+        final ByteBufferPool pool;
+        volatile boolean ownerClosed;
+        volatile boolean handedOut;
+
+        Segments(ByteBufferPool pool) {
+            this.pool = pool;
+        }
+
+        boolean retain() {
+            int r = refs.get();
+            while (r > 0) {
+                if (refs.compareAndSet(r, r + 1)) {
+                    handedOut = true;
+                    return true;
+                }
+                r = refs.get();
+            }
+            return false;
+        }
+
+        boolean isReleased() {
+            return refs.get() == 0;
+        }
+
+        void closeOwner() {
+            ownerClosed = true;
+            releaseOwnerIfUnused();
+        }
+
+        /**
+         * Called when an InputStream is closed, releases the segments if the output stream
+         * was closed and this was the last InputStream
+         */
+        void releaseStream() {
+            release();
+            releaseOwnerIfUnused();
+        }
+
+        private void releaseOwnerIfUnused() {
+            if (ownerClosed && handedOut && refs.get() == 1) {
+                releaseOwner();
+            }
+        }
+
+        void releaseOwner() {
+            if (ownerHeld.compareAndSet(true, false)) {
+                release();
+            }
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                for (ByteBuffer bb : buffers) {
+                    pool.release(bb);
+                }
+                buffers.clear();
+            }
+        }
+    }
+
+    private static final class SegmentInputStream extends InputStream {
+        private Segments segments;
+        private final ByteBuffer[] buffers;
+        private int index;
+        private ByteBuffer view;
+        private int remaining;
+        private int markIndex;
+        private int markPosition;
+        private int markRemaining;
+
+        SegmentInputStream(Segments segments, ByteBuffer[] buffers, int size) {
+            this.segments = segments;
+            this.buffers = buffers;
+            this.remaining = size;
+            this.index = -1;
+        }
+
+        private boolean ensureView() {
+            if (remaining <= 0) {
+                return false;
+            }
+            if (view == null || !view.hasRemaining()) {
+                index++;
+                ByteBuffer bb = buffers[index];
+                view = (ByteBuffer)bb.duplicate().clear().limit(Math.min(remaining, bb.capacity()));
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (segments == null) {
+                throw new IOException("Stream closed");
+            }
+            if (!ensureView()) {
+                return -1;
+            }
+            remaining--;
+            return view.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (segments == null) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int total = 0;
+            while (len > 0 && ensureView()) {
+                int n = Math.min(len, view.remaining());
+                view.get(b, off, n);
+                off += n;
+                len -= n;
+                total += n;
+                remaining -= n;
+            }
+            return total == 0 ? -1 : total;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (n > 0 && ensureView()) {
+                int k = (int)Math.min(n, view.remaining());
+                view.position(view.position() + k);
+                n -= k;
+                skipped += k;
+                remaining -= k;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return Math.max(remaining, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            markIndex = index;
+            markPosition = view == null ? 0 : view.position();
+            markRemaining = remaining;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            if (segments == null) {
+                throw new IOException("Stream closed");
+            }
+            index = markIndex;
+            remaining = markRemaining;
+            if (index < 0) {
+                view = null;
+            } else {
+                ByteBuffer bb = buffers[index];
+                view = (ByteBuffer)bb.duplicate().clear()
+                    .limit(Math.min(markPosition + remaining, bb.capacity())).position(markPosition);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (segments != null) {
+                segments.releaseStream();
+                segments = null;
+            }
+        }
+    }
+}
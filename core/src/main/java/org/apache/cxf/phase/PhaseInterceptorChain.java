@@ -20,6 +20,7 @@
 package org.apache.cxf.phase;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -61,6 +62,12 @@ import org.apache.cxf.transport.MessageObserver;
  * has an ID. PhaseInterceptors can supply a Collection of IDs which they
  * should run before or after, supplying fine grained ordering.
  * <p>
+ * The interceptors are kept in a flat array ordered by phase. Chains obtained
+ * via {@link #cloneChain()} share that array with the original chain and only
+ * carry their own cursor, the array is copied the first time one of them is
+ * modified (e.g. an interceptor adding an ending interceptor while the chain
+ * executes).
+ * <p>
  *
  */
 public class PhaseInterceptorChain implements InterceptorChain {
@@ -70,13 +77,18 @@ public class PhaseInterceptorChain implements InterceptorChain {
 
     private static final ThreadLocal<Message> CURRENT_MESSAGE = new ThreadLocal<>();
 
+    private static final PhaseInterceptor<?>[] EMPTY = new PhaseInterceptor<?>[0];
+
     private final Map<String, Integer> nameMap;
     private final Phase[] phases;
 
-    // heads[phase] refers to the first interceptor of the given phase
-    private InterceptorHolder[] heads;
-    // tails[phase] refers to the last interceptor of the given phase
-    private InterceptorHolder[] tails;
+    // interceptors[0 .. size) holds the interceptors in execution order, the
+    // interceptors of a phase are stored next to each other
+    private PhaseInterceptor<?>[] interceptors;
+    private int size;
+    // phaseEnds[phase] is the index following the last interceptor of the given phase,
+    // the interceptors of the phase start at phaseEnds[phase - 1] (or at 0)
+    private int[] phaseEnds;
     // hasAfters[phase] indicates that the given phase has already inserted
     // interceptors that may need to be placed after future to-be-inserted
     // interceptors.  This flag is used to activate ordering of interceptors
@@ -84,12 +96,15 @@ public class PhaseInterceptorChain implements InterceptorChain {
     // Note no hasBefores[] is needed because implementation adds subsequent
     // interceptors to the end of the list by default.
     private boolean[] hasAfters;
+    // the arrays above are shared with cloned chains or snapshot iterators,
+    // they must be copied before they are modified
+    private boolean shared;
 
 
     private State state;
     private Message pausedMessage;
     private MessageObserver faultObserver;
-    private PhaseInterceptorIterator iterator;
+    private ChainCursor iterator;
     private final boolean isFineLogging;
 
     // currently one chain for one request/response, use below as signal
@@ -109,31 +124,13 @@ public class PhaseInterceptorChain implements InterceptorChain {
         nameMap = src.nameMap;
         phases = src.phases;
 
-        int length = phases.length;
-        hasAfters = new boolean[length];
-        System.arraycopy(src.hasAfters, 0, hasAfters, 0, length);
-
-        heads = new InterceptorHolder[length];
-        tails = new InterceptorHolder[length];
-
-        InterceptorHolder last = null;
-        for (int x = 0; x < length; x++) {
-            InterceptorHolder ih = src.heads[x];
-            while (ih != null
-                && ih.phaseIdx == x) {
-                InterceptorHolder ih2 = new InterceptorHolder(ih);
-                ih2.prev = last;
-                if (last != null) {
-                    last.next = ih2;
-                }
-                if (heads[x] == null) {
-                    heads[x] = ih2;
-                }
-                tails[x] = ih2;
-                last = ih2;
-                ih = ih.next;
-            }
-        }
+        //copied on write by either chain
+        src.shared = true;
+        shared = true;
+        interceptors = src.interceptors;
+        size = src.size;
+        phaseEnds = src.phaseEnds;
+        hasAfters = src.hasAfters;
     }
 
     public PhaseInterceptorChain(SortedSet<Phase> ps) {
@@ -144,8 +141,8 @@ public class PhaseInterceptorChain implements InterceptorChain {
         phases = new Phase[numPhases];
         nameMap = new HashMap<>();
 
-        heads = new InterceptorHolder[numPhases];
-        tails = new InterceptorHolder[numPhases];
+        interceptors = EMPTY;
+        phaseEnds = new int[numPhases];
         hasAfters = new boolean[numPhases];
 
         int idx = 0;
@@ -204,7 +201,7 @@ public class PhaseInterceptorChain implements InterceptorChain {
 
     private void updateIterator() {
         if (iterator == null) {
-            iterator = new PhaseInterceptorIterator(heads);
+            iterator = new ChainCursor();
             outputChainToLog(false);
         }
     }
@@ -507,11 +504,9 @@ public class PhaseInterceptorChain implements InterceptorChain {
     }
 
     public void remove(Interceptor<? extends Message> i) {
-        PhaseInterceptorIterator it = new PhaseInterceptorIterator(heads);
-        while (it.hasNext()) {
-            InterceptorHolder holder = it.nextInterceptorHolder();
-            if (holder.interceptor == i) {
-                remove(holder);
+        for (int x = 0; x < size; x++) {
+            if (interceptors[x] == i) {
+                removeAt(x);
                 return;
             }
         }
@@ -525,76 +520,64 @@ public class PhaseInterceptorChain implements InterceptorChain {
         return getIterator();
     }
     public ListIterator<Interceptor<? extends Message>> getIterator() {
-        return new PhaseInterceptorIterator(heads);
+        shared = true;
+        return new PhaseInterceptorIterator(interceptors, size);
     }
 
-    private void remove(InterceptorHolder i) {
-        if (i.prev != null) {
-            i.prev.next = i.next;
+    private int getPhaseStart(int phase) {
+        return phase == 0 ? 0 : phaseEnds[phase - 1];
+    }
+
+    private void ensureWritable(int extra) {
+        if (shared) {
+            interceptors = Arrays.copyOf(interceptors, size + Math.max(extra, 4));
+            phaseEnds = phaseEnds.clone();
+            hasAfters = hasAfters.clone();
+            shared = false;
+        } else if (size + extra > interceptors.length) {
+            interceptors = Arrays.copyOf(interceptors, Math.max(size + extra, interceptors.length * 2));
         }
-        if (i.next != null) {
-            i.next.prev = i.prev;
+    }
+
+    private void removeAt(int idx) {
+        int phase = 0;
+        while (phaseEnds[phase] <= idx) {
+            ++phase;
         }
-        int ph = i.phaseIdx;
-        if (heads[ph] == i) {
-            if (i.next != null
-                && i.next.phaseIdx == ph) {
-                heads[ph] = i.next;
-            } else {
-                heads[ph] = null;
-                tails[ph] = null;
-            }
+        ensureWritable(0);
+        System.arraycopy(interceptors, idx + 1, interceptors, idx, size - idx - 1);
+        interceptors[--size] = null;
+        for (int x = phase; x < phaseEnds.length; x++) {
+            --phaseEnds[x];
         }
-        if (tails[ph] == i) {
-            if (i.prev != null
-                && i.prev.phaseIdx == ph) {
-                tails[ph] = i.prev;
-            } else {
-                heads[ph] = null;
-                tails[ph] = null;
-            }
+        if (iterator != null && iterator.cursor > idx) {
+            --iterator.cursor;
+        }
+    }
+
+    private void insertAt(int phase, int idx, PhaseInterceptor<? extends Message> interc) {
+        System.arraycopy(interceptors, idx, interceptors, idx + 1, size - idx);
+        interceptors[idx] = interc;
+        ++size;
+        for (int x = phase; x < phaseEnds.length; x++) {
+            ++phaseEnds[x];
+        }
+        // keep the currently executing interceptor, anything inserted
+        // before it is not invoked anymore
+        if (iterator != null && iterator.cursor > idx) {
+            ++iterator.cursor;
         }
     }
 
     private void insertInterceptor(int phase, PhaseInterceptor<? extends Message> interc, boolean force) {
-        InterceptorHolder ih = new InterceptorHolder(interc, phase);
-        if (heads[phase] == null) {
+        int start = getPhaseStart(phase);
+        int end = phaseEnds[phase];
+        int idx;
+        if (start == end) {
             // no interceptors yet in this phase
-            heads[phase] = ih;
-            tails[phase] = ih;
+            ensureWritable(1);
             hasAfters[phase] = !interc.getAfter().isEmpty();
-
-            int idx = phase - 1;
-            while (idx >= 0) {
-                if (tails[idx] != null) {
-                    break;
-                }
-                --idx;
-            }
-            if (idx >= 0) {
-                //found something before us, in an earlier phase
-                ih.prev = tails[idx];
-                ih.next = tails[idx].next;
-                if (ih.next != null) {
-                    ih.next.prev = ih;
-                }
-                tails[idx].next = ih;
-            } else {
-                //did not find something before us, try after
-                idx = phase + 1;
-                while (idx < heads.length) {
-                    if (heads[idx] != null) {
-                        break;
-                    }
-                    ++idx;
-                }
-
-                if (idx != heads.length) {
-                    //found something after us
-                    ih.next = heads[idx];
-                    heads[idx].prev = ih;
-                }
-            }
+            idx = start;
         } else { // this phase already has interceptors attached
 
             // list of interceptors that the new interceptor should precede
@@ -603,86 +586,64 @@ public class PhaseInterceptorChain implements InterceptorChain {
             // list of interceptors that the new interceptor should be after
             Set<String> afterList = interc.getAfter();
 
-            // firstBefore will hold the first interceptor of a given phase
+            // firstBefore will hold the index of the first interceptor of a given phase
             // that the interceptor to be added must precede
-            InterceptorHolder firstBefore = null;
+            int firstBefore = -1;
 
-            // lastAfter will hold the last interceptor of a given phase
+            // lastAfter will hold the index of the last interceptor of a given phase
             // that the interceptor to be added must come after
-            InterceptorHolder lastAfter = null;
+            int lastAfter = -1;
 
             String id = interc.getId();
             if (hasAfters[phase] || !beforeList.isEmpty()) {
 
-                InterceptorHolder ih2 = heads[phase];
-                while (ih2 != tails[phase].next) {
-                    PhaseInterceptor<? extends Message> cmp = ih2.interceptor;
+                for (int x = start; x < end; x++) {
+                    PhaseInterceptor<?> cmp = interceptors[x];
                     String cmpId = cmp.getId();
-                    if (cmpId != null && firstBefore == null
+                    if (cmpId != null && firstBefore == -1
                         && (beforeList.contains(cmpId)
                             || cmp.getAfter().contains(id))) {
-                        firstBefore = ih2;
+                        firstBefore = x;
                     }
                     if (cmp.getBefore().contains(id)
                         || (cmpId != null && afterList.contains(cmpId))) {
-                        lastAfter = ih2;
+                        lastAfter = x;
                     }
                     if (!force && cmpId.equals(id)) {
                         // interceptor is already in chain
                         return;
                     }
-                    ih2 = ih2.next;
                 }
-                if (lastAfter == null && beforeList.contains("*")) {
-                    firstBefore = heads[phase];
+                if (lastAfter == -1 && beforeList.contains("*")) {
+                    firstBefore = start;
                 }
-                
+
             } else if (!force) {
                 // skip interceptor if already in chain
-                InterceptorHolder ih2 = heads[phase];
-                while (ih2 != tails[phase].next) {
-                    if (ih2.interceptor.getId().equals(id)) {
+                for (int x = start; x < end; x++) {
+                    if (interceptors[x].getId().equals(id)) {
                         return;
                     }
-                    ih2 = ih2.next;
                 }
 
             }
+            ensureWritable(1);
             hasAfters[phase] |= !afterList.isEmpty();
 
-            if (firstBefore == null
-                && lastAfter == null
+            if (firstBefore == -1
+                && lastAfter == -1
                 && !beforeList.isEmpty()
                 && afterList.isEmpty()) {
                 //if this interceptor has stuff it MUST be before,
                 //but nothing it must be after, just
                 //stick it at the beginning
-                firstBefore = heads[phase];
+                firstBefore = start;
             }
 
-            if (firstBefore == null) {
-                //just add new interceptor at the end
-                ih.prev = tails[phase];
-                ih.next = tails[phase].next;
-                tails[phase].next = ih;
-
-                if (ih.next != null) {
-                    ih.next.prev = ih;
-                }
-                tails[phase] = ih;
-            } else {
-                ih.prev = firstBefore.prev;
-                if (ih.prev != null) {
-                    ih.prev.next = ih;
-                }
-                ih.next = firstBefore;
-                firstBefore.prev = ih;
-
-                if (heads[phase] == firstBefore) {
-                    heads[phase] = ih;
-                }
-            }
+            //without a position just add new interceptor at the end
+            idx = firstBefore == -1 ? end : firstBefore;
         }
+        insertAt(phase, idx, interc);
         if (iterator != null) {
             outputChainToLog(true);
         }
@@ -700,7 +661,7 @@ public class PhaseInterceptorChain implements InterceptorChain {
             .append(". Current flow:\n");
 
         for (int x = 0; x < phases.length; x++) {
-            if (heads[x] != null) {
+            if (getPhaseStart(x) != phaseEnds[x]) {
                 chain.append("  ");
                 printPhase(x, chain);
             }
@@ -711,20 +672,15 @@ public class PhaseInterceptorChain implements InterceptorChain {
 
         chain.append(phases[ph].getName())
             .append(" [");
-        InterceptorHolder i = heads[ph];
-        boolean first = true;
-        while (i != tails[ph].next) {
-            if (first) {
-                first = false;
-            } else {
+        for (int x = getPhaseStart(ph); x < phaseEnds[ph]; x++) {
+            if (x != getPhaseStart(ph)) {
                 chain.append(", ");
             }
-            String nm = i.interceptor.getClass().getSimpleName();
+            String nm = interceptors[x].getClass().getSimpleName();
             if (StringUtils.isEmpty(nm)) {
-                nm = i.interceptor.getId();
+                nm = interceptors[x].getId();
             }
             chain.append(nm);
-            i = i.next;
         }
         chain.append("]\n");
     }
@@ -747,84 +703,43 @@ public class PhaseInterceptorChain implements InterceptorChain {
         this.faultObserver = faultObserver;
     }
 
-    static final class PhaseInterceptorIterator implements ListIterator<Interceptor<? extends Message>> {
-        InterceptorHolder[] heads;
-        InterceptorHolder prev;
-        InterceptorHolder first;
-
-        PhaseInterceptorIterator(InterceptorHolder[] h) {
-            heads = h;
-            first = findFirst();
-        }
+    /**
+     * The position of the chain while executing, it always works on the current
+     * interceptors of the chain so it picks up interceptors added while executing.
+     */
+    final class ChainCursor implements ListIterator<Interceptor<? extends Message>> {
+        int cursor;
 
         public void reset() {
-            prev = null;
-            first = findFirst();
+            cursor = 0;
         }
 
-        private InterceptorHolder findFirst() {
-            for (int x = 0; x < heads.length; x++) {
-                if (heads[x] != null) {
-                    return heads[x];
-                }
-            }
-            return null;
-        }
-
-
         public boolean hasNext() {
-            if (prev == null) {
-                return first != null;
-            }
-            return prev.next != null;
+            return cursor < size;
         }
 
         public Interceptor<? extends Message> next() {
-            if (prev == null) {
-                if (first == null) {
-                    throw new NoSuchElementException();
-                }
-                prev = first;
-            } else {
-                if (prev.next == null) {
-                    throw new NoSuchElementException();
-                }
-                prev = prev.next;
-            }
-            return prev.interceptor;
-        }
-        public InterceptorHolder nextInterceptorHolder() {
-            if (prev == null) {
-                if (first == null) {
-                    throw new NoSuchElementException();
-                }
-                prev = first;
-            } else {
-                if (prev.next == null) {
-                    throw new NoSuchElementException();
-                }
-                prev = prev.next;
+            if (cursor >= size) {
+                throw new NoSuchElementException();
             }
-            return prev;
+            return (Interceptor<? extends Message>)interceptors[cursor++];
         }
 
         public boolean hasPrevious() {
-            return prev != null;
+            return cursor > 0;
         }
         public Interceptor<? extends Message> previous() {
-            if (prev == null) {
+            if (cursor == 0) {
                 throw new NoSuchElementException();
             }
-            InterceptorHolder tmp = prev;
-            prev = prev.prev;
-            return tmp.interceptor;
+            return (Interceptor<? extends Message>)interceptors[--cursor];
         }
 
         public int nextIndex() {
-            throw new UnsupportedOperationException();
+            return cursor;
         }
         public int previousIndex() {
-            throw new UnsupportedOperationException();
+            return cursor - 1;
         }
         public void add(Interceptor<? extends Message> o) {
             throw new UnsupportedOperationException();
@@ -837,20 +752,54 @@ public class PhaseInterceptorChain implements InterceptorChain {
         }
     }
 
+    /**
+     * Iterates over the interceptors the chain had when the iterator was created.
+     */
+    static final class PhaseInterceptorIterator implements ListIterator<Interceptor<? extends Message>> {
+        final PhaseInterceptor<?>[] interceptors;
+        final int size;
+        int cursor;
+
+        PhaseInterceptorIterator(PhaseInterceptor<?>[] interceptors, int size) {
+            this.interceptors = interceptors;
+            this.size = size;
+        }
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public Interceptor<? extends Message> next() {
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            return (Interceptor<? extends Message>)interceptors[cursor++];
+        }
 
-    static final class InterceptorHolder {
-        PhaseInterceptor<? extends Message> interceptor;
-        InterceptorHolder next;
-        InterceptorHolder prev;
-        int phaseIdx;
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+        public Interceptor<? extends Message> previous() {
+            if (cursor == 0) {
+                throw new NoSuchElementException();
+            }
+            return (Interceptor<? extends Message>)interceptors[--cursor];
+        }
 
-        InterceptorHolder(PhaseInterceptor<? extends Message> i, int p) {
-            interceptor = i;
-            phaseIdx = p;
+        public int nextIndex() {
+            return cursor;
+        }
+        public int previousIndex() {
+            return cursor - 1;
+        }
+        public void add(Interceptor<? extends Message> o) {
+            throw new UnsupportedOperationException();
         }
-        InterceptorHolder(InterceptorHolder p) {
-            interceptor = p.interceptor;
-            phaseIdx = p.phaseIdx;
+        public void set(Interceptor<? extends Message> o) {
+            throw new UnsupportedOperationException();
+        }
+        public void remove() {
+            throw new UnsupportedOperationException();
         }
     }
 
@@ -31,8 +31,11 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +81,12 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     boolean shared;
     int sharedCount;
 
+    boolean virtualThreads;
+    volatile ExecutorService virtualExecutor;
+    volatile QueuePermits permits;
+    final AtomicInteger runningCount = new AtomicInteger();
+    final AtomicInteger largestRunningCount = new AtomicInteger();
+
     private List<PropertyChangeListener> changeListenerList;
 
     public AutomaticWorkQueueImpl() {
@@ -149,6 +158,58 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         return sharedCount;
     }
 
+    /**
+     * Runs every task on its own virtual thread (JDK 21+) instead of using a
+     * pool of platform threads. The queue size then limits the number of tasks
+     * that may be in progress at the same time and the water marks are not used.
+     * Falls back to the thread pool if virtual threads are not available.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns the executor running the tasks on virtual threads or null if the
+     * virtual thread mode is off or not supported by the JVM.
+     */
+    protected ExecutorService getVirtualExecutor() {
+        ExecutorService vex = virtualExecutor;
+        if (vex == null && virtualThreads) {
+            synchronized (this) {
+                vex = virtualExecutor;
+                if (vex == null && virtualThreads) {
+                    vex = createVirtualThreadExecutor(name);
+                    if (vex == null) {
+                        LOG.log(Level.WARNING, "VIRTUAL_THREADS_NOT_SUPPORTED_MSG", name);
+                        virtualThreads = false;
+                    } else {
+                        permits = new QueuePermits(maxQueueSize);
+                        virtualExecutor = vex;
+                    }
+                }
+            }
+        }
+        return vex;
+    }
+
+    protected ExecutorService createVirtualThreadExecutor(String nm) {
+        try {
+            // Thread.ofVirtual().name(nm + "-workqueue-", 1).factory(), reflectively as CXF builds on Java 8
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderCls = Class.forName("java.lang.Thread$Builder");
+            builder = builderCls.getMethod("name", String.class, Long.TYPE)
+                .invoke(builder, nm + "-workqueue-", 1L);
+            ThreadFactory factory = (ThreadFactory)builderCls.getMethod("factory").invoke(builder);
+            return (ExecutorService)Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
     protected synchronized ThreadPoolExecutor getExecutor() {
         if (executor == null) {
             threadFactory = createThreadFactory(name);
@@ -322,6 +383,22 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         }
 
     }
+    /**
+     * Admission permits for the virtual thread mode which can be resized with the queue size.
+     */
+    static class QueuePermits extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        QueuePermits(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
     class AWQThreadFactory implements ThreadFactory {
         final AtomicInteger threadNumber = new AtomicInteger(1);
         ThreadGroup group;
@@ -402,6 +479,14 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     }
 
     public void execute(final Runnable command) {
+        ExecutorService vex = getVirtualExecutor();
+        if (vex != null) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Work queue " + name + " is full");
+            }
+            executeOnVirtualThread(vex, command);
+            return;
+        }
         //Grab the context classloader of this thread.   We'll make sure we use that
         //on the thread the runnable actually runs on.
 
@@ -451,8 +536,50 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         }
     }
 
+    private void executeOnVirtualThread(ExecutorService vex, final Runnable command) {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Runnable r = new Runnable() {
+            public void run() {
+                int running = runningCount.incrementAndGet();
+                int largest = largestRunningCount.get();
+                while (running > largest && !largestRunningCount.compareAndSet(largest, running)) {
+                    largest = largestRunningCount.get();
+                }
+                ClassLoaderHolder orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+                try {
+                    command.run();
+                } finally {
+                    if (orig != null) {
+                        orig.reset();
+                    }
+                    runningCount.decrementAndGet();
+                    permits.release();
+                }
+            }
+        };
+        try {
+            vex.execute(r);
+        } catch (RejectedExecutionException ree) {
+            permits.release();
+            throw ree;
+        }
+    }
+
     // WorkQueue interface
     public void execute(Runnable work, long timeout) {
+        ExecutorService vex = getVirtualExecutor();
+        if (vex != null) {
+            try {
+                if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new RejectedExecutionException("Work queue " + name + " is full");
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(ie);
+            }
+            executeOnVirtualThread(vex, work);
+            return;
+        }
         try {
             execute(work);
         } catch (RejectedExecutionException ree) {
@@ -479,6 +606,18 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     // AutomaticWorkQueue interface
 
     public void shutdown(boolean processRemainingWorkItems) {
+        if (virtualExecutor != null) {
+            if (processRemainingWorkItems) {
+                virtualExecutor.shutdown();
+            } else {
+                virtualExecutor.shutdownNow();
+            }
+            synchronized (this) {
+                if (watchDog != null) {
+                    watchDog.shutdown();
+                }
+            }
+        }
         if (executor != null) {
             if (!processRemainingWorkItems) {
                 executor.getQueue().clear();
@@ -501,15 +640,24 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
      * @return the current size of the backing queue.
      */
     public long getSize() {
+        if (permits != null) {
+            return maxQueueSize - permits.availablePermits();
+        }
         return executor == null ? 0 : executor.getQueue().size();
     }
 
 
     public boolean isEmpty() {
+        if (permits != null) {
+            return permits.availablePermits() == maxQueueSize;
+        }
         return executor == null || executor.getQueue().isEmpty();
     }
 
     public boolean isFull() {
+        if (permits != null) {
+            return permits.availablePermits() <= 0;
+        }
         return executor != null && executor.getQueue().remainingCapacity() == 0;
     }
 
@@ -552,7 +700,20 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
 
     public void setQueueSize(int size) {
         notifyChangeListeners(new PropertyChangeEvent(this, "queueSize", this.maxQueueSize, size));
+        resizeQueue(size);
+    }
+
+    private synchronized void resizeQueue(int size) {
+        int delta = size - maxQueueSize;
         this.maxQueueSize = size;
+        // tasks already admitted keep running, new ones are only admitted once enough have completed
+        if (permits != null) {
+            if (delta > 0) {
+                permits.release(delta);
+            } else if (delta < 0) {
+                permits.reducePermits(-delta);
+            }
+        }
     }
 
     public void setDequeueTimeout(long l) {
@@ -561,24 +722,36 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     }
 
     public boolean isShutdown() {
+        if (virtualExecutor != null) {
+            return virtualExecutor.isShutdown();
+        }
         if (executor == null) {
             return false;
         }
         return executor.isShutdown();
     }
     public int getLargestPoolSize() {
+        if (virtualExecutor != null) {
+            return largestRunningCount.get();
+        }
         if (executor == null) {
             return 0;
         }
         return executor.getLargestPoolSize();
     }
     public int getPoolSize() {
+        if (virtualExecutor != null) {
+            return runningCount.get();
+        }
         if (executor == null) {
             return 0;
         }
         return executor.getPoolSize();
     }
     public int getActiveCount() {
+        if (virtualExecutor != null) {
+            return runningCount.get();
+        }
         if (executor == null) {
             return 0;
         }
@@ -603,18 +776,25 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         }
         s = config.get("queueSize");
         if (s != null) {
-            this.maxQueueSize = Integer.parseInt(s);
+            resizeQueue(Integer.parseInt(s));
+        }
+        s = config.get("virtualThreads");
+        if (s != null) {
+            this.virtualThreads = Boolean.parseBoolean(s);
         }
     }
     public Dictionary<String, String> getProperties() {
         Dictionary<String, String> properties = new Hashtable<>();
         NumberFormat nf = NumberFormat.getIntegerInstance();
-        properties.put("name", nf.format(getName()));
+        // the values are passed back to update(), which does not accept grouping separators
+        nf.setGroupingUsed(false);
+        properties.put("name", getName());
         properties.put("highWaterMark", nf.format(getHighWaterMark()));
         properties.put("lowWaterMark", nf.format(getLowWaterMark()));
-        properties.put("initialSize", nf.format(getLowWaterMark()));
-        properties.put("dequeueTimeout", nf.format(getLowWaterMark()));
-        properties.put("queueSize", nf.format(getLowWaterMark()));
+        properties.put("initialSize", nf.format(getInitialSize()));
+        properties.put("dequeueTimeout", nf.format(dequeueTimeout));
+        properties.put("queueSize", nf.format(getMaxSize()));
+        properties.put("virtualThreads", Boolean.toString(isVirtualThreads()));
         return properties;
     }
 }
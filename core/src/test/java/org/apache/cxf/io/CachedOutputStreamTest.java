@@ -20,20 +20,28 @@ package org.apache.cxf.io;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
 import org.apache.cxf.attachment.AttachmentUtil;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CachedOutputStreamTest extends CachedStreamTestBase {
 
@@ -42,6 +50,7 @@ public class CachedOutputStreamTest extends CachedStreamTestBase {
         CachedOutputStream.setDefaultThreshold(-1);
         CachedOutputStream.setDefaultMaxSize(-1);
         CachedOutputStream.setDefaultCipherTransformation(null);
+        CachedOutputStream.setDefaultMappedSpill(null);
     }
 
     @Override
@@ -127,5 +136,158 @@ public class CachedOutputStreamTest extends CachedStreamTestBase {
             }
         }
     }
-}
 
+    @Test
+    public void testPooledBuffers() throws Exception {
+        Bus oldbus = BusFactory.getThreadDefaultBus(false);
+        Bus bus = new ExtensionManagerBus();
+        try {
+            reloadDefaultProperties();
+            bus.setProperty(CachedConstants.BUFFER_POOL_BUS_PROP, "heap");
+            bus.setProperty(CachedConstants.BUFFER_POOL_SEGMENT_SIZE_BUS_PROP, "1024");
+            BusFactory.setThreadDefaultBus(bus);
+
+            String result = initTestData(10);
+            CachedOutputStream cos = new CachedOutputStream();
+            assertTrue(cos.getOut() instanceof PooledByteBufferOutputStream);
+            DefaultByteBufferPool pool = (DefaultByteBufferPool)bus.getProperty(CachedConstants.BUFFER_POOL_BUS_PROP);
+
+            cos.write(result.getBytes(StandardCharsets.UTF_8));
+            assertEquals(result, new String(cos.getBytes(), StandardCharsets.UTF_8));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            cos.writeCacheTo(out);
+            assertEquals(result, out.toString(StandardCharsets.UTF_8.name()));
+
+            InputStream in = cos.getInputStream();
+            cos.close();
+            // the open InputStream still holds on to the segments
+            assertEquals(0, pool.getPooledCount());
+            assertEquals(result, readFromStream(in));
+            assertEquals(10, pool.getPooledCount());
+
+            // the next stream of the bus reuses the same pool and its segments
+            cos = new CachedOutputStream();
+            assertSame(pool, ((PooledByteBufferOutputStream)cos.getOut()).getPool());
+            cos.write(result.getBytes(StandardCharsets.UTF_8));
+            assertEquals(0, pool.getPooledCount());
+            assertEquals(10, pool.getAllocatedCount());
+            cos.close();
+            // closing keeps the content until the InputStream read after it is closed
+            assertEquals(0, pool.getPooledCount());
+            assertEquals(result, readFromStream(cos.getInputStream()));
+            assertEquals(10, pool.getPooledCount());
+        } finally {
+            BusFactory.setThreadDefaultBus(oldbus);
+            bus.shutdown(true);
+        }
+    }
+
+    @Test
+    public void testPooledBuffersReadAfterClose() throws Exception {
+        Bus oldbus = BusFactory.getThreadDefaultBus(false);
+        Bus bus = new ExtensionManagerBus();
+        try {
+            reloadDefaultProperties();
+            DefaultByteBufferPool pool = new DefaultByteBufferPool(4, 16, false);
+            bus.setProperty(CachedConstants.BUFFER_POOL_BUS_PROP, pool);
+            BusFactory.setThreadDefaultBus(bus);
+
+            CachedOutputStream cos = new CachedOutputStream();
+            cos.write("Hello World".getBytes(StandardCharsets.UTF_8));
+            cos.close();
+
+            assertEquals(11, cos.size());
+            assertEquals("Hello World", new String(cos.getBytes(), StandardCharsets.UTF_8));
+            assertTrue(cos.toString().contains("Content: Hello World"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            cos.writeCacheTo(out);
+            assertEquals("Hello World", out.toString(StandardCharsets.UTF_8.name()));
+            assertEquals(0, pool.getPooledCount());
+
+            InputStream in = cos.getInputStream();
+            InputStream in2 = cos.getInputStream();
+            assertEquals("Hello World", readFromStream(in));
+            // the second stream still holds on to the segments
+            assertEquals(0, pool.getPooledCount());
+            assertEquals("Hello World", readFromStream(in2));
+            assertEquals(3, pool.getPooledCount());
+        } finally {
+            BusFactory.setThreadDefaultBus(oldbus);
+            bus.shutdown(true);
+        }
+    }
+
+    @Test
+    public void testPooledBuffersSpillToFile() throws Exception {
+        Bus oldbus = BusFactory.getThreadDefaultBus(false);
+        Bus bus = new ExtensionManagerBus();
+        try {
+            reloadDefaultProperties();
+            DefaultByteBufferPool pool = new DefaultByteBufferPool(1024, 16, true);
+            bus.setProperty(CachedConstants.BUFFER_POOL_BUS_PROP, pool);
+            BusFactory.setThreadDefaultBus(bus);
+
+            CachedOutputStream cos = new CachedOutputStream();
+            cos.setThreshold(4096);
+            String result = initTestData(8);
+            byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+            cos.write(bytes, 0, 3072);
+            assertNull("expects no tmp file", cos.getTempFile());
+            cos.write(bytes, 3072, bytes.length - 3072);
+            File tmpfile = cos.getTempFile();
+            assertNotNull("expects a tmp file", tmpfile);
+            // the segments are given back once the content is moved to the file
+            assertEquals(3, pool.getPooledCount());
+            assertEquals(result, readFromStream(cos.getInputStream()));
+            cos.close();
+            assertFalse("expects no tmp file", tmpfile.exists());
+        } finally {
+            BusFactory.setThreadDefaultBus(oldbus);
+            bus.shutdown(true);
+        }
+    }
+
+    @Test
+    public void testMappedSpill() throws Exception {
+        reloadDefaultProperties();
+        String result = initTestData(16);
+        CachedOutputStream cos = new CachedOutputStream();
+        cos.setThreshold(4096);
+        cos.setMappedSpill(true);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        File tmpfile = cos.getTempFile();
+        assertNotNull("expects a tmp file", tmpfile);
+
+        assertEquals(result, new String(cos.getBytes(), StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        cos.writeCacheTo(sb);
+        assertEquals(result, sb.toString());
+
+        // written with FileChannel.transferTo
+        File copy = File.createTempFile("cos", "copy");
+        try {
+            try (FileOutputStream out = new FileOutputStream(copy)) {
+                cos.writeCacheTo(out);
+            }
+            assertEquals(result, new String(Files.readAllBytes(copy.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            copy.delete();
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        cos.writeCacheTo(bout);
+        assertEquals(result, bout.toString(StandardCharsets.UTF_8.name()));
+
+        InputStream in = cos.getInputStream();
+        assertTrue(in instanceof Transferable);
+        cos.close();
+        assertTrue("file is deleted", tmpfile.exists());
+        assertEquals(result, readFromStream(in));
+        assertFalse("file is not deleted", tmpfile.exists());
+        try {
+            in.read();
+            fail("the mapping is released on close");
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+}
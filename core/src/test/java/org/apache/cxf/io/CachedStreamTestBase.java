@@ -238,6 +238,8 @@ public abstract class CachedStreamTestBase {
             EasyMock.expect(b.getProperty(CachedConstants.CIPHER_TRANSFORMATION_BUS_PROP)).andReturn(null);
             Path tmpDirPath = Files.createTempDirectory("temp-dir");
             EasyMock.expect(b.getProperty(CachedConstants.OUTPUT_DIRECTORY_BUS_PROP)).andReturn(tmpDirPath.toString());
+            EasyMock.expect(b.getProperty(CachedConstants.MAPPED_SPILL_BUS_PROP)).andReturn(null);
+            EasyMock.expect(b.getProperty(CachedConstants.BUFFER_POOL_BUS_PROP)).andReturn(null).anyTimes();
 
             BusFactory.setThreadDefaultBus(b);
 
@@ -291,7 +293,7 @@ public abstract class CachedStreamTestBase {
         }
     }
 
-    private static String initTestData(int packetSize) {
+    protected static String initTestData(int packetSize) {
         String temp = "abcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+?><[]/0123456789";
         String result = new String();
         for (int i = 0; i <  1024 * packetSize / temp.length(); i++) {
@@ -23,12 +23,20 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringWriter;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
 public class CachedWriterTest extends CachedStreamTestBase {
     @Override
     protected void reloadDefaultProperties() {
         CachedWriter.setDefaultThreshold(-1);
         CachedWriter.setDefaultMaxSize(-1);
         CachedWriter.setDefaultCipherTransformation(null);
+        CachedWriter.setDefaultMappedSpill(null);
     }
 
     @Override
@@ -81,6 +89,27 @@ public class CachedWriterTest extends CachedStreamTestBase {
     protected String readPartiallyFromStreamObject(Object cache, int len) throws IOException {
         return readPartiallyFromReader((Reader)cache, len);
     }
-}
 
+    @Test
+    public void testMappedSpill() throws Exception {
+        reloadDefaultProperties();
+        String result = initTestData(16);
+        CachedWriter cw = new CachedWriter();
+        cw.setThreshold(4096);
+        cw.setMappedSpill(true);
+        cw.write(result);
+        File tmpfile = cw.getTempFile();
+        assertNotNull("expects a tmp file", tmpfile);
 
+        assertEquals(result, new String(cw.getChars()));
+        StringWriter out = new StringWriter();
+        cw.writeCacheTo(out);
+        assertEquals(result, out.toString());
+
+        Reader in = cw.getReader();
+        cw.close();
+        assertTrue("file is deleted", tmpfile.exists());
+        assertEquals(result, readFromReader(in));
+        assertFalse("file is not deleted", tmpfile.exists());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.cxf.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PooledByteBufferOutputStreamTest {
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        for (int x = 0; x < size; x++) {
+            data[x] = (byte)x;
+        }
+        return data;
+    }
+
+    @Test
+    public void testHeapSegments() throws Exception {
+        doTestSegments(new DefaultByteBufferPool(100, 10, false));
+    }
+
+    @Test
+    public void testDirectSegments() throws Exception {
+        doTestSegments(new DefaultByteBufferPool(100, 10, true));
+    }
+
+    private void doTestSegments(DefaultByteBufferPool pool) throws Exception {
+        byte[] data = createData(1050);
+        PooledByteBufferOutputStream out = new PooledByteBufferOutputStream(pool);
+        out.write(data, 0, 7);
+        out.write(data[7]);
+        out.write(data, 8, data.length - 8);
+        assertEquals(data.length, out.size());
+        assertEquals(11, pool.getAllocatedCount());
+
+        assertArrayEquals(data, out.toByteArray());
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        out.writeTo(bout);
+        assertArrayEquals(data, bout.toByteArray());
+
+        bout.reset();
+        try (WritableByteChannel channel = Channels.newChannel(bout)) {
+            out.writeTo(channel);
+        }
+        assertArrayEquals(data, bout.toByteArray());
+
+        try (InputStream in = out.createInputStream()) {
+            assertEquals(data.length, in.available());
+            assertArrayEquals(data, IOUtils.readBytesFromStream(in));
+        }
+
+        out.close();
+        assertEquals(0, out.size());
+        assertEquals(10, pool.getPooledCount());
+    }
+
+    @Test
+    public void testInputStreamKeepsSegments() throws Exception {
+        DefaultByteBufferPool pool = new DefaultByteBufferPool(64, 10, false);
+        byte[] data = createData(200);
+        PooledByteBufferOutputStream out = new PooledByteBufferOutputStream(pool);
+        out.write(data);
+        InputStream in = out.createInputStream();
+        out.close();
+        assertEquals(0, pool.getPooledCount());
+
+        assertEquals(0, in.read());
+        assertEquals(63, in.skip(63));
+        in.mark(200);
+        byte[] rest = new byte[136];
+        assertEquals(136, in.read(rest, 0, 136));
+        assertEquals(-1, in.read());
+        in.reset();
+        assertEquals(64, in.read());
+        in.close();
+        assertEquals(4, pool.getPooledCount());
+    }
+}
@@ -396,6 +396,60 @@ public class PhaseInterceptorChainTest {
         assertEquals(1, p3.invoked);
     }
 
+    @Test
+    public void testClonedChainIsIndependent() throws Exception {
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1");
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        control.replay();
+        chain.add(p1);
+        chain.add(p3);
+
+        PhaseInterceptorChain copy = chain.cloneChain();
+        copy.add(p2);
+        copy.remove(p1);
+
+        Iterator<Interceptor<? extends Message>> it = chain.iterator();
+        assertSame(p1, it.next());
+        assertSame(p3, it.next());
+        assertFalse(it.hasNext());
+
+        it = copy.iterator();
+        assertSame(p2, it.next());
+        assertSame(p3, it.next());
+        assertFalse(it.hasNext());
+
+        chain.add(p2);
+        copy.doIntercept(message);
+        assertEquals(0, p1.invoked);
+        assertEquals(1, p2.invoked);
+        assertEquals(1, p3.invoked);
+    }
+
+    @Test
+    public void testRemovalOfLaterInterceptorDuringInvocation() throws Exception {
+        final CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1") {
+            public void handleMessage(Message m) {
+                super.handleMessage(m);
+                chain.remove(this);
+                chain.remove(p2);
+            }
+        };
+        control.replay();
+        chain.add(p1);
+        chain.add(p2);
+        chain.add(p3);
+        chain.doIntercept(message);
+        assertEquals(1, p1.invoked);
+        assertEquals(0, p2.invoked);
+        assertEquals(1, p3.invoked);
+        Iterator<Interceptor<? extends Message>> it = chain.iterator();
+        assertSame(p3, it.next());
+        assertFalse(it.hasNext());
+    }
+
     AbstractPhaseInterceptor<Message> setUpPhaseInterceptor(String phase, String id) throws Exception {
         return setUpPhaseInterceptor(phase, id, null, null);
     }
@@ -19,8 +19,13 @@
 
 package org.apache.cxf.workqueue;
 
+import java.util.Dictionary;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -30,6 +35,7 @@ import org.junit.After;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -113,6 +119,139 @@ public class AutomaticWorkQueueTest {
     }
 
 
+    @Test
+    public void testVirtualThreadsAdmission() throws Exception {
+        workqueue = new AutomaticWorkQueueImpl(2, "vt") {
+            @Override
+            protected ExecutorService createVirtualThreadExecutor(String nm) {
+                // thread per task executor standing in for virtual threads on older JDKs
+                return Executors.newCachedThreadPool();
+            }
+        };
+        workqueue.setVirtualThreads(true);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        Runnable blocking = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                done.countDown();
+            }
+        };
+        workqueue.execute(blocking);
+        workqueue.execute(blocking, TIMEOUT);
+        assertTrue(workqueue.isFull());
+        assertEquals(2, workqueue.getSize());
+        try {
+            workqueue.execute(new TestWorkItem(), TIMEOUT);
+            fail("Expect RejectedExecutionException when all permits are taken.");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !workqueue.isEmpty(); i++) {
+            Thread.sleep(10L);
+        }
+        assertTrue(workqueue.isEmpty());
+        assertEquals(2, workqueue.getLargestPoolSize());
+        assertEquals(0, workqueue.getActiveCount());
+
+        workqueue.shutdown(true);
+        assertTrue(workqueue.isShutdown());
+    }
+
+    @Test
+    public void testVirtualThreadsResizeQueue() throws Exception {
+        workqueue = new AutomaticWorkQueueImpl(1, "vt") {
+            @Override
+            protected ExecutorService createVirtualThreadExecutor(String nm) {
+                return Executors.newCachedThreadPool();
+            }
+        };
+        workqueue.setVirtualThreads(true);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        Runnable blocking = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                done.countDown();
+            }
+        };
+        workqueue.execute(blocking);
+        assertTrue(workqueue.isFull());
+
+        workqueue.setQueueSize(2);
+        assertFalse(workqueue.isFull());
+        workqueue.execute(blocking, TIMEOUT);
+        assertTrue(workqueue.isFull());
+
+        workqueue.setQueueSize(1);
+        assertEquals(1, workqueue.getMaxSize());
+        try {
+            workqueue.execute(new TestWorkItem(), TIMEOUT);
+            fail("Expect RejectedExecutionException after the queue size is reduced.");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !workqueue.isEmpty(); i++) {
+            Thread.sleep(10L);
+        }
+        assertTrue(workqueue.isEmpty());
+        assertFalse(workqueue.isFull());
+
+        workqueue.shutdown(true);
+    }
+
+    @Test
+    public void testVirtualThreadsFallback() throws Exception {
+        workqueue = new AutomaticWorkQueueImpl(2, "vt") {
+            @Override
+            protected ExecutorService createVirtualThreadExecutor(String nm) {
+                return null;
+            }
+        };
+        workqueue.setVirtualThreads(true);
+        final CountDownLatch done = new CountDownLatch(1);
+        workqueue.execute(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(workqueue.isVirtualThreads());
+        assertNotNull(workqueue.executor);
+    }
+
+    @Test
+    public void testPropertiesRoundTrip() {
+        workqueue = new AutomaticWorkQueueImpl(5000, 3, 40, 4, 120000L, "props");
+        workqueue.setVirtualThreads(true);
+        Dictionary<String, String> properties = workqueue.getProperties();
+        assertEquals("props", properties.get("name"));
+        assertEquals("true", properties.get("virtualThreads"));
+
+        AutomaticWorkQueueImpl copy = new AutomaticWorkQueueImpl(2, "copy");
+        copy.update(properties);
+        assertEquals(5000, copy.getMaxSize());
+        assertEquals(3, copy.getInitialSize());
+        assertEquals(40, copy.getHighWaterMark());
+        assertEquals(4, copy.getLowWaterMark());
+        assertEquals("120000", copy.getProperties().get("dequeueTimeout"));
+        assertTrue(copy.isVirtualThreads());
+    }
+
     @Test
     public void testEnqueue() throws InterruptedException {
         workqueue = new AutomaticWorkQueueImpl(DEFAULT_MAX_QUEUE_SIZE, INITIAL_SIZE,
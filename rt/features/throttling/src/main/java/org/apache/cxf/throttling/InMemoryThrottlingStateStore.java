@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default ThrottlingStateStore which keeps the state in the memory of the local node.
+ * <p>
+ * The values are kept in a concurrent map whose bins are locked independently and are
+ * updated with compare and swap operations only, so the requests with different keys do not
+ * contend with each other. The expired keys are removed every {@link #getSweepInterval()}
+ * updates.
+ */
+public class InMemoryThrottlingStateStore implements ThrottlingStateStore {
+    public static final int DEFAULT_SWEEP_INTERVAL = 4096;
+
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+    private final AtomicInteger updates = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private int sweepInterval = DEFAULT_SWEEP_INTERVAL;
+
+    @Override
+    public long get(String key) {
+        Value value = values.get(key);
+        if (value == null) {
+            return 0;
+        }
+        if (value.isExpired(System.currentTimeMillis())) {
+            values.remove(key, value);
+            return 0;
+        }
+        return value.get();
+    }
+
+    @Override
+    public long addAndGet(String key, long delta, long ttl) {
+        long now = System.currentTimeMillis();
+        sweep(now);
+        while (true) {
+            Value value = getValue(key, now, ttl);
+            long result = value.addAndGet(delta);
+            if (!value.isExpired(now)) {
+                return result;
+            }
+            values.remove(key, value);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(String key, long expect, long update, long ttl) {
+        long now = System.currentTimeMillis();
+        sweep(now);
+        Value value = getValue(key, now, ttl);
+        if (value.compareAndSet(expect, update)) {
+            value.expiresAt = now + ttl;
+            return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
+    public int getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(int sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    private Value getValue(String key, long now, long ttl) {
+        Value value = values.get(key);
+        if (value != null && value.isExpired(now)) {
+            values.remove(key, value);
+            value = null;
+        }
+        if (value == null) {
+            value = values.computeIfAbsent(key, k -> new Value(now + ttl));
+        }
+        return value;
+    }
+
+    private void sweep(long now) {
+        if (updates.incrementAndGet() % sweepInterval != 0 || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Iterator<Value> it = values.values().iterator(); it.hasNext();) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static final class Value extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        private volatile long expiresAt;
+
+        Value(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
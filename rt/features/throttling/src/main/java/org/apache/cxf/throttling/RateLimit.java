@@ -0,0 +1,257 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * A limit of the number of requests per period enforced by the RateLimitingThrottlingManager.
+ * <p>
+ * The TOKEN_BUCKET algorithm allows bursts of up to {@link #getBurst()} requests and refills the
+ * bucket at a constant rate of {@link #getLimit()} requests per {@link #getPeriod()} milliseconds.
+ * The bucket is stored as a single timestamp, the theoretical arrival time of the next request,
+ * which is updated with a compare and set operation.
+ * <p>
+ * The SLIDING_WINDOW algorithm counts the requests of the current and the previous fixed window
+ * and weights the previous count by the part of the previous window which is still covered by
+ * the sliding window. The estimate never allows more than twice the limit in any period.
+ * <p>
+ * A limit of 0, the default, does not restrict the requests.
+ */
+public class RateLimit {
+    public enum Algorithm {
+        TOKEN_BUCKET,
+        SLIDING_WINDOW
+    }
+
+    private String name = "default";
+    private Algorithm algorithm = Algorithm.TOKEN_BUCKET;
+    private long limit;
+    private long period = 1000L;
+    private long burst;
+    private ThrottlingKeyResolver keyResolver = ThrottlingKeyResolver.global();
+    private Set<String> operations = Collections.emptySet();
+    private String phase;
+
+    public RateLimit() {
+
+    }
+
+    public RateLimit(long limit, long period) {
+        setLimit(limit);
+        setPeriod(period);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name the state of the limit is stored under, the limits sharing
+     * a ThrottlingStateStore must have different names.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the number of requests allowed per period, 0 disables the limit.
+     */
+    public void setLimit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Sets the period in milliseconds.
+     */
+    public void setPeriod(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period must be positive: " + period);
+        }
+        this.period = period;
+    }
+
+    public long getBurst() {
+        return burst > 0 ? burst : limit;
+    }
+
+    /**
+     * Sets the capacity of the token bucket, the limit by default.
+     */
+    public void setBurst(long burst) {
+        if (burst < 0) {
+            throw new IllegalArgumentException("The burst must not be negative: " + burst);
+        }
+        this.burst = burst;
+    }
+
+    public ThrottlingKeyResolver getKeyResolver() {
+        return keyResolver;
+    }
+
+    public void setKeyResolver(ThrottlingKeyResolver keyResolver) {
+        this.keyResolver = keyResolver;
+    }
+
+    public Set<String> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Restricts the limit to the named operations, all the operations are limited by default.
+     */
+    public void setOperations(Collection<String> operations) {
+        this.operations = new HashSet<>(operations);
+    }
+
+    /**
+     * Returns the phase the limit is enforced in. The limits restricted to some operations are
+     * enforced in the PRE_LOGICAL phase once the operation is known, the other limits are enforced
+     * in the PRE_STREAM phase before the request is read.
+     */
+    public String getPhase() {
+        if (phase != null) {
+            return phase;
+        }
+        return operations.isEmpty() ? Phase.PRE_STREAM : Phase.PRE_LOGICAL;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    boolean appliesTo(Message m) {
+        return operations.isEmpty() || operations.contains(ThrottlingKeyResolver.getOperationName(m));
+    }
+
+    /**
+     * Acquires a permit for the request.
+     *
+     * @param store the state store
+     * @param key the store key of the request
+     * @param now the current time in milliseconds
+     * @param maxDelay the longest time in milliseconds the request may wait for a token
+     */
+    Decision acquire(ThrottlingStateStore store, String key, long now, long maxDelay) {
+        if (limit == 0) {
+            return new Decision(true, 0, Long.MAX_VALUE);
+        }
+        if (algorithm == Algorithm.SLIDING_WINDOW) {
+            return acquireSlidingWindow(store, key, now);
+        }
+        return acquireToken(store, key, now, maxDelay);
+    }
+
+    private Decision acquireToken(ThrottlingStateStore store, String key, long now, long maxDelay) {
+        // the timestamps are kept in microseconds to support the rates above one request per millisecond
+        long interval = Math.max(1L, period * 1000L / limit);
+        long tolerance = interval * getBurst();
+        long nowMicros = now * 1000L;
+        while (true) {
+            long stored = store.get(key);
+            long tat = Math.max(stored, nowMicros) + interval;
+            long wait = tat - tolerance - nowMicros;
+            if (wait > maxDelay * 1000L) {
+                return new Decision(false, toMillis(wait), 0);
+            }
+            if (store.compareAndSet(key, stored, tat, toMillis(tat - nowMicros))) {
+                long remaining = Math.max(0L, (tolerance - (tat - nowMicros)) / interval);
+                return new Decision(true, wait > 0 ? toMillis(wait) : 0, remaining);
+            }
+        }
+    }
+
+    private Decision acquireSlidingWindow(ThrottlingStateStore store, String key, long now) {
+        long window = now / period;
+        long elapsed = now % period;
+        String currentKey = key + '.' + window;
+        long previous = store.get(key + '.' + (window - 1));
+        long current = store.addAndGet(currentKey, 1L, 2 * period);
+        double estimate = previous * (double)(period - elapsed) / period + current;
+        if (estimate <= limit) {
+            return new Decision(true, 0, (long)(limit - estimate));
+        }
+        // the rejected requests are not counted
+        store.addAndGet(currentKey, -1L, 2 * period);
+        current--;
+
+        double wait;
+        if (current < limit) {
+            // wait for the previous window to slide out far enough in the current window
+            wait = period * (1.0 - (double)(limit - current - 1) / previous) - elapsed;
+        } else {
+            // the current window becomes the previous one
+            wait = period - elapsed + period * (1.0 - (double)(limit - 1) / current);
+        }
+        return new Decision(false, Math.max(1L, (long)Math.ceil(wait)), 0);
+    }
+
+    private static long toMillis(long micros) {
+        return (micros + 999L) / 1000L;
+    }
+
+    static final class Decision {
+        private final boolean allowed;
+        private final long delay;
+        private final long remaining;
+
+        Decision(boolean allowed, long delay, long remaining) {
+            this.allowed = allowed;
+            this.delay = delay;
+            this.remaining = remaining;
+        }
+
+        boolean isAllowed() {
+            return allowed;
+        }
+
+        long getDelay() {
+            return delay;
+        }
+
+        long getRemaining() {
+            return remaining;
+        }
+    }
+}
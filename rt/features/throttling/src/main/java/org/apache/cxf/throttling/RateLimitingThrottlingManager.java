@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.message.Message;
+
+/**
+ * Limits the rate of the requests with token buckets or sliding windows.
+ * <p>
+ * Every {@link RateLimit} counts the requests separately for each key resolved by its
+ * {@link ThrottlingKeyResolver}, for example per user, per API key header or per operation,
+ * and the expensive operations can be given their own lower limits. The state is kept
+ * in a {@link ThrottlingStateStore}, the in-memory store by default, which can be replaced
+ * by a store shared by all the nodes of a cluster.
+ * <p>
+ * The requests over a limit are rejected with the 429 response code and a Retry-After header
+ * telling the client when the next request will be allowed. The token bucket limits can delay
+ * the requests instead if the next token is available within {@link #getMaxDelay()} milliseconds.
+ */
+public class RateLimitingThrottlingManager implements ThrottlingManager {
+    public static final String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private static final String DELAYED_KEY = RateLimitingThrottlingManager.class.getName() + ".delayed.";
+
+    private List<RateLimit> limits = new ArrayList<>();
+    private ThrottlingStateStore stateStore = new InMemoryThrottlingStateStore();
+    private String keyPrefix = "cxf.throttling.";
+    private int responseCode = TOO_MANY_REQUESTS;
+    private long maxDelay;
+    private boolean addRateLimitHeaders = true;
+    private Clock clock = Clock.systemUTC();
+
+    public RateLimitingThrottlingManager() {
+
+    }
+
+    public RateLimitingThrottlingManager(List<RateLimit> limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public List<String> getDecisionPhases() {
+        List<String> phases = new ArrayList<>();
+        for (RateLimit limit : limits) {
+            if (!phases.contains(limit.getPhase())) {
+                phases.add(limit.getPhase());
+            }
+        }
+        return phases;
+    }
+
+    @Override
+    public ThrottleResponse getThrottleResponse(String phase, Message m) {
+        // the interceptor is invoked again when the delayed request is resumed
+        if (m.containsKey(DELAYED_KEY + phase)) {
+            return null;
+        }
+        long now = clock.millis();
+        long delay = 0;
+        RateLimit closest = null;
+        long remaining = Long.MAX_VALUE;
+        for (RateLimit limit : limits) {
+            if (!phase.equals(limit.getPhase()) || !limit.appliesTo(m)) {
+                continue;
+            }
+            String key = limit.getKeyResolver().resolve(m);
+            if (key == null) {
+                continue;
+            }
+            RateLimit.Decision decision = limit.acquire(stateStore, keyPrefix + limit.getName() + '.' + key,
+                                                        now, maxDelay);
+            if (!decision.isAllowed()) {
+                ThrottleResponse rsp = new ThrottleResponse(responseCode, decision.getDelay());
+                addHeaders(rsp, limit, 0);
+                return rsp;
+            }
+            delay = Math.max(delay, decision.getDelay());
+            if (decision.getRemaining() < remaining) {
+                remaining = decision.getRemaining();
+                closest = limit;
+            }
+        }
+        if (delay > 0) {
+            m.put(DELAYED_KEY + phase, Boolean.TRUE);
+        } else if (closest == null || !addRateLimitHeaders) {
+            return null;
+        }
+        ThrottleResponse rsp = new ThrottleResponse(-1, delay);
+        if (closest != null) {
+            addHeaders(rsp, closest, remaining);
+        }
+        return rsp;
+    }
+
+    private void addHeaders(ThrottleResponse rsp, RateLimit limit, long remaining) {
+        if (addRateLimitHeaders) {
+            rsp.addResponseHeader(RATE_LIMIT_LIMIT_HEADER, Long.toString(limit.getLimit()));
+            rsp.addResponseHeader(RATE_LIMIT_REMAINING_HEADER, Long.toString(remaining));
+        }
+    }
+
+    public List<RateLimit> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(List<RateLimit> limits) {
+        this.limits = limits;
+    }
+
+    public ThrottlingStateStore getStateStore() {
+        return stateStore;
+    }
+
+    public void setStateStore(ThrottlingStateStore stateStore) {
+        this.stateStore = stateStore;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * Sets the prefix of the state store keys, the managers sharing a store must have different prefixes.
+     */
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    public void setResponseCode(int responseCode) {
+        this.responseCode = responseCode;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Sets the longest time in milliseconds a request may be suspended waiting for a token
+     * before it is rejected, 0 by default. The sliding window limits never delay the requests.
+     */
+    public void setMaxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public boolean isAddRateLimitHeaders() {
+        return addRateLimitHeaders;
+    }
+
+    public void setAddRateLimitHeaders(boolean addRateLimitHeaders) {
+        this.addRateLimitHeaders = addRateLimitHeaders;
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
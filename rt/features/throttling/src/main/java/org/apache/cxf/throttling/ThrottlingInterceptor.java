@@ -48,7 +48,10 @@ public class ThrottlingInterceptor extends AbstractPhaseInterceptor<Message> {
         if (rsp == null) {
             return;
         }
-        message.getExchange().put(ThrottleResponse.class, rsp);
+        // the response of an earlier phase is kept unless the request is rejected
+        if (rsp.getResponseCode() >= 300 || message.getExchange().get(ThrottleResponse.class) == null) {
+            message.getExchange().put(ThrottleResponse.class, rsp);
+        }
         if (rsp.getResponseCode() >= 300) {
             createOutMessage(message);
             message.getInterceptorChain().doInterceptStartingAt(message,
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.security.SecurityContext;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+/**
+ * Resolves the key of the request the rate limits are counted for.
+ */
+public interface ThrottlingKeyResolver {
+    String JAXRS_OPERATION_NAME = "org.apache.cxf.resource.operation.name";
+
+    /**
+     * Returns the key of the request or null if the request is not subject to the limit.
+     */
+    String resolve(Message message);
+
+    /**
+     * All the requests share the same limit.
+     */
+    static ThrottlingKeyResolver global() {
+        return m -> "";
+    }
+
+    /**
+     * The requests of every authenticated user are limited separately, the requests
+     * without a user principal are not limited.
+     */
+    static ThrottlingKeyResolver principal() {
+        return m -> {
+            SecurityContext sc = m.get(SecurityContext.class);
+            Principal p = sc == null ? null : sc.getUserPrincipal();
+            return p == null ? null : p.getName();
+        };
+    }
+
+    /**
+     * The requests are limited by the value of the request header, for example
+     * an API key or the client address set by a proxy. The requests without the
+     * header are not limited.
+     */
+    static ThrottlingKeyResolver header(String name) {
+        return m -> {
+            Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>)m.get(Message.PROTOCOL_HEADERS));
+            if (headers == null) {
+                return null;
+            }
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        };
+    }
+
+    /**
+     * The requests of every operation are limited separately. The operation is known
+     * once the request has been bound to it, so the limits keyed by operation must be
+     * decided in the {@link org.apache.cxf.phase.Phase#PRE_LOGICAL} or a later phase.
+     */
+    static ThrottlingKeyResolver operation() {
+        return ThrottlingKeyResolver::getOperationName;
+    }
+
+    /**
+     * Returns the name of the operation the request is bound to or null if it is not known yet.
+     */
+    static String getOperationName(Message m) {
+        Exchange ex = m.getExchange();
+        if (ex == null) {
+            return null;
+        }
+        BindingOperationInfo boi = ex.getBindingOperationInfo();
+        if (boi != null) {
+            return boi.getName().getLocalPart();
+        }
+        Object name = ex.get(JAXRS_OPERATION_NAME);
+        return name == null ? null : name.toString();
+    }
+}
@@ -63,9 +63,10 @@ public class ThrottlingResponseInterceptor extends AbstractPhaseInterceptor<Mess
                 }
                 r.add(e.getValue());
             }
-            if (rsp.getResponseCode() == 503 && rsp.getDelay() > 0
+            if ((rsp.getResponseCode() == 503 || rsp.getResponseCode() == 429) && rsp.getDelay() > 0
                 && !rsp.getResponseHeaders().containsKey("Retry-After")) {
-                String retryAfter = Long.toString(rsp.getDelay() / 1000);
+                // round up so that the clients retrying after a sub-second delay do not retry at once
+                String retryAfter = Long.toString((rsp.getDelay() + 999) / 1000);
                 headers.put("Retry-After", Collections.singletonList(retryAfter));
             }
         }
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+/**
+ * The state shared by the rate limiting throttling managers.
+ * <p>
+ * The rate limits only need atomic operations on expiring long values, so the store
+ * can be backed by any shared key value store to enforce the limits across a cluster
+ * of nodes. The values of the keys which have not been written before or which have
+ * expired are 0.
+ */
+public interface ThrottlingStateStore {
+
+    /**
+     * Returns the current value of the key.
+     */
+    long get(String key);
+
+    /**
+     * Atomically adds the delta to the value of the key.
+     *
+     * @param key the key
+     * @param delta the value to add
+     * @param ttl the time to live of the key in milliseconds, applied when the key is created
+     * @return the updated value
+     */
+    long addAndGet(String key, long delta, long ttl);
+
+    /**
+     * Atomically sets the value of the key if the current value is the expected one.
+     *
+     * @param key the key
+     * @param expect the expected value
+     * @param update the new value
+     * @param ttl the new time to live of the key in milliseconds
+     * @return true if the value has been updated
+     */
+    boolean compareAndSet(String key, long expect, long update, long ttl);
+}
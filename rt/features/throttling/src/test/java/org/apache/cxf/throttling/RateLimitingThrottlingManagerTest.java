@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.Phase;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimitingThrottlingManagerTest {
+
+    @Test
+    public void testTokenBucket() {
+        RateLimit limit = new RateLimit(2, 60000L);
+        limit.setKeyResolver(ThrottlingKeyResolver.header("key"));
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(Collections.singletonList(limit));
+        manager.setClock(clockAt(0L));
+
+        assertEquals("1", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("a"))));
+        assertEquals("0", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("a"))));
+        ThrottleResponse rsp = manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("a"));
+        assertEquals(429, rsp.getResponseCode());
+        assertEquals(30000L, rsp.getDelay());
+
+        // the keys are limited separately
+        assertEquals("1", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("b"))));
+        // the requests without a key are not limited
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)));
+
+        manager.setClock(clockAt(30000L));
+        assertEquals("0", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("a"))));
+        assertEquals(429, manager.getThrottleResponse(Phase.PRE_STREAM, createMessage("a")).getResponseCode());
+    }
+
+    @Test
+    public void testTokenBucketDelay() {
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(
+            Collections.singletonList(new RateLimit(1, 60000L)));
+        manager.setClock(clockAt(0L));
+        manager.setMaxDelay(60000L);
+
+        assertEquals(0L, manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)).getDelay());
+        Message m = createMessage(null);
+        ThrottleResponse rsp = manager.getThrottleResponse(Phase.PRE_STREAM, m);
+        assertEquals(-1, rsp.getResponseCode());
+        assertEquals(60000L, rsp.getDelay());
+        // the resumed request is not counted again
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, m));
+        assertEquals(429, manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)).getResponseCode());
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        RateLimit limit = new RateLimit(2, 60000L);
+        limit.setAlgorithm(RateLimit.Algorithm.SLIDING_WINDOW);
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(Collections.singletonList(limit));
+        manager.setClock(clockAt(60000L));
+
+        manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null));
+        manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null));
+        ThrottleResponse rsp = manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null));
+        assertEquals(429, rsp.getResponseCode());
+        // half of the previous window requests still count in the middle of the next window
+        assertEquals(90000L, rsp.getDelay());
+
+        manager.setClock(clockAt(150000L));
+        assertEquals("0", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null))));
+        assertEquals(429, manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)).getResponseCode());
+    }
+
+    @Test
+    public void testOperationLimits() {
+        RateLimit expensive = new RateLimit(1, 60000L);
+        expensive.setName("expensive");
+        expensive.setOperations(Collections.singletonList("report"));
+        RateLimit all = new RateLimit(100, 60000L);
+        all.setName("all");
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(Arrays.asList(expensive, all));
+        assertEquals(Arrays.asList(Phase.PRE_LOGICAL, Phase.PRE_STREAM), manager.getDecisionPhases());
+
+        Message m = createMessage(null);
+        m.getExchange().put(ThrottlingKeyResolver.JAXRS_OPERATION_NAME, "report");
+        assertEquals("0", getRemaining(manager.getThrottleResponse(Phase.PRE_LOGICAL, m)));
+        assertEquals(429, manager.getThrottleResponse(Phase.PRE_LOGICAL, m).getResponseCode());
+
+        m.getExchange().put(ThrottlingKeyResolver.JAXRS_OPERATION_NAME, "list");
+        assertNull(manager.getThrottleResponse(Phase.PRE_LOGICAL, m));
+        assertEquals("99", getRemaining(manager.getThrottleResponse(Phase.PRE_STREAM, m)));
+    }
+
+    @Test
+    public void testUnsetLimitIsNotEnforced() {
+        RateLimit limit = new RateLimit();
+        limit.setPeriod(60000L);
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(Collections.singletonList(limit));
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)));
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, createMessage(null)));
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        RateLimit limit = new RateLimit();
+        try {
+            limit.setLimit(-1L);
+            fail("The negative limit is accepted");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            limit.setPeriod(0L);
+            fail("The empty period is accepted");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new RateLimit(10L, 0L);
+            fail("The empty period is accepted");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFirstThrottleResponseIsKept() {
+        RateLimit expensive = new RateLimit(10, 60000L);
+        expensive.setName("expensive");
+        expensive.setOperations(Collections.singletonList("report"));
+        RateLimit all = new RateLimit(100, 60000L);
+        all.setName("all");
+        RateLimitingThrottlingManager manager = new RateLimitingThrottlingManager(Arrays.asList(expensive, all));
+
+        Message m = createMessage(null);
+        m.getExchange().put(ThrottlingKeyResolver.JAXRS_OPERATION_NAME, "report");
+        new ThrottlingInterceptor(Phase.PRE_STREAM, manager).handleMessage(m);
+        ThrottleResponse first = m.getExchange().get(ThrottleResponse.class);
+        assertEquals("99", getRemaining(first));
+
+        new ThrottlingInterceptor(Phase.PRE_LOGICAL, manager).handleMessage(m);
+        assertSame(first, m.getExchange().get(ThrottleResponse.class));
+    }
+
+    @Test
+    public void testStateStore() {
+        InMemoryThrottlingStateStore store = new InMemoryThrottlingStateStore();
+        assertEquals(0L, store.get("a"));
+        assertEquals(2L, store.addAndGet("a", 2L, 60000L));
+        assertFalse(store.compareAndSet("a", 1L, 5L, 60000L));
+        assertTrue(store.compareAndSet("a", 2L, 5L, 60000L));
+        assertEquals(5L, store.get("a"));
+        assertTrue(store.compareAndSet("b", 0L, 1L, -1L));
+        assertEquals(0L, store.get("b"));
+        assertEquals(1, store.size());
+    }
+
+    private static String getRemaining(ThrottleResponse rsp) {
+        return rsp.getResponseHeaders().get(RateLimitingThrottlingManager.RATE_LIMIT_REMAINING_HEADER);
+    }
+
+    private static Clock clockAt(long millis) {
+        return Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static Message createMessage(String key) {
+        Message m = new MessageImpl();
+        Exchange ex = new ExchangeImpl();
+        m.setExchange(ex);
+        ex.setInMessage(m);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (key != null) {
+            headers.put("key", Collections.singletonList(key));
+        }
+        m.put(Message.PROTOCOL_HEADERS, headers);
+        return m;
+    }
+}
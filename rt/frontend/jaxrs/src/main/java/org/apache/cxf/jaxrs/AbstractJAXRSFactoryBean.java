@@ -307,6 +307,7 @@ public class AbstractJAXRSFactoryBean extends AbstractEndpointFactory {
                 ClassResourceInfo cri = it.next();
                 if (!isValidClassResourceInfo(cri)) {
                     it.remove();
+                    serviceFactory.classResourceInfosChanged();
                 }
             }
         }
@@ -26,12 +26,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.management.JMException;
 import javax.ws.rs.core.Application;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.Server;
 import org.apache.cxf.endpoint.ServerImpl;
@@ -44,10 +48,13 @@ import org.apache.cxf.jaxrs.lifecycle.ResourceProvider;
 import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
 import org.apache.cxf.jaxrs.model.ApplicationInfo;
 import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.provider.ManagedProviderCache;
+import org.apache.cxf.jaxrs.provider.ProviderCache;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.utils.AnnotationUtils;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.service.factory.FactoryBeanListener;
 import org.apache.cxf.service.factory.ServiceConstructionException;
 import org.apache.cxf.service.invoker.Invoker;
@@ -71,6 +78,7 @@ import org.apache.cxf.service.invoker.Invoker;
  * </pre>
  */
 public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
+    private static final Logger LOG = LogUtils.getLogger(JAXRSServerFactoryBean.class);
 
     protected Map<Class<?>, ResourceProvider> resourceProviders = new HashMap<>();
 
@@ -166,7 +174,13 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
             server = new ServerImpl(getBus(),
                                     ep,
                                     getDestinationFactory(),
-                                    getBindingFactory());
+                                    getBindingFactory()) {
+                @Override
+                public void destroy() {
+                    super.destroy();
+                    unregisterProviderCache(getEndpoint());
+                }
+            };
 
             Invoker invoker = serviceFactory.getInvoker();
             if (invoker == null) {
@@ -176,6 +190,7 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
             }
 
             ServerProviderFactory factory = setupFactory(ep);
+            registerProviderCache(ep, factory);
             
             ep.put(Application.class.getName(), appProvider);
             factory.setRequestPreprocessor(
@@ -231,6 +246,32 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
         return server;
     }
 
+    protected void registerProviderCache(Endpoint ep, ServerProviderFactory factory) {
+        ProviderCache cache = factory.getProviderCache();
+        InstrumentationManager iMgr = getBus().getExtension(InstrumentationManager.class);
+        if (cache != null && iMgr != null) {
+            try {
+                ManagedProviderCache mpc = new ManagedProviderCache(getBus(), ep, cache);
+                iMgr.register(mpc);
+                ep.put(ManagedProviderCache.class.getName(), mpc);
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, "Registering ManagedProviderCache failed.", jmex);
+            }
+        }
+    }
+
+    protected void unregisterProviderCache(Endpoint ep) {
+        ManagedProviderCache mpc = (ManagedProviderCache)ep.remove(ManagedProviderCache.class.getName());
+        InstrumentationManager iMgr = getBus().getExtension(InstrumentationManager.class);
+        if (mpc != null && iMgr != null) {
+            try {
+                iMgr.unregister(mpc);
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, "Unregistering ManagedProviderCache failed.", jmex);
+            }
+        }
+    }
+
     protected ServerProviderFactory setupFactory(Endpoint ep) {
         ServerProviderFactory factory = ServerProviderFactory.createInstance(getBus());
         setBeanInfo(factory);
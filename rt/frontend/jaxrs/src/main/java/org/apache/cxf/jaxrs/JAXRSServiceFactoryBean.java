@@ -146,6 +146,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
             classResourceInfos.clear();
             boolean isRoot = AnnotationUtils.getClassAnnotation(cls, Path.class) != null;
             createResourceInfo(cls, isRoot);
+            classResourceInfosChanged();
         }
     }
 
@@ -164,6 +165,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
 
             createResourceInfo(resourceClass, true);
         }
+        classResourceInfosChanged();
     }
 
     public void setUserResources(List<UserResource> resources) {
@@ -180,6 +182,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                 }
             }
         }
+        classResourceInfosChanged();
     }
 
     public void setUserResourcesWithServiceClass(List<UserResource> resources, Class<?> ...sClasses) {
@@ -191,6 +194,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                 classResourceInfos.add(cri);
             }
         }
+        classResourceInfosChanged();
     }
 
     private Map<String, UserResource> userResourcesAsMap(List<UserResource> resources) {
@@ -206,10 +210,22 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
     protected ClassResourceInfo addClassResourceInfo(ClassResourceInfo cri) {
         if (cri != null) {
             classResourceInfos.add(cri);
+            classResourceInfosChanged();
         }
         return cri;
     }
 
+    /**
+     * Drops the root resource index of the service created by this factory, it has to be
+     * called after the list returned by {@link #getRealClassResourceInfo()} has been modified.
+     */
+    void classResourceInfosChanged() {
+        Service service = getService();
+        if (service instanceof JAXRSServiceImpl) {
+            ((JAXRSServiceImpl)service).invalidateClassResourceIndex();
+        }
+    }
+
     public void setResourceClasses(Class<?>... classes) {
         setResourceClasses(Arrays.asList(classes));
     }
@@ -238,6 +254,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                                    new SingletonResourceProvider(bean));
             }
         }
+        classResourceInfosChanged();
     }
 
     private ClassResourceInfo getCreatedFromModel(Class<?> realClass) {
@@ -255,6 +272,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
     protected void initializeServiceModel() {
 
         JAXRSServiceImpl service = new JAXRSServiceImpl(classResourceInfos, serviceName);
+        service.getClassResourceIndex();
 
         setService(service);
         sendEvent(Event.SERVICE_SET, service);
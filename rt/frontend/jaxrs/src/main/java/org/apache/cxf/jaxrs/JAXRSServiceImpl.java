@@ -37,9 +37,11 @@ import org.apache.cxf.databinding.DataBinding;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.interceptor.AbstractAttributedInterceptorProvider;
 import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationDispatchCache;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.model.Parameter;
 import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.service.Service;
@@ -58,6 +60,8 @@ import org.apache.cxf.service.model.ServiceInfo;
 public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider implements Service, Configurable {
     private static final long serialVersionUID = 6765400202555126993L;
     private List<ClassResourceInfo> classResourceInfos;
+    private transient volatile URITemplateIndex<ClassResourceInfo> classResourceIndex;
+    private transient volatile OperationDispatchCache dispatchCache;
     private DataBinding dataBinding;
     private Executor executor;
     private Invoker invoker;
@@ -109,6 +113,49 @@ public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider impl
         return classResourceInfos;
     }
 
+    /**
+     * Returns the index of the root resource templates used to preselect the
+     * resources which may match a request path. The index is built on the first call
+     * and kept until {@link #invalidateClassResourceIndex()} is called.
+     */
+    public URITemplateIndex<ClassResourceInfo> getClassResourceIndex() {
+        URITemplateIndex<ClassResourceInfo> index = classResourceIndex;
+        if (index == null) {
+            index = new URITemplateIndex<>(classResourceInfos, ClassResourceInfo::getURITemplate);
+            classResourceIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Drops the root resource index and the cached selection results, it has to be called
+     * after the resource list or the template of a root resource has been modified.
+     */
+    public void invalidateClassResourceIndex() {
+        classResourceIndex = null;
+        clearDispatchCache();
+    }
+
+    /**
+     * Returns the cache of the resource method selection results, creating it
+     * with the given maximum size on the first call.
+     */
+    public OperationDispatchCache getDispatchCache(int maxSize) {
+        OperationDispatchCache cache = dispatchCache;
+        if (cache == null || cache.getMaxSize() != maxSize) {
+            cache = new OperationDispatchCache(maxSize);
+            dispatchCache = cache;
+        }
+        return cache;
+    }
+
+    public void clearDispatchCache() {
+        OperationDispatchCache cache = dispatchCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     public List<ServiceInfo> getServiceInfos() {
         if (!createServiceModel) {
             return Collections.emptyList();
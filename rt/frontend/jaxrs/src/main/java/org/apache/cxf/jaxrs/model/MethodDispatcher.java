@@ -19,6 +19,8 @@
 package org.apache.cxf.jaxrs.model;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +33,7 @@ public class MethodDispatcher {
     private Map<Method, OperationResourceInfo> methodToOri =
         new LinkedHashMap<>();
     private ConcurrentHashMap<Method, Method> proxyMethodMap = new ConcurrentHashMap<>();
+    private volatile URITemplateIndex<OperationResourceInfo> oriIndex;
 
     public MethodDispatcher() {
 
@@ -52,6 +55,7 @@ public class MethodDispatcher {
         }
 
         oriToMethod.put(o, primary);
+        oriIndex = null;
     }
 
     public OperationResourceInfo getOperationResourceInfo(Method method) {
@@ -59,7 +63,24 @@ public class MethodDispatcher {
     }
 
     public Set<OperationResourceInfo> getOperationResourceInfos() {
-        return oriToMethod.keySet();
+        return Collections.unmodifiableSet(oriToMethod.keySet());
+    }
+
+    /**
+     * Returns the operations whose templates may match the path, in the order
+     * of {@link #getOperationResourceInfos()}.
+     */
+    public Collection<OperationResourceInfo> getOperationResourceInfos(String path) {
+        URITemplateIndex<OperationResourceInfo> index = oriIndex;
+        if (index == null) {
+            index = new URITemplateIndex<>(oriToMethod.keySet(), OperationResourceInfo::getURITemplate);
+            oriIndex = index;
+        }
+        return index.getCandidates(path);
+    }
+
+    void invalidateIndex() {
+        oriIndex = null;
     }
 
     public Method getMethod(OperationResourceInfo op) {
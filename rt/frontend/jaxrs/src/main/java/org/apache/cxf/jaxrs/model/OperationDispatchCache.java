@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Bounded cache of the resource method selection results.
+ * <p>
+ * The key is built from the request fields only: the matched resource, the part of the
+ * request path left to be matched by its methods, the HTTP method, and the request and
+ * accepted media types. A cache hit therefore only has to match the template of the
+ * cached operation. Requests to paths which only differ in the variables of the resource
+ * template, for example "/customers/1/orders" and "/customers/2/orders", share the same
+ * entry. The value is the selected operation, plus the response media type which was
+ * negotiated for it.
+ * <p>
+ * When the cache is full the least recently used quarter of the entries is evicted.
+ */
+public final class OperationDispatchCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maxSize;
+
+    public OperationDispatchCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = clock.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public void put(Key key, OperationResourceInfo operation, String contentType) {
+        Entry entry = new Entry(operation, contentType);
+        entry.lastAccess = clock.incrementAndGet();
+        entries.put(key, entry);
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<Key, Entry>> all = new ArrayList<>(entries.entrySet());
+            int count = all.size() - maxSize + maxSize / 4;
+            if (count <= 0) {
+                return;
+            }
+            all.sort((e1, e2) -> Long.compare(e1.getValue().lastAccess, e2.getValue().lastAccess));
+            for (int i = 0; i < count && i < all.size(); i++) {
+                entries.remove(all.get(i).getKey(), all.get(i).getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * The selected operation.
+     */
+    public static final class Entry {
+        private final OperationResourceInfo operation;
+        private final String contentType;
+        private volatile long lastAccess;
+
+        Entry(OperationResourceInfo operation, String contentType) {
+            this.operation = operation;
+            this.contentType = contentType;
+        }
+
+        public OperationResourceInfo getOperation() {
+            return operation;
+        }
+
+        /**
+         * Returns the response media type, null if a subresource locator was selected.
+         */
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * The request signature.
+     */
+    public static final class Key {
+        private final ClassResourceInfo resource;
+        private final String path;
+        private final String httpMethod;
+        private final String requestContentType;
+        private final List<MediaType> acceptContentTypes;
+        private final boolean keepSubresourceCandidates;
+        private final int hashCode;
+
+        /**
+         * @param resource the matched resource
+         * @param path the part of the request path to be matched by the resource methods
+         * @param httpMethod the request HTTP method
+         * @param requestContentType the request Content-Type
+         * @param acceptContentTypes the sorted accepted media types
+         * @param keepSubresourceCandidates the value of the keep.subresource.candidates property
+         */
+        public Key(ClassResourceInfo resource, String path, String httpMethod, String requestContentType,
+                   List<MediaType> acceptContentTypes, boolean keepSubresourceCandidates) {
+            this.resource = resource;
+            this.path = path;
+            this.httpMethod = httpMethod;
+            this.requestContentType = requestContentType;
+            this.acceptContentTypes = acceptContentTypes;
+            this.keepSubresourceCandidates = keepSubresourceCandidates;
+
+            int h = System.identityHashCode(resource);
+            h = 31 * h + path.hashCode();
+            h = 31 * h + httpMethod.hashCode();
+            h = 31 * h + (requestContentType == null ? 0 : requestContentType.hashCode());
+            for (int i = 0; i < acceptContentTypes.size(); i++) {
+                h = 31 * h + hashCode(acceptContentTypes.get(i));
+            }
+            this.hashCode = 31 * h + (keepSubresourceCandidates ? 1 : 0);
+        }
+
+        /**
+         * The same as MediaType.hashCode but without creating new strings.
+         */
+        private static int hashCode(MediaType mt) {
+            int h = 0;
+            String type = mt.getType();
+            for (int i = 0; i < type.length(); i++) {
+                h = 31 * h + Character.toLowerCase(type.charAt(i));
+            }
+            String subtype = mt.getSubtype();
+            for (int i = 0; i < subtype.length(); i++) {
+                h = 31 * h + Character.toLowerCase(subtype.charAt(i));
+            }
+            return 31 * h + mt.getParameters().hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return hashCode == other.hashCode
+                && resource == other.resource
+                && keepSubresourceCandidates == other.keepSubresourceCandidates
+                && path.equals(other.path)
+                && httpMethod.equals(other.httpMethod)
+                && (requestContentType == null ? other.requestContentType == null
+                    : requestContentType.equals(other.requestContentType))
+                && acceptContentTypes.equals(other.acceptContentTypes);
+        }
+    }
+}
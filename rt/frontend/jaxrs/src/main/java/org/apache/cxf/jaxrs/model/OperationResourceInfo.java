@@ -185,6 +185,9 @@ public class OperationResourceInfo {
 
     public void setURITemplate(URITemplate u) {
         uriTemplate = u;
+        if (classResourceInfo != null && classResourceInfo.getMethodDispatcher() != null) {
+            classResourceInfo.getMethodDispatcher().invalidateIndex();
+        }
     }
 
     public ClassResourceInfo getClassResourceInfo() {
@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+
+/**
+ * Trie of the leading literal path segments of a set of URI templates.
+ * <p>
+ * A template such as "/customers/{id}" can only match paths whose first segment is
+ * "customers", so it is stored under the "customers" node. Templates starting with
+ * a variable, or with characters which are not matched literally by the template
+ * regular expression, are stored at the root and are candidates for every path.
+ * {@link #getCandidates(String)} returns the items which may match a given path, in
+ * the order they were given to the index, the caller still runs the actual
+ * {@link URITemplate#match(String, javax.ws.rs.core.MultivaluedMap)} and applies
+ * the usual selection rules on the (usually much smaller) list of candidates.
+ */
+public final class URITemplateIndex<T> {
+    private static final String REGEX_CHARACTERS = "?[]|^\\{}";
+
+    private final List<T> items;
+    private final Node<T> root = new Node<>();
+
+    public URITemplateIndex(Collection<T> items, Function<T, URITemplate> templates) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        int ordinal = 0;
+        for (T item : this.items) {
+            Node<T> node = root;
+            URITemplate template = templates.apply(item);
+            if (template != null) {
+                for (String segment : getLiteralSegments(template.getValue())) {
+                    node = node.getOrCreateChild(segment);
+                }
+            }
+            node.add(ordinal++, item);
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns the items whose templates may match the path.
+     */
+    public List<T> getCandidates(String path) {
+        if (path == null || !path.startsWith("/") || path.indexOf(';') != -1) {
+            // matrix parameters are matched segment by segment by URITemplate
+            return items;
+        }
+        List<Node<T>> nodes = null;
+        Node<T> node = root;
+        int start = 1;
+        int len = path.length();
+        while (start < len && node.children != null) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = len;
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.ordinals != null) {
+                if (nodes == null) {
+                    nodes = new ArrayList<>(4);
+                }
+                nodes.add(node);
+            }
+            start = end + 1;
+        }
+        if (nodes == null) {
+            return root.values();
+        }
+        if (nodes.size() == 1 && root.ordinals == null) {
+            return nodes.get(0).values();
+        }
+        return merge(nodes);
+    }
+
+    private List<T> merge(List<Node<T>> nodes) {
+        // restore the original order of the items
+        int[] pos = new int[nodes.size() + 1];
+        nodes.add(root);
+        List<T> result = new ArrayList<>();
+        while (true) {
+            int next = -1;
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < pos.length; i++) {
+                Node<T> n = nodes.get(i);
+                if (n.ordinals != null && pos[i] < n.size && n.ordinals[pos[i]] < min) {
+                    min = n.ordinals[pos[i]];
+                    next = i;
+                }
+            }
+            if (next == -1) {
+                return result;
+            }
+            result.add(nodes.get(next).values.get(pos[next]++));
+        }
+    }
+
+    /**
+     * Returns the leading segments of the template which the template regular expression
+     * matches literally.
+     */
+    static List<String> getLiteralSegments(String template) {
+        if (template == null || !template.startsWith("/")) {
+            return Collections.emptyList();
+        }
+        int varIndex = template.indexOf('{');
+        String literal = varIndex == -1 ? template : template.substring(0, varIndex);
+        // URITemplate encodes its literal chunks the same way
+        literal = HttpUtils.encodePartiallyEncoded(literal, false);
+        List<String> segments = new ArrayList<>();
+        int start = 1;
+        while (start < literal.length()) {
+            int end = literal.indexOf('/', start);
+            if (end == -1) {
+                if (varIndex != -1) {
+                    // the segment continues with a variable
+                    break;
+                }
+                end = literal.length();
+            }
+            String segment = literal.substring(start, end);
+            if (segment.isEmpty() || !isLiteral(segment)) {
+                break;
+            }
+            segments.add(segment);
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(segment.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node<T> {
+        private Map<String, Node<T>> children;
+        private int[] ordinals;
+        private List<T> values;
+        private int size;
+
+        Node<T> getOrCreateChild(String segment) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, s -> new Node<>());
+        }
+
+        void add(int ordinal, T value) {
+            if (ordinals == null) {
+                ordinals = new int[4];
+                values = new ArrayList<>(4);
+            } else if (size == ordinals.length) {
+                int[] newOrdinals = new int[size * 2];
+                System.arraycopy(ordinals, 0, newOrdinals, 0, size);
+                ordinals = newOrdinals;
+            }
+            ordinals[size++] = ordinal;
+            values.add(value);
+        }
+
+        List<T> values() {
+            return values == null ? Collections.<T>emptyList() : Collections.unmodifiableList(values);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.provider;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedOperation;
+import org.apache.cxf.management.annotation.ManagedResource;
+
+/**
+ * The ManagedProviderCache is a JMX managed bean for the ProviderCache of a JAX-RS endpoint.
+ */
+@ManagedResource(componentName = "ProviderCache",
+                 description = "Message body reader and writer cache of a JAX-RS endpoint.")
+public class ManagedProviderCache implements ManagedComponent {
+
+    private final Bus bus;
+    private final Endpoint endpoint;
+    private final ProviderCache cache;
+
+    public ManagedProviderCache(Bus bus, Endpoint endpoint, ProviderCache cache) {
+        this.bus = bus;
+        this.endpoint = endpoint;
+        this.cache = cache;
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append("Bus.Service.Endpoint.ProviderCache,");
+        String serviceName = ObjectName.quote(endpoint.getService().getName().toString());
+        buffer.append(ManagementConstants.SERVICE_NAME_PROP).append('=').append(serviceName).append(',');
+        String endpointName = ObjectName.quote(endpoint.getEndpointInfo().getName().getLocalPart());
+        buffer.append(ManagementConstants.PORT_NAME_PROP).append('=').append(endpointName).append(',');
+        // Added the instance id to make the ObjectName unique
+        buffer.append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(cache.hashCode());
+        return new ObjectName(buffer.toString());
+    }
+
+    @ManagedAttribute(description = "Number of cached reader and writer lookups", currencyTimeLimit = 10)
+    public int getSize() {
+        return cache.size();
+    }
+
+    @ManagedAttribute(description = "Maximum number of cached reader or writer lookups")
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @ManagedAttribute(description = "Number of lookups found in the cache", currencyTimeLimit = 10)
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    @ManagedAttribute(description = "Number of lookups not found in the cache", currencyTimeLimit = 10)
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    @ManagedAttribute(description = "Number of evicted lookups", currencyTimeLimit = 10)
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @ManagedOperation(description = "Clear the cache and its statistics")
+    public void clear() {
+        cache.destroy();
+    }
+}
@@ -21,10 +21,15 @@ package org.apache.cxf.jaxrs.provider;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.MessageBodyReader;
@@ -33,6 +38,18 @@ import javax.ws.rs.ext.MessageBodyWriter;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.jaxrs.model.ProviderInfo;
 
+/**
+ * Caches the message body reader and writer candidates selected for a given
+ * Java type and media type.
+ * <p>
+ * Each of the reader and writer caches is bounded, once a cache is full the least
+ * recently used quarter of its entries is evicted. Every entry records the generation
+ * of the cache it was created in, {@link #invalidate()} starts a new generation so
+ * the entries created for the previous set of providers are no longer returned,
+ * without having to lock or clear the cache. Callers read {@link #getGeneration()}
+ * before selecting the candidates and pass it to the put methods, so candidates
+ * selected from the providers of a previous generation are not cached.
+ */
 public class ProviderCache {
     private static final int MAX_PROVIDER_CACHE_SIZE =
         AccessController.doPrivileged(new PrivilegedAction<Integer>() {
@@ -41,74 +58,212 @@ public class ProviderCache {
                 return SystemPropertyAction.getInteger("org.apache.cxf.jaxrs.max_provider_cache_size", 100);
             } }).intValue();
 
-    private final Map<String, List<ProviderInfo<MessageBodyReader<?>>>>
+    private final Map<CacheKey, CacheEntry<MessageBodyReader<?>>>
         readerProviderCache = new ConcurrentHashMap<>();
 
-    private final Map<String, List<ProviderInfo<MessageBodyWriter<?>>>>
+    private final Map<CacheKey, CacheEntry<MessageBodyWriter<?>>>
         writerProviderCache = new ConcurrentHashMap<>();
 
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxSize;
+    private final AtomicInteger generation = new AtomicInteger();
+
     private boolean checkAllCandidates;
     public ProviderCache(boolean checkAllCandidates) {
+        this(checkAllCandidates, MAX_PROVIDER_CACHE_SIZE);
+    }
+
+    public ProviderCache(boolean checkAllCandidates, int maxSize) {
         this.checkAllCandidates = checkAllCandidates;
+        this.maxSize = Math.max(1, maxSize);
     }
 
     public List<ProviderInfo<MessageBodyReader<?>>> getReaders(Class<?> type, MediaType mt) {
-        if (readerProviderCache.isEmpty()) {
-            return Collections.emptyList();
-        }
-        String key = getKey(type, mt);
-
-        List<ProviderInfo<MessageBodyReader<?>>> list = readerProviderCache.get(key);
-        return list != null ? list : Collections.emptyList();
+        return get(readerProviderCache, type, mt);
     }
     public List<ProviderInfo<MessageBodyWriter<?>>> getWriters(Class<?> type, MediaType mt) {
-        if (writerProviderCache.isEmpty()) {
-            return Collections.emptyList();
-        }
+        return get(writerProviderCache, type, mt);
+    }
 
-        String key = getKey(type, mt);
+    public void putReaders(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyReader<?>>> candidates) {
+        putReaders(type, mt, candidates, getGeneration());
+    }
 
-        List<ProviderInfo<MessageBodyWriter<?>>> list = writerProviderCache.get(key);
-        return list != null ? list : Collections.emptyList();
+    public void putWriters(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyWriter<?>>> candidates) {
+        putWriters(type, mt, candidates, getGeneration());
     }
 
-    public void putReaders(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyReader<?>>> candidates) {
-        if (candidates == null || candidates.isEmpty()) {
-            return;
-        }
-        checkCacheSize(readerProviderCache);
+    /**
+     * Caches the reader candidates unless the cache has been invalidated since
+     * the given generation was read.
+     */
+    public void putReaders(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyReader<?>>> candidates,
+                           int gen) {
+        put(readerProviderCache, type, mt, candidates, gen);
+    }
 
-        String key = getKey(type, mt);
-        readerProviderCache.put(key, candidates);
+    /**
+     * Caches the writer candidates unless the cache has been invalidated since
+     * the given generation was read.
+     */
+    public void putWriters(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyWriter<?>>> candidates,
+                           int gen) {
+        put(writerProviderCache, type, mt, candidates, gen);
     }
 
-    public void putWriters(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyWriter<?>>> candidates) {
-        if (candidates == null || candidates.isEmpty()) {
-            return;
-        }
-        checkCacheSize(writerProviderCache);
+    /**
+     * Returns the current generation, to be read before the candidates are selected.
+     */
+    public int getGeneration() {
+        return generation.get();
+    }
 
-        String key = getKey(type, mt);
-        writerProviderCache.put(key, candidates);
+    /**
+     * Starts a new generation, typically after the registered providers have changed.
+     * The entries of the previous generations are ignored and replaced as new candidates
+     * are put into the cache.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
     }
 
     public void destroy() {
         this.readerProviderCache.clear();
         this.writerProviderCache.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public boolean isCheckAllCandidates() {
+        return checkAllCandidates;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of the cached reader and writer lookups.
+     */
+    public int size() {
+        return readerProviderCache.size() + writerProviderCache.size();
     }
 
-    private String getKey(Class<?> type, MediaType mt) {
-        return type.getName() + "-" + mt.toString();
+    public long getHitCount() {
+        return hits.sum();
     }
 
-    private static void checkCacheSize(Map<?, ?> map) {
-        final int size = map.size();
-        if (size >= MAX_PROVIDER_CACHE_SIZE) {
-            map.clear();
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private <T> List<ProviderInfo<T>> get(Map<CacheKey, CacheEntry<T>> cache, Class<?> type, MediaType mt) {
+        CacheEntry<T> entry = cache.isEmpty() ? null : cache.get(new CacheKey(type, mt));
+        if (entry == null || entry.generation != generation.get()) {
+            misses.increment();
+            return Collections.emptyList();
         }
+        hits.increment();
+        entry.lastAccess = clock.incrementAndGet();
+        return entry.candidates;
     }
 
-    public boolean isCheckAllCandidates() {
-        return checkAllCandidates;
+    private <T> void put(Map<CacheKey, CacheEntry<T>> cache, Class<?> type, MediaType mt,
+                         List<ProviderInfo<T>> candidates, int gen) {
+        if (candidates == null || candidates.isEmpty() || gen != generation.get()) {
+            return;
+        }
+        CacheEntry<T> entry = new CacheEntry<>(candidates, gen);
+        entry.lastAccess = clock.incrementAndGet();
+        cache.put(new CacheKey(type, mt), entry);
+        if (cache.size() > maxSize) {
+            evict(cache);
+        }
+    }
+
+    private <T> void evict(Map<CacheKey, CacheEntry<T>> cache) {
+        if (!evicting.compareAndSet(false, true)) {
+            // another thread is already making room
+            return;
+        }
+        try {
+            List<Map.Entry<CacheKey, CacheEntry<T>>> entries = new ArrayList<>(cache.entrySet());
+            int count = entries.size() - maxSize + Math.max(1, maxSize / 4);
+            entries.sort((e1, e2) -> Long.compare(e1.getValue().lastAccess, e2.getValue().lastAccess));
+            for (int i = 0; i < count && i < entries.size(); i++) {
+                Map.Entry<CacheKey, CacheEntry<T>> e = entries.get(i);
+                if (cache.remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class CacheEntry<T> {
+        private final List<ProviderInfo<T>> candidates;
+        private final int generation;
+        private volatile long lastAccess;
+
+        CacheEntry(List<ProviderInfo<T>> candidates, int generation) {
+            this.candidates = candidates;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * The Java type and the media type. The media type is compared the same way as
+     * MediaType.equals does but its hash code is computed without creating new strings.
+     */
+    private static final class CacheKey {
+        private final Class<?> type;
+        private final MediaType mediaType;
+        private final int hashCode;
+
+        CacheKey(Class<?> type, MediaType mediaType) {
+            this.type = type;
+            this.mediaType = mediaType;
+            int h = 31 * type.hashCode() + hashIgnoreCase(mediaType.getType());
+            h = 31 * h + hashIgnoreCase(mediaType.getSubtype());
+            this.hashCode = 31 * h + mediaType.getParameters().hashCode();
+        }
+
+        private static int hashIgnoreCase(String s) {
+            int h = 0;
+            for (int i = 0; i < s.length(); i++) {
+                h = 31 * h + Character.toLowerCase(s.charAt(i));
+            }
+            return h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey)o;
+            return hashCode == other.hashCode && type == other.type
+                && mediaType.getType().equalsIgnoreCase(other.mediaType.getType())
+                && mediaType.getSubtype().equalsIgnoreCase(other.mediaType.getSubtype())
+                && mediaType.getParameters().equals(other.mediaType.getParameters());
+        }
     }
 }
@@ -193,6 +193,14 @@ public abstract class ProviderFactory {
     public Bus getBus() {
         return bus;
     }
+
+    /**
+     * Returns the message body reader and writer cache, null if the cache is disabled.
+     */
+    public ProviderCache getProviderCache() {
+        return providerCache;
+    }
+
     protected static ProviderCache initCache(Bus theBus) {
         Object allowProp = theBus.getProperty(PROVIDER_CACHE_ALLOWED);
         boolean allowed = allowProp == null || PropertyUtils.isTrue(allowProp);
@@ -503,8 +511,14 @@ public abstract class ProviderFactory {
                                                             Message m) {
         // Step1: check the cache
 
+        boolean cached = false;
+        int generation = 0;
         if (providerCache != null) {
-            for (ProviderInfo<MessageBodyReader<?>> ep : providerCache.getReaders(type, mediaType)) {
+            // read before the candidates are selected, see ProviderCache
+            generation = providerCache.getGeneration();
+            List<ProviderInfo<MessageBodyReader<?>>> cachedCandidates = providerCache.getReaders(type, mediaType);
+            cached = !cachedCandidates.isEmpty();
+            for (ProviderInfo<MessageBodyReader<?>> ep : cachedCandidates) {
                 if (isReadable(ep, type, genericType, annotations, mediaType, m)) {
                     return (MessageBodyReader<T>)ep.getProvider();
                 }
@@ -522,8 +536,9 @@ public abstract class ProviderFactory {
                 // This writer matches Media Type and Class
                 if (checkAll) {
                     allCandidates.add(ep);
-                } else if (providerCache != null && providerCache.getReaders(type, mediaType).isEmpty()) {
-                    providerCache.putReaders(type, mediaType, Collections.singletonList(ep));
+                } else if (providerCache != null && !cached) {
+                    providerCache.putReaders(type, mediaType, Collections.singletonList(ep), generation);
+                    cached = true;
                 }
                 if (selectedReader == null
                     && isReadable(ep, type, genericType, annotations, mediaType, m)) {
@@ -537,7 +552,7 @@ public abstract class ProviderFactory {
             }
         }
         if (checkAll) {
-            providerCache.putReaders(type, mediaType, allCandidates);
+            providerCache.putReaders(type, mediaType, allCandidates, generation);
         }
         return selectedReader;
     }
@@ -550,8 +565,14 @@ public abstract class ProviderFactory {
                                                             Message m) {
 
         // Step1: check the cache.
+        boolean cached = false;
+        int generation = 0;
         if (providerCache != null) {
-            for (ProviderInfo<MessageBodyWriter<?>> ep : providerCache.getWriters(type, mediaType)) {
+            // read before the candidates are selected, see ProviderCache
+            generation = providerCache.getGeneration();
+            List<ProviderInfo<MessageBodyWriter<?>>> cachedCandidates = providerCache.getWriters(type, mediaType);
+            cached = !cachedCandidates.isEmpty();
+            for (ProviderInfo<MessageBodyWriter<?>> ep : cachedCandidates) {
                 if (isWriteable(ep, type, genericType, annotations, mediaType, m)) {
                     return (MessageBodyWriter<T>)ep.getProvider();
                 }
@@ -572,8 +593,9 @@ public abstract class ProviderFactory {
                 // This writer matches Media Type and Class
                 if (checkAll) {
                     allCandidates.add(ep);
-                } else if (providerCache != null && providerCache.getWriters(type, mediaType).isEmpty()) {
-                    providerCache.putWriters(type, mediaType, Collections.singletonList(ep));
+                } else if (providerCache != null && !cached) {
+                    providerCache.putWriters(type, mediaType, Collections.singletonList(ep), generation);
+                    cached = true;
                 }
                 if (selectedWriter == null
                     && isWriteable(ep, type, genericType, annotations, mediaType, m)) {
@@ -587,7 +609,7 @@ public abstract class ProviderFactory {
             }
         }
         if (checkAll) {
-            providerCache.putWriters(type, mediaType, allCandidates);
+            providerCache.putWriters(type, mediaType, allCandidates, generation);
         }
         return selectedWriter;
 
@@ -730,6 +752,7 @@ public abstract class ProviderFactory {
      * x/y;q=1.0 < x/y;q=0.7.
      */
     private void sortReaders() {
+        invalidateProviderCache();
         if (!customComparatorAvailable(MessageBodyReader.class)) {
             messageReaders.sort(new MessageBodyReaderComparator());
         } else {
@@ -737,6 +760,7 @@ public abstract class ProviderFactory {
         }
     }
     private <T> void sortWriters() {
+        invalidateProviderCache();
         if (!customComparatorAvailable(MessageBodyWriter.class)) {
             messageWriters.sort(new MessageBodyWriterComparator());
         } else {
@@ -988,7 +1012,14 @@ public abstract class ProviderFactory {
         }
     }
 
+    private void invalidateProviderCache() {
+        if (providerCache != null) {
+            providerCache.invalidate();
+        }
+    }
+
     public void clearProviders() {
+        invalidateProviderCache();
         messageReaders.clear();
         messageWriters.clear();
         contextResolvers.clear();
@@ -160,6 +160,10 @@ public final class ServerProviderFactory extends ProviderFactory {
         return getBoundFilters(containerResponseFilters, names);
     }
 
+    public List<ProviderInfo<ExceptionMapper<?>>> getExceptionMappers() {
+        return Collections.unmodifiableList(exceptionMappers);
+    }
+
     public void addBeanParamInfo(BeanParamInfo bpi) {
         beanParams.put(bpi.getResourceClass(), bpi);
         for (Method m : bpi.getResourceClass().getMethods()) {
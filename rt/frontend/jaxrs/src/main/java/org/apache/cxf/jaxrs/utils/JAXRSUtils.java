@@ -88,6 +88,7 @@ import org.apache.cxf.common.util.PackageUtils;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.helpers.DOMUtils;
 import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
@@ -126,6 +127,7 @@ import org.apache.cxf.jaxrs.model.BeanResourceInfo;
 import org.apache.cxf.jaxrs.model.ClassResourceInfo;
 import org.apache.cxf.jaxrs.model.ClassResourceInfoComparator;
 import org.apache.cxf.jaxrs.model.MethodInvocationInfo;
+import org.apache.cxf.jaxrs.model.OperationDispatchCache;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.model.OperationResourceInfoComparator;
 import org.apache.cxf.jaxrs.model.OperationResourceInfoStack;
@@ -157,9 +159,15 @@ public final class JAXRSUtils {
     public static final String DOC_LOCATION = "wadl.location";
     public static final String MEDIA_TYPE_Q_PARAM = "q";
     public static final String MEDIA_TYPE_QS_PARAM = "qs";
+    /**
+     * Maximum number of the cached resource method selection results per endpoint,
+     * 0 or a negative value disables the cache.
+     */
+    public static final String DISPATCH_CACHE_SIZE = "jaxrs.dispatch.cache.size";
     private static final String MEDIA_TYPE_DISTANCE_PARAM = "d";
     private static final String DEFAULT_CONTENT_TYPE = "default.content.type";
     private static final String KEEP_SUBRESOURCE_CANDIDATES = "keep.subresource.candidates";
+    private static final String RESOURCE_COMPARATOR = "org.apache.cxf.jaxrs.comparator";
     private static final Logger LOG = LogUtils.getL7dLogger(JAXRSUtils.class);
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(JAXRSUtils.class);
     private static final String PATH_SEGMENT_SEP = "/";
@@ -313,7 +321,7 @@ public final class JAXRSUtils {
             new TreeMap<ClassResourceInfo, MultivaluedMap<String, String>>(
                 new ClassResourceInfoComparator(message));
 
-        for (ClassResourceInfo cri : resources) {
+        for (ClassResourceInfo cri : getCandidateResources(resources, path, message)) {
             MultivaluedMap<String, String> map = new MetadataMap<>();
             if (cri.getURITemplate().match(path, map)) {
                 candidateList.put(cri, map);
@@ -355,6 +363,18 @@ public final class JAXRSUtils {
 
         return null;
     }
+
+    private static List<ClassResourceInfo> getCandidateResources(List<ClassResourceInfo> resources,
+                                                                 String path, Message message) {
+        Exchange exchange = message == null ? null : message.getExchange();
+        Service service = exchange == null ? null : exchange.getService();
+        if (service instanceof JAXRSServiceImpl
+            && ((JAXRSServiceImpl)service).getClassResourceInfos() == resources) {
+            return ((JAXRSServiceImpl)service).getClassResourceIndex().getCandidates(path);
+        }
+        return resources;
+    }
+
     public static OperationResourceInfo findTargetMethod(
         Map<ClassResourceInfo, MultivaluedMap<String, String>> matchedResources,
         Message message,
@@ -377,6 +397,31 @@ public final class JAXRSUtils {
         boolean recordMatchedUri) {
     //CHECKSTYLE:ON
         final boolean getMethod = HttpMethod.GET.equals(httpMethod);
+        final boolean keepSubresources = MessageUtils.getContextualBoolean(message, KEEP_SUBRESOURCE_CANDIDATES, false);
+
+        // The selection only depends on the request fields when a single resource has been matched
+        OperationDispatchCache dispatchCache = null;
+        OperationDispatchCache.Key dispatchKey = null;
+        if (matchedResources.size() == 1) {
+            dispatchCache = getDispatchCache(message);
+        }
+        if (dispatchCache != null) {
+            Map.Entry<ClassResourceInfo, MultivaluedMap<String, String>> rEntry =
+                matchedResources.entrySet().iterator().next();
+            MultivaluedMap<String, String> values = rEntry.getValue();
+            String path = getCurrentPath(values);
+            dispatchKey = new OperationDispatchCache.Key(rEntry.getKey(), path, httpMethod, requestContentType,
+                                                         acceptContentTypes, keepSubresources);
+            OperationDispatchCache.Entry entry = dispatchCache.get(dispatchKey);
+            if (entry != null) {
+                OperationResourceInfo ori = entry.getOperation();
+                MultivaluedMap<String, String> map = new MetadataMap<>(values);
+                if (ori.getURITemplate().match(path, map)) {
+                    return selectTargetMethod(ori, map, entry.getContentType(), message, httpMethod,
+                                              matchedValues, recordMatchedUri);
+                }
+            }
+        }
 
         MediaType requestType;
         try {
@@ -404,7 +449,7 @@ public final class JAXRSUtils {
                                                                   BUNDLE,
                                                                   resource.getServiceClass().getName()).toString());
 
-            for (OperationResourceInfo ori : resource.getMethodDispatcher().getOperationResourceInfos()) {
+            for (OperationResourceInfo ori : resource.getMethodDispatcher().getOperationResourceInfos(path)) {
                 boolean added = false;
 
                 URITemplate uriTemplate = ori.getURITemplate();
@@ -444,8 +489,7 @@ public final class JAXRSUtils {
                 LOG.fine(matchMessageLogSupplier(ori, path, httpMethod, requestType, acceptContentTypes, added));
             }
         }
-        if (finalPathSubresources != null && pathMatched > 0
-            && !MessageUtils.getContextualBoolean(message, KEEP_SUBRESOURCE_CANDIDATES, false)) {
+        if (finalPathSubresources != null && pathMatched > 0 && !keepSubresources) {
             for (OperationResourceInfo key : finalPathSubresources) {
                 candidateList.remove(key);
             }
@@ -453,29 +497,21 @@ public final class JAXRSUtils {
         if (!candidateList.isEmpty()) {
             Map.Entry<OperationResourceInfo, MultivaluedMap<String, String>> firstEntry =
                 candidateList.entrySet().iterator().next();
-            matchedValues.clear();
-            matchedValues.putAll(firstEntry.getValue());
             OperationResourceInfo ori = firstEntry.getKey();
-            if (headMethodPossible(ori.getHttpMethod(), httpMethod)) {
-                LOG.info(new org.apache.cxf.common.i18n.Message("GET_INSTEAD_OF_HEAD",
-                         BUNDLE, ori.getClassResourceInfo().getServiceClass().getName(),
-                         ori.getMethodToInvoke().getName()).toString());
-            }
-            LOG.fine(() -> new org.apache.cxf.common.i18n.Message("OPER_SELECTED",
-                               BUNDLE, ori.getMethodToInvoke().getName(),
-                               ori.getClassResourceInfo().getServiceClass().getName()).toString());
+            String responseContentType = null;
             if (!ori.isSubResourceLocator()) {
                 MediaType responseMediaType = intersectSortMediaTypes(acceptContentTypes,
                                                                       ori.getProduceTypes(),
                                                                       false).get(0);
-                message.getExchange().put(Message.CONTENT_TYPE, mediaTypeToString(responseMediaType,
-                                                                                  MEDIA_TYPE_Q_PARAM,
-                                                                                  MEDIA_TYPE_QS_PARAM));
+                responseContentType = mediaTypeToString(responseMediaType,
+                                                        MEDIA_TYPE_Q_PARAM,
+                                                        MEDIA_TYPE_QS_PARAM);
             }
-            if (recordMatchedUri) {
-                pushOntoStack(ori, matchedValues, message);
+            if (dispatchKey != null) {
+                dispatchCache.put(dispatchKey, ori, responseContentType);
             }
-            return ori;
+            return selectTargetMethod(ori, firstEntry.getValue(), responseContentType, message, httpMethod,
+                                      matchedValues, recordMatchedUri);
         }
 
         if (!throwException) {
@@ -519,6 +555,55 @@ public final class JAXRSUtils {
 
 
 
+    private static OperationResourceInfo selectTargetMethod(OperationResourceInfo ori,
+                                                            MultivaluedMap<String, String> values,
+                                                            String responseContentType,
+                                                            Message message,
+                                                            String httpMethod,
+                                                            MultivaluedMap<String, String> matchedValues,
+                                                            boolean recordMatchedUri) {
+        matchedValues.clear();
+        matchedValues.putAll(values);
+        if (headMethodPossible(ori.getHttpMethod(), httpMethod)) {
+            LOG.info(new org.apache.cxf.common.i18n.Message("GET_INSTEAD_OF_HEAD",
+                     BUNDLE, ori.getClassResourceInfo().getServiceClass().getName(),
+                     ori.getMethodToInvoke().getName()).toString());
+        }
+        LOG.fine(() -> new org.apache.cxf.common.i18n.Message("OPER_SELECTED",
+                           BUNDLE, ori.getMethodToInvoke().getName(),
+                           ori.getClassResourceInfo().getServiceClass().getName()).toString());
+        if (responseContentType != null) {
+            message.getExchange().put(Message.CONTENT_TYPE, responseContentType);
+        }
+        if (recordMatchedUri) {
+            pushOntoStack(ori, matchedValues, message);
+        }
+        return ori;
+    }
+
+    private static OperationDispatchCache getDispatchCache(Message message) {
+        Exchange exchange = message == null ? null : message.getExchange();
+        Service service = exchange == null ? null : exchange.getService();
+        if (!(service instanceof JAXRSServiceImpl)) {
+            return null;
+        }
+        Endpoint endpoint = exchange.getEndpoint();
+        if (endpoint != null && endpoint.get(RESOURCE_COMPARATOR) != null) {
+            // a custom comparator may select a method using any part of the message
+            return null;
+        }
+        int maxSize = OperationDispatchCache.DEFAULT_MAX_SIZE;
+        Object size = message.getContextualProperty(DISPATCH_CACHE_SIZE);
+        if (size != null) {
+            try {
+                maxSize = size instanceof Number ? ((Number)size).intValue() : Integer.parseInt(size.toString());
+            } catch (NumberFormatException ex) {
+                LOG.warning("Incorrect integer value of " + size + " specified for: " + DISPATCH_CACHE_SIZE);
+            }
+        }
+        return maxSize > 0 ? ((JAXRSServiceImpl)service).getDispatchCache(maxSize) : null;
+    }
+
     public static Level getExceptionLogLevel(Message message, Class<? extends WebApplicationException> exClass) {
         Level logLevel = null;
         Object logLevelProp = message.get(exClass.getName() + ".log.level");
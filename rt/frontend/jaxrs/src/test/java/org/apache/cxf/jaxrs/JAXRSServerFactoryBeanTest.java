@@ -21,16 +21,24 @@ package org.apache.cxf.jaxrs;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
 import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.provider.ManagedProviderCache;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.resources.BookStore;
+import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.management.ManagedComponent;
 import org.apache.cxf.message.MessageImpl;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -68,6 +76,80 @@ public class JAXRSServerFactoryBeanTest {
     }
 
 
+    @Test
+    public void testProviderCacheIsUnregisteredOnDestroy() {
+        Bus bus = new ExtensionManagerBus();
+        RecordingInstrumentationManager iMgr = new RecordingInstrumentationManager();
+        bus.setExtension(iMgr, InstrumentationManager.class);
+        try {
+            for (int i = 0; i < 2; i++) {
+                JAXRSServerFactoryBean bean = new JAXRSServerFactoryBean();
+                bean.setBus(bus);
+                bean.setAddress("local://providercache");
+                bean.setStart(false);
+                bean.setResourceClasses(BookStore.class);
+                Server s = bean.create();
+                assertEquals(1, iMgr.getProviderCaches().size());
+                s.destroy();
+                assertEquals(0, iMgr.getProviderCaches().size());
+                // a second destroy is a no-op
+                s.destroy();
+            }
+        } finally {
+            bus.shutdown(true);
+        }
+    }
+
+    private static class RecordingInstrumentationManager implements InstrumentationManager {
+        private final List<ManagedComponent> registered = new ArrayList<>();
+
+        List<ManagedComponent> getProviderCaches() {
+            List<ManagedComponent> caches = new ArrayList<>();
+            for (ManagedComponent c : registered) {
+                if (c instanceof ManagedProviderCache) {
+                    caches.add(c);
+                }
+            }
+            return caches;
+        }
+
+        public ObjectName register(ManagedComponent component) {
+            registered.add(component);
+            return null;
+        }
+
+        public ObjectName register(ManagedComponent component, boolean forceRegistration) {
+            return register(component);
+        }
+
+        public void register(Object obj, ObjectName name) {
+        }
+
+        public void register(Object obj, ObjectName name, boolean forceRegistration) {
+        }
+
+        public void unregister(ManagedComponent component) {
+            registered.remove(component);
+        }
+
+        public void unregister(ObjectName name) {
+        }
+
+        public void shutdown() {
+        }
+
+        public MBeanServer getMBeanServer() {
+            return null;
+        }
+
+        public String getPersistentBusId() {
+            return null;
+        }
+
+        public void setPersistentBusId(String id) {
+        }
+    }
+
     private static class CustomExceptionMapper implements ExceptionMapper<Exception> {
 
         public Response toResponse(Exception exception) {
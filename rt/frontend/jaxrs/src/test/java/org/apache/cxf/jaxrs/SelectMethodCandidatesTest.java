@@ -50,6 +50,7 @@ import org.apache.cxf.jaxrs.fortest.GenericEntityImpl3;
 import org.apache.cxf.jaxrs.fortest.GenericEntityImpl4;
 import org.apache.cxf.jaxrs.impl.MetadataMap;
 import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationDispatchCache;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.resources.Book;
@@ -59,6 +60,7 @@ import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.Service;
 
 import org.easymock.EasyMock;
 import org.junit.Test;
@@ -799,6 +801,50 @@ public class SelectMethodCandidatesTest {
         assertEquals("readFoo", ori.getMethodToInvoke().getName());
 
     }
+    @Test
+    public void testDispatchCache() throws Exception {
+        JAXRSServiceFactoryBean sf = new JAXRSServiceFactoryBean();
+        sf.setResourceClasses(org.apache.cxf.jaxrs.resources.TestResource.class);
+        sf.create();
+        JAXRSServiceImpl service = (JAXRSServiceImpl)sf.getService();
+        List<ClassResourceInfo> resources = service.getClassResourceInfos();
+
+        String[][] requests = {
+            {"/1/2/3/d/custom", "application/bar,application/foo;q=0.8", "readBar", "application/bar"},
+            {"/1/2/3/d/custom", "application/foo,application/bar;q=0.8", "readFoo", "application/foo"},
+            {"/4/5/6/d/custom", "application/foo,application/bar;q=0.8", "readFoo", "application/foo"},
+            {"/1/2/3/d/1", "application/xml", "readMethod", "application/xml"},
+            {"/7/8/9/d/2", "application/xml", "readMethod", "application/xml"},
+            {"/1/2/3/d/1", "application/json", "unlimitedPath", "application/json"}
+        };
+        for (int i = 0; i < 2; i++) {
+            for (String[] request : requests) {
+                Message m = new MessageImpl();
+                Exchange ex = new ExchangeImpl();
+                ex.setInMessage(m);
+                m.setExchange(ex);
+                ex.put(Service.class, service);
+                Endpoint e = EasyMock.niceMock(Endpoint.class);
+                EasyMock.expect(e.get(ServerProviderFactory.class.getName()))
+                    .andReturn(ServerProviderFactory.getInstance()).anyTimes();
+                EasyMock.replay(e);
+                ex.put(Endpoint.class, e);
+
+                Map<ClassResourceInfo, MultivaluedMap<String, String>> mResources =
+                    JAXRSUtils.selectResourceClass(resources, request[0], m);
+                MetadataMap<String, String> values = new MetadataMap<>();
+                OperationResourceInfo ori = JAXRSUtils.findTargetMethod(mResources, m, "GET", values,
+                                                                        "*/*", sortMediaTypes(request[1]));
+                assertEquals(request[0], request[2], ori.getMethodToInvoke().getName());
+                assertEquals(request[3], ex.get(Message.CONTENT_TYPE));
+                assertEquals(request[0].substring(1, 2), values.getFirst("a"));
+            }
+        }
+        // the entries are keyed on the path left after the resource template has been matched,
+        // so "/1/2/3/d/custom" and "/4/5/6/d/custom" share one while "/1/2/3/d/1" and "/7/8/9/d/2" do not
+        assertEquals(5, service.getDispatchCache(OperationDispatchCache.DEFAULT_MAX_SIZE).size());
+    }
+
     private Message createMessage() {
         return createMessage(false);
     }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.model;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OperationDispatchCacheTest {
+    private static final Method TO_STRING;
+    static {
+        try {
+            TO_STRING = Object.class.getMethod("toString");
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    public void testKeyUsesResourceIdentity() {
+        ClassResourceInfo cri1 = new ClassResourceInfo(Object.class);
+        ClassResourceInfo cri2 = new ClassResourceInfo(Object.class);
+        List<MediaType> accept = Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
+
+        OperationDispatchCache.Key key = createKey(cri1, "/books", "GET", accept);
+        assertEquals(key, createKey(cri1, "/books", "GET", accept));
+        assertEquals(key.hashCode(), createKey(cri1, "/books", "GET", accept).hashCode());
+        assertEquals(key, createKey(cri1, "/books", "GET",
+                                    Collections.singletonList(MediaType.valueOf("Application/XML"))));
+        assertEquals(key.hashCode(), createKey(cri1, "/books", "GET",
+                                    Collections.singletonList(MediaType.valueOf("Application/XML"))).hashCode());
+        assertNotEquals(key, createKey(cri2, "/books", "GET", accept));
+        assertNotEquals(key, createKey(cri1, "/books/1", "GET", accept));
+        assertNotEquals(key, createKey(cri1, "/books", "POST", accept));
+        assertNotEquals(key, createKey(cri1, "/books", "GET", Collections.singletonList(MediaType.WILDCARD_TYPE)));
+        assertNotEquals(key, new OperationDispatchCache.Key(cri1, "/books", "GET", "*/*", accept, true));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        ClassResourceInfo cri = new ClassResourceInfo(Object.class);
+        OperationResourceInfo ori = new OperationResourceInfo(TO_STRING, cri);
+        OperationDispatchCache cache = new OperationDispatchCache(8);
+        OperationDispatchCache.Key[] keys = new OperationDispatchCache.Key[9];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = createKey(cri, "/" + i, "GET", Collections.singletonList(MediaType.WILDCARD_TYPE));
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.put(keys[i], ori, "application/xml");
+        }
+        assertEquals(8, cache.size());
+        assertNotNull(cache.get(keys[0]));
+        assertNotNull(cache.get(keys[1]));
+
+        cache.put(keys[8], ori, null);
+        assertEquals(6, cache.size());
+        assertNotNull(cache.get(keys[0]));
+        assertNotNull(cache.get(keys[1]));
+        assertNull(cache.get(keys[2]));
+        assertNull(cache.get(keys[3]));
+        assertNull(cache.get(keys[4]));
+        assertNotNull(cache.get(keys[5]));
+        assertSame(ori, cache.get(keys[8]).getOperation());
+        assertNull(cache.get(keys[8]).getContentType());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private static OperationDispatchCache.Key createKey(ClassResourceInfo cri, String path, String httpMethod,
+                                                        List<MediaType> accept) {
+        return new OperationDispatchCache.Key(cri, path, httpMethod, "*/*", accept, false);
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.cxf.jaxrs.JAXRSServiceFactoryBean;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.resources.BookStore;
+import org.apache.cxf.jaxrs.resources.TestResource;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class URITemplateIndexTest {
+
+    private static final List<String> TEMPLATES = Arrays.asList(
+        "/",
+        "/customers",
+        "/customers/{id}",
+        "/customers/{id}/orders",
+        "/customers/orders/{id: \\d+}",
+        "/{resource}",
+        "/orders/",
+        "/orders/v1.0",
+        "/café/menu",
+        "/a?b/c",
+        "/items{suffix}",
+        "/{path: .*}/customers",
+        "/customers/orders",
+        "/customers//x");
+
+    private static final List<String> PATHS = Arrays.asList(
+        "/",
+        "/customers",
+        "/customers/",
+        "/customers/1",
+        "/customers/1/orders",
+        "/customers/orders",
+        "/customers/orders/2",
+        "/customers/orders/x",
+        "/customersx",
+        "/orders",
+        "/orders/v1.0",
+        "/orders/v1x0",
+        "/caf%C3%A9/menu",
+        "/ab/c",
+        "/b/c",
+        "/items.json",
+        "/x/y/customers",
+        "/customers;a=b/1",
+        "//customers",
+        "/customers//x",
+        "customers");
+
+    @Test
+    public void testLiteralSegments() {
+        assertEquals(Arrays.asList(), URITemplateIndex.getLiteralSegments("/"));
+        assertEquals(Arrays.asList("customers"), URITemplateIndex.getLiteralSegments("/customers/{id}"));
+        assertEquals(Arrays.asList("customers", "orders"),
+                     URITemplateIndex.getLiteralSegments("/customers/orders/"));
+        assertEquals(Arrays.asList(), URITemplateIndex.getLiteralSegments("/items{suffix}"));
+        // URITemplate encodes '?' before it is turned into a regular expression
+        assertEquals(Arrays.asList("a%3Fb", "c"), URITemplateIndex.getLiteralSegments("/a?b/c"));
+        assertEquals(Arrays.asList("caf%C3%A9", "menu"), URITemplateIndex.getLiteralSegments("/café/menu"));
+        assertEquals(Arrays.asList(), URITemplateIndex.getLiteralSegments("customers"));
+    }
+
+    @Test
+    public void testCandidatesAgreeWithFullScan() {
+        List<URITemplate> templates = new ArrayList<>();
+        for (String t : TEMPLATES) {
+            templates.add(new URITemplate(t));
+        }
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, t -> t);
+        for (String path : PATHS) {
+            assertEquals(path, matching(templates, path), matching(index.getCandidates(path), path));
+        }
+    }
+
+    @Test
+    public void testCandidatesAreNarrowedAndOrdered() {
+        List<URITemplate> templates = new ArrayList<>();
+        for (String t : TEMPLATES) {
+            templates.add(new URITemplate(t));
+        }
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, t -> t);
+        assertEquals(Arrays.asList("/", "/customers", "/customers/{id}", "/customers/{id}/orders",
+                                   "/customers/orders/{id: \\d+}", "/{resource}", "/items{suffix}",
+                                   "/{path: .*}/customers", "/customers/orders", "/customers//x"),
+                     values(index.getCandidates("/customers/orders/2")));
+        assertEquals(Arrays.asList("/", "/{resource}", "/items{suffix}", "/{path: .*}/customers"),
+                     values(index.getCandidates("/unknown")));
+        assertEquals(TEMPLATES, values(index.getCandidates("/customers;a=b")));
+    }
+
+    @Test
+    public void testServiceIndexIsDroppedOnInvalidation() {
+        List<ClassResourceInfo> resources = new ArrayList<>();
+        resources.add(createResource("/customers"));
+        resources.add(createResource("/orders"));
+        JAXRSServiceImpl service = new JAXRSServiceImpl(resources);
+        URITemplateIndex<ClassResourceInfo> index = service.getClassResourceIndex();
+        assertEquals(1, index.getCandidates("/orders").size());
+
+        // the index is not revalidated on lookup
+        ClassResourceInfo items = createResource("/items");
+        resources.set(1, items);
+        assertSame(index, service.getClassResourceIndex());
+
+        service.invalidateClassResourceIndex();
+        index = service.getClassResourceIndex();
+        assertEquals(Arrays.asList(items), index.getCandidates("/items"));
+        assertEquals(0, index.getCandidates("/orders").size());
+
+        resources.get(0).setURITemplate(new URITemplate("/clients"));
+        service.invalidateClassResourceIndex();
+        URITemplateIndex<ClassResourceInfo> rebuilt = service.getClassResourceIndex();
+        assertNotSame(index, rebuilt);
+        assertEquals(Arrays.asList(resources.get(0)), rebuilt.getCandidates("/clients"));
+        assertEquals(0, rebuilt.getCandidates("/customers").size());
+    }
+
+    @Test
+    public void testFactoryDropsServiceIndex() {
+        JAXRSServiceFactoryBean sf = new JAXRSServiceFactoryBean();
+        sf.setResourceClasses(BookStore.class);
+        JAXRSServiceImpl service = (JAXRSServiceImpl)sf.create();
+        URITemplateIndex<ClassResourceInfo> index = service.getClassResourceIndex();
+        assertEquals(1, index.size());
+
+        sf.setResourceClasses(TestResource.class);
+        URITemplateIndex<ClassResourceInfo> rebuilt = service.getClassResourceIndex();
+        assertNotSame(index, rebuilt);
+        assertEquals(2, rebuilt.size());
+    }
+
+    @Test
+    public void testOperationIndexIsDroppedOnTemplateChange() {
+        ClassResourceInfo cri = ResourceUtils.createClassResourceInfo(BookStore.class, BookStore.class,
+                                                                      true, true);
+        MethodDispatcher md = cri.getMethodDispatcher();
+        OperationResourceInfo ori = md.getOperationResourceInfos().stream()
+            .filter(o -> o.getURITemplate().getValue().startsWith("/books")).findFirst().get();
+        assertFalse(md.getOperationResourceInfos("/unknownpath").contains(ori));
+
+        ori.setURITemplate(new URITemplate("/unknownpath"));
+        assertTrue(md.getOperationResourceInfos("/unknownpath").contains(ori));
+    }
+
+    private static ClassResourceInfo createResource(String template) {
+        ClassResourceInfo cri = new ClassResourceInfo(Object.class);
+        cri.setURITemplate(new URITemplate(template));
+        return cri;
+    }
+
+    private static List<String> matching(List<URITemplate> templates, String path) {
+        List<String> result = new ArrayList<>();
+        for (URITemplate t : templates) {
+            if (t.match(path, new MetadataMap<String, String>())) {
+                result.add(t.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static List<String> values(List<URITemplate> templates) {
+        List<String> result = new ArrayList<>();
+        for (URITemplate t : templates) {
+            result.add(t.getValue());
+        }
+        return result;
+    }
+}
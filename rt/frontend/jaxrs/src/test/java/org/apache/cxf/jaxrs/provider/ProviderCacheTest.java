@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.provider;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.jaxrs.model.ProviderInfo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProviderCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        ProviderCache cache = new ProviderCache(false, 10);
+        List<ProviderInfo<MessageBodyReader<?>>> readers = readers(new StringTextProvider());
+        assertTrue(cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        cache.putReaders(String.class, MediaType.TEXT_PLAIN_TYPE, readers);
+
+        assertSame(readers, cache.getReaders(String.class, MediaType.valueOf("TEXT/Plain")));
+        assertTrue(cache.getReaders(String.class, MediaType.valueOf("text/plain;charset=UTF-8")).isEmpty());
+        assertTrue(cache.getReaders(Object.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        assertTrue(cache.getWriters(String.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidate() {
+        ProviderCache cache = new ProviderCache(false, 10);
+        List<ProviderInfo<MessageBodyWriter<?>>> writers = writers(new StringTextProvider());
+        cache.putWriters(String.class, MediaType.TEXT_PLAIN_TYPE, writers);
+        cache.invalidate();
+        assertTrue(cache.getWriters(String.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+
+        cache.putWriters(String.class, MediaType.TEXT_PLAIN_TYPE, writers);
+        assertSame(writers, cache.getWriters(String.class, MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(1, cache.size());
+
+        cache.destroy();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidateBetweenLookupAndPut() {
+        ProviderCache cache = new ProviderCache(true, 10);
+        List<ProviderInfo<MessageBodyReader<?>>> readers = readers(new StringTextProvider());
+        int generation = cache.getGeneration();
+        assertTrue(cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        // the providers change while the candidates are being selected
+        cache.invalidate();
+        cache.putReaders(String.class, MediaType.TEXT_PLAIN_TYPE, readers, generation);
+        assertEquals(0, cache.size());
+        assertTrue(cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+
+        cache.putReaders(String.class, MediaType.TEXT_PLAIN_TYPE, readers, cache.getGeneration());
+        assertSame(readers, cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void testConcurrentInvalidate() throws Exception {
+        ProviderCache cache = new ProviderCache(false, 10);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    cache.invalidate();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(4000, cache.getGeneration());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        ProviderCache cache = new ProviderCache(false, 4);
+        List<ProviderInfo<MessageBodyReader<?>>> readers = readers(new StringTextProvider());
+        Class<?>[] types = {String.class, Integer.class, Long.class, Short.class, Byte.class};
+        for (int i = 0; i < 4; i++) {
+            cache.putReaders(types[i], MediaType.TEXT_PLAIN_TYPE, readers);
+        }
+        cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE);
+
+        cache.putReaders(Byte.class, MediaType.TEXT_PLAIN_TYPE, readers);
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertSame(readers, cache.getReaders(String.class, MediaType.TEXT_PLAIN_TYPE));
+        assertTrue(cache.getReaders(Integer.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        assertTrue(cache.getReaders(Long.class, MediaType.TEXT_PLAIN_TYPE).isEmpty());
+        assertSame(readers, cache.getReaders(Short.class, MediaType.TEXT_PLAIN_TYPE));
+        assertSame(readers, cache.getReaders(Byte.class, MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    private static List<ProviderInfo<MessageBodyReader<?>>> readers(MessageBodyReader<?> reader) {
+        return Collections.singletonList(new ProviderInfo<MessageBodyReader<?>>(reader,
+                                                                               new ExtensionManagerBus(), true));
+    }
+
+    private static List<ProviderInfo<MessageBodyWriter<?>>> writers(MessageBodyWriter<?> writer) {
+        return Collections.singletonList(new ProviderInfo<MessageBodyWriter<?>>(writer,
+                                                                               new ExtensionManagerBus(), true));
+    }
+}
@@ -416,6 +416,22 @@ public class ProviderFactoryTest {
         assertSame(wc2, readers.get(8).getProvider());
     }
 
+    @Test
+    public void testProviderCacheIsInvalidatedByNewProviders() {
+        ProviderFactory pf = ServerProviderFactory.getInstance();
+        ProviderCache cache = pf.getProviderCache();
+        MessageBodyWriter<Book> writer = pf.createMessageBodyWriter(Book.class, null, null,
+                                                                    MediaType.TEXT_XML_TYPE, new MessageImpl());
+        assertSame(writer, pf.createMessageBodyWriter(Book.class, null, null,
+                                                      MediaType.TEXT_XML_TYPE, new MessageImpl()));
+        assertEquals(1, cache.getHitCount());
+
+        JAXBElementProvider<Book> provider = new JAXBElementProvider<>();
+        pf.registerUserProvider(provider);
+        assertSame(provider, pf.createMessageBodyWriter(Book.class, null, null,
+                                                        MediaType.TEXT_XML_TYPE, new MessageImpl()));
+    }
+
     @Test
     public void testCustomJaxbProvider() {
         ProviderFactory pf = ServerProviderFactory.getInstance();
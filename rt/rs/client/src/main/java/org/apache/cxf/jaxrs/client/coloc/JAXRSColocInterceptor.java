@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client.coloc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerRegistry;
+import org.apache.cxf.interceptor.ClientFaultConverter;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.interceptor.OneWayProcessorInterceptor;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.interceptor.ServiceInvokerInterceptor;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.client.spec.ClientRequestFilterInterceptor;
+import org.apache.cxf.jaxrs.interceptor.JAXRSDefaultFaultOutInterceptor;
+import org.apache.cxf.jaxrs.interceptor.JAXRSInInterceptor;
+import org.apache.cxf.jaxrs.interceptor.JAXRSOutInterceptor;
+import org.apache.cxf.jaxrs.lifecycle.ResourceProvider;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.Parameter;
+import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.model.ProviderInfo;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.MessageObserver;
+
+/**
+ * Invokes the resource method of a co-located JAX-RS server directly when the proxy
+ * address matches a server endpoint in the ServerRegistry of the bus. Runs after the client
+ * request filters; the result is handed to the client in chain the same way as a response
+ * set with ClientRequestContext.abortWith, so the client response filters still run.
+ *
+ * Invocations that depend on the server request (container filters, context injection,
+ * asynchronous or non-singleton resources, default parameter values) use the regular transport.
+ * So do all invocations of a server endpoint which has interceptors beyond the JAX-RS defaults,
+ * for example security, throttling or logging interceptors, as the direct invocation would
+ * bypass them. Methods with a request body parameter, which includes most POST and PUT methods,
+ * also use the transport because the body has to be written and read by the message body
+ * providers to get the server representation.
+ *
+ * Exceptions thrown by the resource method are converted by the server ExceptionMappers.
+ * The entity returned by the resource method is passed to the client as is, without a copy,
+ * so the client and the server share that object; resources which return mutable shared
+ * state should not be used with this interceptor.
+ */
+public class JAXRSColocInterceptor extends AbstractPhaseInterceptor<Message> {
+    private static final Logger LOG = LogUtils.getL7dLogger(JAXRSColocInterceptor.class);
+    // only used for WADL requests which are never colocated
+    private static final String WADL_GENERATOR = "org.apache.cxf.jaxrs.model.wadl.WadlGenerator";
+    private static final Set<String> DEFAULT_INTERCEPTORS = new HashSet<>(Arrays.asList(
+        JAXRSInInterceptor.class.getName(),
+        JAXRSOutInterceptor.class.getName(),
+        JAXRSDefaultFaultOutInterceptor.class.getName(),
+        ClientFaultConverter.class.getName(),
+        MessageSenderInterceptor.class.getName(),
+        ServiceInvokerInterceptor.class.getName(),
+        OutgoingChainInterceptor.class.getName(),
+        OneWayProcessorInterceptor.class.getName()));
+
+    private final Bus bus;
+
+    public JAXRSColocInterceptor(Bus bus) {
+        super(Phase.PRE_LOGICAL);
+        addAfter(ClientRequestFilterInterceptor.class.getName());
+        this.bus = bus;
+    }
+
+    public void handleMessage(Message outMessage) throws Fault {
+        Exchange exchange = outMessage.getExchange();
+        OperationResourceInfo ori = outMessage.getContent(OperationResourceInfo.class);
+        if (ori == null || !exchange.isSynchronous() || exchange.get(Response.class) != null) {
+            return;
+        }
+        Server server = getColocatedServer(exchange.getEndpoint());
+        if (server == null) {
+            return;
+        }
+        ServerProviderFactory factory =
+            (ServerProviderFactory)server.getEndpoint().get(ServerProviderFactory.class.getName());
+        ClassResourceInfo cri = getResourceInfo(server, ori);
+        if (factory == null || cri == null) {
+            return;
+        }
+        OperationResourceInfo serverOri = getOperationResourceInfo(cri, ori);
+        // the proxy does not set the parameter list for methods without parameters
+        List<?> params = (List<?>)outMessage.get(List.class);
+        if (params == null) {
+            params = Collections.emptyList();
+        }
+        if (serverOri == null || !hasDefaultInterceptors(server.getEndpoint())
+            || !canInvokeDirectly(factory, cri, serverOri, params)) {
+            return;
+        }
+
+        Response response = invoke(factory, cri.getResourceProvider(), serverOri, params, outMessage);
+        LOG.fine(() -> "Invoked colocated resource method " + serverOri.getMethodToInvoke());
+
+        outMessage.getInterceptorChain().abort();
+        exchange.put(Response.class, response);
+
+        Message inMessage = new MessageImpl();
+        inMessage.setExchange(exchange);
+        inMessage.put(Message.RESPONSE_CODE, response.getStatus());
+        inMessage.put(Message.PROTOCOL_HEADERS, response.getMetadata());
+        exchange.setInMessage(inMessage);
+
+        MessageObserver observer = exchange.get(MessageObserver.class);
+        observer.onMessage(inMessage);
+    }
+
+    protected Server getColocatedServer(Endpoint clientEndpoint) {
+        ServerRegistry registry = bus.getExtension(ServerRegistry.class);
+        if (registry == null || clientEndpoint == null) {
+            return null;
+        }
+        String address = clientEndpoint.getEndpointInfo().getAddress();
+        for (Server server : registry.getServers()) {
+            Endpoint endpoint = server.getEndpoint();
+            if (server.isStarted() && endpoint.getService() instanceof JAXRSServiceImpl
+                && address != null && address.equals(endpoint.getEndpointInfo().getAddress())) {
+                return server;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasDefaultInterceptors(Endpoint endpoint) {
+        for (InterceptorProvider p : Arrays.asList(bus, endpoint, endpoint.getService(), endpoint.getBinding())) {
+            if (p != null && !(isDefault(p.getInInterceptors()) && isDefault(p.getOutInterceptors())
+                && isDefault(p.getInFaultInterceptors()) && isDefault(p.getOutFaultInterceptors()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDefault(Collection<Interceptor<? extends Message>> interceptors) {
+        for (Interceptor<? extends Message> i : interceptors) {
+            if (!DEFAULT_INTERCEPTORS.contains(i.getClass().getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ClassResourceInfo getResourceInfo(Server server, OperationResourceInfo ori) {
+        Class<?> proxyClass = ori.getClassResourceInfo().getServiceClass();
+        for (ClassResourceInfo cri : ((JAXRSServiceImpl)server.getEndpoint().getService()).getClassResourceInfos()) {
+            if (proxyClass.isAssignableFrom(cri.getServiceClass())) {
+                return cri;
+            }
+        }
+        return null;
+    }
+
+    private static OperationResourceInfo getOperationResourceInfo(ClassResourceInfo cri,
+                                                                  OperationResourceInfo ori) {
+        Method annotated = ori.getAnnotatedMethod();
+        for (OperationResourceInfo serverOri : cri.getMethodDispatcher().getOperationResourceInfos()) {
+            Method m = serverOri.getAnnotatedMethod();
+            if (m != null && annotated != null && m.getName().equals(annotated.getName())
+                && Arrays.equals(m.getParameterTypes(), annotated.getParameterTypes())) {
+                return serverOri;
+            }
+        }
+        return null;
+    }
+
+    private static boolean canInvokeDirectly(ServerProviderFactory factory,
+                                             ClassResourceInfo cri,
+                                             OperationResourceInfo ori,
+                                             List<?> params) {
+        ResourceProvider provider = cri.getResourceProvider();
+        if (provider == null || !provider.isSingleton() || cri.contextsAvailable()
+            || ori.isAsync() || ori.isSubResourceLocator()
+            || params.size() != ori.getMethodToInvoke().getParameterCount()) {
+            return false;
+        }
+        for (Parameter p : ori.getParameters()) {
+            if (p.getType() == ParameterType.CONTEXT || p.getType() == ParameterType.REQUEST_BODY
+                || p.getDefaultValue() != null
+                    && (p.getIndex() >= params.size() || params.get(p.getIndex()) == null)) {
+                return false;
+            }
+        }
+        for (ProviderInfo<ExceptionMapper<?>> mapper : factory.getExceptionMappers()) {
+            if (mapper.contextsAvailable()) {
+                return false;
+            }
+        }
+        for (ProviderInfo<ContainerRequestFilter> filter : factory.getPreMatchContainerRequestFilters()) {
+            if (!WADL_GENERATOR.equals(filter.getProvider().getClass().getName())) {
+                return false;
+            }
+        }
+        return factory.getPostMatchContainerRequestFilters(ori.getNameBindings()).isEmpty()
+            && factory.getContainerResponseFilters(ori.getNameBindings()).isEmpty();
+    }
+
+    private static Response invoke(ServerProviderFactory factory, ResourceProvider provider,
+                                   OperationResourceInfo ori, List<?> params, Message outMessage) {
+        Method method = ori.getMethodToInvoke();
+        Object[] args = params.toArray();
+        Object resource = provider.getInstance(outMessage);
+        try {
+            Object result = method.invoke(resource, args);
+            if (result instanceof Response) {
+                return (Response)result;
+            }
+            return result == null ? Response.noContent().build() : Response.ok(result).build();
+        } catch (InvocationTargetException ex) {
+            LOG.log(Level.FINE, "Colocated resource method failed", ex.getCause());
+            return toResponse(factory, ex.getCause(), outMessage);
+        } catch (IllegalAccessException ex) {
+            throw new Fault(ex);
+        } finally {
+            provider.releaseInstance(outMessage, resource);
+        }
+    }
+
+    /**
+     * Converts the exception the same way as ExceptionUtils.convertFaultToResponse does on the server.
+     */
+    private static <T extends Throwable> Response toResponse(ServerProviderFactory factory, T ex,
+                                                             Message outMessage) {
+        if (ex instanceof WebApplicationException) {
+            WebApplicationException webEx = (WebApplicationException)ex;
+            if (webEx.getResponse().hasEntity() && webEx.getCause() == null) {
+                return webEx.getResponse();
+            }
+        }
+        Response response = null;
+        ExceptionMapper<T> mapper = factory.createExceptionMapper(ex.getClass(), outMessage);
+        if (mapper != null) {
+            try {
+                response = mapper.toResponse(ex);
+            } catch (Throwable mapperEx) {
+                LOG.log(Level.FINE, "Exception mapper failed", mapperEx);
+                return Response.serverError().build();
+            }
+        }
+        if (response == null && ex.getCause() instanceof WebApplicationException) {
+            response = ((WebApplicationException)ex.getCause()).getResponse();
+        }
+        return response == null ? Response.serverError().build() : response;
+    }
+}
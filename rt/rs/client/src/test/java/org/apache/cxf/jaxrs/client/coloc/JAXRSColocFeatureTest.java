@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client.coloc;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class JAXRSColocFeatureTest {
+    private static final String ADDRESS = "local://coloc";
+    private Server server;
+    private final BookStoreImpl store = new BookStoreImpl();
+
+    @Path("/store")
+    public interface BookStore {
+        @GET
+        @Path("/item")
+        Item getItem();
+
+        @GET
+        @Path("/name")
+        @Produces("text/plain")
+        String getName();
+
+        @GET
+        @Path("/missing")
+        @Produces("text/plain")
+        String getMissing();
+
+        @GET
+        @Path("/conflict")
+        @Produces("text/plain")
+        String getConflict();
+    }
+
+    public static class Item {
+    }
+
+    public static class BookStoreImpl implements BookStore {
+        private final Item item = new Item();
+
+        public Item getItem() {
+            return item;
+        }
+
+        public String getName() {
+            return "coloc";
+        }
+
+        public String getMissing() {
+            throw new NotFoundException();
+        }
+
+        public String getConflict() {
+            throw new IllegalStateException();
+        }
+    }
+
+    public static class ConflictMapper implements ExceptionMapper<IllegalStateException> {
+        @Override
+        public Response toResponse(IllegalStateException exception) {
+            // Item has no message body writer, so the transport would turn this into a 500
+            return Response.status(409).entity(new Item()).build();
+        }
+    }
+
+    public static class CountingInterceptor extends AbstractPhaseInterceptor<Message> {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public CountingInterceptor() {
+            super(Phase.RECEIVE);
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            count.incrementAndGet();
+        }
+    }
+
+    public static class CountingFilter implements ContainerRequestFilter {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void filter(ContainerRequestContext requestContext) throws IOException {
+            count.incrementAndGet();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        server.destroy();
+    }
+
+    @Test
+    public void testResourceMethodIsInvokedDirectly() {
+        startServer(null);
+        // Item has no message body writer, so only a direct invocation can return it;
+        // the server entity is not copied
+        assertSame(store.getItem(), createProxy().getItem());
+        assertEquals("coloc", createProxy().getName());
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void testWebApplicationException() {
+        startServer(null);
+        createProxy().getMissing();
+    }
+
+    @Test
+    public void testContainerFiltersUseTransport() {
+        CountingFilter filter = new CountingFilter();
+        startServer(filter);
+        assertEquals("coloc", createProxy().getName());
+        assertEquals(1, filter.count.get());
+    }
+
+    @Test
+    public void testExceptionMapper() {
+        startServer(new ConflictMapper());
+        try {
+            createProxy().getConflict();
+            fail("ClientErrorException expected");
+        } catch (ClientErrorException ex) {
+            assertEquals(409, ex.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testServerInterceptorsUseTransport() {
+        CountingInterceptor interceptor = new CountingInterceptor();
+        JAXRSServerFactoryBean sf = createServerFactory(null);
+        sf.getInInterceptors().add(interceptor);
+        server = sf.create();
+        assertEquals("coloc", createProxy().getName());
+        assertEquals(1, interceptor.count.get());
+    }
+
+    private void startServer(Object provider) {
+        server = createServerFactory(provider).create();
+    }
+
+    private JAXRSServerFactoryBean createServerFactory(Object provider) {
+        JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
+        sf.setResourceClasses(BookStoreImpl.class);
+        sf.setResourceProvider(BookStoreImpl.class, new SingletonResourceProvider(store, false));
+        if (provider != null) {
+            sf.setProvider(provider);
+        }
+        sf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        sf.setAddress(ADDRESS);
+        return sf;
+    }
+
+    private BookStore createProxy() {
+        JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+        bean.setAddress(ADDRESS);
+        bean.setResourceClass(BookStore.class);
+        bean.setFeatures(Collections.singletonList(new JAXRSColocFeature()));
+        return bean.create(BookStore.class);
+    }
+}
@@ -19,13 +19,17 @@
 package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwe.JweCompactConsumer;
+import org.apache.cxf.rs.security.jose.jwe.JweCompactStreamConsumer;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionProvider;
 import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
@@ -37,6 +41,7 @@ public class AbstractJweDecryptingFilter {
     private JweDecryptionProvider decryption;
     private String defaultMediaType;
     private boolean checkEmptyStream;
+    private boolean useJweInputStream;
     
     protected JweDecryptionOutput decrypt(final byte[] content) throws IOException {
         JweCompactConsumer jwe = new JweCompactConsumer(new String(content, StandardCharsets.UTF_8));
@@ -47,6 +52,15 @@ public class AbstractJweDecryptingFilter {
         return out;
     }
 
+    protected JweHeaders decrypt(InputStream encryptedContent, OutputStream decryptedContent) throws IOException {
+        JweCompactStreamConsumer jwe = new JweCompactStreamConsumer(encryptedContent);
+        JweDecryptionProvider theDecryptor = getInitializedDecryptionProvider(jwe.getJweHeaders());
+        IOUtils.copyAndCloseInput(jwe.getDecryptedContentStream(theDecryptor), decryptedContent);
+        JoseUtils.traceHeaders(jwe.getJweHeaders());
+        validateHeaders(jwe.getJweHeaders());
+        return jwe.getJweHeaders();
+    }
+
     protected void validateHeaders(JweHeaders headers) {
         // complete
     }
@@ -90,5 +104,18 @@ public class AbstractJweDecryptingFilter {
     public void setCheckEmptyStream(boolean checkEmptyStream) {
         this.checkEmptyStream = checkEmptyStream;
     }
+
+    public boolean isUseJweInputStream() {
+        return useJweInputStream;
+    }
+
+    /**
+     * Decrypt the content while it is being read instead of reading the whole JWE
+     * sequence into memory. AES-GCM content is decrypted in chunks, the decrypted
+     * content is cached with a {@link org.apache.cxf.io.CachedOutputStream}.
+     */
+    public void setUseJweInputStream(boolean useJweInputStream) {
+        this.useJweInputStream = useJweInputStream;
+    }
     
 }
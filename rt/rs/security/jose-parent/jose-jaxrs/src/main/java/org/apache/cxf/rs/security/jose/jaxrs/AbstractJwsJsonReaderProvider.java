@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.rs.security.jose.jaxrs;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,7 @@ import org.apache.cxf.rs.security.jose.jws.JwsException;
 import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonSignatureEntry;
+import org.apache.cxf.rs.security.jose.jws.JwsJsonStreamConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 import org.apache.cxf.rs.security.jose.jws.JwsUtils;
 
@@ -43,6 +45,7 @@ public class AbstractJwsJsonReaderProvider {
     private String defaultMediaType;
     private Map<String, Object> entryProps;
     private boolean checkEmptyStream;
+    private boolean useJwsJsonInputStream;
     
     public void setSignatureVerifier(JwsSignatureVerifier signatureVerifier) {
         this.sigVerifier = signatureVerifier;
@@ -74,6 +77,17 @@ public class AbstractJwsJsonReaderProvider {
         JAXRSUtils.getCurrentMessage().put(JwsJsonConsumer.class, c);
     }
 
+    protected void validate(JwsJsonStreamConsumer c, JwsSignatureVerifier theSigVerifier)
+        throws JwsException, IOException {
+
+        List<JwsJsonSignatureEntry> remaining =
+            c.verifyAndGetNonValidated(Collections.singletonList(theSigVerifier), entryProps);
+        if (!remaining.isEmpty()) {
+            JAXRSUtils.getCurrentMessage().put("jws.json.remaining.entries", remaining);
+        }
+        JAXRSUtils.getCurrentMessage().put(JwsJsonStreamConsumer.class, c);
+    }
+
     public Map<String, Object> getEntryProps() {
         return entryProps;
     }
@@ -106,5 +120,22 @@ public class AbstractJwsJsonReaderProvider {
         this.checkEmptyStream = checkEmptyStream;
     }
 
+    public boolean isUseJwsJsonInputStream() {
+        return useJwsJsonInputStream;
+    }
+
+    /**
+     * Cache the payload with a {@link org.apache.cxf.io.CachedOutputStream} and
+     * decode it only once the signature has been verified instead of reading the
+     * whole JWS JSON document into memory.
+     *
+     * The message then holds the {@link JwsJsonStreamConsumer} instead of the
+     * {@link JwsJsonConsumer}, which needs the whole document. Its signature
+     * entries are available, but its payload is the entity read by the application.
+     */
+    public void setUseJwsJsonInputStream(boolean useJwsJsonInputStream) {
+        this.useJwsJsonInputStream = useJwsJsonInputStream;
+    }
+
     
 }
@@ -34,6 +34,7 @@ public class AbstractJwsReaderProvider {
     private JwsSignatureVerifier sigVerifier;
     private String defaultMediaType;
     private boolean checkEmptyStream;
+    private boolean useJwsInputStream;
     
     public void setSignatureVerifier(JwsSignatureVerifier signatureVerifier) {
         this.sigVerifier = signatureVerifier;
@@ -78,5 +79,18 @@ public class AbstractJwsReaderProvider {
     public void setCheckEmptyStream(boolean checkEmptyStream) {
         this.checkEmptyStream = checkEmptyStream;
     }
+
+    public boolean isUseJwsInputStream() {
+        return useJwsInputStream;
+    }
+
+    /**
+     * Verify the signature while the payload is being read instead of reading
+     * the whole JWS sequence into memory. The verified payload is cached
+     * with a {@link org.apache.cxf.io.CachedOutputStream}.
+     */
+    public void setUseJwsInputStream(boolean useJwsInputStream) {
+        this.useJwsInputStream = useJwsInputStream;
+    }
     
 }
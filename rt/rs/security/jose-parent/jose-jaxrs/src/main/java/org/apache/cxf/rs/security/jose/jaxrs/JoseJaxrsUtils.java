@@ -18,6 +18,9 @@
  */
 package org.apache.cxf.rs.security.jose.jaxrs;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +31,8 @@ import java.util.Set;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 import org.apache.cxf.rs.security.jose.common.JoseHeaders;
 
@@ -92,4 +97,33 @@ public final class JoseJaxrsUtils {
             throw ExceptionUtils.toBadRequestException(null, null);
         }
     }
+
+    /**
+     * Returns null if the stream has no content, otherwise a stream
+     * which still starts with the first byte.
+     */
+    public static InputStream getNonEmptyStream(InputStream is) throws IOException {
+        PushbackInputStream pis = new PushbackInputStream(is, 1);
+        int b = pis.read();
+        if (b == -1) {
+            return null;
+        }
+        pis.unread(b);
+        return pis;
+    }
+
+    /**
+     * Reads the stream into a {@link CachedOutputStream} which keeps large
+     * content on disk rather than in memory.
+     */
+    public static CachedOutputStream cacheStream(InputStream is) throws IOException {
+        CachedOutputStream cos = new CachedOutputStream();
+        try {
+            IOUtils.copyAndCloseInput(is, cos);
+        } catch (IOException | RuntimeException ex) {
+            cos.close();
+            throw ex;
+        }
+        return cos;
+    }
 }
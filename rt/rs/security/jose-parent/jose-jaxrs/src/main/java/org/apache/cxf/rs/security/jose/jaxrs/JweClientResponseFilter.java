@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
@@ -29,9 +30,11 @@ import javax.ws.rs.client.ClientResponseFilter;
 import javax.ws.rs.core.Response;
 
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
+import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
 
 @Priority(Priorities.JWE_CLIENT_READ_PRIORITY)
 public class JweClientResponseFilter extends AbstractJweDecryptingFilter implements ClientResponseFilter {
@@ -42,6 +45,10 @@ public class JweClientResponseFilter extends AbstractJweDecryptingFilter impleme
                 || isCheckEmptyStream() && !res.hasEntity()) {
             return;
         }
+        if (isUseJweInputStream()) {
+            filterStream(res);
+            return;
+        }
         final byte[] encryptedContent = IOUtils.readBytesFromStream(res.getEntityStream());
         if (encryptedContent.length == 0) {
             return;
@@ -50,12 +57,35 @@ public class JweClientResponseFilter extends AbstractJweDecryptingFilter impleme
         byte[] bytes = out.getContent();
         res.setEntityStream(new ByteArrayInputStream(bytes));
         res.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(out.getHeaders().getContentType(), getDefaultMediaType());
+        setDecryptedHeaders(res, out.getHeaders());
+    }
+
+    private void filterStream(ClientResponseContext res) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(res.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        CachedOutputStream cos = new CachedOutputStream();
+        final JweHeaders jweHeaders;
+        try {
+            jweHeaders = decrypt(is, cos);
+        } catch (IOException | RuntimeException ex) {
+            cos.close();
+            throw ex;
+        }
+        res.setEntityStream(cos.getInputStream());
+        res.getHeaders().putSingle("Content-Length", Long.toString(cos.size()));
+        cos.close();
+        setDecryptedHeaders(res, jweHeaders);
+    }
+
+    private void setDecryptedHeaders(ClientResponseContext res, JweHeaders jweHeaders) {
+        String ct = JoseUtils.checkContentType(jweHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             res.getHeaders().putSingle("Content-Type", ct);
         }
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(res.getHeaders(), out.getHeaders());
+            super.validateHttpHeadersIfNeeded(res.getHeaders(), jweHeaders);
         }
     }
 
@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
@@ -28,9 +29,11 @@ import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.PreMatching;
 
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
+import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
 
 @PreMatching
 @Priority(Priorities.JWE_SERVER_READ_PRIORITY)
@@ -41,6 +44,10 @@ public class JweContainerRequestFilter extends AbstractJweDecryptingFilter imple
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
+        if (isUseJweInputStream()) {
+            filterStream(context);
+            return;
+        }
         final byte[] encryptedContent = IOUtils.readBytesFromStream(context.getEntityStream());
         if (encryptedContent.length == 0) {
             return;
@@ -49,12 +56,35 @@ public class JweContainerRequestFilter extends AbstractJweDecryptingFilter imple
         byte[] bytes = out.getContent();
         context.setEntityStream(new ByteArrayInputStream(bytes));
         context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(out.getHeaders().getContentType(), getDefaultMediaType());
+        setDecryptedHeaders(context, out.getHeaders());
+    }
+
+    private void filterStream(ContainerRequestContext context) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(context.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        CachedOutputStream cos = new CachedOutputStream();
+        final JweHeaders jweHeaders;
+        try {
+            jweHeaders = decrypt(is, cos);
+        } catch (IOException | RuntimeException ex) {
+            cos.close();
+            throw ex;
+        }
+        context.setEntityStream(cos.getInputStream());
+        context.getHeaders().putSingle("Content-Length", Long.toString(cos.size()));
+        cos.close();
+        setDecryptedHeaders(context, jweHeaders);
+    }
+
+    private void setDecryptedHeaders(ContainerRequestContext context, JweHeaders jweHeaders) {
+        String ct = JoseUtils.checkContentType(jweHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
         }
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(context.getHeaders(), out.getHeaders());
+            super.validateHttpHeadersIfNeeded(context.getHeaders(), jweHeaders);
         }
     }
     
@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
@@ -30,10 +31,13 @@ import javax.ws.rs.core.Response;
 
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jws.JwsCompactConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactStreamConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsException;
+import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 
 @Priority(Priorities.JWS_CLIENT_READ_PRIORITY)
@@ -45,6 +49,10 @@ public class JwsClientResponseFilter extends AbstractJwsReaderProvider implement
             || isCheckEmptyStream() && !res.hasEntity()) {
             return;
         }
+        if (isUseJwsInputStream()) {
+            filterStream(res);
+            return;
+        }
         final String content = IOUtils.readStringFromStream(res.getEntityStream());
         if (StringUtils.isEmpty(content)) {
             return;
@@ -58,13 +66,32 @@ public class JwsClientResponseFilter extends AbstractJwsReaderProvider implement
         byte[] bytes = p.getDecodedJwsPayloadBytes();
         res.setEntityStream(new ByteArrayInputStream(bytes));
         res.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(p.getJwsHeaders().getContentType(), getDefaultMediaType());
+        setVerifiedHeaders(res, p.getJwsHeaders());
+    }
+
+    private void filterStream(ClientResponseContext res) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(res.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        JwsCompactStreamConsumer p = new JwsCompactStreamConsumer(is);
+        JwsSignatureVerifier theSigVerifier = getInitializedSigVerifier(p.getJwsHeaders());
+        CachedOutputStream cos = JoseJaxrsUtils.cacheStream(p.getDecodedJwsPayloadStream(theSigVerifier));
+
+        res.setEntityStream(cos.getInputStream());
+        res.getHeaders().putSingle("Content-Length", Long.toString(cos.size()));
+        cos.close();
+        setVerifiedHeaders(res, p.getJwsHeaders());
+    }
+
+    private void setVerifiedHeaders(ClientResponseContext res, JwsHeaders jwsHeaders) {
+        String ct = JoseUtils.checkContentType(jwsHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             res.getHeaders().putSingle("Content-Type", ct);
         }
 
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(res.getHeaders(), p.getJwsHeaders());
+            super.validateHttpHeadersIfNeeded(res.getHeaders(), jwsHeaders);
         }
     }
 
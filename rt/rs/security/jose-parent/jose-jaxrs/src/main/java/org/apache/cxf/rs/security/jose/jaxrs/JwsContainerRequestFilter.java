@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 
 import javax.annotation.Priority;
@@ -30,10 +31,14 @@ import javax.ws.rs.container.PreMatching;
 
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jws.JwsCompactConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactStreamConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsException;
+import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 import org.apache.cxf.rs.security.jose.jws.PublicKeyJwsSignatureVerifier;
 import org.apache.cxf.security.SecurityContext;
@@ -47,6 +52,10 @@ public class JwsContainerRequestFilter extends AbstractJwsReaderProvider impleme
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
+        if (isUseJwsInputStream()) {
+            filterStream(context);
+            return;
+        }
         final String content = IOUtils.readStringFromStream(context.getEntityStream());
         if (StringUtils.isEmpty(content)) {
             return;
@@ -62,14 +71,41 @@ public class JwsContainerRequestFilter extends AbstractJwsReaderProvider impleme
         byte[] bytes = p.getDecodedJwsPayloadBytes();
         context.setEntityStream(new ByteArrayInputStream(bytes));
         context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
+        setVerifiedHeaders(context, p.getJwsHeaders(), theSigVerifier);
+    }
+
+    private void filterStream(ContainerRequestContext context) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(context.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        JwsCompactStreamConsumer p = new JwsCompactStreamConsumer(is);
+        JwsSignatureVerifier theSigVerifier = getInitializedSigVerifier(p.getJwsHeaders());
+        final CachedOutputStream cos;
+        try {
+            cos = JoseJaxrsUtils.cacheStream(p.getDecodedJwsPayloadStream(theSigVerifier));
+        } catch (JwsException ex) {
+            context.abortWith(JAXRSUtils.toResponse(400));
+            return;
+        }
+        JoseUtils.validateRequestContextProperty(p.getJwsHeaders());
+
+        context.setEntityStream(cos.getInputStream());
+        context.getHeaders().putSingle("Content-Length", Long.toString(cos.size()));
+        cos.close();
+        setVerifiedHeaders(context, p.getJwsHeaders(), theSigVerifier);
+    }
 
-        String ct = JoseUtils.checkContentType(p.getJwsHeaders().getContentType(), getDefaultMediaType());
+    private void setVerifiedHeaders(ContainerRequestContext context,
+                                    JwsHeaders jwsHeaders,
+                                    JwsSignatureVerifier theSigVerifier) {
+        String ct = JoseUtils.checkContentType(jwsHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
         }
 
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(context.getHeaders(), p.getJwsHeaders());
+            super.validateHttpHeadersIfNeeded(context.getHeaders(), jwsHeaders);
         }
         
         Principal currentPrincipal = context.getSecurityContext().getUserPrincipal();
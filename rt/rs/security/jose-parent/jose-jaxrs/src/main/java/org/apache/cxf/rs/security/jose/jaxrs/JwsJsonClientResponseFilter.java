@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
@@ -34,6 +35,7 @@ import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonSignatureEntry;
+import org.apache.cxf.rs.security.jose.jws.JwsJsonStreamConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 
 @Priority(Priorities.JWS_CLIENT_READ_PRIORITY)
@@ -45,6 +47,10 @@ public class JwsJsonClientResponseFilter extends AbstractJwsJsonReaderProvider i
             || isCheckEmptyStream() && !res.hasEntity()) {
             return;
         }
+        if (isUseJwsJsonInputStream()) {
+            filterStream(res);
+            return;
+        }
         final String content = IOUtils.readStringFromStream(res.getEntityStream());
         if (StringUtils.isEmpty(content)) {
             return;
@@ -55,9 +61,31 @@ public class JwsJsonClientResponseFilter extends AbstractJwsJsonReaderProvider i
         byte[] bytes = c.getDecodedJwsPayloadBytes();
         res.setEntityStream(new ByteArrayInputStream(bytes));
         res.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
+        // the list is guaranteed to be non-empty
+        setVerifiedHeaders(res, c.getSignatureEntries().get(0));
+    }
 
+    private void filterStream(ClientResponseContext res) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(res.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        JwsSignatureVerifier theSigVerifier = getInitializedSigVerifier();
+        JwsJsonStreamConsumer c = new JwsJsonStreamConsumer(is);
+        try {
+            validate(c, theSigVerifier);
+        } catch (IOException | RuntimeException ex) {
+            c.close();
+            throw ex;
+        }
+        res.setEntityStream(c.getDecodedJwsPayloadStream());
+        // the payload is decoded as it is read
+        res.getHeaders().remove("Content-Length");
         // the list is guaranteed to be non-empty
-        JwsJsonSignatureEntry sigEntry = c.getSignatureEntries().get(0);
+        setVerifiedHeaders(res, c.getSignatureEntries().get(0));
+    }
+
+    private void setVerifiedHeaders(ClientResponseContext res, JwsJsonSignatureEntry sigEntry) {
         String ct = JoseUtils.checkContentType(sigEntry.getUnionHeader().getContentType(), getDefaultMediaType());
         if (ct != null) {
             res.getHeaders().putSingle("Content-Type", ct);
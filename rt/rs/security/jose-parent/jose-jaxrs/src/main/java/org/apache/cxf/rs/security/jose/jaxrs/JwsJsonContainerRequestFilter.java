@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
@@ -35,6 +36,7 @@ import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jws.JwsException;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsJsonSignatureEntry;
+import org.apache.cxf.rs.security.jose.jws.JwsJsonStreamConsumer;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 
 @PreMatching
@@ -46,6 +48,10 @@ public class JwsJsonContainerRequestFilter extends AbstractJwsJsonReaderProvider
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
+        if (isUseJwsJsonInputStream()) {
+            filterStream(context);
+            return;
+        }
         final String content = IOUtils.readStringFromStream(context.getEntityStream());
         if (StringUtils.isEmpty(content)) {
             return;
@@ -62,9 +68,33 @@ public class JwsJsonContainerRequestFilter extends AbstractJwsJsonReaderProvider
         byte[] bytes = c.getDecodedJwsPayloadBytes();
         context.setEntityStream(new ByteArrayInputStream(bytes));
         context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
+        // the list is guaranteed to be non-empty
+        setVerifiedHeaders(context, c.getSignatureEntries().get(0));
+    }
+
+    private void filterStream(ContainerRequestContext context) throws IOException {
+        InputStream is = JoseJaxrsUtils.getNonEmptyStream(context.getEntityStream());
+        if (is == null) {
+            return;
+        }
+        JwsSignatureVerifier theSigVerifier = getInitializedSigVerifier();
+        JwsJsonStreamConsumer c = new JwsJsonStreamConsumer(is);
+        try {
+            validate(c, theSigVerifier);
+        } catch (JwsException ex) {
+            c.close();
+            context.abortWith(JAXRSUtils.toResponse(400));
+            return;
+        }
 
+        context.setEntityStream(c.getDecodedJwsPayloadStream());
+        // the payload is decoded as it is read
+        context.getHeaders().remove("Content-Length");
         // the list is guaranteed to be non-empty
-        JwsJsonSignatureEntry sigEntry = c.getSignatureEntries().get(0);
+        setVerifiedHeaders(context, c.getSignatureEntries().get(0));
+    }
+
+    private void setVerifiedHeaders(ContainerRequestContext context, JwsJsonSignatureEntry sigEntry) {
         String ct = JoseUtils.checkContentType(sigEntry.getUnionHeader().getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.cxf.common.util.Base64Exception;
+import org.apache.cxf.common.util.Base64UrlUtility;
+
+/**
+ * Reads a single '.' separated segment of a JOSE compact or streamed sequence,
+ * optionally decoding it from Base64 URL on the fly. The underlying stream
+ * is left positioned immediately after the delimiter so that the next segment
+ * can be read from it. The pushback buffer of the underlying stream must be
+ * at least {@link #BUFFER_SIZE} bytes long.
+ */
+public class Base64UrlSegmentInputStream extends InputStream {
+    public static final int BUFFER_SIZE = 8192;
+    private static final byte[] EMPTY = new byte[0];
+    private final PushbackInputStream in;
+    private final boolean decode;
+    private final byte delimiter;
+    private final byte[] raw = new byte[BUFFER_SIZE];
+    private String carry = "";
+    private byte[] chunk = EMPTY;
+    private int chunkOffset;
+    private boolean segmentEnd;
+    private boolean delimiterFound;
+
+    public Base64UrlSegmentInputStream(PushbackInputStream in) {
+        this(in, true);
+    }
+    public Base64UrlSegmentInputStream(PushbackInputStream in, boolean decode) {
+        this(in, decode, (byte)'.');
+    }
+    public Base64UrlSegmentInputStream(PushbackInputStream in, boolean decode, byte delimiter) {
+        this.in = in;
+        this.decode = decode;
+        this.delimiter = delimiter;
+    }
+
+    public static PushbackInputStream toPushbackInputStream(InputStream is) {
+        return new PushbackInputStream(is, BUFFER_SIZE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int num = read(b, 0, 1);
+        return num == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (chunkOffset == chunk.length) {
+            if (segmentEnd) {
+                return -1;
+            }
+            nextChunk();
+        }
+        int num = Math.min(len, chunk.length - chunkOffset);
+        System.arraycopy(chunk, chunkOffset, b, off, num);
+        chunkOffset += num;
+        return num;
+    }
+
+    /**
+     * Returns true if the segment was terminated by the delimiter rather than
+     * by the end of the underlying stream. Only meaningful once this stream
+     * has been fully read.
+     */
+    public boolean isDelimiterFound() {
+        return delimiterFound;
+    }
+
+    /**
+     * Called with every encoded segment chunk before it is decoded, can be
+     * used to calculate a signature over the encoded content.
+     */
+    protected void updateEncoded(byte[] encoded, int off, int len) {
+        // complete
+    }
+
+    private void nextChunk() throws IOException {
+        int num = in.read(raw, 0, raw.length);
+        if (num == -1) {
+            segmentEnd = true;
+            num = 0;
+        } else {
+            for (int i = 0; i < num; i++) {
+                if (raw[i] == delimiter) {
+                    if (i + 1 < num) {
+                        in.unread(raw, i + 1, num - i - 1);
+                    }
+                    num = i;
+                    segmentEnd = true;
+                    delimiterFound = true;
+                    break;
+                }
+            }
+        }
+        updateEncoded(raw, 0, num);
+        chunkOffset = 0;
+        if (!decode) {
+            chunk = Arrays.copyOf(raw, num);
+            return;
+        }
+        String encoded = carry + new String(raw, 0, num, StandardCharsets.US_ASCII);
+        int lenToDecode = segmentEnd ? encoded.length() : encoded.length() - encoded.length() % 4;
+        carry = encoded.substring(lenToDecode);
+        try {
+            chunk = lenToDecode == 0 ? EMPTY : Base64UrlUtility.decode(encoded.substring(0, lenToDecode));
+        } catch (Base64Exception ex) {
+            throw new IOException(ex);
+        }
+    }
+}
@@ -78,6 +78,15 @@ public final class JoseConstants extends RSSecurityConstants {
     public static final String RSSEC_KEY_STORE_JWKSET = "rs.security.keystore.jwkset";
     public static final String RSSEC_KEY_STORE_JWKKEY = "rs.security.keystore.jwkkey";
 
+    /**
+     * The interval (in milliseconds) after which a JWK Set loaded from the "rs.security.keystore.file"
+     * location is reloaded in the background. If it is set, the JWK Set and the signature verifiers built
+     * from it are cached on the bus and shared between messages, and a key id which is not in the set
+     * makes it be reloaded (at most every 10 seconds). Otherwise the JWK Set is loaded for every message.
+     * It does not apply to encrypted JWK Sets.
+     */
+    public static final String RSSEC_KEY_STORE_JWKSET_REFRESH_INTERVAL = "rs.security.keystore.jwkset.refresh.interval";
+
     //
     // JWS specific Configuration
     //
@@ -18,9 +18,11 @@
  */
 package org.apache.cxf.rs.security.jose.jwe;
 
+import java.io.InputStream;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
 import java.util.logging.Logger;
+import java.util.zip.InflaterInputStream;
 
 import javax.crypto.SecretKey;
 import javax.security.auth.DestroyFailedException;
@@ -57,6 +59,48 @@ public abstract class AbstractJweDecryption implements JweDecryptionProvider {
         return doDecrypt(jweDecryptionInput, cek).getContent();
     }
 
+    /**
+     * Returns a stream which decrypts the content chunk by chunk as it is read if
+     * BouncyCastle is available, see {@link JweInputStream}. The authentication tag is
+     * expected to follow the cipher text and is verified once the end of the stream has
+     * been reached. Only AES-GCM content encryption is
+     * currently supported, {@link #supportsStreamingDecryption(JweHeaders)} can be
+     * used to check if a given JWE can be decrypted with this method.
+     */
+    public InputStream getDecryptedContentStream(JweDecryptionInput jweDecryptionInput,
+                                                 InputStream encryptedContentWithAuthTag) {
+        if (!supportsStreamingDecryption(jweDecryptionInput.getJweHeaders())) {
+            LOG.warning("Invalid content encryption algorithm");
+            throw new JweException(JweException.Error.INVALID_CONTENT_ALGORITHM);
+        }
+        byte[] cek = keyDecryptionAlgo.getDecryptedContentEncryptionKey(jweDecryptionInput);
+        byte[] actualCek = getActualCek(cek,
+                               jweDecryptionInput.getJweHeaders().getContentEncryptionAlgorithm().getJwaName());
+        SecretKey secretKey = CryptoUtils.createSecretKeySpec(actualCek, AlgorithmUtils.AES);
+        InputStream is = new JweInputStream(encryptedContentWithAuthTag,
+                                            secretKey,
+                                            getContentEncryptionCipherInitVector(jweDecryptionInput),
+                                            getContentEncryptionCipherAAD(jweDecryptionInput));
+        try {
+            secretKey.destroy();
+        } catch (DestroyFailedException e) {
+            // ignore
+        }
+        Arrays.fill(cek, (byte) 0);
+        if (actualCek != cek) {
+            Arrays.fill(actualCek, (byte) 0);
+        }
+        if (JoseConstants.JWE_DEFLATE_ZIP_ALGORITHM.equals(jweDecryptionInput.getJweHeaders().getZipAlgorithm())) {
+            is = new InflaterInputStream(is);
+        }
+        return is;
+    }
+    public boolean supportsStreamingDecryption(JweHeaders headers) {
+        ContentAlgorithm algo = headers.getContentEncryptionAlgorithm();
+        return algo != null
+            && AlgorithmUtils.isAesGcm(algo.getJwaName())
+            && algo.getJwaName().equals(getContentAlgorithm().getJwaName());
+    }
     protected JweDecryptionOutput doDecrypt(JweDecryptionInput jweDecryptionInput, byte[] cek) {
         KeyProperties keyProperties = new KeyProperties(getContentEncryptionAlgorithm(jweDecryptionInput));
         keyProperties.setAdditionalData(getContentEncryptionCipherAAD(jweDecryptionInput));
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.Base64UrlSegmentInputStream;
+
+/**
+ * Streaming alternative to {@link JweCompactConsumer}: only the JWE headers, the encrypted
+ * content encryption key and the initialization vector are read upfront while the content is
+ * decrypted as it is read. See {@link AbstractJweDecryption#getDecryptedContentStream}.
+ */
+public class JweCompactStreamConsumer {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JweCompactStreamConsumer.class);
+    private final PushbackInputStream in;
+    private final JweDecryptionInput jweDecryptionInput;
+
+    public JweCompactStreamConsumer(InputStream is) throws IOException {
+        in = Base64UrlSegmentInputStream.toPushbackInputStream(is);
+        String headersJson = new String(readSegment(true), StandardCharsets.UTF_8);
+        byte[] encryptedCEK = readSegment(true);
+        byte[] initVector = readSegment(true);
+        JsonMapObject joseHeaders = new JsonMapObjectReaderWriter().fromJsonToJsonObject(headersJson);
+        if (joseHeaders.getUpdateCount() != null) {
+            LOG.warning("Duplicate headers have been detected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        jweDecryptionInput = new JweDecryptionInput(encryptedCEK,
+                                                    initVector,
+                                                    null,
+                                                    null,
+                                                    null,
+                                                    headersJson,
+                                                    new JweHeaders(joseHeaders.asMap()));
+    }
+
+    public String getDecodedJsonHeaders() {
+        return jweDecryptionInput.getDecodedJsonHeaders();
+    }
+
+    public JweHeaders getJweHeaders() {
+        return jweDecryptionInput.getJweHeaders();
+    }
+
+    /**
+     * Returns the decrypted content stream. The content is decrypted in chunks if the decryption
+     * provider supports it, otherwise the remaining JWE sequence is read into memory and decrypted
+     * in one step.
+     */
+    public InputStream getDecryptedContentStream(JweDecryptionProvider decryption) throws IOException {
+        if (decryption instanceof AbstractJweDecryption
+            && ((AbstractJweDecryption)decryption).supportsStreamingDecryption(getJweHeaders())) {
+            return ((AbstractJweDecryption)decryption).getDecryptedContentStream(jweDecryptionInput,
+                                                                                 new EncryptedContentInputStream());
+        }
+        byte[] encryptedContent = readSegment(true);
+        byte[] authTag = readSegment(false);
+        byte[] content = decryption.decrypt(new JweDecryptionInput(jweDecryptionInput.getEncryptedCEK(),
+                                                                   jweDecryptionInput.getInitVector(),
+                                                                   encryptedContent,
+                                                                   authTag,
+                                                                   null,
+                                                                   jweDecryptionInput.getDecodedJsonHeaders(),
+                                                                   jweDecryptionInput.getJweHeaders()));
+        return new ByteArrayInputStream(content);
+    }
+
+    private byte[] readSegment(boolean delimiterExpected) throws IOException {
+        Base64UrlSegmentInputStream segment = new Base64UrlSegmentInputStream(in);
+        byte[] bytes = IOUtils.readBytesFromStream(segment);
+        checkDelimiter(segment, delimiterExpected);
+        return bytes;
+    }
+
+    private static void checkDelimiter(Base64UrlSegmentInputStream segment, boolean delimiterExpected) {
+        if (segment.isDelimiterFound() != delimiterExpected) {
+            LOG.warning("5 JWE parts are expected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+    }
+
+    /**
+     * Returns the decoded cipher text immediately followed by the decoded authentication tag.
+     */
+    private final class EncryptedContentInputStream extends InputStream {
+        private Base64UrlSegmentInputStream segment = new Base64UrlSegmentInputStream(in);
+        private boolean authTag;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int num = read(b, 0, 1);
+            return num == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int num = segment.read(b, off, len);
+            if (num == -1) {
+                checkDelimiter(segment, !authTag);
+                if (!authTag) {
+                    authTag = true;
+                    segment = new Base64UrlSegmentInputStream(in);
+                    return read(b, off, len);
+                }
+            }
+            return num;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.logging.LogUtils;
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.gcm.BasicGCMMultiplier;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/**
+ * Decrypts AES-GCM encrypted JWE content in chunks.
+ *
+ * The stream expects the cipher text immediately followed by the 16 byte authentication tag,
+ * and the tag is verified when the end of the stream is reached, at which point
+ * {@link JweException} is thrown if the content has been tampered with.
+ *
+ * If BouncyCastle is available then its GCMBlockCipher is used, it releases the decrypted
+ * content as the cipher text is read. Otherwise the JCE AES/GCM cipher is used, it only releases
+ * the decrypted content once the complete cipher text has been processed and authenticated.
+ * Consumers which must not act on unauthenticated data should buffer the decrypted content
+ * until {@link InputStream#read()} has returned -1.
+ */
+public class JweInputStream extends FilterInputStream {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JweInputStream.class);
+    private static final int AUTH_TAG_LEN = 16;
+    private static final int IV_LEN = 12;
+    private static final int BUFFER_SIZE = 8192;
+    private static final boolean BOUNCY_CASTLE_AVAILABLE = isBouncyCastleAvailable();
+    private final ContentDecryptor decryptor;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private byte[] decrypted;
+    private int decryptedOffset;
+    private boolean eof;
+
+    public JweInputStream(InputStream in, SecretKey key, byte[] iv, byte[] aad) {
+        this(in, key, iv, aad, BOUNCY_CASTLE_AVAILABLE);
+    }
+
+    JweInputStream(InputStream in, SecretKey key, byte[] iv, byte[] aad, boolean streaming) {
+        super(in);
+        if (iv == null || iv.length != IV_LEN) {
+            LOG.warning("AES-GCM content decryption requires a 96 bit initialization vector");
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE);
+        }
+        try {
+            decryptor = streaming ? new StreamingDecryptor(key, iv, aad) : new JceDecryptor(key, iv, aad);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            LOG.warning("AES-GCM content decryption can not be initialized");
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int num = read(b, 0, 1);
+        return num == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (decrypted == null || decryptedOffset == decrypted.length) {
+            if (eof) {
+                return -1;
+            }
+            decryptNextChunk();
+        }
+        int num = Math.min(len, decrypted.length - decryptedOffset);
+        System.arraycopy(decrypted, decryptedOffset, b, off, num);
+        decryptedOffset += num;
+        return num;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // the skipped content still has to be authenticated
+        byte[] skipBuf = new byte[(int)Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+        while (skipped < n) {
+            int num = read(skipBuf, 0, (int)Math.min(n - skipped, skipBuf.length));
+            if (num == -1) {
+                break;
+            }
+            skipped += num;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return decrypted == null ? 0 : decrypted.length - decryptedOffset;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void decryptNextChunk() throws IOException {
+        int num = in.read(buf, 0, buf.length);
+        try {
+            if (num == -1) {
+                eof = true;
+                decrypted = decryptor.doFinal();
+            } else {
+                decrypted = decryptor.update(buf, num);
+            }
+        } catch (GeneralSecurityException ex) {
+            LOG.warning("JWE authentication tag is missing or invalid");
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+        }
+        decryptedOffset = 0;
+    }
+
+    private static boolean isBouncyCastleAvailable() {
+        try {
+            ClassLoaderUtils.loadClass("org.bouncycastle.crypto.modes.GCMBlockCipher", JweInputStream.class);
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private interface ContentDecryptor {
+        byte[] update(byte[] b, int len) throws GeneralSecurityException;
+        byte[] doFinal() throws GeneralSecurityException;
+    }
+
+    /**
+     * Buffers the whole cipher text, the JCE cipher only returns the content from doFinal.
+     */
+    private static final class JceDecryptor implements ContentDecryptor {
+        private final Cipher cipher;
+        private long length;
+
+        JceDecryptor(SecretKey key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+            cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key.getEncoded(), "AES"),
+                        new GCMParameterSpec(AUTH_TAG_LEN * 8, iv));
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+        }
+
+        public byte[] update(byte[] b, int len) {
+            length += len;
+            byte[] out = cipher.update(b, 0, len);
+            return out == null ? new byte[0] : out;
+        }
+
+        public byte[] doFinal() throws GeneralSecurityException {
+            if (length < AUTH_TAG_LEN) {
+                // some providers fail with a ProviderException instead
+                throw new AEADBadTagException("Authentication tag is missing");
+            }
+            return cipher.doFinal();
+        }
+    }
+
+    /**
+     * Releases the content of every complete block. The GHASH multiplication is the
+     * constant time BasicGCMMultiplier, and the block cipher is the JCE AES cipher.
+     */
+    private static final class StreamingDecryptor implements ContentDecryptor {
+        private final GCMBlockCipher cipher;
+
+        StreamingDecryptor(SecretKey key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+            cipher = new GCMBlockCipher(new JceAesEngine(), new BasicGCMMultiplier());
+            cipher.init(false, new AEADParameters(new KeyParameter(key.getEncoded()),
+                                                  AUTH_TAG_LEN * 8, iv, aad));
+        }
+
+        public byte[] update(byte[] b, int len) {
+            byte[] out = new byte[cipher.getUpdateOutputSize(len)];
+            int num = cipher.processBytes(b, 0, len, out, 0);
+            return num == out.length ? out : Arrays.copyOf(out, num);
+        }
+
+        public byte[] doFinal() throws GeneralSecurityException {
+            byte[] out = new byte[cipher.getOutputSize(0)];
+            try {
+                int num = cipher.doFinal(out, 0);
+                return num == out.length ? out : Arrays.copyOf(out, num);
+            } catch (InvalidCipherTextException ex) {
+                // BouncyCastle types must not leak into JweInputStream, it is loaded without BouncyCastle
+                throw new AEADBadTagException(ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Encrypts single AES blocks with the JCE cipher, which unlike the BouncyCastle AESEngine
+     * does not use lookup tables where the AES instructions are available.
+     */
+    private static final class JceAesEngine implements BlockCipher {
+        private final Cipher cipher;
+
+        JceAesEngine() throws GeneralSecurityException {
+            cipher = Cipher.getInstance("AES/ECB/NoPadding");
+        }
+
+        public void init(boolean forEncryption, CipherParameters params) {
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(((KeyParameter)params).getKey(), "AES"));
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalArgumentException(ex);
+            }
+        }
+
+        public String getAlgorithmName() {
+            return "AES";
+        }
+
+        public int getBlockSize() {
+            return AUTH_TAG_LEN;
+        }
+
+        public int processBlock(byte[] in, int inOff, byte[] out, int outOff) {
+            try {
+                return cipher.update(in, inOff, AUTH_TAG_LEN, out, outOff);
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        public void reset() {
+            // ECB keeps no state between blocks
+        }
+    }
+}
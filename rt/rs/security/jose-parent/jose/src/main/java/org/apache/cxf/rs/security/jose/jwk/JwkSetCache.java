@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwk;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
+import org.apache.cxf.rs.security.jose.jws.JwsUtils;
+
+/**
+ * A cache of a JWK Set, which indexes the keys by their key id and keeps the signature verifiers
+ * built from them, so that the keys don't have to be loaded and parsed again for every message.
+ *
+ * Once the refresh interval has passed, the cached keys are still used while the set is reloaded
+ * in the background. Once the max stale time has passed, the set is reloaded before it is used.
+ * An unknown key id (for example after the keys have been rotated) makes the set be reloaded at
+ * once, but no more often than the min refresh interval.
+ */
+public class JwkSetCache {
+    public static final long DEFAULT_REFRESH_INTERVAL = 5L * 60L * 1000L;
+    public static final long DEFAULT_MAX_STALE_TIME = 12L * DEFAULT_REFRESH_INTERVAL;
+    public static final long DEFAULT_MIN_REFRESH_INTERVAL = 10L * 1000L;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(JwkSetCache.class);
+
+    private final Supplier<JsonWebKeys> loader;
+    private volatile KeySet keySet;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong lastUnknownKeyRefresh = new AtomicLong();
+    private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    private long maxStaleTime = DEFAULT_MAX_STALE_TIME;
+    private long minRefreshInterval = DEFAULT_MIN_REFRESH_INTERVAL;
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder rateLimitedRefreshes = new LongAdder();
+
+    public JwkSetCache(Supplier<JsonWebKeys> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Get the current JWK Set, loading it if it has not been loaded yet or is too stale
+     */
+    public JsonWebKeys getJsonWebKeys() {
+        return getKeySet().jsonWebKeys;
+    }
+
+    public Set<String> getKeyIds() {
+        return getKeySet().entries.keySet();
+    }
+
+    /**
+     * Get the key with the given key id, reloading the JWK Set if the key id is not known
+     */
+    public JsonWebKey getKey(String kid) {
+        KeyEntry entry = getEntry(kid);
+        return entry != null ? entry.jwk : null;
+    }
+
+    public JwsSignatureVerifier getSignatureVerifier(String kid) {
+        return getSignatureVerifier(kid, null);
+    }
+
+    /**
+     * Get a signature verifier for the key with the given key id. The verifier is created once
+     * per key and algorithm.
+     * @param kid the key id
+     * @param defaultAlgorithm the algorithm to use if the key does not specify it, may be null
+     */
+    public JwsSignatureVerifier getSignatureVerifier(String kid, SignatureAlgorithm defaultAlgorithm) {
+        KeyEntry entry = getEntry(kid);
+        if (entry == null || PublicKeyUse.ENCRYPT == entry.jwk.getPublicKeyUse()) {
+            return null;
+        }
+        return entry.getSignatureVerifier(defaultAlgorithm);
+    }
+
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public void setMaxStaleTime(long maxStaleTime) {
+        this.maxStaleTime = maxStaleTime;
+    }
+
+    public void setMinRefreshInterval(long minRefreshInterval) {
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    /**
+     * Set the Executor used to reload the JWK Set in the background. The default is the common
+     * ForkJoinPool.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    /**
+     * Get the number of times the JWK Set was not reloaded for an unknown key id, as it had been
+     * reloaded less than the min refresh interval ago
+     */
+    public long getRateLimitedRefreshCount() {
+        return rateLimitedRefreshes.sum();
+    }
+
+    private KeyEntry getEntry(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        KeyEntry entry = getKeySet().entries.get(kid);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+
+        long now = System.currentTimeMillis();
+        long last = lastUnknownKeyRefresh.get();
+        if (now - last < minRefreshInterval || !lastUnknownKeyRefresh.compareAndSet(last, now)) {
+            rateLimitedRefreshes.increment();
+            return null;
+        }
+        synchronized (this) {
+            KeySet current = keySet;
+            entry = current.entries.get(kid);
+            if (entry == null) {
+                try {
+                    entry = load().entries.get(kid);
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.WARNING, "The JWK Set could not be reloaded", ex);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private KeySet getKeySet() {
+        KeySet current = keySet;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.loaded >= maxStaleTime) {
+            synchronized (this) {
+                current = keySet;
+                if (current == null || now - current.loaded >= maxStaleTime) {
+                    current = load();
+                }
+            }
+        } else if (now - current.loaded >= refreshInterval) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    synchronized (this) {
+                        load();
+                    }
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.WARNING, "The JWK Set could not be refreshed, the cached keys are used", ex);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.set(false);
+        }
+    }
+
+    private KeySet load() {
+        try {
+            KeySet newKeySet = new KeySet(loader.get(), System.currentTimeMillis());
+            keySet = newKeySet;
+            refreshes.increment();
+            return newKeySet;
+        } catch (RuntimeException ex) {
+            refreshFailures.increment();
+            throw ex;
+        }
+    }
+
+    private static final class KeySet {
+        private final JsonWebKeys jsonWebKeys;
+        private final Map<String, KeyEntry> entries;
+        private final long loaded;
+
+        KeySet(JsonWebKeys jsonWebKeys, long loaded) {
+            this.jsonWebKeys = jsonWebKeys;
+            this.loaded = loaded;
+            Map<String, KeyEntry> map = new HashMap<>();
+            if (jsonWebKeys != null && jsonWebKeys.getKeys() != null) {
+                for (JsonWebKey jwk : jsonWebKeys.getKeys()) {
+                    if (jwk.getKeyId() != null) {
+                        map.put(jwk.getKeyId(), new KeyEntry(jwk));
+                    }
+                }
+            }
+            entries = Collections.unmodifiableMap(map);
+        }
+    }
+
+    private static final class KeyEntry {
+        private final JsonWebKey jwk;
+        private final Map<String, JwsSignatureVerifier> verifiers = new ConcurrentHashMap<>();
+
+        KeyEntry(JsonWebKey jwk) {
+            this.jwk = jwk;
+        }
+
+        JwsSignatureVerifier getSignatureVerifier(SignatureAlgorithm defaultAlgorithm) {
+            String key = defaultAlgorithm == null ? "" : defaultAlgorithm.getJwaName();
+            return verifiers.computeIfAbsent(key, k -> JwsUtils.getSignatureVerifier(jwk, defaultAlgorithm));
+        }
+    }
+}
@@ -244,6 +244,10 @@ public final class JwkUtils {
         return loadJwkSet(m, props, null);
     }
     public static JsonWebKeys loadJwkSet(Message m, Properties props, PrivateKeyPasswordProvider cb) {
+        JwkSetCache jwkSetCache = cb == null ? getJwkSetCache(m, props) : null;
+        if (jwkSetCache != null) {
+            return jwkSetCache.getJsonWebKeys();
+        }
         String key = (String)props.get(JoseConstants.RSSEC_KEY_STORE_FILE);
         JsonWebKeys jwkSet = null;
         if (key != null && m != null) {
@@ -262,6 +266,30 @@ public final class JwkUtils {
         }
         return jwkSet;
     }
+    /**
+     * Get the JwkSetCache shared on the bus for the (unencrypted) JWK Set at the
+     * JoseConstants.RSSEC_KEY_STORE_FILE location, if JoseConstants.RSSEC_KEY_STORE_JWKSET_REFRESH_INTERVAL
+     * is set. Otherwise return null.
+     */
+    public static JwkSetCache getJwkSetCache(Message m, Properties props) {
+        String keyStoreLoc = props.getProperty(JoseConstants.RSSEC_KEY_STORE_FILE);
+        String refreshInterval = props.getProperty(JoseConstants.RSSEC_KEY_STORE_JWKSET_REFRESH_INTERVAL);
+        if (keyStoreLoc == null || refreshInterval == null || m == null || m.getExchange() == null
+            || m.getExchange().getBus() == null) {
+            return null;
+        }
+        final Bus bus = m.getExchange().getBus();
+        final String key = JwkSetCache.class.getName() + '.' + keyStoreLoc;
+        synchronized (bus) {
+            JwkSetCache jwkSetCache = (JwkSetCache)bus.getProperty(key);
+            if (jwkSetCache == null) {
+                jwkSetCache = new JwkSetCache(() -> loadJwkSet(props, bus, (JweDecryptionProvider)null));
+                jwkSetCache.setRefreshInterval(Long.parseLong(refreshInterval));
+                bus.setProperty(key, jwkSetCache);
+            }
+            return jwkSetCache;
+        }
+    }
     public static JsonWebKeys loadJwkSet(Properties props, Bus bus, PrivateKeyPasswordProvider cb) {
         JweDecryptionProvider decryption = cb != null
             ? new AesCbcHmacJweDecryption(new PbesHmacAesWrapKeyDecryptionAlgorithm(
@@ -302,7 +330,8 @@ public final class JwkUtils {
     }
     public static JsonWebKey loadJsonWebKey(Message m, Properties props, KeyOperation keyOper, String inHeaderKid) {
         PrivateKeyPasswordProvider cb = KeyManagementUtils.loadPasswordProvider(m, props, keyOper);
-        JsonWebKeys jwkSet = loadJwkSet(m, props, cb);
+        JwkSetCache jwkSetCache = cb == null ? getJwkSetCache(m, props) : null;
+        JsonWebKeys jwkSet = jwkSetCache != null ? jwkSetCache.getJsonWebKeys() : loadJwkSet(m, props, cb);
         final String kid;
         if (inHeaderKid != null
             && MessageUtils.getContextualBoolean(m, JoseConstants.RSSEC_ACCEPT_PUBLIC_KEY, false)) {
@@ -311,7 +340,8 @@ public final class JwkUtils {
             kid = KeyManagementUtils.getKeyId(m, props, JoseConstants.RSSEC_KEY_STORE_ALIAS, keyOper);
         }
         if (kid != null) {
-            return jwkSet.getKey(kid);
+            // the cache reloads the JWK Set if the key has been rotated
+            return jwkSetCache != null ? jwkSetCache.getKey(kid) : jwkSet.getKey(kid);
         } else if (keyOper != null) {
             List<JsonWebKey> keys = jwkSet.getKeyOperationMap().get(keyOper);
             if (keys != null && keys.size() == 1) {
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.Base64UrlSegmentInputStream;
+import org.apache.cxf.rs.security.jose.common.JoseUtils;
+
+/**
+ * Streaming alternative to {@link JwsCompactConsumer}: only the JWS headers are read
+ * upfront, the payload is decoded and added to the signature as it is read and
+ * the signature is verified once the end of the payload has been reached.
+ * Consumers which must not act on unverified data should buffer the payload
+ * until {@link InputStream#read()} has returned -1.
+ */
+public class JwsCompactStreamConsumer {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JwsCompactStreamConsumer.class);
+    private final PushbackInputStream in;
+    private final String encodedHeaders;
+    private final JwsHeaders jwsHeaders;
+
+    public JwsCompactStreamConsumer(InputStream is) throws IOException {
+        in = Base64UrlSegmentInputStream.toPushbackInputStream(is);
+        Base64UrlSegmentInputStream headersStream = new Base64UrlSegmentInputStream(in, false);
+        encodedHeaders = new String(IOUtils.readBytesFromStream(headersStream), StandardCharsets.US_ASCII);
+        if (!headersStream.isDelimiterFound()) {
+            LOG.warning("Compact JWS does not have 3 parts");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        JsonMapObject joseHeaders =
+            new JsonMapObjectReaderWriter().fromJsonToJsonObject(JoseUtils.decodeToString(encodedHeaders));
+        if (joseHeaders.getUpdateCount() != null) {
+            LOG.warning("Duplicate headers have been detected");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        jwsHeaders = new JwsHeaders(joseHeaders.asMap());
+    }
+
+    public JwsHeaders getJwsHeaders() {
+        return jwsHeaders;
+    }
+
+    public String getEncodedJwsHeaders() {
+        return encodedHeaders;
+    }
+
+    /**
+     * Returns the decoded payload stream. A {@link JwsException} is thrown by the
+     * stream once the payload has been read if the signature is not valid.
+     */
+    public InputStream getDecodedJwsPayloadStream(JwsSignatureVerifier verifier) {
+        if (verifier.getAlgorithm() != jwsHeaders.getSignatureAlgorithm()) {
+            LOG.warning("Invalid signature algorithm");
+            throw new JwsException(JwsException.Error.INVALID_ALGORITHM);
+        }
+        JwsVerificationSignature signature = verifier.createJwsVerificationSignature(jwsHeaders);
+        if (signature == null) {
+            throw new JwsException(JwsException.Error.NO_VERIFIER);
+        }
+        byte[] headerBytesWithDot = StringUtils.toBytesASCII(encodedHeaders + '.');
+        signature.update(headerBytesWithDot, 0, headerBytesWithDot.length);
+        return new JwsPayloadInputStream(signature, !JwsUtils.isPayloadUnencoded(jwsHeaders));
+    }
+
+    private final class JwsPayloadInputStream extends Base64UrlSegmentInputStream {
+        private final JwsVerificationSignature signature;
+        private boolean verified;
+
+        JwsPayloadInputStream(JwsVerificationSignature signature, boolean decode) {
+            super(in, decode);
+            this.signature = signature;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int num = super.read(b, off, len);
+            if (num == -1 && !verified) {
+                verify();
+                verified = true;
+            }
+            return num;
+        }
+
+        @Override
+        protected void updateEncoded(byte[] encoded, int off, int len) {
+            signature.update(encoded, off, len);
+        }
+
+        private void verify() throws IOException {
+            if (!isDelimiterFound()) {
+                LOG.warning("Compact JWS does not have 3 parts");
+                throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+            }
+            Base64UrlSegmentInputStream signatureStream = new Base64UrlSegmentInputStream(in);
+            byte[] signatureBytes = IOUtils.readBytesFromStream(signatureStream);
+            if (signatureStream.isDelimiterFound() || !signature.verify(signatureBytes)) {
+                LOG.warning("Invalid Signature");
+                throw new JwsException(JwsException.Error.INVALID_SIGNATURE);
+            }
+        }
+    }
+}
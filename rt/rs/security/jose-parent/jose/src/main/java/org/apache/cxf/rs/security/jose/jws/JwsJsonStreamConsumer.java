@@ -0,0 +1,257 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.Base64UrlSegmentInputStream;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+
+/**
+ * Streaming alternative to {@link JwsJsonConsumer} for JWS JSON documents where the "payload"
+ * is the first member, as produced by {@link JwsJsonProducer} and {@link JwsJsonOutputStream}.
+ * The encoded payload is cached with {@link CachedOutputStream}, so large payloads are kept on
+ * disk rather than in memory, and is replayed for every signature being verified. Documents with
+ * a different member order are read into memory and processed with {@link JwsJsonConsumer}.
+ * Signature entries returned by this consumer do not hold the payload.
+ */
+public class JwsJsonStreamConsumer {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JwsJsonStreamConsumer.class);
+    private static final byte[][] PAYLOAD_START = {
+        {'{'}, StringUtils.toBytesASCII("\"payload\""), {':'}, {'"'}
+    };
+    private final JwsJsonConsumer consumer;
+    private final CachedOutputStream encodedPayload;
+    private final List<JwsJsonSignatureEntry> signatures = new LinkedList<>();
+    private final boolean payloadEncoded;
+
+    public JwsJsonStreamConsumer(InputStream is) throws IOException {
+        PushbackInputStream in = Base64UrlSegmentInputStream.toPushbackInputStream(is);
+        if (!readPayloadStart(in)) {
+            consumer = new JwsJsonConsumer(IOUtils.readStringFromStream(in));
+            encodedPayload = null;
+            signatures.addAll(consumer.getSignatureEntries());
+            payloadEncoded = JwsJsonProducer.validateB64Status(signatures);
+            return;
+        }
+        consumer = null;
+        encodedPayload = new CachedOutputStream();
+        // the cached payload is read once per signature entry and once more when it is decoded
+        encodedPayload.holdTempFile();
+        Base64UrlSegmentInputStream payloadStream = new Base64UrlSegmentInputStream(in, false, (byte)'"') {
+            @Override
+            protected void updateEncoded(byte[] encoded, int off, int len) {
+                for (int i = off; i < off + len; i++) {
+                    if (encoded[i] == '\\') {
+                        LOG.warning("JSON JWS payload with escaped characters can not be streamed");
+                        throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+                    }
+                }
+            }
+        };
+        try {
+            IOUtils.copyAndCloseInput(payloadStream, encodedPayload);
+            if (!payloadStream.isDelimiterFound()) {
+                LOG.warning("JSON JWS payload is not terminated");
+                throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+            }
+            String remaining = IOUtils.readStringFromStream(in).trim();
+            if (!remaining.startsWith(",")) {
+                LOG.warning("JSON JWS has no signatures");
+                throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+            }
+            Map<String, Object> jsonObjectMap =
+                new JsonMapObjectReaderWriter().fromJson("{" + remaining.substring(1));
+            if (jsonObjectMap.containsKey("payload")) {
+                LOG.warning("JSON JWS has duplicate payloads");
+                throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+            }
+            List<Map<String, Object>> signatureArray = CastUtils.cast((List<?>)jsonObjectMap.get("signatures"));
+            if (signatureArray != null) {
+                if (jsonObjectMap.containsKey("signature")) {
+                    LOG.warning("JSON JWS has a flattened 'signature' element and a 'signatures' object");
+                    throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+                }
+                for (Map<String, Object> signatureEntry : signatureArray) {
+                    signatures.add(getSignatureObject(signatureEntry));
+                }
+            } else {
+                signatures.add(getSignatureObject(jsonObjectMap));
+            }
+            if (signatures.isEmpty()) {
+                LOG.warning("JSON JWS has no signatures");
+                throw new JwsException(JwsException.Error.INVALID_JSON_JWS);
+            }
+            payloadEncoded = JwsJsonProducer.validateB64Status(signatures);
+        } catch (IOException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    private static boolean readPayloadStart(PushbackInputStream in) throws IOException {
+        ByteArrayOutputStream consumed = new ByteArrayOutputStream();
+        int token = 0;
+        int pos = 0;
+        while (token < PAYLOAD_START.length && consumed.size() < Base64UrlSegmentInputStream.BUFFER_SIZE) {
+            int b = in.read();
+            if (b == -1) {
+                break;
+            }
+            consumed.write(b);
+            if (pos == 0 && Character.isWhitespace(b)) {
+                continue;
+            }
+            if (b != PAYLOAD_START[token][pos]) {
+                break;
+            }
+            if (++pos == PAYLOAD_START[token].length) {
+                token++;
+                pos = 0;
+            }
+        }
+        if (token == PAYLOAD_START.length) {
+            return true;
+        }
+        byte[] bytes = consumed.toByteArray();
+        in.unread(bytes, 0, bytes.length);
+        return false;
+    }
+
+    private static JwsJsonSignatureEntry getSignatureObject(Map<String, Object> signatureEntry) {
+        String protectedHeader = (String)signatureEntry.get("protected");
+        Map<String, Object> header = CastUtils.cast((Map<?, ?>)signatureEntry.get("header"));
+        String signature = (String)signatureEntry.get("signature");
+        return new JwsJsonSignatureEntry(null,
+                                         protectedHeader,
+                                         signature,
+                                         header != null ? new JwsHeaders(header) : null);
+    }
+
+    public List<JwsJsonSignatureEntry> getSignatureEntries() {
+        return signatures;
+    }
+
+    public List<JwsJsonSignatureEntry> verifyAndGetNonValidated(List<JwsSignatureVerifier> validators,
+                                                                Map<String, Object> entryProps)
+        throws IOException {
+        if (consumer != null) {
+            return consumer.verifyAndGetNonValidated(validators, entryProps);
+        }
+        Map<SignatureAlgorithm, List<JwsJsonSignatureEntry>> signatureEntryMap =
+            JwsUtils.getJwsJsonSignatureMap(signatures);
+        List<JwsJsonSignatureEntry> validatedSignatures = new LinkedList<>();
+        for (JwsSignatureVerifier validator : validators) {
+            List<JwsJsonSignatureEntry> theSignatureEntries = signatureEntryMap.get(validator.getAlgorithm());
+            if (theSignatureEntries != null) {
+                for (JwsJsonSignatureEntry sigEntry : theSignatureEntries) {
+                    if (entryProps != null
+                        && !sigEntry.getUnionHeader().asMap().entrySet().containsAll(entryProps.entrySet())) {
+                        continue;
+                    }
+                    if (verifySignatureEntry(sigEntry, validator)) {
+                        validatedSignatures.add(sigEntry);
+                        break;
+                    }
+                }
+            }
+        }
+        if (validatedSignatures.isEmpty()) {
+            throw new JwsException(JwsException.Error.INVALID_SIGNATURE);
+        }
+        List<JwsJsonSignatureEntry> nonValidatedSignatures = new LinkedList<>();
+        for (JwsJsonSignatureEntry sigEntry : signatures) {
+            if (!validatedSignatures.contains(sigEntry)) {
+                nonValidatedSignatures.add(sigEntry);
+            }
+        }
+        return nonValidatedSignatures;
+    }
+
+    private boolean verifySignatureEntry(JwsJsonSignatureEntry sigEntry, JwsSignatureVerifier validator)
+        throws IOException {
+        try {
+            JwsVerificationSignature signature =
+                validator.createJwsVerificationSignature(sigEntry.getUnionHeader());
+            if (signature != null) {
+                String encodedHeader = sigEntry.getEncodedProtectedHeader() != null
+                    ? sigEntry.getEncodedProtectedHeader() : "";
+                byte[] headerBytesWithDot = StringUtils.toBytesASCII(encodedHeader + '.');
+                signature.update(headerBytesWithDot, 0, headerBytesWithDot.length);
+                try (InputStream is = encodedPayload.getInputStream()) {
+                    byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+                    for (int num = is.read(buffer); num != -1; num = is.read(buffer)) {
+                        signature.update(buffer, 0, num);
+                    }
+                }
+                if (signature.verify(sigEntry.getDecodedSignature())) {
+                    return true;
+                }
+            }
+        } catch (JwsException ex) {
+            // ignore
+        }
+        LOG.warning("Invalid Signature Entry");
+        return false;
+    }
+
+    /**
+     * Returns the decoded payload, the payload is only decoded as it is read.
+     */
+    public InputStream getDecodedJwsPayloadStream() throws IOException {
+        if (consumer != null) {
+            return new ByteArrayInputStream(consumer.getDecodedJwsPayloadBytes());
+        }
+        final InputStream is = encodedPayload.getInputStream();
+        close();
+        PushbackInputStream in = Base64UrlSegmentInputStream.toPushbackInputStream(is);
+        return new FilterInputStream(new Base64UrlSegmentInputStream(in, payloadEncoded, (byte)'"')) {
+            @Override
+            public void close() throws IOException {
+                is.close();
+            }
+        };
+    }
+
+    /**
+     * Releases the cached payload, the payload stream which may have been returned
+     * by {@link #getDecodedJwsPayloadStream()} remains readable until it is closed.
+     */
+    public void close() throws IOException {
+        if (encodedPayload != null) {
+            encodedPayload.releaseTempFileHold();
+            encodedPayload.close();
+        }
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
 import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
+import org.apache.cxf.rs.security.jose.jwk.JwkSetCache;
 import org.apache.cxf.rs.security.jose.jwk.JwkUtils;
 import org.apache.cxf.rs.security.jose.jwk.KeyOperation;
 import org.apache.cxf.rs.security.jose.jwk.KeyType;
@@ -410,7 +411,16 @@ public final class JwsUtils {
                 SignatureAlgorithm signatureAlgo = getSignatureAlgorithm(m, props,
                                                              SignatureAlgorithm.getAlgorithm(jwk.getAlgorithm()),
                                                              getDefaultKeyAlgorithm(jwk));
-                theVerifier = getSignatureVerifier(jwk, signatureAlgo);
+                if (jwk.getKeyId() != null
+                    && KeyManagementUtils.loadPasswordProvider(m, props, KeyOperation.VERIFY) == null) {
+                    JwkSetCache jwkSetCache = JwkUtils.getJwkSetCache(m, props);
+                    if (jwkSetCache != null) {
+                        theVerifier = jwkSetCache.getSignatureVerifier(jwk.getKeyId(), signatureAlgo);
+                    }
+                }
+                if (theVerifier == null) {
+                    theVerifier = getSignatureVerifier(jwk, signatureAlgo);
+                }
             }
 
         } else {
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.Security;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
+import org.apache.cxf.rs.security.jose.jwa.ContentAlgorithm;
+import org.apache.cxf.rs.security.jose.jwa.KeyAlgorithm;
+import org.apache.cxf.rt.security.crypto.CryptoUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JweCompactStreamConsumerTest {
+
+    @BeforeClass
+    public static void registerBouncyCastleIfNeeded() throws Exception {
+        try {
+            Cipher.getInstance(AlgorithmUtils.AES_GCM_ALGO_JAVA);
+            Cipher.getInstance(AlgorithmUtils.AES_CBC_ALGO_JAVA);
+        } catch (Throwable t) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+    @AfterClass
+    public static void unregisterBouncyCastleIfNeeded() throws Exception {
+        Security.removeProvider(BouncyCastleProvider.PROVIDER_NAME);
+    }
+
+    @Test
+    public void testDecryptA128GCM() throws Exception {
+        doTestDecrypt(ContentAlgorithm.A128GCM, 128, 100000, false);
+    }
+
+    @Test
+    public void testDecryptA128GCMDeflate() throws Exception {
+        doTestDecrypt(ContentAlgorithm.A128GCM, 128, 100000, true);
+    }
+
+    @Test
+    public void testDecryptA256GCM() throws Exception {
+        for (int size : new int[] {0, 1, 15, 16, 17, 8191, 8192, 8193, 100003}) {
+            doTestDecrypt(ContentAlgorithm.A256GCM, 256, size, false);
+        }
+    }
+
+    @Test
+    public void testDecryptA128CBCHS256() throws Exception {
+        doTestDecrypt(ContentAlgorithm.A128CBC_HS256, 256, 20000, false);
+    }
+
+    @Test
+    public void testDecryptModifiedContent() throws Exception {
+        byte[] key = CryptoUtils.generateSecureRandomBytes(32);
+        String jwe = encrypt(key, ContentAlgorithm.A256GCM, createContent(20000));
+        int index = jwe.lastIndexOf('.') - 100;
+        char c = jwe.charAt(index) == 'A' ? 'B' : 'A';
+        String modified = jwe.substring(0, index) + c + jwe.substring(index + 1);
+        JweCompactStreamConsumer consumer = new JweCompactStreamConsumer(toStream(modified));
+        try (InputStream is = consumer.getDecryptedContentStream(
+                JweUtils.getDirectKeyJweDecryption(key, ContentAlgorithm.A256GCM))) {
+            IOUtils.readBytesFromStream(is);
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+    }
+
+    @Test
+    public void testDecryptInvalidDocument() throws Exception {
+        try {
+            new JweCompactStreamConsumer(toStream("eyJhbGciOiJkaXIiLCJlbmMiOiJBMjU2R0NNIn0.."));
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.INVALID_COMPACT_JWE, ex.getError());
+        }
+    }
+
+    private static void doTestDecrypt(ContentAlgorithm algo, int keySize, int size, boolean deflate)
+        throws Exception {
+        byte[] key = CryptoUtils.generateSecureRandomBytes(keySize / 8);
+        byte[] content = createContent(size);
+        String jwe = encrypt(key, algo, content, deflate);
+        JweDecryption decryption = JweUtils.getDirectKeyJweDecryption(key, algo);
+        assertEquals(AlgorithmUtils.isAesGcm(algo.getJwaName()),
+                     decryption.supportsStreamingDecryption(new JweCompactConsumer(jwe).getJweHeaders()));
+
+        JweCompactStreamConsumer consumer = new JweCompactStreamConsumer(toStream(jwe));
+        assertEquals(algo, consumer.getJweHeaders().getContentEncryptionAlgorithm());
+        try (InputStream is = consumer.getDecryptedContentStream(decryption)) {
+            assertArrayEquals(content, IOUtils.readBytesFromStream(is));
+        }
+    }
+
+    private static String encrypt(byte[] key, ContentAlgorithm algo, byte[] content) {
+        return encrypt(key, algo, content, false);
+    }
+
+    private static String encrypt(byte[] key, ContentAlgorithm algo, byte[] content, boolean deflate) {
+        JweHeaders headers = new JweHeaders(KeyAlgorithm.DIRECT, algo, deflate);
+        return JweUtils.getDirectKeyJweEncryption(key, algo).encrypt(content, headers);
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte)'a');
+        for (int i = 0; i < size; i += 7) {
+            content[i] = (byte)('0' + i % 10);
+        }
+        return content;
+    }
+
+    private static InputStream toStream(String data) {
+        return new ByteArrayInputStream(StringUtils.toBytesASCII(data));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rt.security.crypto.CryptoUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JweInputStreamTest {
+    private static final byte[] AAD = "aad".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testStreamingDecryption() throws Exception {
+        for (int size : new int[] {0, 1, 15, 16, 17, 8191, 8192, 8193, 100003}) {
+            doTestDecrypt(size, true);
+        }
+    }
+
+    @Test
+    public void testBufferedDecryption() throws Exception {
+        for (int size : new int[] {0, 1, 16, 8193, 100003}) {
+            doTestDecrypt(size, false);
+        }
+    }
+
+    @Test
+    public void testStreamingDecryptionReleasesContentEarly() throws Exception {
+        SecretKey key = new SecretKeySpec(CryptoUtils.generateSecureRandomBytes(16), "AES");
+        byte[] iv = CryptoUtils.generateSecureRandomBytes(12);
+        ByteArrayInputStream encrypted = new ByteArrayInputStream(encrypt(key, iv, new byte[100000]));
+        try (InputStream is = new JweInputStream(encrypted, key, iv, AAD, true)) {
+            assertTrue(is.read(new byte[1024]) > 0);
+            assertTrue(encrypted.available() > 0);
+        }
+    }
+
+    @Test
+    public void testModifiedContent() throws Exception {
+        doTestModified(true, 100);
+        doTestModified(false, 100);
+        // the authentication tag itself
+        doTestModified(true, 5);
+        doTestModified(false, 5);
+    }
+
+    @Test
+    public void testMissingAuthTag() throws Exception {
+        SecretKey key = new SecretKeySpec(CryptoUtils.generateSecureRandomBytes(16), "AES");
+        byte[] iv = CryptoUtils.generateSecureRandomBytes(12);
+        for (boolean streaming : new boolean[] {true, false}) {
+            try (InputStream is = new JweInputStream(new ByteArrayInputStream(new byte[10]), key, iv, AAD,
+                                                     streaming)) {
+                IOUtils.readBytesFromStream(is);
+                fail("JweException expected");
+            } catch (JweException ex) {
+                assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+            }
+        }
+    }
+
+    private static void doTestDecrypt(int size, boolean streaming) throws Exception {
+        SecretKey key = new SecretKeySpec(CryptoUtils.generateSecureRandomBytes(32), "AES");
+        byte[] iv = CryptoUtils.generateSecureRandomBytes(12);
+        byte[] content = CryptoUtils.generateSecureRandomBytes(size);
+        try (InputStream is = new JweInputStream(new ByteArrayInputStream(encrypt(key, iv, content)), key, iv, AAD,
+                                                 streaming)) {
+            assertArrayEquals(content, IOUtils.readBytesFromStream(is));
+        }
+    }
+
+    private static void doTestModified(boolean streaming, int offsetFromEnd) throws Exception {
+        SecretKey key = new SecretKeySpec(CryptoUtils.generateSecureRandomBytes(16), "AES");
+        byte[] iv = CryptoUtils.generateSecureRandomBytes(12);
+        byte[] encrypted = encrypt(key, iv, new byte[20000]);
+        encrypted[encrypted.length - offsetFromEnd] ^= 1;
+        try (InputStream is = new JweInputStream(new ByteArrayInputStream(encrypted), key, iv, AAD, streaming)) {
+            IOUtils.readBytesFromStream(is);
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+    }
+
+    private static byte[] encrypt(SecretKey key, byte[] iv, byte[] content) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+        cipher.updateAAD(AAD);
+        byte[] encrypted = cipher.doFinal(content);
+        // the content is not all zeros
+        assertTrue(content.length == 0 || !Arrays.equals(content, encrypted));
+        return encrypted;
+    }
+}
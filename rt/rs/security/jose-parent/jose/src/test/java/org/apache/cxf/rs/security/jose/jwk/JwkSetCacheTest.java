@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwk;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class JwkSetCacheTest {
+
+    @Test
+    public void testKeyRotation() {
+        AtomicInteger loads = new AtomicInteger();
+        JwkSetCache cache = new JwkSetCache(() -> loads.incrementAndGet() == 1
+            ? new JsonWebKeys(Arrays.asList(createKey("kid1"), createKey("kid2")))
+            : new JsonWebKeys(Arrays.asList(createKey("kid2"), createKey("kid3"))));
+
+        assertNotNull(cache.getKey("kid1"));
+        assertEquals(new HashSet<>(Arrays.asList("kid1", "kid2")), cache.getKeyIds());
+
+        // An unknown key id reloads the JWK Set
+        assertNotNull(cache.getKey("kid3"));
+        assertEquals(new HashSet<>(Arrays.asList("kid2", "kid3")), cache.getKeyIds());
+        assertEquals(2, loads.get());
+        assertEquals(2L, cache.getRefreshCount());
+        assertEquals(1L, cache.getMissCount());
+
+        // But not more often than the min refresh interval
+        assertNull(cache.getKey("kid4"));
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getRateLimitedRefreshCount());
+    }
+
+    @Test
+    public void testSignatureVerifiers() {
+        JwkSetCache cache = new JwkSetCache(
+            () -> new JsonWebKeys(Collections.singletonList(createKey("kid1"))));
+
+        JwsSignatureVerifier verifier = cache.getSignatureVerifier("kid1", SignatureAlgorithm.HS256);
+        assertNotNull(verifier);
+        assertSame(verifier, cache.getSignatureVerifier("kid1", SignatureAlgorithm.HS256));
+        assertEquals(SignatureAlgorithm.HS256, verifier.getAlgorithm());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        JwkSetCache cache = new JwkSetCache(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("JWK Set is not available");
+            }
+            return new JsonWebKeys(Collections.singletonList(createKey("kid1")));
+        });
+        cache.setExecutor(Runnable::run);
+        cache.setRefreshInterval(0L);
+
+        assertNotNull(cache.getKey("kid1"));
+        // The refresh failed, but the cached keys are still used
+        assertNotNull(cache.getKey("kid1"));
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getRefreshFailureCount());
+    }
+
+    private static JsonWebKey createKey(String kid) {
+        JsonWebKey jwk = new JsonWebKey();
+        jwk.setKeyType(KeyType.OCTET);
+        jwk.setKeyId(kid);
+        jwk.setAlgorithm(SignatureAlgorithm.HS256.getJwaName());
+        jwk.setProperty(JsonWebKey.OCTET_KEY_VALUE,
+            "AyM1SysPpbyDfgZld3umj1qzKObwVMkoqQ-EstJQLr_T-1qS0gZH75aKtMN3Yj0iPS4hcgUuTwjAzZr1Z9CAow");
+        return jwk;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JwsCompactStreamConsumerTest {
+    private static final String ENCODED_MAC_KEY = JwsJsonProducerTest.ENCODED_MAC_KEY_1;
+
+    @Test
+    public void testReadLargePayload() throws Exception {
+        byte[] payload = createPayload(100000);
+        String jws = sign(payload);
+        JwsCompactStreamConsumer consumer = new JwsCompactStreamConsumer(toStream(jws));
+        assertEquals(SignatureAlgorithm.HS256, consumer.getJwsHeaders().getSignatureAlgorithm());
+        try (InputStream is = consumer.getDecodedJwsPayloadStream(
+                new HmacJwsSignatureVerifier(ENCODED_MAC_KEY, SignatureAlgorithm.HS256))) {
+            assertArrayEquals(payload, IOUtils.readBytesFromStream(is));
+        }
+    }
+
+    @Test
+    public void testReadModifiedPayload() throws Exception {
+        String jws = sign(createPayload(20000));
+        int index = jws.indexOf('.') + 100;
+        char c = jws.charAt(index) == 'A' ? 'B' : 'A';
+        String modified = jws.substring(0, index) + c + jws.substring(index + 1);
+        JwsCompactStreamConsumer consumer = new JwsCompactStreamConsumer(toStream(modified));
+        try (InputStream is = consumer.getDecodedJwsPayloadStream(
+                new HmacJwsSignatureVerifier(ENCODED_MAC_KEY, SignatureAlgorithm.HS256))) {
+            IOUtils.readBytesFromStream(is);
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_SIGNATURE, ex.getError());
+        }
+    }
+
+    @Test
+    public void testReadWithWrongAlgorithm() throws Exception {
+        JwsCompactStreamConsumer consumer = new JwsCompactStreamConsumer(toStream(sign(createPayload(10))));
+        try {
+            consumer.getDecodedJwsPayloadStream(
+                new HmacJwsSignatureVerifier(ENCODED_MAC_KEY, SignatureAlgorithm.HS512));
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_ALGORITHM, ex.getError());
+        }
+    }
+
+    @Test
+    public void testReadInvalidDocument() throws Exception {
+        try {
+            new JwsCompactStreamConsumer(toStream("eyJhbGciOiJIUzI1NiJ9"));
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_COMPACT_JWS, ex.getError());
+        }
+    }
+
+    private static String sign(byte[] payload) {
+        JwsCompactProducer producer = new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256),
+                                                             new String(payload, StandardCharsets.UTF_8));
+        return producer.signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+    }
+
+    static byte[] createPayload(int size) {
+        byte[] payload = new byte[size];
+        Arrays.fill(payload, (byte)'a');
+        for (int i = 0; i < size; i += 7) {
+            payload[i] = (byte)('0' + i % 10);
+        }
+        return payload;
+    }
+
+    static InputStream toStream(String data) {
+        return new ByteArrayInputStream(StringUtils.toBytesASCII(data));
+    }
+}
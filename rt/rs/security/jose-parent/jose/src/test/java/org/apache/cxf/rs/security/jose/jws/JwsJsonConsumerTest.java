@@ -35,7 +35,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class JwsJsonConsumerTest {
-    private static final String DUAL_SIGNED_DOCUMENT =
+    static final String DUAL_SIGNED_DOCUMENT =
         "{\"payload\":\n"
         + "\t\"eyJpc3MiOiJqb2UiLA0KICJleHAiOjEzMDA4MTkzODAsDQogImh0dHA6Ly9leGFtcGxlLmNvbS9pc19yb290Ijp0cnVlfQ\",\n"
         + "\t\"signatures\":[\n"
@@ -54,8 +54,8 @@ public class JwsJsonConsumerTest {
         + "\t\t\t\t\"DtEhU3ljbEg8L38VWAfUAqOyKAM6-Xx-F4GawxaepmXFCgfTjDxw5djxLa8ISlSApmWQxfKTUJqPP3-Kg6NU1Q\"}]\n"
         + "}";
 
-    private static final String KID_OF_THE_FIRST_SIGNER = "2010-12-29";
-    private static final String KID_OF_THE_SECOND_SIGNER = "e9bc097a-ce51-4036-9562-d2ade882db0d";
+    static final String KID_OF_THE_FIRST_SIGNER = "2010-12-29";
+    static final String KID_OF_THE_SECOND_SIGNER = "e9bc097a-ce51-4036-9562-d2ade882db0d";
 
     @Test
     public void testVerifySignedWithProtectedHeaderOnlyUnencodedPayload() {
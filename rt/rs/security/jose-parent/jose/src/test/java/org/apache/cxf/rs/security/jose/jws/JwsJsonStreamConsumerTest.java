@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
+import org.apache.cxf.rs.security.jose.jwk.JwkUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JwsJsonStreamConsumerTest {
+
+    @Test
+    public void testVerifyDualSignedDocument() throws Exception {
+        JwsJsonStreamConsumer consumer = new JwsJsonStreamConsumer(
+            JwsCompactStreamConsumerTest.toStream(JwsJsonConsumerTest.DUAL_SIGNED_DOCUMENT));
+        List<JwsJsonSignatureEntry> sigEntries = consumer.getSignatureEntries();
+        assertEquals(2, sigEntries.size());
+        JsonWebKey rsaKey = readKeySet().getKey(JwsJsonConsumerTest.KID_OF_THE_FIRST_SIGNER);
+        List<JwsJsonSignatureEntry> remainingEntries = consumer.verifyAndGetNonValidated(
+            Collections.singletonList(JwsUtils.getSignatureVerifier(rsaKey)), null);
+        assertEquals(1, remainingEntries.size());
+        assertEquals(JwsJsonConsumerTest.KID_OF_THE_SECOND_SIGNER, remainingEntries.get(0).getKeyId());
+        try (InputStream is = consumer.getDecodedJwsPayloadStream()) {
+            assertEquals(new JwsJsonConsumer(JwsJsonConsumerTest.DUAL_SIGNED_DOCUMENT).getDecodedJwsPayload(),
+                         IOUtils.readStringFromStream(is));
+        }
+    }
+
+    @Test
+    public void testVerifyLargeDocument() throws Exception {
+        byte[] payload = JwsCompactStreamConsumerTest.createPayload(100000);
+        JwsJsonProducer producer = new JwsJsonProducer(new String(payload, StandardCharsets.UTF_8));
+        producer.signWith(new HmacJwsSignatureProvider(JwsJsonProducerTest.ENCODED_MAC_KEY_1,
+                                                       SignatureAlgorithm.HS256));
+        String doc = producer.signWith(new HmacJwsSignatureProvider(JwsJsonProducerTest.ENCODED_MAC_KEY_2,
+                                                                    SignatureAlgorithm.HS256));
+        JwsJsonStreamConsumer consumer = new JwsJsonStreamConsumer(JwsCompactStreamConsumerTest.toStream(doc));
+        assertEquals(2, consumer.getSignatureEntries().size());
+        List<JwsJsonSignatureEntry> remainingEntries = consumer.verifyAndGetNonValidated(
+            Collections.singletonList(new HmacJwsSignatureVerifier(JwsJsonProducerTest.ENCODED_MAC_KEY_2,
+                                                                   SignatureAlgorithm.HS256)), null);
+        assertEquals(1, remainingEntries.size());
+        try (InputStream is = consumer.getDecodedJwsPayloadStream()) {
+            assertArrayEquals(payload, IOUtils.readBytesFromStream(is));
+        }
+    }
+
+    @Test
+    public void testVerifyUnencodedPayload() throws Exception {
+        JwsJsonStreamConsumer consumer = new JwsJsonStreamConsumer(
+            JwsCompactStreamConsumerTest.toStream(JwsJsonProducerTest.SIGNED_JWS_JSON_FLAT_UNENCODED_DOCUMENT));
+        consumer.verifyAndGetNonValidated(
+            Collections.singletonList(new HmacJwsSignatureVerifier(JwsJsonProducerTest.ENCODED_MAC_KEY_1,
+                                                                   SignatureAlgorithm.HS256)), null);
+        try (InputStream is = consumer.getDecodedJwsPayloadStream()) {
+            assertEquals(JwsJsonProducerTest.UNSIGNED_PLAIN_DOCUMENT, IOUtils.readStringFromStream(is));
+        }
+    }
+
+    @Test
+    public void testVerifyDocumentWithSignaturesFirst() throws Exception {
+        JwsJsonProducer producer = new JwsJsonProducer(JwsJsonProducerTest.UNSIGNED_PLAIN_JSON_DOCUMENT, true);
+        producer.signWith(new HmacJwsSignatureProvider(JwsJsonProducerTest.ENCODED_MAC_KEY_1,
+                                                       SignatureAlgorithm.HS256));
+        JwsJsonSignatureEntry entry = producer.getSignatureEntries().get(0);
+        String doc = "{\"protected\":\"" + entry.getEncodedProtectedHeader() + "\","
+            + "\"signature\":\"" + entry.getEncodedSignature() + "\","
+            + "\"payload\":\"" + producer.getUnsignedEncodedPayload() + "\"}";
+        JwsJsonStreamConsumer consumer = new JwsJsonStreamConsumer(JwsCompactStreamConsumerTest.toStream(doc));
+        consumer.verifyAndGetNonValidated(
+            Collections.singletonList(new HmacJwsSignatureVerifier(JwsJsonProducerTest.ENCODED_MAC_KEY_1,
+                                                                   SignatureAlgorithm.HS256)), null);
+        try (InputStream is = consumer.getDecodedJwsPayloadStream()) {
+            assertEquals(JwsJsonProducerTest.UNSIGNED_PLAIN_JSON_DOCUMENT, IOUtils.readStringFromStream(is));
+        }
+    }
+
+    @Test
+    public void testVerifyWithWrongKey() throws Exception {
+        JwsJsonStreamConsumer consumer = new JwsJsonStreamConsumer(
+            JwsCompactStreamConsumerTest.toStream(JwsJsonProducerTest.SIGNED_JWS_JSON_DOCUMENT));
+        try {
+            consumer.verifyAndGetNonValidated(
+                Collections.singletonList(new HmacJwsSignatureVerifier(JwsJsonProducerTest.ENCODED_MAC_KEY_2,
+                                                           SignatureAlgorithm.HS256)), null);
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_SIGNATURE, ex.getError());
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Test
+    public void testReadDocumentWithoutSignatures() throws Exception {
+        try {
+            new JwsJsonStreamConsumer(JwsCompactStreamConsumerTest.toStream("{\"payload\":\"eyJh\"}"));
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_JSON_JWS, ex.getError());
+        }
+    }
+
+    private static JsonWebKeys readKeySet() throws Exception {
+        return JwkUtils.readJwkSet(JwsJsonConsumerTest.class.getResourceAsStream("jwkPublicJsonConsumerSet.txt"));
+    }
+}
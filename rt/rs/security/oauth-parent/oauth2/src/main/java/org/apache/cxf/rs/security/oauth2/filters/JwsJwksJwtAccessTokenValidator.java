@@ -18,13 +18,10 @@
  */
 package org.apache.cxf.rs.security.oauth2.filters;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
 
 import javax.ws.rs.core.MediaType;
 
@@ -32,56 +29,64 @@ import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.rs.security.jose.jaxrs.JsonWebKeysProvider;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
+import org.apache.cxf.rs.security.jose.jwk.JwkSetCache;
 import org.apache.cxf.rs.security.jose.jwk.PublicKeyUse;
 import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
-import org.apache.cxf.rs.security.jose.jws.JwsUtils;
 
 /**
  * Validate Access Token signature using JWK Set from
  * {@link org.apache.cxf.rs.security.oauth2.services.AuthorizationMetadata#getJwksURL()} according to
- * {@link JwsHeaders#getKeyId()} 
+ * {@link JwsHeaders#getKeyId()}. The JWK Set is cached, see {@link JwkSetCache}.
  */
 public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
 
-    final Map<String, JwkHolder> jsonWebKeys = new ConcurrentHashMap<>();
+    final JwkSetCache jwkSetCache = new JwkSetCache(this::getSignatureKeys);
 
     private String jwksURL;
 
     @Override
     protected JwsSignatureVerifier getInitializedSignatureVerifier(JwsHeaders jwsHeaders) {
         Objects.requireNonNull(jwsHeaders.getKeyId());
-        final JwkHolder jwkHolder = jsonWebKeys.computeIfAbsent(jwsHeaders.getKeyId(), keyId -> updateJwk(keyId));
-        return jwkHolder != null ? jwkHolder.getJwsSignatureVerifier() : null;
+        return jwkSetCache.getSignatureVerifier(jwsHeaders.getKeyId());
     }
 
     public void setJwksURL(String jwksURL) {
         this.jwksURL = jwksURL;
     }
 
+    /**
+     * Set the interval (in milliseconds) after which the JWK Set is reloaded in the background
+     */
+    public void setJwksRefreshInterval(long refreshInterval) {
+        jwkSetCache.setRefreshInterval(refreshInterval);
+    }
+
+    /**
+     * Set the minimum interval (in milliseconds) between reloads of the JWK Set for unknown key ids
+     */
+    public void setJwksMinRefreshInterval(long minRefreshInterval) {
+        jwkSetCache.setMinRefreshInterval(minRefreshInterval);
+    }
+
+    public JwkSetCache getJwkSetCache() {
+        return jwkSetCache;
+    }
+
     @Override
     public void setJwsVerifier(JwsSignatureVerifier theJwsVerifier) {
         throw new IllegalArgumentException("Actual JwsSignatureVerifier will be populated from the JWK Set URL");
     }
 
-    private JwkHolder updateJwk(String keyId) {
+    private JsonWebKeys getSignatureKeys() {
         Objects.requireNonNull(jwksURL, "JWK Set URL must be specified");
-        JwkHolder jwkHolder = null;
-        final Set<String> kids = new HashSet<>();
+        final List<JsonWebKey> keys = new ArrayList<>();
         for (JsonWebKey jwk : getJsonWebKeys().getKeys()) {
             if (PublicKeyUse.ENCRYPT != jwk.getPublicKeyUse()) {
-                final String kid = jwk.getKeyId();
-                kids.add(kid);
-                final JwkHolder h = new JwkHolder(jwk);
-                if (keyId.equals(kid)) {
-                    jwkHolder = h;
-                } else {
-                    jsonWebKeys.putIfAbsent(kid, h);
-                }
+                keys.add(jwk);
             }
         }
-        jsonWebKeys.keySet().removeIf(not(kids::contains));
-        return jwkHolder;
+        return new JsonWebKeys(keys);
     }
 
     JsonWebKeys getJsonWebKeys() {
@@ -89,24 +94,4 @@ public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
             .accept(MediaType.APPLICATION_JSON).get(JsonWebKeys.class);
     }
 
-    // from Java 11
-    @SuppressWarnings("unchecked")
-    static <T> Predicate<T> not(Predicate<? super T> target) {
-        return (Predicate<T>)target.negate();
-    }
-
-    private static class JwkHolder {
-        private final JsonWebKey jsonWebKey;
-        private JwsSignatureVerifier jwsSignatureVerifier;
-        JwkHolder(JsonWebKey jsonWebKey) {
-            this.jsonWebKey = jsonWebKey;
-        }
-        public JwsSignatureVerifier getJwsSignatureVerifier() {
-            if (null == jwsSignatureVerifier) {
-                jwsSignatureVerifier = JwsUtils.getSignatureVerifier(jsonWebKey);
-            }
-            return jwsSignatureVerifier;
-        }
-    }
-
-}
\ No newline at end of file
+}
@@ -64,12 +64,12 @@ public class JwsJwksJwtAccessTokenValidatorTest {
 
         validator.getInitializedSignatureVerifier(new JwsHeaders(jwk2.getKeyId()));
         assertEquals(new HashSet<>(Arrays.asList(jwk1.getKeyId(), jwk2.getKeyId())),
-            validator.jsonWebKeys.keySet());
+            validator.jwkSetCache.getKeyIds());
 
         // rotate keys
         validator.getInitializedSignatureVerifier(new JwsHeaders(jwk3.getKeyId()));
         assertEquals(new HashSet<>(Arrays.asList(jwk1.getKeyId(), jwk3.getKeyId())),
-            validator.jsonWebKeys.keySet());
+            validator.jwkSetCache.getKeyIds());
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.sse;
+
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+
+/**
+ * An outbound SSE event together with its wire representation. The broadcaster
+ * serializes an event once and the sinks write the same bytes to every subscriber.
+ */
+final class SerializedOutboundSseEvent implements OutboundSseEvent {
+    private final OutboundSseEvent event;
+    private final byte[] bytes;
+
+    SerializedOutboundSseEvent(OutboundSseEvent event, byte[] bytes) {
+        this.event = event;
+        this.bytes = bytes;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String getId() {
+        return event.getId();
+    }
+
+    @Override
+    public String getName() {
+        return event.getName();
+    }
+
+    @Override
+    public String getComment() {
+        return event.getComment();
+    }
+
+    @Override
+    public long getReconnectDelay() {
+        return event.getReconnectDelay();
+    }
+
+    @Override
+    public boolean isReconnectDelaySet() {
+        return event.isReconnectDelaySet();
+    }
+
+    @Override
+    public Class<?> getType() {
+        return event.getType();
+    }
+
+    @Override
+    public Type getGenericType() {
+        return event.getGenericType();
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return event.getMediaType();
+    }
+
+    @Override
+    public Object getData() {
+        return event.getData();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.sse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the delivery of a single broadcast event to all the subscribers with one
+ * counter instead of a future per subscriber. The future completes once every
+ * subscriber is done, exceptionally with the first error if any delivery failed.
+ */
+final class SseBroadcastCompletion {
+    // the broadcaster holds one pending count until all the subscribers are visited
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    void add() {
+        pending.incrementAndGet();
+    }
+
+    void done(Throwable ex) {
+        if (ex != null) {
+            error.compareAndSet(null, ex);
+        }
+        if (pending.decrementAndGet() == 0) {
+            Throwable t = error.get();
+            if (t == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    CompletableFuture<Void> getFuture() {
+        return future;
+    }
+}
@@ -18,29 +18,114 @@
  */
 package org.apache.cxf.jaxrs.sse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
+import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseBroadcaster;
 import javax.ws.rs.sse.SseEventSink;
 
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Broadcasts the events to the registered sinks.
+ * <p>
+ * By default every event is passed to {@link SseEventSink#send(OutboundSseEvent)} of every sink.
+ * When a {@link SlowConsumerPolicy} is set the event is serialized once and the same bytes
+ * are queued to the bounded buffer of every sink (see {@link SseEventSinkImpl#BUFFER_SIZE_PROPERTY}),
+ * the policy decides what happens to the subscribers whose buffer is full.
+ */
 public final class SseBroadcasterImpl implements SseBroadcaster {
+    public static final String SLOW_CONSUMER_POLICY_PROPERTY = "org.apache.cxf.sse.broadcaster.slow.consumer.policy";
+    public static final String BLOCK_TIMEOUT_PROPERTY = "org.apache.cxf.sse.broadcaster.block.timeout";
+    public static final long DEFAULT_BLOCK_TIMEOUT = 5000;
+
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
+    private static final Logger LOG = LogUtils.getL7dLogger(SseBroadcasterImpl.class);
+    private static final Set<String> INVALID_POLICIES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * What to do with a subscriber which does not keep up with the broadcast events.
+     */
+    public enum SlowConsumerPolicy {
+        /** The event is not delivered to the subscriber whose buffer is full. */
+        DROP,
+        /** The subscriber whose buffer is full is disconnected. */
+        DISCONNECT,
+        /**
+         * The broadcaster waits for the buffers of the subscribers to have some space. The
+         * block timeout bounds the total wait of a broadcast, once it has elapsed the event is
+         * dropped for every subscriber whose buffer is still full.
+         */
+        BLOCK;
+
+        public static SlowConsumerPolicy fromString(String value) {
+            return value == null ? null : valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        }
+
+        /**
+         * Returns the policy configured with the given property value. An unknown value is
+         * reported once and the events are sent to every sink separately, as if no policy was set.
+         */
+        static SlowConsumerPolicy fromProperty(Object value) {
+            if (value == null || value instanceof SlowConsumerPolicy) {
+                return (SlowConsumerPolicy)value;
+            }
+            try {
+                return fromString(value.toString());
+            } catch (IllegalArgumentException ex) {
+                if (INVALID_POLICIES.add(value.toString())) {
+                    LOG.warning("Unknown SSE slow consumer policy '" + value + "' set with the "
+                        + SLOW_CONSUMER_POLICY_PROPERTY + " property, it is ignored");
+                }
+                return null;
+            }
+        }
+    }
+
     private final Set<SseEventSink> subscribers = new CopyOnWriteArraySet<>();
     private final Set<Consumer<SseEventSink>> closers = new CopyOnWriteArraySet<>();
     private final Set<BiConsumer<SseEventSink, Throwable>> exceptioners = new CopyOnWriteArraySet<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final long blockTimeout;
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder disconnectedSubscribers = new LongAdder();
+
+    public SseBroadcasterImpl() {
+        this(null, DEFAULT_BLOCK_TIMEOUT);
+    }
+
+    /**
+     * @param slowConsumerPolicy the slow consumer policy, null to send every event
+     *        to every sink separately
+     * @param blockTimeout maximum time in milliseconds the {@link SlowConsumerPolicy#BLOCK}
+     *        policy waits for the subscribers during one broadcast
+     */
+    public SseBroadcasterImpl(SlowConsumerPolicy slowConsumerPolicy, long blockTimeout) {
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.blockTimeout = blockTimeout;
+    }
 
     @Override
     public void register(SseEventSink sink) {
@@ -82,6 +167,13 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
     public CompletionStage<?> broadcast(OutboundSseEvent event) {
         assertNotClosed();
 
+        if (slowConsumerPolicy != null) {
+            final OutboundSseEvent serialized = serialize(event);
+            if (serialized != null) {
+                return fanOut(serialized);
+            }
+        }
+
         final Collection<CompletableFuture<?>> futures = new ArrayList<>();
         for (SseEventSink sink: subscribers) {
             try {
@@ -94,6 +186,111 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    private CompletionStage<?> fanOut(OutboundSseEvent event) {
+        final SseBroadcastCompletion completion = new SseBroadcastCompletion();
+        // the block timeout bounds the wait of the whole broadcast, not the wait per subscriber
+        final boolean block = slowConsumerPolicy == SlowConsumerPolicy.BLOCK;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+
+        for (SseEventSink sink: subscribers) {
+            completion.add();
+            try {
+                final long timeout = block ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : 0;
+                if (!(sink instanceof SseEventSinkImpl)) {
+                    sink.send(event).whenComplete((r, ex) -> completion.done(ex));
+                } else if (!((SseEventSinkImpl)sink).send(event, completion, timeout)) {
+                    completion.done(null);
+                    droppedEvents.increment();
+                    if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                        disconnect((SseEventSinkImpl)sink);
+                    }
+                }
+            } catch (final Exception ex) {
+                completion.done(ex);
+                exceptioners.forEach(exceptioner -> exceptioner.accept(sink, ex));
+            }
+        }
+        completion.done(null);
+
+        return completion.getFuture();
+    }
+
+    private void disconnect(SseEventSinkImpl sink) {
+        LOG.fine("Disconnecting the slow SSE subscriber");
+        disconnectedSubscribers.increment();
+        subscribers.remove(sink);
+        sink.disconnect(new IllegalStateException("The subscriber buffer is full ("
+            + sink.getBufferSize() + "), disconnecting the slow subscriber"));
+    }
+
+    /**
+     * Serializes the event with the writer of one of the sinks, returns null if it can not be done.
+     */
+    private OutboundSseEvent serialize(OutboundSseEvent event) {
+        for (SseEventSink sink: subscribers) {
+            if (sink instanceof SseEventSinkImpl) {
+                final MessageBodyWriter<OutboundSseEvent> writer = ((SseEventSinkImpl)sink).getWriter();
+                if (writer != null) {
+                    try {
+                        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                        writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                            event.getMediaType(), null, os);
+                        return new SerializedOutboundSseEvent(event, os.toByteArray());
+                    } catch (final Exception ex) {
+                        LOG.log(Level.FINE, "Unable to serialize the SSE event once for all the sinks", ex);
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the total number of the events waiting to be sent to the subscribers.
+     */
+    public long getQueuedEventCount() {
+        long count = 0;
+        for (SseEventSink sink: subscribers) {
+            if (sink instanceof SseEventSinkImpl) {
+                count += ((SseEventSinkImpl)sink).getQueuedEventCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of the events waiting to be sent to the slowest subscriber.
+     */
+    public int getMaxQueuedEventCount() {
+        int max = 0;
+        for (SseEventSink sink: subscribers) {
+            if (sink instanceof SseEventSinkImpl) {
+                max = Math.max(max, ((SseEventSinkImpl)sink).getQueuedEventCount());
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of the events not delivered to a subscriber because its buffer was full.
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    public long getDisconnectedSubscriberCount() {
+        return disconnectedSubscribers.sum();
+    }
+
     @Override
     public void onClose(Consumer<SseEventSink> subscriber) {
         assertNotClosed();
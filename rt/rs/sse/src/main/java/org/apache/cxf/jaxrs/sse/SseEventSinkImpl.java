@@ -20,9 +20,10 @@
 package org.apache.cxf.jaxrs.sse;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
-import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
@@ -50,7 +51,7 @@ public class SseEventSinkImpl implements SseEventSink {
 
     private final AsyncContext ctx;
     private final MessageBodyWriter<OutboundSseEvent> writer;
-    private final Queue<QueuedEvent> buffer;
+    private final BlockingQueue<QueuedEvent> buffer;
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final AtomicBoolean dispatching = new AtomicBoolean(false);
     private final AtomicReference<Throwable> throwable = new AtomicReference<>();
@@ -124,6 +125,21 @@ public class SseEventSinkImpl implements SseEventSink {
     public AsyncContext getAsyncContext() {
         return ctx;
     }
+
+    MessageBodyWriter<OutboundSseEvent> getWriter() {
+        return writer;
+    }
+
+    /**
+     * Returns the number of the events waiting to be sent to the client.
+     */
+    public int getQueuedEventCount() {
+        return buffer.size();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
     
     @Override
     public void close() {
@@ -137,34 +153,61 @@ public class SseEventSinkImpl implements SseEventSink {
                 LOG.warning("There are still SSE events the queue which may not be delivered (closing now)");
             }
             
-            if (completed.compareAndSet(false, true)) {
-                try {
-                    // In case of Tomcat, the context may be already closed (f.e. due to error),
-                    // in this case request is set to null.
-                    if (ctx.getRequest() != null) {
-                        LOG.fine("Completing the AsyncContext");
-                        ctx.complete();
-                    }
-                } catch (final IllegalStateException ex) {
-                    LOG.fine("Failed to close the AsyncContext cleanly: " + ex.getMessage());
-                }
-            }
-            
-            // Complete all the accepted but not dispatched send request with the
-            // error (if any) or signal that sink has been closed already.
-            Throwable ex = throwable.get();
-            if (ex == null) {
-                ex = new IllegalStateException("The sink has been already closed");
+            completeAsyncContext();
+            failQueuedEvents();
+        }
+    }
+
+    /**
+     * Closes the sink without waiting for the queued events to be sent, the queued
+     * events are completed with the given error. If an event is being written, the
+     * AsyncContext is completed by the writing thread once the write has finished.
+     */
+    void disconnect(Throwable reason) {
+        throwable.compareAndSet(null, reason);
+        if (closed.compareAndSet(false, true)) {
+            LOG.fine("Disconnecting SSE sink now");
+            failQueuedEvents();
+            if (dispatching.compareAndSet(false, true)) {
+                completeAsyncContext();
             }
-            
-            QueuedEvent queuedEvent = buffer.poll();
-            while (queuedEvent != null) {
-                queuedEvent.completion.completeExceptionally(ex);
-                queuedEvent = buffer.poll();
+        }
+    }
+
+    private boolean isDisconnected() {
+        return closed.get() && throwable.get() != null;
+    }
+
+    private void completeAsyncContext() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                // In case of Tomcat, the context may be already closed (f.e. due to error),
+                // in this case request is set to null.
+                if (ctx.getRequest() != null) {
+                    LOG.fine("Completing the AsyncContext");
+                    ctx.complete();
+                }
+            } catch (final IllegalStateException ex) {
+                LOG.fine("Failed to close the AsyncContext cleanly: " + ex.getMessage());
             }
         }
     }
 
+    private void failQueuedEvents() {
+        // Complete all the accepted but not dispatched send request with the
+        // error (if any) or signal that sink has been closed already.
+        Throwable ex = throwable.get();
+        if (ex == null) {
+            ex = new IllegalStateException("The sink has been already closed");
+        }
+
+        QueuedEvent queuedEvent = buffer.poll();
+        while (queuedEvent != null) {
+            queuedEvent.completeExceptionally(ex);
+            queuedEvent = buffer.poll();
+        }
+    }
+
     private boolean awaitQueueToDrain(int timeout, TimeUnit unit) {
         final long parkTime = unit.toNanos(timeout) / 20;
         int attempt = 0;
@@ -184,26 +227,60 @@ public class SseEventSinkImpl implements SseEventSink {
     @Override
     public CompletionStage<?> send(OutboundSseEvent event) {
         final CompletableFuture<?> future = new CompletableFuture<>();
+        final QueuedEvent queuedEvent = new QueuedEvent(event, future, null);
+
+        if (!enqueue(queuedEvent, 0)) {
+            future.completeExceptionally(new IllegalStateException("The buffer is full (" 
+                + bufferSize + "), unable to queue SSE event for send. Please use '" 
+                    + BUFFER_SIZE_PROPERTY + "' property to increase the limit."));
+        }
 
+        return future;
+    }
+
+    /**
+     * Queues an event sent by the broadcaster, waiting up to the given number of milliseconds
+     * for the space to become available if the buffer is full.
+     *
+     * @return false if the event could not be queued because the buffer is full; if the
+     *         sink is closed or failed the completion is notified and true is returned.
+     */
+    boolean send(OutboundSseEvent event, SseBroadcastCompletion completion, long timeout) {
+        return enqueue(new QueuedEvent(event, null, completion), timeout);
+    }
+
+    private boolean enqueue(QueuedEvent queuedEvent, long timeout) {
         if (!closed.get() && writer != null) {
             final Throwable ex = throwable.get(); 
             if (ex != null) {
-                future.completeExceptionally(ex);
-            } else if (buffer.offer(new QueuedEvent(event, future))) {
-                if (dispatching.compareAndSet(false, true)) {
+                queuedEvent.completeExceptionally(ex);
+            } else if (offer(queuedEvent, timeout)) {
+                if (closed.get()) {
+                    // the sink has been closed while the event was being queued
+                    failQueuedEvents();
+                } else if (dispatching.compareAndSet(false, true)) {
                     ctx.start(this::dequeue);
                 }
             } else {
-                future.completeExceptionally(new IllegalStateException("The buffer is full (" 
-                    + bufferSize + "), unable to queue SSE event for send. Please use '" 
-                        + BUFFER_SIZE_PROPERTY + "' property to increase the limit."));
+                return false;
             }
         } else {
-            future.completeExceptionally(new IllegalStateException(
+            queuedEvent.completeExceptionally(new IllegalStateException(
                 "The sink is already closed, unable to queue SSE event for send"));
         }
+        return true;
+    }
 
-        return future;
+    private boolean offer(QueuedEvent queuedEvent, long timeout) {
+        if (timeout <= 0) {
+            return buffer.offer(queuedEvent);
+        }
+        try {
+            return buffer.offer(queuedEvent, timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     /**
@@ -229,21 +306,25 @@ public class SseEventSinkImpl implements SseEventSink {
                 }
                 
                 final OutboundSseEvent event = queuedEvent.event;
-                final CompletableFuture<?> future = queuedEvent.completion;
     
                 try {
                     if (error == null) {
                         LOG.fine("Dispatching SSE event over the wire");
                         
-                        writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
-                            event.getMediaType(), null, ctx.getResponse().getOutputStream());
+                        final OutputStream os = ctx.getResponse().getOutputStream();
+                        if (event instanceof SerializedOutboundSseEvent) {
+                            os.write(((SerializedOutboundSseEvent)event).getBytes());
+                        } else {
+                            writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                                event.getMediaType(), null, os);
+                        }
                         ctx.getResponse().flushBuffer();
                         
                         LOG.fine("Completing the future successfully");
-                        future.complete(null);
+                        queuedEvent.complete();
                     } else {
                         LOG.fine("Completing the future unsuccessfully (error enountered previously)");
-                        future.completeExceptionally(error);
+                        queuedEvent.completeExceptionally(error);
                     }
                 } catch (final Exception ex) {
                     // Very likely the connection is closed by the client (but we cannot
@@ -253,12 +334,23 @@ public class SseEventSinkImpl implements SseEventSink {
                     }
                     
                     LOG.fine("Completing the future unsuccessfully (error enountered)");
-                    future.completeExceptionally(ex);
+                    queuedEvent.completeExceptionally(ex);
                 }
             }
         } finally {
             final boolean shouldComplete = (error != null) && throwable.compareAndSet(null, error);
-            dispatching.set(false);
+            if (isDisconnected()) {
+                // The sink has been disconnected while this thread was writing, the context
+                // is completed here so that it is never completed in the middle of a write.
+                failQueuedEvents();
+                completeAsyncContext();
+            } else {
+                dispatching.set(false);
+                if (isDisconnected() && dispatching.compareAndSet(false, true)) {
+                    // disconnect() has been called after the last check
+                    completeAsyncContext();
+                }
+            }
             
             // Ideally, we should be rethrowing the exception here (error) and handle
             // it inside the onError() callback. However, most of the servlet containers
@@ -285,10 +377,29 @@ public class SseEventSinkImpl implements SseEventSink {
     private static class QueuedEvent {
         private final OutboundSseEvent event;
         private final CompletableFuture<?> completion;
+        private final SseBroadcastCompletion broadcastCompletion;
 
-        QueuedEvent(OutboundSseEvent event, CompletableFuture<?> completion) {
+        QueuedEvent(OutboundSseEvent event, CompletableFuture<?> completion,
+                SseBroadcastCompletion broadcastCompletion) {
             this.event = event;
             this.completion = completion;
+            this.broadcastCompletion = broadcastCompletion;
+        }
+
+        void complete() {
+            if (broadcastCompletion != null) {
+                broadcastCompletion.done(null);
+            } else {
+                completion.complete(null);
+            }
+        }
+
+        void completeExceptionally(Throwable ex) {
+            if (broadcastCompletion != null) {
+                broadcastCompletion.done(ex);
+            } else {
+                completion.completeExceptionally(ex);
+            }
         }
     }
 }
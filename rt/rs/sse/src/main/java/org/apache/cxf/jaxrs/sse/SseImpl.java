@@ -22,8 +22,25 @@ import javax.ws.rs.sse.OutboundSseEvent.Builder;
 import javax.ws.rs.sse.Sse;
 import javax.ws.rs.sse.SseBroadcaster;
 
+import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.jaxrs.sse.SseBroadcasterImpl.SlowConsumerPolicy;
+import org.apache.cxf.message.Message;
+
 class SseImpl implements Sse {
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final long blockTimeout;
+
     SseImpl() {
+        this(null);
+    }
+
+    SseImpl(Message message) {
+        final Object policy = message == null ? null
+            : message.getContextualProperty(SseBroadcasterImpl.SLOW_CONSUMER_POLICY_PROPERTY);
+        slowConsumerPolicy = SlowConsumerPolicy.fromProperty(policy);
+        final Long timeout = message == null ? null
+            : PropertyUtils.getLong(message, SseBroadcasterImpl.BLOCK_TIMEOUT_PROPERTY);
+        blockTimeout = timeout == null ? SseBroadcasterImpl.DEFAULT_BLOCK_TIMEOUT : timeout;
     }
 
     @Override
@@ -33,6 +50,6 @@ class SseImpl implements Sse {
 
     @Override
     public SseBroadcaster newBroadcaster() {
-        return new SseBroadcasterImpl();
+        return new SseBroadcasterImpl(slowConsumerPolicy, blockTimeout);
     }
 }
@@ -20,15 +20,25 @@
 package org.apache.cxf.jaxrs.sse;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseBroadcaster;
 
+import org.apache.cxf.jaxrs.sse.SseBroadcasterImpl.SlowConsumerPolicy;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
 import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -38,8 +48,14 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SseBroadcasterImplTest {
@@ -119,4 +135,146 @@ public class SseBroadcasterImplTest {
 
         assertThat(adder.intValue(), equalTo(1));
     }
+
+    @Test
+    public void testEventIsSerializedOnceAndDroppedForSlowSubscriber() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final MockHttpServletResponse slowResponse = new MockHttpServletResponse();
+        final SseBroadcasterImpl serializing = new SseBroadcasterImpl(SlowConsumerPolicy.DROP, 0);
+        final SseEventSinkImpl fast = new SseEventSinkImpl(writer, null, ctx, 10);
+        final SseEventSinkImpl slow = new SseEventSinkImpl(writer, null, deferredContext(slowResponse, tasks), 1);
+        serializing.register(fast);
+        serializing.register(slow);
+        writeTick();
+
+        final OutboundSseEvent event = new OutboundSseEventImpl.BuilderImpl().data("tick").build();
+        final CompletableFuture<?> first = serializing.broadcast(event).toCompletableFuture();
+        final CompletableFuture<?> second = serializing.broadcast(event).toCompletableFuture();
+
+        verify(writer, times(2)).writeTo(any(), any(), any(), any(), any(), any(), any());
+        assertThat(response.getContentAsString(), equalTo("data: tick\n\ndata: tick\n\n"));
+        assertThat(serializing.getDroppedEventCount(), equalTo(1L));
+        assertThat(serializing.getMaxQueuedEventCount(), equalTo(1));
+        assertFalse(first.isDone());
+        assertTrue(second.isDone());
+
+        tasks.forEach(Runnable::run);
+        assertTrue(first.isDone());
+        assertFalse(first.isCompletedExceptionally());
+        assertThat(slowResponse.getContentAsString(), equalTo("data: tick\n\n"));
+        assertThat(serializing.getQueuedEventCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testSlowSubscriberIsDisconnected() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final SseBroadcasterImpl serializing = new SseBroadcasterImpl(SlowConsumerPolicy.DISCONNECT, 0);
+        final SseEventSinkImpl fast = new SseEventSinkImpl(writer, null, ctx, 10);
+        final MockAsyncContext slowCtx = deferredContext(new MockHttpServletResponse(), tasks);
+        final LongAdder completions = new LongAdder();
+        slowCtx.addListener(new CompletionListener(completions));
+        final SseEventSinkImpl slow = new SseEventSinkImpl(writer, null, slowCtx, 1);
+        serializing.register(fast);
+        serializing.register(slow);
+        writeTick();
+
+        final OutboundSseEvent event = new OutboundSseEventImpl.BuilderImpl().data("tick").build();
+        final CompletableFuture<?> first = serializing.broadcast(event).toCompletableFuture();
+        serializing.broadcast(event);
+
+        assertTrue(slow.isClosed());
+        assertFalse(fast.isClosed());
+        assertThat(serializing.getSubscriberCount(), equalTo(1));
+        assertThat(serializing.getDisconnectedSubscriberCount(), equalTo(1L));
+        assertTrue(first.isCompletedExceptionally());
+        assertThat(response.getContentAsString(), equalTo("data: tick\n\ndata: tick\n\n"));
+
+        // the writer of the slow subscriber is still scheduled, it completes the context
+        assertThat(completions.intValue(), equalTo(0));
+        tasks.forEach(Runnable::run);
+        assertThat(completions.intValue(), equalTo(1));
+    }
+
+    @Test
+    public void testIdleSlowSubscriberIsDisconnectedImmediately() throws Exception {
+        final LongAdder completions = new LongAdder();
+        ctx.addListener(new CompletionListener(completions));
+        final SseEventSinkImpl sink = new SseEventSinkImpl(writer, null, ctx, 1);
+        sink.disconnect(new IllegalStateException("disconnected"));
+        assertTrue(sink.isClosed());
+        assertThat(completions.intValue(), equalTo(1));
+    }
+
+    @Test
+    public void testBlockTimeoutBoundsTheWholeBroadcast() throws Exception {
+        final SseBroadcasterImpl blocking = new SseBroadcasterImpl(SlowConsumerPolicy.BLOCK, 300);
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            blocking.register(new SseEventSinkImpl(writer, null,
+                deferredContext(new MockHttpServletResponse(), tasks), 1));
+        }
+        writeTick();
+
+        final OutboundSseEvent event = new OutboundSseEventImpl.BuilderImpl().data("tick").build();
+        blocking.broadcast(event);
+        final long start = System.nanoTime();
+        blocking.broadcast(event);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(blocking.getDroppedEventCount(), equalTo(4L));
+        assertTrue("The broadcast waited " + elapsed + "ms", elapsed < 1000);
+    }
+
+    @Test
+    public void testUnknownSlowConsumerPolicyIsIgnored() {
+        final Message message = new MessageImpl();
+        message.put(SseBroadcasterImpl.SLOW_CONSUMER_POLICY_PROPERTY, "unknown");
+        final SseBroadcasterImpl impl = (SseBroadcasterImpl)new SseImpl(message).newBroadcaster();
+        assertNull(impl.getSlowConsumerPolicy());
+
+        message.put(SseBroadcasterImpl.SLOW_CONSUMER_POLICY_PROPERTY, " drop ");
+        final SseBroadcasterImpl dropping = (SseBroadcasterImpl)new SseImpl(message).newBroadcaster();
+        assertThat(dropping.getSlowConsumerPolicy(), equalTo(SlowConsumerPolicy.DROP));
+    }
+
+    private void writeTick() throws IOException {
+        doAnswer(invocation -> {
+            ((OutputStream)invocation.getArgument(6)).write("data: tick\n\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(writer).writeTo(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    private static class CompletionListener implements AsyncListener {
+        private final LongAdder completions;
+
+        CompletionListener(LongAdder completions) {
+            this.completions = completions;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completions.increment();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static MockAsyncContext deferredContext(MockHttpServletResponse resp, List<Runnable> tasks) {
+        return new MockAsyncContext(new MockHttpServletRequest(), resp) {
+            @Override
+            public void start(Runnable runnable) {
+                tasks.add(runnable);
+            }
+        };
+    }
 }
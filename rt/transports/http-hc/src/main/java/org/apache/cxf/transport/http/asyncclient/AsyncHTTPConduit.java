@@ -129,6 +129,12 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
         return factory;
     }
 
+    @Override
+    protected boolean isWarmUpSupported() {
+        // the warm-up connections would not be used by the HttpAsyncClient connection pool
+        return false;
+    }
+
     @Override
     protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy) throws IOException {
         if (factory.isShutdown()) {
@@ -281,6 +287,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
         volatile Exception exception;
 
         private Future<Boolean> connectionFuture;
+        private TLSClientParameters connectionTlsParameters;
 
         private Object sessionLock = new Object();
         private boolean closed;
@@ -525,6 +532,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
 
             ctx.setCredentialsProvider(credsProvider);
 
+            connectionTlsParameters = null;
             if ("https".equals(url.getScheme())) {
                 try {
                     RegistryBuilder<SchemeIOSessionStrategy> regBuilder
@@ -539,6 +547,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                     if (tlsClientParameters == null) {
                         tlsClientParameters = new TLSClientParameters();
                     }
+                    connectionTlsParameters = tlsClientParameters;
                     final SSLContext sslcontext = getSSLContext(tlsClientParameters);
                     final HostnameVerifier verifier = org.apache.cxf.transport.https.SSLUtils
                         .getHostnameVerifier(tlsClientParameters);
@@ -574,8 +583,15 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                 sslState = null;
                 session = null;
             }
+            Object userToken = null;
             if (tlsClientParameters != null && tlsClientParameters.hashCode() == lastTlsHash) {
-                ctx.setUserToken(sslState);
+                userToken = sslState;
+            }
+            if (userToken == null && connectionTlsParameters != null) {
+                userToken = factory.getSharedTlsState(url, connectionTlsParameters);
+            }
+            if (userToken != null) {
+                ctx.setUserToken(userToken);
             }
 
             connectionFuture = new BasicFuture<>(callback);
@@ -885,6 +901,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
             synchronized (sessionLock) {
                 sslState = sslsession.getLocalPrincipal();
                 sslURL = url;
+                factory.setSharedTlsState(url, connectionTlsParameters, sslState);
                 sessionLock.notifyAll();
             }
         }
@@ -20,7 +20,11 @@
 package org.apache.cxf.transport.http.asyncclient;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.cxf.Bus;
@@ -28,6 +32,7 @@ import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
 import org.apache.cxf.common.injection.NoJSR250Annotations;
 import org.apache.cxf.common.util.SystemPropertyAction;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.http.HTTPConduit;
 import org.apache.cxf.transport.http.HTTPConduitFactory;
@@ -57,10 +62,17 @@ import org.apache.http.nio.conn.NoopIOSessionStrategy;
 import org.apache.http.nio.conn.SchemeIOSessionStrategy;
 import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.HttpContext;
 
 /**
- *
+ * Creates the AsyncHTTPConduits and the HttpAsyncClient 4.1 connection pool they share.
+ * <p>
+ * HttpAsyncClient 4.1 only speaks HTTP/1.1. HTTP/2 multiplexing would mean moving the
+ * transport to HttpClient 5, a new dependency and a port of the conduit's request and
+ * response plumbing (SharedInputBuffer, SharedOutputBuffer and the 4.1 callbacks). Until
+ * then, fan-out clients reduce connection churn by sharing the pooled connections that
+ * are already authenticated, see {@link #SHARE_TLS_CONNECTIONS}.
  */
 @NoJSR250Annotations
 public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
@@ -77,6 +89,8 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
         = "org.apache.cxf.transport.http.async.MAX_PER_HOST_CONNECTIONS";
     public static final String CONNECTION_TTL = "org.apache.cxf.transport.http.async.CONNECTION_TTL";
     public static final String CONNECTION_MAX_IDLE = "org.apache.cxf.transport.http.async.CONNECTION_MAX_IDLE";
+    public static final String SHARE_TLS_CONNECTIONS
+        = "org.apache.cxf.transport.http.async.SHARE_TLS_CONNECTIONS";
 
     //AsycClient specific props
     public static final String THREAD_COUNT = "org.apache.cxf.transport.http.async.ioThreadCount";
@@ -115,7 +129,12 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
     volatile PoolingNHttpClientConnectionManager connectionManager;
     volatile CloseableHttpAsyncClient client;
 
+    // TLS user tokens per target and TLS configuration, so that all conduits talking to
+    // the same server with the same client certificate lease the same pooled connections
+    final ConcurrentMap<TlsStateKey, Object> tlsStates = new ConcurrentHashMap<>();
+
     boolean isShutdown;
+    boolean shareTlsConnections = true;
     UseAsyncPolicy policy;
     int maxConnections = 5000;
     int maxPerRoute = 1000;
@@ -164,6 +183,7 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
     private synchronized void resetVars() {
         client = null;
         connectionManager = null;
+        tlsStates.clear();
     }
 
 
@@ -182,6 +202,10 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
         connectionTTL = getInt(s.get(CONNECTION_TTL), connectionTTL);
         connectionMaxIdle = getInt(s.get(CONNECTION_MAX_IDLE), connectionMaxIdle);
         maxPerRoute = getInt(s.get(MAX_PER_HOST_CONNECTIONS), maxPerRoute);
+        shareTlsConnections = getBoolean(s.get(SHARE_TLS_CONNECTIONS), shareTlsConnections);
+        if (!shareTlsConnections) {
+            tlsStates.clear();
+        }
 
         if (connectionManager != null) {
             connectionManager.setMaxTotal(maxConnections);
@@ -271,9 +295,37 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
             connectionManager = null;
             client = null;
         }
+        tlsStates.clear();
         isShutdown = true;
     }
 
+    /**
+     * Returns the statistics of the connection pool, or null if the client has not been started yet.
+     */
+    public PoolStats getPoolStats() {
+        PoolingNHttpClientConnectionManager mgr = connectionManager;
+        return mgr == null ? null : mgr.getTotalStats();
+    }
+
+    /**
+     * Returns the TLS state (the local principal of a client authenticated session) another
+     * conduit established with the same target and TLS configuration, or null if there is none.
+     * Using it as the user token lets the pool hand out the already authenticated connections
+     * instead of opening new ones and closing idle connections held under a different state.
+     */
+    Object getSharedTlsState(URI uri, TLSClientParameters params) {
+        if (!shareTlsConnections || params == null) {
+            return null;
+        }
+        return tlsStates.get(new TlsStateKey(uri, params));
+    }
+
+    void setSharedTlsState(URI uri, TLSClientParameters params, Object state) {
+        if (shareTlsConnections && params != null && state != null) {
+            tlsStates.put(new TlsStateKey(uri, params), state);
+        }
+    }
+
     private static void shutdown(CloseableHttpAsyncClient client) {
         try {
             client.close();
@@ -382,6 +434,37 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
         return client;
     }
 
+    static final class TlsStateKey {
+        private final String scheme;
+        private final String host;
+        private final int port;
+        private final TLSClientParameters params;
+
+        TlsStateKey(URI uri, TLSClientParameters params) {
+            this.scheme = uri.getScheme();
+            this.host = uri.getHost();
+            this.port = uri.getPort();
+            this.params = params;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scheme, host, port, params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TlsStateKey)) {
+                return false;
+            }
+            TlsStateKey that = (TlsStateKey)o;
+            return port == that.port
+                && Objects.equals(scheme, that.scheme)
+                && Objects.equals(host, that.host)
+                && Objects.equals(params, that.params);
+        }
+    }
+
     public class CloseIdleConnectionThread extends Thread {
 
         private final PoolingNHttpClientConnectionManager connMgr;
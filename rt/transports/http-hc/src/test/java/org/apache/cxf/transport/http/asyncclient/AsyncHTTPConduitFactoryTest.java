@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.asyncclient;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AsyncHTTPConduitFactoryTest {
+    private static final Principal CLIENT = () -> "CN=client";
+
+    @Test
+    public void testSharedTlsStateIsKeyedByTargetAndParameters() throws Exception {
+        AsyncHTTPConduitFactory factory = new AsyncHTTPConduitFactory(Collections.emptyMap());
+        TLSClientParameters params = new TLSClientParameters();
+        params.setCertAlias("client");
+
+        factory.setSharedTlsState(new URI("https://localhost:9000/a"), params, CLIENT);
+
+        TLSClientParameters same = new TLSClientParameters();
+        same.setCertAlias("client");
+        assertSame(CLIENT, factory.getSharedTlsState(new URI("https://localhost:9000/b"), same));
+
+        TLSClientParameters other = new TLSClientParameters();
+        other.setCertAlias("other");
+        assertNull(factory.getSharedTlsState(new URI("https://localhost:9000/a"), other));
+        assertNull(factory.getSharedTlsState(new URI("https://localhost:9001/a"), params));
+        assertNull(factory.getSharedTlsState(new URI("https://localhost:9000/a"), null));
+    }
+
+    @Test
+    public void testSharedTlsStateCanBeDisabled() throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(AsyncHTTPConduitFactory.SHARE_TLS_CONNECTIONS, "false");
+        AsyncHTTPConduitFactory factory = new AsyncHTTPConduitFactory(props);
+        TLSClientParameters params = new TLSClientParameters();
+
+        factory.setSharedTlsState(new URI("https://localhost:9000/a"), params, CLIENT);
+        assertNull(factory.getSharedTlsState(new URI("https://localhost:9000/a"), params));
+    }
+
+    @Test
+    public void testPoolStatsBeforeStart() {
+        assertNull(new AsyncHTTPConduitFactory(Collections.emptyMap()).getPoolStats());
+    }
+}
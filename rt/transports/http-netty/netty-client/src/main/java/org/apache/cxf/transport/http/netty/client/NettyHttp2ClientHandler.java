@@ -0,0 +1,192 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.HttpConversionUtil.ExtensionHeaderNames;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * Matches the responses of a multiplexed HTTP/2 connection with the requests by stream id.
+ * Everything here runs on the event loop of the channel, the response callbacks only hand the
+ * response over and never block it.
+ */
+public class NettyHttp2ClientHandler extends ChannelDuplexHandler {
+    private final HttpToHttp2ConnectionHandler connectionHandler;
+    private final Promise<Channel> ready;
+    private final Map<Integer, PendingRequest> pending = new HashMap<>();
+
+    public NettyHttp2ClientHandler(HttpToHttp2ConnectionHandler connectionHandler, Promise<Channel> ready) {
+        this.connectionHandler = connectionHandler;
+        this.ready = ready;
+    }
+
+    /**
+     * Returns false once the server has announced it will not accept new streams on this connection.
+     */
+    public boolean isUsable() {
+        return !connectionHandler.connection().goAwayReceived();
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        // added once the protocol is negotiated on a TLS connection
+        if (ctx.channel().isActive()) {
+            ready.trySuccess(ctx.channel());
+        }
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        ready.trySuccess(ctx.channel());
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof NettyHttpClientRequest) {
+            final NettyHttpClientRequest request = (NettyHttpClientRequest)msg;
+            final int streamId = connectionHandler.connection().local().incrementAndGetNextStreamId();
+            if (streamId < 0) {
+                // stream ids are exhausted, a new connection has to be used
+                request.getCxfResponseCallback().error(new IOException("No stream id left on the connection"));
+                promise.setFailure(new IOException("No stream id left on the connection"));
+                ctx.close();
+                return;
+            }
+            HttpHeaders headers = request.getRequest().headers();
+            headers.setInt(ExtensionHeaderNames.STREAM_ID.text(), streamId);
+            headers.set(ExtensionHeaderNames.SCHEME.text(), request.getUri().getScheme());
+
+            PendingRequest p = new PendingRequest(request);
+            pending.put(streamId, p);
+            if (request.getReceiveTimeout() > 0) {
+                p.timeout = ctx.executor().schedule(() -> timeout(ctx, streamId),
+                                                    request.getReceiveTimeout(), TimeUnit.MILLISECONDS);
+            }
+            promise.addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    fail(streamId, future.cause());
+                }
+            });
+            ctx.writeAndFlush(request.getRequest(), promise);
+        } else {
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof FullHttpResponse) {
+            FullHttpResponse response = (FullHttpResponse)msg;
+            Integer streamId = response.headers().getInt(ExtensionHeaderNames.STREAM_ID.text());
+            PendingRequest p = streamId == null ? null : pending.remove(streamId);
+            if (p == null) {
+                // the request has already timed out or failed
+                response.release();
+                return;
+            }
+            p.cancelTimeout();
+            p.request.setResponse(response);
+            p.request.getCxfResponseCallback().responseReceived(response);
+        } else {
+            super.channelRead(ctx, msg);
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        if (cause instanceof Http2Exception.StreamException) {
+            // only this stream is affected, the connection stays usable for the others
+            fail(((Http2Exception.StreamException)cause).streamId(), cause);
+        } else {
+            failAll(cause);
+            ctx.close();
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failAll(new IOException("Connection closed"));
+        super.channelInactive(ctx);
+    }
+
+    private void timeout(ChannelHandlerContext ctx, int streamId) {
+        PendingRequest p = pending.remove(streamId);
+        if (p != null) {
+            connectionHandler.resetStream(ctx, streamId, Http2Error.CANCEL.code(), ctx.newPromise());
+            ctx.flush();
+            p.request.getCxfResponseCallback().error(new SocketTimeoutException("Read Timeout"));
+        }
+    }
+
+    private void fail(int streamId, Throwable cause) {
+        PendingRequest p = pending.remove(streamId);
+        if (p != null) {
+            p.cancelTimeout();
+            p.request.getCxfResponseCallback().error(cause instanceof IOException ? cause : new IOException(cause));
+        }
+    }
+
+    private void failAll(Throwable cause) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingRequest> requests = new ArrayList<>(pending.values());
+        pending.clear();
+        for (PendingRequest p : requests) {
+            p.cancelTimeout();
+            p.request.getCxfResponseCallback().error(cause instanceof IOException ? cause : new IOException(cause));
+        }
+    }
+
+    private static final class PendingRequest {
+        final NettyHttpClientRequest request;
+        ScheduledFuture<?> timeout;
+
+        PendingRequest(NettyHttpClientRequest request) {
+            this.request = request;
+        }
+
+        void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+}
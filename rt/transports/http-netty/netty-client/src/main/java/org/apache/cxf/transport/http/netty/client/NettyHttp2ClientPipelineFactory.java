@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.transport.https.SSLUtils;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.DelegatingDecompressorFrameListener;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Sets up a client channel that speaks HTTP/2, with prior knowledge for cleartext (h2c)
+ * connections and through ALPN for TLS connections. The channel still accepts and produces
+ * the HTTP/1.x message objects, so that one connection can carry the requests of many conduits
+ * at the same time, each on its own stream.
+ * <p>
+ * The promise is completed with the channel once the HTTP/2 handlers are in place. A TLS
+ * connection fails it with an IOException when the server does not select h2, the requests
+ * are never sent over HTTP/1.1 on a connection meant to be shared.
+ */
+public class NettyHttp2ClientPipelineFactory extends ChannelInitializer<Channel> {
+
+    private static final Logger LOG =
+        LogUtils.getL7dLogger(NettyHttp2ClientPipelineFactory.class);
+
+    private final TLSClientParameters tlsClientParameters;
+    private final int maxContentLength;
+    private final Promise<Channel> ready;
+
+    public NettyHttp2ClientPipelineFactory(TLSClientParameters clientParameters, int maxResponseContentLength,
+                                           Promise<Channel> ready) {
+        this.tlsClientParameters = clientParameters;
+        this.maxContentLength = maxResponseContentLength;
+        this.ready = ready;
+    }
+
+    @Override
+    protected void initChannel(Channel ch) throws Exception {
+        ChannelPipeline pipeline = ch.pipeline();
+
+        SslHandler sslHandler;
+        try {
+            sslHandler = configureClientSSLOnDemand(ch);
+        } catch (Exception ex) {
+            // e.g. a JDK without ALPN support, the caller gets the actual cause
+            ready.tryFailure(ex);
+            throw ex;
+        }
+        if (sslHandler == null) {
+            configureHttp2(pipeline);
+            return;
+        }
+        LOG.log(Level.FINE,
+                "Client SSL handler configured and added as an interceptor against the ChannelPipeline: {}",
+                sslHandler);
+        pipeline.addLast("ssl", sslHandler);
+        pipeline.addLast("alpn", new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+            @Override
+            protected void configurePipeline(ChannelHandlerContext ctx, String protocol) throws Exception {
+                if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                    configureHttp2(ctx.pipeline());
+                } else {
+                    ready.tryFailure(new IOException("The server selected " + protocol + " instead of "
+                        + ApplicationProtocolNames.HTTP_2));
+                    ctx.close();
+                }
+            }
+
+            @Override
+            protected void handshakeFailure(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+                ready.tryFailure(cause);
+                super.handshakeFailure(ctx, cause);
+            }
+        });
+    }
+
+    private void configureHttp2(ChannelPipeline pipeline) {
+        Http2Connection connection = new DefaultHttp2Connection(false);
+        HttpToHttp2ConnectionHandler connectionHandler = new HttpToHttp2ConnectionHandlerBuilder()
+            .frameListener(new DelegatingDecompressorFrameListener(connection,
+                new InboundHttp2ToHttpAdapterBuilder(connection)
+                    .maxContentLength(maxContentLength)
+                    .propagateSettings(false)
+                    .build()))
+            // queue new streams instead of failing them once the server limit is reached
+            .encoderEnforceMaxConcurrentStreams(true)
+            .connection(connection)
+            .build();
+        pipeline.addLast("http2", connectionHandler);
+        pipeline.addLast("client", new NettyHttp2ClientHandler(connectionHandler, ready));
+    }
+
+    private SslHandler configureClientSSLOnDemand(Channel ch) throws Exception {
+        if (tlsClientParameters != null) {
+            // Netty wraps the engine to offer h2 through ALPN, on Java 8 this needs 8u251 or later
+            SSLContext sslContext = SSLUtils.getSSLContext(tlsClientParameters);
+            String[] cipherSuites = org.apache.cxf.configuration.jsse.SSLUtils.getCiphersuitesToInclude(
+                tlsClientParameters.getCipherSuites(),
+                tlsClientParameters.getCipherSuitesFilter(),
+                sslContext.getSocketFactory().getDefaultCipherSuites(),
+                org.apache.cxf.configuration.jsse.SSLUtils.getSupportedCipherSuites(sslContext),
+                LOG);
+            String protocol = tlsClientParameters.getSecureSocketProtocol() != null ? tlsClientParameters
+                .getSecureSocketProtocol() : sslContext.getProtocol();
+            String[] protocols = findProtocols(protocol, sslContext.getSupportedSSLParameters().getProtocols());
+
+            SslContext context = new JdkSslContext(sslContext, true,
+                Arrays.asList(cipherSuites),
+                IdentityCipherSuiteFilter.INSTANCE,
+                new ApplicationProtocolConfig(Protocol.ALPN, SelectorFailureBehavior.NO_ADVERTISE,
+                    SelectedListenerFailureBehavior.ACCEPT,
+                    ApplicationProtocolNames.HTTP_2, ApplicationProtocolNames.HTTP_1_1),
+                ClientAuth.NONE, protocols, false);
+            return context.newHandler(ch.alloc());
+        }
+        return null;
+    }
+
+    private static String[] findProtocols(String p, String[] options) {
+        List<String> list = new ArrayList<>();
+        for (String s : options) {
+            if (s.equals(p)) {
+                return new String[] {p};
+            } else if (s.startsWith(p)) {
+                list.add(s);
+            }
+        }
+        if (list.isEmpty()) {
+            return null;
+        }
+        return list.toArray(new String[0]);
+    }
+}
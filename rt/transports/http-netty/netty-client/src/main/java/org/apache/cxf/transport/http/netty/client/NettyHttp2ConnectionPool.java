@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Keeps one multiplexed HTTP/2 connection per target and event loop. Requests are spread over
+ * the event loops of the group, so a target is served by at most as many connections as there
+ * are event loops, whatever the number of concurrent invocations.
+ * <p>
+ * The connections are opened with a clone of the bootstrap of the conduit, so they use its
+ * event loop group, channel class and options.
+ */
+public class NettyHttp2ConnectionPool {
+    private final ConcurrentMap<ConnectionKey, Future<Channel>> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the future of a connection to the target of the uri, connecting on first use or
+     * when the previous connection has been closed or is draining after a GOAWAY. The future
+     * completes once the connection is ready to carry HTTP/2 streams.
+     */
+    public Future<Channel> acquire(Bootstrap bootstrap, URI uri, TLSClientParameters clientParameters,
+                                   int maxResponseContentLength) {
+        EventLoop eventLoop = bootstrap.config().group().next();
+        ConnectionKey key = new ConnectionKey(eventLoop, uri, clientParameters, maxResponseContentLength);
+        Future<Channel> future = connections.get(key);
+        if (future != null && !isUsable(future)) {
+            connections.remove(key, future);
+            future = null;
+        }
+        if (future == null) {
+            future = connections.computeIfAbsent(key, k -> connect(bootstrap, k));
+        }
+        return future;
+    }
+
+    /**
+     * Closes all the pooled connections.
+     */
+    public void close() {
+        for (Future<Channel> future : connections.values()) {
+            if (future.isSuccess()) {
+                future.getNow().close();
+            } else {
+                future.cancel(false);
+            }
+        }
+        connections.clear();
+    }
+
+    int size() {
+        return connections.size();
+    }
+
+    private static boolean isUsable(Future<Channel> future) {
+        if (!future.isDone()) {
+            return true;
+        }
+        if (!future.isSuccess() || !future.getNow().isActive()) {
+            return false;
+        }
+        NettyHttp2ClientHandler handler = future.getNow().pipeline().get(NettyHttp2ClientHandler.class);
+        return handler != null && handler.isUsable();
+    }
+
+    private Future<Channel> connect(Bootstrap template, final ConnectionKey key) {
+        final Promise<Channel> ready = key.eventLoop.newPromise();
+        Bootstrap bootstrap = template.clone(key.eventLoop)
+            .handler(new NettyHttp2ClientPipelineFactory(key.clientParameters, key.maxResponseContentLength,
+                                                         ready));
+        final ChannelFuture connected = bootstrap.connect(new InetSocketAddress(key.host, key.port));
+        connected.addListener((ChannelFutureListener) f -> {
+            if (f.isSuccess()) {
+                f.channel().closeFuture().addListener((ChannelFutureListener) c -> {
+                    ready.tryFailure(new IOException("Connection closed"));
+                    connections.remove(key, ready);
+                });
+            } else {
+                ready.tryFailure(f.cause());
+            }
+        });
+        ready.addListener((FutureListener<Channel>) f -> {
+            if (!f.isSuccess()) {
+                connections.remove(key, ready);
+                connected.channel().close();
+            }
+        });
+        return ready;
+    }
+
+    private static final class ConnectionKey {
+        final EventLoop eventLoop;
+        final String host;
+        final int port;
+        final TLSClientParameters clientParameters;
+        final int maxResponseContentLength;
+
+        ConnectionKey(EventLoop eventLoop, URI uri, TLSClientParameters clientParameters,
+                      int maxResponseContentLength) {
+            this.eventLoop = eventLoop;
+            this.host = uri.getHost();
+            this.port = uri.getPort() != -1 ? uri.getPort() : "http".equals(uri.getScheme()) ? 80 : 443;
+            this.clientParameters = clientParameters;
+            this.maxResponseContentLength = maxResponseContentLength;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventLoop, host, port, clientParameters, maxResponseContentLength);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ConnectionKey)) {
+                return false;
+            }
+            ConnectionKey that = (ConnectionKey)o;
+            return eventLoop == that.eventLoop
+                && port == that.port
+                && maxResponseContentLength == that.maxResponseContentLength
+                && Objects.equals(host, that.host)
+                && Objects.equals(clientParameters, that.clientParameters);
+        }
+    }
+}
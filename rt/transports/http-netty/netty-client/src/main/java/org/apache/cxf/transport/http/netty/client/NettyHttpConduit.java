@@ -71,12 +71,19 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 
 
 public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLifeCycleListener {
     public static final String USE_ASYNC = "use.async.http.conduit";
     public static final String MAX_RESPONSE_CONTENT_LENGTH =
         "org.apache.cxf.transport.http.netty.maxResponseContentLength";
+    /**
+     * Send the requests over HTTP/2, with prior knowledge for http (h2c) and through ALPN
+     * for https. The connections are shared by all conduits of the factory.
+     */
+    public static final String USE_HTTP2 = "org.apache.cxf.transport.http.netty.http2";
     static final Integer DEFAULT_MAX_RESPONSE_CONTENT_LENGTH = 1048576;
     final NettyHttpConduitFactory factory;
     private Bootstrap bootstrap;
@@ -96,6 +103,12 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         return factory;
     }
 
+    @Override
+    protected boolean isWarmUpSupported() {
+        // the warm-up connections would not be used by the Netty channel pool
+        return false;
+    }
+
     // Using Netty API directly
     protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy) throws IOException {
 
@@ -211,6 +224,7 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         volatile Channel channel;
         volatile SSLSession session;
         boolean isAsync;
+        boolean http2;
         ByteBuf outBuffer;
         OutputStream outputStream;
 
@@ -219,6 +233,7 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             super(message, possibleRetransmit, isChunking, chunkThreshold, conduitName, url);
             csPolicy = getClient(message);
             entity = message.get(NettyHttpClientRequest.class);
+            http2 = MessageUtils.getContextualBoolean(message, USE_HTTP2, false);
             int bufSize = csPolicy.getChunkLength() > 0 ? csPolicy.getChunkLength() : 16320;
             outBuffer = Unpooled.buffer(bufSize);
             outputStream = new ByteBufOutputStream(outBuffer);
@@ -341,42 +356,43 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         }
 
         protected void connect(boolean output) {
-            if ("https".equals(url.getScheme())) {
-                TLSClientParameters clientParameters = findTLSClientParameters();
-                bootstrap.handler(new NettyHttpClientPipelineFactory(clientParameters, entity.getReceiveTimeout(),
-                    entity.getMaxResponseContentLength()));
+            if (http2) {
+                // streams of a shared connection, the response timeout is applied per stream
+                TLSClientParameters clientParameters =
+                    "https".equals(url.getScheme()) ? findTLSClientParameters() : null;
+                factory.getHttp2ConnectionPool().acquire(bootstrap, url, clientParameters,
+                    entity.getMaxResponseContentLength()).addListener(new FutureListener<Channel>() {
+
+                        @Override
+                        public void operationComplete(Future<Channel> future) throws Exception {
+                            connected(future.isSuccess() ? future.getNow() : null, future.cause());
+                        }
+                    });
             } else {
-                bootstrap.handler(new NettyHttpClientPipelineFactory(null, entity.getReceiveTimeout(),
-                    entity.getMaxResponseContentLength()));
-            }
+                if ("https".equals(url.getScheme())) {
+                    TLSClientParameters clientParameters = findTLSClientParameters();
+                    bootstrap.handler(new NettyHttpClientPipelineFactory(clientParameters,
+                        entity.getReceiveTimeout(), entity.getMaxResponseContentLength()));
+                } else {
+                    bootstrap.handler(new NettyHttpClientPipelineFactory(null, entity.getReceiveTimeout(),
+                        entity.getMaxResponseContentLength()));
+                }
 
-            ChannelFuture connFuture =
-                bootstrap.connect(new InetSocketAddress(url.getHost(), url.getPort() != -1 ? url.getPort()
-                                                            : "http".equals(url.getScheme()) ? 80 : 443));
+                ChannelFuture connFuture =
+                    bootstrap.connect(new InetSocketAddress(url.getHost(), url.getPort() != -1 ? url.getPort()
+                                                                : "http".equals(url.getScheme()) ? 80 : 443));
 
-            // Setup the call back on the NettyHttpClientRequest
-            ChannelFutureListener listener = new ChannelFutureListener() {
+                // Setup the call back on the NettyHttpClientRequest
+                ChannelFutureListener listener = new ChannelFutureListener() {
 
-                @Override
-                public void operationComplete(ChannelFuture future) throws Exception {
-                    if (future.isSuccess()) {
-                        setChannel(future.channel());
-                        
-                        SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
-                        
-                        if (sslHandler != null) {
-                            session = sslHandler.engine().getSession();
-                        }
-                    } else {
-                        setException(future.cause());
-                    }
-                    synchronized (entity) {
-                        //ensure entity is write in main thread
+                    @Override
+                    public void operationComplete(ChannelFuture future) throws Exception {
+                        connected(future.isSuccess() ? future.channel() : null, future.cause());
                     }
-                }
-            };
+                };
 
-            connFuture.addListener(listener);
+                connFuture.addListener(listener);
+            }
 
             if (!output) {
                 entity.getRequest().headers().remove("Transfer-Encoding");
@@ -563,7 +579,9 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             isAsync = false;
             exception = null;
             if (channel != null) {
-                channel.close();
+                if (!http2) {
+                    channel.close();
+                }
                 channel = null;
             }
 
@@ -578,6 +596,7 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                 }
                 setupConnection(outMessage, address, csPolicy);
                 entity = outMessage.get(NettyHttpClientRequest.class);
+                http2 = MessageUtils.getContextualBoolean(outMessage, USE_HTTP2, false);
                 //reset the buffers
                 outBuffer.clear();
                 outputStream = new ByteBufOutputStream(outBuffer);
@@ -637,6 +656,23 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             notifyAll();
         }
 
+        private void connected(Channel ch, Throwable cause) {
+            if (ch != null) {
+                setChannel(ch);
+
+                SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
+
+                if (sslHandler != null) {
+                    session = sslHandler.engine().getSession();
+                }
+            } else {
+                setException(cause);
+            }
+            synchronized (entity) {
+                //ensure entity is write in main thread
+            }
+        }
+
         protected synchronized void setChannel(Channel ch) {
             channel = ch;
             notifyAll();
@@ -20,6 +20,7 @@
 package org.apache.cxf.transport.http.netty.client;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.buslifecycle.BusLifeCycleListener;
@@ -66,6 +67,9 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
     };
 
     UseAsyncPolicy policy;
+    final NettyHttp2ConnectionPool http2ConnectionPool = new NettyHttp2ConnectionPool();
+    private final AtomicBoolean http2PoolListenerRegistered = new AtomicBoolean();
+
     public NettyHttpConduitFactory() {
         io.netty.util.Version.identify();
         Object st = SystemPropertyAction.getPropertyOrNull(USE_POLICY);
@@ -76,6 +80,10 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         return policy;
     }
 
+    public NettyHttp2ConnectionPool getHttp2ConnectionPool() {
+        return http2ConnectionPool;
+    }
+
     @Override
     public HTTPConduit createConduit(HTTPTransportFactory f,
                                      Bus bus,
@@ -84,6 +92,9 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         throws IOException {
         // need to check if the EventLoopGroup is created or not
         // if not create a new EventLoopGroup for it
+        if (http2PoolListenerRegistered.compareAndSet(false, true)) {
+            registerHttp2PoolListener(bus);
+        }
         EventLoopGroup eventLoopGroup = bus.getExtension(EventLoopGroup.class);
         if (eventLoopGroup == null) {
             final EventLoopGroup group = new NioEventLoopGroup();
@@ -102,6 +113,31 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         return createConduit(null, bus, localInfo, target);
     }
 
+    protected void registerHttp2PoolListener(Bus bus) {
+        BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
+        if (null != lifeCycleManager) {
+            lifeCycleManager.registerLifeCycleListener(new BusLifeCycleListener() {
+
+                @Override
+                public void initComplete() {
+                    // do nothing here
+                }
+
+                @Override
+                public void preShutdown() {
+                    // close the shared HTTP/2 connections while the EventLoopGroup is still running
+                    http2ConnectionPool.close();
+                }
+
+                @Override
+                public void postShutdown() {
+                    // do nothing here
+                }
+
+            });
+        }
+    }
+
     protected void registerBusLifeListener(Bus bus, final EventLoopGroup group) {
         BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
         if (null != lifeCycleManager) {
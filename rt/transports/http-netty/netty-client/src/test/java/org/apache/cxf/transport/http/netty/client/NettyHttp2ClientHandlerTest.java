@@ -0,0 +1,296 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http.netty.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpConversionUtil.ExtensionHeaderNames;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Sends requests through the pooled HTTP/2 connections to an in-process Netty HTTP/2 server.
+ */
+public class NettyHttp2ClientHandlerTest {
+    private static final String CIPHER_SUITE = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+
+    private EventLoopGroup group;
+    private Bootstrap bootstrap;
+    private NettyHttp2ConnectionPool pool;
+    private Channel server;
+    private final List<Channel> serverConnections = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        group = new NioEventLoopGroup(1);
+        bootstrap = new Bootstrap().group(group).channel(NioSocketChannel.class);
+        pool = new NettyHttp2ConnectionPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.close();
+        if (server != null) {
+            server.close().syncUninterruptibly();
+        }
+        group.shutdownGracefully(0, 5, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    public void testRequestResponse() throws Exception {
+        URI uri = startServer(null);
+        FullHttpResponse response = (FullHttpResponse)send(uri.resolve("/hello"), 0).get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.status().code());
+        assertEquals("/hello", response.content().toString(StandardCharsets.UTF_8));
+        response.release();
+    }
+
+    @Test
+    public void testRequestsAreMultiplexed() throws Exception {
+        URI uri = startServer(null);
+        CompletableFuture<HttpResponse> slow = send(uri.resolve("/slow"), 0);
+        CompletableFuture<HttpResponse> fast = send(uri.resolve("/fast"), 0);
+
+        // the fast response is not held back by the slow one sent before it on the same connection
+        FullHttpResponse fastResponse = (FullHttpResponse)fast.get(10, TimeUnit.SECONDS);
+        assertFalse(slow.isDone());
+        assertEquals("/fast", fastResponse.content().toString(StandardCharsets.UTF_8));
+        FullHttpResponse slowResponse = (FullHttpResponse)slow.get(10, TimeUnit.SECONDS);
+        assertEquals("/slow", slowResponse.content().toString(StandardCharsets.UTF_8));
+        fastResponse.release();
+        slowResponse.release();
+
+        assertEquals(1, serverConnections.size());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testReceiveTimeoutOnlyFailsItsStream() throws Exception {
+        URI uri = startServer(null);
+        CompletableFuture<HttpResponse> never = send(uri.resolve("/never"), 200);
+        try {
+            never.get(10, TimeUnit.SECONDS);
+            fail("The request without response does not time out");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SocketTimeoutException);
+        }
+
+        // the connection is still used for the next requests
+        FullHttpResponse response = (FullHttpResponse)send(uri.resolve("/next"), 200).get(10, TimeUnit.SECONDS);
+        assertEquals("/next", response.content().toString(StandardCharsets.UTF_8));
+        response.release();
+        assertEquals(1, serverConnections.size());
+    }
+
+    @Test
+    public void testH2IsNegotiatedOverTLS() throws Exception {
+        URI uri = startServer(ApplicationProtocolNames.HTTP_2);
+        FullHttpResponse response = (FullHttpResponse)send(uri.resolve("/secure"), 0, createTLSClientParameters())
+            .get(10, TimeUnit.SECONDS);
+        assertEquals("/secure", response.content().toString(StandardCharsets.UTF_8));
+        response.release();
+    }
+
+    @Test
+    public void testTLSClientParametersAreApplied() throws Exception {
+        URI uri = startServer(ApplicationProtocolNames.HTTP_2);
+        TLSClientParameters params = createTLSClientParameters();
+        params.setSecureSocketProtocol("TLSv1.2");
+        params.setCipherSuites(Collections.singletonList(CIPHER_SUITE));
+        FullHttpResponse response = (FullHttpResponse)send(uri.resolve("/secure"), 0, params)
+            .get(10, TimeUnit.SECONDS);
+        response.release();
+
+        Channel channel = pool.acquire(bootstrap, uri, params, 1024).sync().getNow();
+        SSLSession session = channel.pipeline().get(SslHandler.class).engine().getSession();
+        assertEquals("TLSv1.2", session.getProtocol());
+        assertEquals(CIPHER_SUITE, session.getCipherSuite());
+    }
+
+    @Test
+    public void testHttp11ServerIsRejected() throws Exception {
+        URI uri = startServer(ApplicationProtocolNames.HTTP_1_1);
+        Future<Channel> connection = pool.acquire(bootstrap, uri, createTLSClientParameters(), 1024);
+        assertTrue(connection.await(10, TimeUnit.SECONDS));
+        assertFalse(connection.isSuccess());
+        assertTrue(connection.cause() instanceof IOException);
+        assertTrue(connection.cause().getMessage().contains(ApplicationProtocolNames.HTTP_1_1));
+        // the failed connection is not handed out again
+        assertNotSame(connection, pool.acquire(bootstrap, uri, createTLSClientParameters(), 1024));
+    }
+
+    private CompletableFuture<HttpResponse> send(URI uri, int receiveTimeout) throws Exception {
+        return send(uri, receiveTimeout, null);
+    }
+
+    private CompletableFuture<HttpResponse> send(URI uri, int receiveTimeout, TLSClientParameters params)
+        throws Exception {
+        final CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        NettyHttpClientRequest request = new NettyHttpClientRequest(uri, "GET");
+        request.createRequest(Unpooled.EMPTY_BUFFER);
+        request.setReceiveTimeout(receiveTimeout);
+        request.setCxfResponseCallback(new CxfResponseCallBack() {
+            @Override
+            public void responseReceived(HttpResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void error(Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        Future<Channel> connection = pool.acquire(bootstrap, uri, params, 1024 * 1024);
+        connection.sync().getNow().writeAndFlush(request);
+        return result;
+    }
+
+    private URI startServer(final String protocol) throws Exception {
+        final SslContext sslContext = protocol != null ? createServerSslContext(protocol) : null;
+        server = new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) throws Exception {
+                    serverConnections.add(ch);
+                    if (sslContext != null) {
+                        ch.pipeline().addLast(sslContext.newHandler(ch.alloc()));
+                    }
+                    Http2Connection connection = new DefaultHttp2Connection(true);
+                    ch.pipeline().addLast(new HttpToHttp2ConnectionHandlerBuilder()
+                        .frameListener(new InboundHttp2ToHttpAdapterBuilder(connection)
+                            .maxContentLength(1024 * 1024)
+                            .propagateSettings(false)
+                            .build())
+                        .connection(connection)
+                        .build());
+                    ch.pipeline().addLast(new EchoPathHandler());
+                }
+            })
+            .bind("localhost", 0).sync().channel();
+        int port = ((InetSocketAddress)server.localAddress()).getPort();
+        return new URI((protocol != null ? "https" : "http") + "://localhost:" + port + "/");
+    }
+
+    private static SslContext createServerSslContext(String protocol) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(NettyHttp2ClientHandlerTest.class.getResourceAsStream("/keys/servicestore.jks"),
+                      "sspass".toCharArray());
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, "skpass".toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), null, null);
+        return new JdkSslContext(sslContext, false, null, IdentityCipherSuiteFilter.INSTANCE,
+            new ApplicationProtocolConfig(Protocol.ALPN, SelectorFailureBehavior.NO_ADVERTISE,
+                                          SelectedListenerFailureBehavior.ACCEPT, protocol),
+            ClientAuth.NONE, null, false);
+    }
+
+    private static TLSClientParameters createTLSClientParameters() throws Exception {
+        KeyStore trustStore = KeyStore.getInstance("JKS");
+        trustStore.load(NettyHttp2ClientHandlerTest.class.getResourceAsStream("/keys/clientstore.jks"),
+                        "cspass".toCharArray());
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(trustStore);
+        TLSClientParameters params = new TLSClientParameters();
+        params.setTrustManagers(tmf.getTrustManagers());
+        params.setDisableCNCheck(true);
+        return params;
+    }
+
+    /**
+     * Answers with the path of the request, /slow after a delay and /never not at all.
+     */
+    private static final class EchoPathHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(final ChannelHandlerContext ctx, FullHttpRequest request) {
+            String path = request.uri();
+            final FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                HttpResponseStatus.OK, Unpooled.copiedBuffer(path, StandardCharsets.UTF_8));
+            response.headers().set(ExtensionHeaderNames.STREAM_ID.text(),
+                                   request.headers().get(ExtensionHeaderNames.STREAM_ID.text()));
+            if ("/never".equals(path)) {
+                response.release();
+            } else if ("/slow".equals(path)) {
+                ctx.executor().schedule(() -> ctx.writeAndFlush(response), 500, TimeUnit.MILLISECONDS);
+            } else {
+                ctx.writeAndFlush(response);
+            }
+        }
+    }
+}
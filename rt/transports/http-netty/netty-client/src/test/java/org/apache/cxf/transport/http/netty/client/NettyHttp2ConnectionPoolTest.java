@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NettyHttp2ConnectionPoolTest {
+    private EventLoopGroup group;
+    private ServerSocket server;
+    private Bootstrap bootstrap;
+    private NettyHttp2ConnectionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        group = new NioEventLoopGroup(1);
+        server = new ServerSocket(0);
+        bootstrap = new Bootstrap().group(group).channel(NioSocketChannel.class);
+        pool = new NettyHttp2ConnectionPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.close();
+        server.close();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    @Test
+    public void testConnectionIsSharedPerEventLoop() throws Exception {
+        URI uri = new URI("http://localhost:" + server.getLocalPort() + "/a");
+        Future<Channel> first = pool.acquire(bootstrap, uri, null, 1024);
+        assertNotNull(first);
+        assertTrue(first.await().isSuccess());
+
+        Future<Channel> second = pool.acquire(bootstrap, new URI("http://localhost:" + server.getLocalPort() + "/b"),
+                                            null, 1024);
+        assertSame(first, second);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testClosedConnectionIsReplaced() throws Exception {
+        URI uri = new URI("http://localhost:" + server.getLocalPort() + "/a");
+        Future<Channel> first = pool.acquire(bootstrap, uri, null, 1024);
+        assertTrue(first.await().isSuccess());
+        first.getNow().close().syncUninterruptibly();
+
+        Future<Channel> second = pool.acquire(bootstrap, uri, null, 1024);
+        assertNotSame(first, second);
+        assertTrue(second.await().isSuccess());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testCloseClosesTheConnections() throws Exception {
+        Future<Channel> future = pool.acquire(bootstrap, new URI("http://localhost:" + server.getLocalPort()),
+                                              null, 1024);
+        assertTrue(future.await().isSuccess());
+        pool.close();
+        assertTrue(future.getNow().closeFuture().await(5, TimeUnit.SECONDS));
+        assertEquals(0, pool.size());
+    }
+}
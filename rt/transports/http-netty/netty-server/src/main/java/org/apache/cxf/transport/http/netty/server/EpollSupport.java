@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+
+/**
+ * Access to the native epoll transport, which is an optional dependency. Nothing here
+ * touches the epoll classes unless {@link #isAvailable()} returned true.
+ */
+final class EpollSupport {
+    private static final boolean AVAILABLE;
+
+    static {
+        boolean available = false;
+        try {
+            available = Epoll.isAvailable();
+        } catch (Throwable t) {
+            // the native transport is not on the classpath
+        }
+        AVAILABLE = available;
+    }
+
+    private EpollSupport() {
+    }
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    static EventLoopGroup newEventLoopGroup() {
+        return new EpollEventLoopGroup();
+    }
+
+    static boolean isEpollGroup(EventLoopGroup group) {
+        return AVAILABLE && group instanceof EpollEventLoopGroup;
+    }
+
+    static Class<? extends ServerChannel> getServerChannelClass() {
+        return EpollServerSocketChannel.class;
+    }
+}
@@ -39,6 +39,7 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
@@ -91,6 +92,8 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     private boolean sessionSupport;
 
+    private boolean nativeTransport = true;
+
     // TODO need to setup configuration about them
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -143,11 +146,17 @@ public class NettyHttpServerEngine implements ServerEngine {
     }
 
     protected Channel startServer() {
+        boolean epoll = nativeTransport && EpollSupport.isAvailable();
         if (bossGroup == null) {
-            bossGroup = new NioEventLoopGroup();
+            bossGroup = epoll ? EpollSupport.newEventLoopGroup() : new NioEventLoopGroup();
         }
         if (workerGroup == null) {
-            workerGroup = new NioEventLoopGroup();
+            workerGroup = epoll ? EpollSupport.newEventLoopGroup() : new NioEventLoopGroup();
+        }
+        // the channel has to match the event loops, which may have been set from outside
+        Class<? extends ServerChannel> channelClass = NioServerSocketChannel.class;
+        if (EpollSupport.isEpollGroup(bossGroup) && EpollSupport.isEpollGroup(workerGroup)) {
+            channelClass = EpollSupport.getServerChannelClass();
         }
         if (applicationExecutor == null) {
             applicationExecutor = new DefaultEventExecutorGroup(threadingParameters.getThreadPoolSize());
@@ -155,7 +164,7 @@ public class NettyHttpServerEngine implements ServerEngine {
 
         final ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(channelClass)
             .option(ChannelOption.SO_REUSEADDR, true);
 
         // Set up the event pipeline factory.
@@ -286,6 +295,18 @@ public class NettyHttpServerEngine implements ServerEngine {
         this.sessionSupport = session;
     }
 
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Use the native epoll transport for the event loops created by this engine
+     * when it is available. Defaults to true.
+     */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
     public int getMaxChunkContentSize() {
         return maxChunkContentSize;
     }
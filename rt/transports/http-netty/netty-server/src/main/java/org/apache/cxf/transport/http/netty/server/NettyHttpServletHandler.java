@@ -128,16 +128,25 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
         interceptOnRequestReceived(ctx, request);
 
-        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        // the response body goes to a buffer of the channel allocator (pooled by default),
+        // it is handed back to the pool once the encoder has written it out
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                                                                ctx.alloc().buffer());
 
         NettyServletResponse nettyServletResponse = buildHttpServletResponse(response);
         NettyHttpServletRequest nettyServletRequest =
             buildHttpServletRequest(request, nettyHttpContextHandler.getContextPath(), ctx);
 
-        nettyHttpContextHandler.handle(nettyServletRequest.getRequestURI(), nettyServletRequest, nettyServletResponse);
-        interceptOnRequestSuccessed(ctx, response);
+        try {
+            nettyHttpContextHandler.handle(nettyServletRequest.getRequestURI(), nettyServletRequest,
+                                           nettyServletResponse);
+            interceptOnRequestSuccessed(ctx, response);
 
-        nettyServletResponse.getWriter().flush();
+            nettyServletResponse.flushBuffer();
+        } catch (Exception ex) {
+            response.release();
+            throw ex;
+        }
 
         boolean keepAlive = HttpUtil.isKeepAlive(request);
 
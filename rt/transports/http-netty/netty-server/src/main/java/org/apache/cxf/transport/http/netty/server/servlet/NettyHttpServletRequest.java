@@ -86,7 +86,6 @@ public class NettyHttpServletRequest implements HttpServletRequest {
         this.uriParser = new URIParser(contextPath);
         uriParser.parse(request.uri());
         this.inputStream = new NettyServletInputStream((HttpContent)request);
-        this.reader = new BufferedReader(new InputStreamReader(inputStream));
         this.queryStringDecoder = new QueryStringDecoder(request.uri());
         // setup the SSL security attributes
         this.channelHandlerContext = ctx;
@@ -288,6 +287,9 @@ public class NettyHttpServletRequest implements HttpServletRequest {
 
     @Override
     public BufferedReader getReader() throws IOException {
+        if (this.reader == null) {
+            this.reader = new BufferedReader(new InputStreamReader(inputStream));
+        }
         return this.reader;
     }
 
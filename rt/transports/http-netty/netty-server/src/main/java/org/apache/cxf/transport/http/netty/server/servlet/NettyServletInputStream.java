@@ -53,6 +53,16 @@ public class NettyServletInputStream extends ServletInputStream {
         return this.in.read(buf, offset, len);
     }
 
+    @Override
+    public int available() throws IOException {
+        return this.in.available();
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return this.in.skip(n);
+    }
+
     public void close() throws IOException {
         // we need to release the ByteBufInputStream
         byteBuf.release();
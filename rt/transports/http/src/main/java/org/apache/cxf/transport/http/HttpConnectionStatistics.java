@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.management.InstrumentationManager;
+
+/**
+ * Connection statistics of the URLConnection based HTTP conduits of a bus, per target host.
+ * The JDK keeps the connections in its own keep-alive cache, so what can be observed from the
+ * conduit is the time it takes to get the request stream, which covers the TCP connect and the
+ * TLS handshake whenever no cached connection could be reused.
+ * <p>
+ * Statistics are only collected when the {@link #ENABLED} bus property is true. Each host is
+ * registered with the InstrumentationManager of the bus, if there is one.
+ */
+public class HttpConnectionStatistics {
+    public static final String ENABLED = "org.apache.cxf.transport.http.connection.statistics";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(HttpConnectionStatistics.class);
+
+    private final Bus bus;
+    private final ConcurrentMap<String, HostStatistics> hosts = new ConcurrentHashMap<>();
+
+    public HttpConnectionStatistics(Bus bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * Returns the statistics of the bus, or null if they are not enabled.
+     */
+    public static HttpConnectionStatistics getInstance(Bus bus) {
+        if (bus == null) {
+            return null;
+        }
+        HttpConnectionStatistics stats = bus.getExtension(HttpConnectionStatistics.class);
+        if (stats == null && PropertyUtils.isTrue(bus.getProperty(ENABLED))) {
+            synchronized (bus) {
+                stats = bus.getExtension(HttpConnectionStatistics.class);
+                if (stats == null) {
+                    stats = new HttpConnectionStatistics(bus);
+                    bus.setExtension(stats, HttpConnectionStatistics.class);
+                }
+            }
+        }
+        return stats;
+    }
+
+    public HostStatistics getHostStatistics(URI uri) {
+        String key = getKey(uri);
+        HostStatistics host = hosts.get(key);
+        if (host == null) {
+            HostStatistics newHost = new HostStatistics(key);
+            host = hosts.putIfAbsent(key, newHost);
+            if (host == null) {
+                host = newHost;
+                register(newHost);
+            }
+        }
+        return host;
+    }
+
+    public Collection<HostStatistics> getHostStatistics() {
+        return hosts.values();
+    }
+
+    private void register(HostStatistics host) {
+        InstrumentationManager iMgr = bus.getExtension(InstrumentationManager.class);
+        if (iMgr != null) {
+            try {
+                iMgr.register(new ManagedHttpConnectionStatistics(bus, host));
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, "Registering ManagedHttpConnectionStatistics failed.", jmex);
+            }
+        }
+    }
+
+    private static String getKey(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equals(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getScheme() + "://" + uri.getHost() + ':' + port;
+    }
+
+    public static class HostStatistics {
+        private final String host;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong warmUps = new AtomicLong();
+        private final AtomicLong connectNanos = new AtomicLong();
+        private final LongAccumulator maxConnectNanos = new LongAccumulator(Math::max, 0);
+
+        HostStatistics(String host) {
+            this.host = host;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public void connected(long nanos) {
+            requests.incrementAndGet();
+            connectNanos.addAndGet(nanos);
+            maxConnectNanos.accumulate(nanos);
+        }
+
+        public void failed() {
+            failures.incrementAndGet();
+        }
+
+        public void warmedUp() {
+            warmUps.incrementAndGet();
+        }
+
+        public long getRequestCount() {
+            return requests.get();
+        }
+
+        public long getFailureCount() {
+            return failures.get();
+        }
+
+        public long getWarmUpCount() {
+            return warmUps.get();
+        }
+
+        public long getAverageConnectTime() {
+            long count = requests.get();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(connectNanos.get() / count);
+        }
+
+        public long getMaxConnectTime() {
+            return TimeUnit.NANOSECONDS.toMillis(maxConnectNanos.get());
+        }
+
+        public void reset() {
+            requests.set(0);
+            failures.set(0);
+            warmUps.set(0);
+            connectNanos.set(0);
+            maxConnectNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.util.SystemPropertyAction;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedOperation;
+import org.apache.cxf.management.annotation.ManagedResource;
+
+/**
+ * The ManagedHttpConnectionStatistics is a JMX managed bean for the connection statistics
+ * of the HTTP conduits to one target host.
+ */
+@ManagedResource(componentName = "HttpConnectionStatistics",
+                 description = "Connection statistics of the HTTP conduits to a target host.")
+public class ManagedHttpConnectionStatistics implements ManagedComponent {
+
+    private final Bus bus;
+    private final HttpConnectionStatistics.HostStatistics stats;
+
+    public ManagedHttpConnectionStatistics(Bus bus, HttpConnectionStatistics.HostStatistics stats) {
+        this.bus = bus;
+        this.stats = stats;
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append("Bus.HttpConnectionStatistics,");
+        buffer.append(ManagementConstants.NAME_PROP).append('=').append(ObjectName.quote(stats.getHost()));
+        return new ObjectName(buffer.toString());
+    }
+
+    @ManagedAttribute(description = "Number of requests sent to the host", currencyTimeLimit = 10)
+    public long getRequestCount() {
+        return stats.getRequestCount();
+    }
+
+    @ManagedAttribute(description = "Number of requests that could not connect", currencyTimeLimit = 10)
+    public long getFailureCount() {
+        return stats.getFailureCount();
+    }
+
+    @ManagedAttribute(description = "Number of warm-up connections", currencyTimeLimit = 10)
+    public long getWarmUpCount() {
+        return stats.getWarmUpCount();
+    }
+
+    @ManagedAttribute(description = "Average time in ms to connect or reuse a connection", currencyTimeLimit = 10)
+    public long getAverageConnectTime() {
+        return stats.getAverageConnectTime();
+    }
+
+    @ManagedAttribute(description = "Maximum time in ms to connect or reuse a connection", currencyTimeLimit = 10)
+    public long getMaxConnectTime() {
+        return stats.getMaxConnectTime();
+    }
+
+    @ManagedAttribute(description = "Maximum number of idle connections kept by the JDK per destination")
+    public int getKeepAliveMaxConnections() {
+        try {
+            return Integer.parseInt(SystemPropertyAction.getProperty("http.maxConnections", "5"));
+        } catch (NumberFormatException ex) {
+            return 5;
+        }
+    }
+
+    @ManagedOperation(description = "Reset the statistics")
+    public void reset() {
+        stats.reset();
+    }
+}
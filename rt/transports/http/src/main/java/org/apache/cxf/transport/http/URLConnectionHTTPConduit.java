@@ -32,6 +32,7 @@ import java.net.URLConnection;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 
 import javax.net.ssl.HttpsURLConnection;
@@ -48,6 +49,8 @@ import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.https.HttpsURLConnectionFactory;
 import org.apache.cxf.transport.https.HttpsURLConnectionInfo;
 import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.cxf.workqueue.AutomaticWorkQueue;
+import org.apache.cxf.workqueue.WorkQueueManager;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
 
 /**
@@ -56,6 +59,15 @@ import org.apache.cxf.ws.addressing.EndpointReferenceType;
 public class URLConnectionHTTPConduit extends HTTPConduit {
     public static final String HTTPURL_CONNECTION_METHOD_REFLECTION = "use.httpurlconnection.method.reflection";
     public static final String SET_REASON_PHRASE_NOT_NULL = "set.reason.phrase.not.null";
+    /**
+     * Number of connections to open to the default address when the conduit has been configured.
+     */
+    public static final String WARMUP_CONNECTIONS = "org.apache.cxf.transport.http.warmup.connections";
+    /**
+     * Upper bound in ms of the random delay before each warm-up connection, so that clients
+     * started at the same time do not all handshake with the server at once.
+     */
+    public static final String WARMUP_MAX_DELAY = "org.apache.cxf.transport.http.warmup.maxDelay";
 
     private static final boolean DEFAULT_USE_REFLECTION;
     private static final boolean SET_REASON_PHRASE;
@@ -76,19 +88,119 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
      */
     protected HttpsURLConnectionFactory connectionFactory;
 
+    private final HttpConnectionStatistics statistics;
+
 
     public URLConnectionHTTPConduit(Bus b, EndpointInfo ei) throws IOException {
         super(b, ei);
         connectionFactory = new HttpsURLConnectionFactory();
+        statistics = HttpConnectionStatistics.getInstance(b);
         CXFAuthenticator.addAuthenticator();
     }
 
     public URLConnectionHTTPConduit(Bus b, EndpointInfo ei, EndpointReferenceType t) throws IOException {
         super(b, ei, t);
         connectionFactory = new HttpsURLConnectionFactory();
+        statistics = HttpConnectionStatistics.getInstance(b);
         CXFAuthenticator.addAuthenticator();
     }
 
+    @Override
+    public void finalizeConfig() {
+        super.finalizeConfig();
+        int connections = isWarmUpSupported() ? getIntProperty(WARMUP_CONNECTIONS, 0) : 0;
+        if (connections > 0) {
+            warmUp(connections, getIntProperty(WARMUP_MAX_DELAY, 0));
+        }
+    }
+
+    /**
+     * Returns true if the requests of this conduit go through HttpURLConnection, so that the
+     * warm-up connections end up in the keep-alive cache the requests use. Subclasses built on
+     * another HTTP client return false.
+     */
+    protected boolean isWarmUpSupported() {
+        return true;
+    }
+
+    /**
+     * Opens connections to the default address in the background, each one after a random delay
+     * of up to maxDelay ms. They end up in the keep-alive cache of the JDK, and for https the TLS
+     * sessions are cached, so that the first requests do not all pay for a full handshake.
+     */
+    public void warmUp(int connections, long maxDelay) {
+        final Address address;
+        try {
+            address = new Address(getAddress());
+        } catch (URISyntaxException | RuntimeException ex) {
+            LOG.log(Level.FINE, "Cannot warm up connections to " + getAddress(), ex);
+            return;
+        }
+        String scheme = address.getURI().getScheme();
+        if (!"http".equals(scheme) && !"https".equals(scheme)) {
+            return;
+        }
+        WorkQueueManager mgr = bus.getExtension(WorkQueueManager.class);
+        if (mgr == null) {
+            return;
+        }
+        AutomaticWorkQueue queue = mgr.getNamedWorkQueue("http-conduit");
+        if (queue == null) {
+            queue = mgr.getAutomaticWorkQueue();
+        }
+        for (int i = 0; i < connections; i++) {
+            Runnable task = () -> openWarmUpConnection(address);
+            if (maxDelay > 0) {
+                queue.schedule(task, ThreadLocalRandom.current().nextLong(maxDelay));
+            } else {
+                queue.execute(task);
+            }
+        }
+    }
+
+    private void openWarmUpConnection(Address address) {
+        try {
+            HTTPClientPolicy csPolicy = getClient();
+            Proxy proxy = proxyFactory.createProxy(csPolicy, address.getURI());
+            HttpURLConnection connection = connectionFactory.createConnection(tlsClientParameters,
+                proxy != null ? proxy : address.getDefaultProxy(), address.getURL());
+            connection.setConnectTimeout((int)csPolicy.getConnectionTimeout());
+            connection.setReadTimeout((int)csPolicy.getReceiveTimeout());
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestMethod("HEAD");
+            // whatever the status, reading the response fully hands the connection to the keep-alive cache
+            InputStream in = connection.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getErrorStream() : connection.getInputStream();
+            if (in != null) {
+                IOUtils.consume(in);
+                in.close();
+            }
+            if (statistics != null) {
+                statistics.getHostStatistics(address.getURI()).warmedUp();
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, "Warm-up connection to " + address.getString() + " failed", ex);
+        }
+    }
+
+    private int getIntProperty(String name, int defaultValue) {
+        Object value = endpointInfo.getProperty(name);
+        if (value == null) {
+            value = bus.getProperty(name);
+        }
+        if (value instanceof Number) {
+            return ((Number)value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.parseInt((String)value);
+            } catch (NumberFormatException ex) {
+                LOG.log(Level.WARNING, "Invalid value " + value + " for " + name);
+            }
+        }
+        return defaultValue;
+    }
+
     /**
      * Close the conduit
      */
@@ -255,6 +367,9 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
         protected void setupWrappedStream() throws IOException {
             // If we need to cache for retransmission, store data in a
             // CacheAndWriteOutputStream. Otherwise write directly to the output stream.
+            HttpConnectionStatistics.HostStatistics hostStats =
+                statistics == null ? null : statistics.getHostStatistics(url);
+            long start = System.nanoTime();
             OutputStream cout;
             try {
                 try {
@@ -283,9 +398,15 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
                     connection.connect();
                     cout = connectAndGetOutputStream((Boolean)outMessage.get(HTTPURL_CONNECTION_METHOD_REFLECTION));
                 } else {
+                    if (hostStats != null) {
+                        hostStats.failed();
+                    }
                     throw e;
                 }
             }
+            if (hostStats != null) {
+                hostStats.connected(System.nanoTime() - start);
+            }
             if (cachingForRetransmission) {
                 cachedStream =
                     new CacheAndWriteOutputStream(cout);
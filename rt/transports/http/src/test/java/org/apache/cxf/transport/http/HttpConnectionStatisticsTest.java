@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class HttpConnectionStatisticsTest {
+
+    @Test
+    public void testDisabledByDefault() {
+        Bus bus = new ExtensionManagerBus();
+        assertNull(HttpConnectionStatistics.getInstance(bus));
+        bus.shutdown(true);
+    }
+
+    @Test
+    public void testStatisticsPerHost() throws Exception {
+        Bus bus = new ExtensionManagerBus();
+        bus.setProperty(HttpConnectionStatistics.ENABLED, "true");
+        HttpConnectionStatistics stats = HttpConnectionStatistics.getInstance(bus);
+        assertNotNull(stats);
+        assertSame(stats, HttpConnectionStatistics.getInstance(bus));
+
+        HttpConnectionStatistics.HostStatistics host =
+            stats.getHostStatistics(new URI("https://localhost/service"));
+        assertSame(host, stats.getHostStatistics(new URI("https://localhost:443/other")));
+        assertEquals("https://localhost:443", host.getHost());
+
+        host.connected(TimeUnit.MILLISECONDS.toNanos(10));
+        host.connected(TimeUnit.MILLISECONDS.toNanos(30));
+        host.failed();
+        host.warmedUp();
+        assertEquals(2, host.getRequestCount());
+        assertEquals(1, host.getFailureCount());
+        assertEquals(1, host.getWarmUpCount());
+        assertEquals(20, host.getAverageConnectTime());
+        assertEquals(30, host.getMaxConnectTime());
+
+        stats.getHostStatistics(new URI("http://localhost/service"));
+        assertEquals(2, stats.getHostStatistics().size());
+
+        host.reset();
+        assertEquals(0, host.getRequestCount());
+        assertEquals(0, host.getMaxConnectTime());
+        bus.shutdown(true);
+    }
+}
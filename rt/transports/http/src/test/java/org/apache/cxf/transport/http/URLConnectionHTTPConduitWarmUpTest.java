@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Warms up the connections of an URLConnectionHTTPConduit against a local server.
+ */
+public class URLConnectionHTTPConduitWarmUpTest {
+    private static final int CONNECTIONS = 3;
+    private static final long MAX_DELAY = 300;
+
+    private final List<Integer> warmUpPorts = new CopyOnWriteArrayList<>();
+    private final List<Long> warmUpTimes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch warmUpLatch = new CountDownLatch(CONNECTIONS);
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Bus bus;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/service", this::handle);
+        serverExecutor = Executors.newFixedThreadPool(CONNECTIONS + 1);
+        server.setExecutor(serverExecutor);
+        server.start();
+        bus = new ExtensionManagerBus();
+        bus.setProperty(HttpConnectionStatistics.ENABLED, "true");
+    }
+
+    @After
+    public void tearDown() {
+        bus.shutdown(true);
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            warmUpPorts.add(exchange.getRemoteAddress().getPort());
+            warmUpTimes.add(System.nanoTime());
+            // hold the warm-up connections open until all of them have arrived,
+            // otherwise the later ones would reuse the kept alive connections
+            warmUpLatch.countDown();
+            try {
+                warmUpLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+        } else {
+            IOUtils.consume(exchange.getRequestBody());
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        }
+        exchange.close();
+    }
+
+    @Test
+    public void testWarmUpAndStatistics() throws Exception {
+        EndpointInfo ei = createEndpointInfo();
+        URLConnectionHTTPConduit conduit = new URLConnectionHTTPConduit(bus, ei, null);
+        long start = System.nanoTime();
+        conduit.finalizeConfig();
+
+        HttpConnectionStatistics.HostStatistics host = HttpConnectionStatistics.getInstance(bus)
+            .getHostStatistics(new URI(ei.getAddress()));
+        for (int i = 0; i < 100 && host.getWarmUpCount() < CONNECTIONS; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(CONNECTIONS, host.getWarmUpCount());
+        assertEquals(CONNECTIONS, warmUpPorts.stream().distinct().count());
+        for (long time : warmUpTimes) {
+            // the delay before each connection is at most MAX_DELAY, allow for a slow test machine
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(time - start) < MAX_DELAY + 2000);
+        }
+        assertEquals(0, host.getRequestCount());
+
+        sendRequest(conduit);
+        assertEquals(1, host.getRequestCount());
+        assertEquals(0, host.getFailureCount());
+        conduit.close();
+    }
+
+    @Test
+    public void testWarmUpNotSupported() throws Exception {
+        EndpointInfo ei = createEndpointInfo();
+        URLConnectionHTTPConduit conduit = new URLConnectionHTTPConduit(bus, ei, null) {
+            @Override
+            protected boolean isWarmUpSupported() {
+                return false;
+            }
+        };
+        conduit.finalizeConfig();
+        Thread.sleep(MAX_DELAY + 500);
+        assertTrue(warmUpPorts.isEmpty());
+
+        sendRequest(conduit);
+        assertEquals(1, HttpConnectionStatistics.getInstance(bus)
+            .getHostStatistics(new URI(ei.getAddress())).getRequestCount());
+        conduit.close();
+    }
+
+    @Test
+    public void testConnectFailure() throws Exception {
+        EndpointInfo ei = createEndpointInfo();
+        server.stop(0);
+        URLConnectionHTTPConduit conduit = new URLConnectionHTTPConduit(bus, ei, null);
+        conduit.finalizeConfig();
+        conduit.getClient().setConnectionTimeout(2000);
+        try {
+            sendRequest(conduit);
+            fail("IOException expected");
+        } catch (IOException ex) {
+            // expected
+        }
+        assertEquals(1, HttpConnectionStatistics.getInstance(bus)
+            .getHostStatistics(new URI(ei.getAddress())).getFailureCount());
+        conduit.close();
+    }
+
+    private EndpointInfo createEndpointInfo() {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("http://localhost:" + server.getAddress().getPort() + "/service");
+        ei.setProperty(URLConnectionHTTPConduit.WARMUP_CONNECTIONS, CONNECTIONS);
+        ei.setProperty(URLConnectionHTTPConduit.WARMUP_MAX_DELAY, MAX_DELAY);
+        return ei;
+    }
+
+    private static void sendRequest(HTTPConduit conduit) throws IOException {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setOutMessage(message);
+        message.setExchange(exchange);
+        message.put(Message.HTTP_REQUEST_METHOD, "POST");
+        List<Message> responses = new CopyOnWriteArrayList<>();
+        conduit.setMessageObserver(responses::add);
+        conduit.prepare(message);
+        OutputStream os = message.getContent(OutputStream.class);
+        assertNotNull(os);
+        os.write("request".getBytes(StandardCharsets.UTF_8));
+        os.close();
+        assertEquals(1, responses.size());
+    }
+}
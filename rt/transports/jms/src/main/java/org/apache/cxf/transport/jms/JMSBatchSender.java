@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.jms.JMSException;
+import javax.jms.Session;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.jms.util.ResourceCloser;
+
+/**
+ * Sends the requests of a JMSConduit in transacted batches. Callers queue their requests and get a
+ * future for the JMS message id. A drain task, run on the executor while requests are queued, takes up
+ * to batchSize requests, waiting at most batchLinger ms after the first one, sends them in one
+ * transacted session and commits once. If the batch fails it is rolled back and every request in it
+ * fails. A request can be withdrawn until the drain task starts sending it.
+ */
+final class JMSBatchSender implements Runnable {
+    private static final Logger LOG = LogUtils.getL7dLogger(JMSBatchSender.class);
+
+    private final JMSConduit conduit;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Executor executor;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    // only used by the drain task
+    private Session session;
+
+    JMSBatchSender(JMSConduit conduit, Executor executor, int batchSize, long batchLinger) {
+        this.conduit = conduit;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(batchLinger);
+    }
+
+    Future<String> send(Object request, Message outMessage, String correlationId, boolean expectReply) {
+        Request r = new Request(request, outMessage, correlationId, expectReply);
+        if (!closed) {
+            queue.add(r);
+        }
+        if (closed && queue.remove(r)) {
+            r.completeExceptionally(new JMSException("JMS batch sender is closed"));
+        }
+        scheduleDrain();
+        return r;
+    }
+
+    /**
+     * Withdraws a request which is not sent yet.
+     *
+     * @return false if the request is already part of a batch being sent
+     */
+    boolean withdraw(Future<String> sent) {
+        Request r = (Request)sent;
+        if (r.taken.compareAndSet(false, true)) {
+            queue.remove(r);
+            r.cancel(false);
+            return true;
+        }
+        return false;
+    }
+
+    void close() {
+        closed = true;
+        if (draining.compareAndSet(false, true)) {
+            shutdown();
+        }
+    }
+
+    private void scheduleDrain() {
+        while (!queue.isEmpty() && !closed && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+                return;
+            } catch (RejectedExecutionException ex) {
+                // no thread available, send on the caller thread instead
+                run();
+            }
+        }
+    }
+
+    public void run() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        try {
+            Request first = queue.poll();
+            while (first != null && !closed) {
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Request next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+                first = queue.poll();
+            }
+            if (first != null) {
+                batch.add(first);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            JMSException closedException = new JMSException("JMS batch sender is closed");
+            for (Request r : batch) {
+                r.completeExceptionally(closedException);
+            }
+            if (closed) {
+                shutdown();
+            } else {
+                draining.set(false);
+            }
+        }
+        // requests queued after the last poll
+        scheduleDrain();
+    }
+
+    private void shutdown() {
+        JMSException closedException = new JMSException("JMS batch sender is closed");
+        Request r = queue.poll();
+        while (r != null) {
+            r.completeExceptionally(closedException);
+            r = queue.poll();
+        }
+        ResourceCloser.close(session);
+        session = null;
+    }
+
+    private void flush(List<Request> batch) {
+        List<Request> sending = new ArrayList<>(batch.size());
+        for (Request r : batch) {
+            if (r.taken.compareAndSet(false, true)) {
+                sending.add(r);
+            }
+        }
+        if (sending.isEmpty()) {
+            return;
+        }
+        List<String> messageIds = new ArrayList<>(sending.size());
+        try {
+            if (session == null) {
+                session = conduit.getConnection().createSession(true, Session.SESSION_TRANSACTED);
+            }
+            for (Request r : sending) {
+                messageIds.add(conduit.sendBatchedMessage(r.request, r.outMessage, r.correlationId,
+                                                          r.expectReply, session));
+            }
+            session.commit();
+        } catch (JMSException | RuntimeException ex) {
+            LOG.log(Level.FINE, "Sending a batch of " + sending.size() + " JMS messages failed", ex);
+            rollbackAndClose();
+            for (Request r : sending) {
+                r.completeExceptionally(ex);
+            }
+            return;
+        }
+        for (int i = 0; i < sending.size(); i++) {
+            sending.get(i).complete(messageIds.get(i));
+        }
+    }
+
+    private void rollbackAndClose() {
+        if (session != null) {
+            try {
+                session.rollback();
+            } catch (JMSException | RuntimeException ex) {
+                // the session is closed below anyway
+            }
+            ResourceCloser.close(session);
+            session = null;
+        }
+    }
+
+    private static final class Request extends CompletableFuture<String> {
+        final Object request;
+        final Message outMessage;
+        final String correlationId;
+        final boolean expectReply;
+        // set by the drain task before sending, or by the caller withdrawing the request
+        final AtomicBoolean taken = new AtomicBoolean();
+
+        Request(Object request, Message outMessage, String correlationId, boolean expectReply) {
+            this.request = request;
+            this.outMessage = outMessage;
+            this.correlationId = correlationId;
+            this.expectReply = expectReply;
+        }
+    }
+}
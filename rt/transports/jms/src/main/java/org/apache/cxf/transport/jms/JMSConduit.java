@@ -25,7 +25,11 @@ import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -78,6 +82,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     private Bus bus;
     private volatile Connection connection;
     private volatile Destination staticReplyDestination;
+    private JMSBatchSender batchSender;
 
     public JMSConduit(EndpointReferenceType target,
                       JMSConfiguration jmsConfig,
@@ -103,7 +108,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         MessageStreamUtil.closeStreams(msg);
         super.close(msg);
     }
-    private Connection getConnection() throws JMSException {
+    Connection getConnection() throws JMSException {
         Connection result = connection;
         if (result == null) {
             synchronized (this) {
@@ -159,6 +164,9 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         assertIsNotTextMessageAndMtom(outMessage);
 
         try (ResourceCloser closer = new ResourceCloser()) {
+            if (isBatching() && sendBatched(exchange, request, outMessage, closer)) {
+                return;
+            }
             Connection c;
 
             if (jmsConfig.isOneSessionPerConnection()) {
@@ -284,26 +292,138 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                                                                      exchange);
                     processReplyMessage(exchange, replyMessage);
                 } else {
-                    try {
-                        exchange.wait(jmsConfig.getReceiveTimeout());
-                    } catch (InterruptedException e) {
-                        throw new JMSException("Interrupted while correlating " +  e.getMessage());
-                    }
-                    if (!Boolean.TRUE.equals(exchange.get(CORRELATED))) {
-                        if (this.jmsConfig.isIgnoreTimeoutException()) {
-                            throw new RuntimeException("Timeout receiving message with correlationId "
-                                + correlationId);
-                        } else {
-                            throw new JMSException("Timeout receiving message with correlationId "
-                                                   + correlationId);
-                        }
-                    }
+                    waitForCorrelation(exchange, correlationId);
+                }
+            } finally {
+                correlationMap.remove(correlationId);
+            }
+        }
+    }
 
+    private void waitForCorrelation(final Exchange exchange, String correlationId) throws JMSException {
+        synchronized (exchange) {
+            long timeout = jmsConfig.getReceiveTimeout();
+            long deadline = System.currentTimeMillis() + timeout;
+            while (!Boolean.TRUE.equals(exchange.get(CORRELATED)) && timeout > 0) {
+                try {
+                    exchange.wait(timeout);
+                } catch (InterruptedException e) {
+                    throw new JMSException("Interrupted while correlating " +  e.getMessage());
+                }
+                timeout = deadline - System.currentTimeMillis();
+            }
+            if (!Boolean.TRUE.equals(exchange.get(CORRELATED))) {
+                if (this.jmsConfig.isIgnoreTimeoutException()) {
+                    throw new RuntimeException("Timeout receiving message with correlationId "
+                        + correlationId);
+                } else {
+                    throw new JMSException("Timeout receiving message with correlationId "
+                                           + correlationId);
                 }
+            }
+        }
+    }
+
+    private boolean isBatching() {
+        return jmsConfig.getBatchSize() > 1 && !jmsConfig.isOneSessionPerConnection();
+    }
+
+    /**
+     * Hand the message to the batch sender. Replies are only correlated through the shared reply
+     * listener, so exchanges that need a synchronous receive (user correlation id, explicit reply to or
+     * no conduit selector) are left to the regular path.
+     *
+     * @return false if the exchange can not be batched
+     */
+    private boolean sendBatched(final Exchange exchange, final Object request, final Message outMessage,
+                                ResourceCloser closer) throws JMSException {
+        String correlationId = null;
+        boolean expectReply = !exchange.isOneWay();
+        if (expectReply) {
+            JMSMessageHeadersType headers = getOrCreateJmsHeaders(outMessage);
+            if (headers.getJMSCorrelationID() != null || headers.isSetJMSReplyTo()) {
+                return false;
+            }
+            correlationId = createCorrelationId(exchange, null);
+            if (correlationId == null) {
+                return false;
+            }
+            if (staticReplyDestination == null) {
+                // a session is only needed to set up the reply listener once
+                setupReplyDestination(closer.register(getConnection().createSession(false,
+                                                                                    Session.AUTO_ACKNOWLEDGE)));
+                if (staticReplyDestination == null) {
+                    return false;
+                }
+            }
+            correlationMap.put(correlationId, exchange);
+        }
+
+        JMSBatchSender sender = getBatchSender();
+        Future<String> sent = sender.send(request, outMessage, correlationId, expectReply);
+        try {
+            waitForBatch(sender, sent);
+        } catch (JMSException | RuntimeException e) {
+            if (correlationId != null) {
+                correlationMap.remove(correlationId);
+            }
+            throw e;
+        }
+        if (expectReply && exchange.isSynchronous()) {
+            try {
+                waitForCorrelation(exchange, correlationId);
             } finally {
                 correlationMap.remove(correlationId);
             }
         }
+        return true;
+    }
+
+    private void waitForBatch(JMSBatchSender sender, Future<String> sent) throws JMSException {
+        try {
+            try {
+                sent.get(jmsConfig.getReceiveTimeout(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (sender.withdraw(sent)) {
+                    throw new JMSException("Timeout sending batched message");
+                }
+                // the message is part of the batch being sent, wait for its commit or rollback
+                sent.get();
+            }
+        } catch (InterruptedException e) {
+            sender.withdraw(sent);
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while sending " + e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JMSException) {
+                throw (JMSException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            JMSException jmsException = new JMSException(cause.getMessage());
+            jmsException.initCause(cause);
+            throw jmsException;
+        }
+    }
+
+    private synchronized JMSBatchSender getBatchSender() {
+        if (batchSender == null) {
+            Object executor = bus.getProperty(JMSFactory.JMS_CONDUIT_EXECUTOR);
+            batchSender = new JMSBatchSender(this, executor instanceof Executor ? (Executor)executor
+                : JMSFactory.createWorkQueueExecutor(bus, "jms-batch-sender"),
+                jmsConfig.getBatchSize(), jmsConfig.getBatchLinger());
+        }
+        return batchSender;
+    }
+
+    /**
+     * Called by the batch sender for each message of a batch inside its transacted session.
+     */
+    String sendBatchedMessage(final Object request, final Message outMessage, String correlationId,
+                              boolean expectReply, Session session) throws JMSException {
+        Destination replyToDestination = expectReply ? jmsConfig.getReplyToDestination(session, null) : null;
+        return sendMessage(request, outMessage, replyToDestination, correlationId, null, session);
     }
 
     private String sendMessage(final Object request, final Message outMessage,
@@ -510,6 +630,10 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         }
     }
     public synchronized void close() {
+        if (batchSender != null) {
+            batchSender.close();
+            batchSender = null;
+        }
         shutdownListeners();
         ResourceCloser.close(connection);
         connection = null;
@@ -81,6 +81,9 @@ public final class JMSConfigFactory {
         jmsConfig.setUserName(endpoint.getUsername());
         jmsConfig.setPassword(endpoint.getPassword());
         jmsConfig.setConcurrentConsumers(endpoint.getConcurrentConsumers());
+        jmsConfig.setMaxConcurrentConsumers(endpoint.getMaxConcurrentConsumers());
+        jmsConfig.setIdleConsumerTimeout(endpoint.getIdleConsumerTimeout());
+        jmsConfig.setReceiveBatchSize(endpoint.getReceiveBatchSize());
         jmsConfig.setOneSessionPerConnection(endpoint.isOneSessionPerConnection());
         jmsConfig.setMessageSelector(endpoint.getMessageSelector());
 
@@ -129,6 +132,8 @@ public final class JMSConfigFactory {
         jmsConfig.setMessageSelector(endpoint.getMessageSelector());
         int retryInterval = endpoint.getRetryInterval();
         jmsConfig.setRetryInterval(retryInterval);
+        jmsConfig.setBatchSize(endpoint.getBatchSize());
+        jmsConfig.setBatchLinger(endpoint.getBatchLinger());
         return jmsConfig;
     }
 
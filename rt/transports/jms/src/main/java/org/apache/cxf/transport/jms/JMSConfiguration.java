@@ -58,6 +58,9 @@ public class JMSConfiguration {
     private boolean createSecurityContext = true;
 
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private long idleConsumerTimeout = 60000L;
+    private int receiveBatchSize = 1;
     private int maxSuspendedContinuations = DEFAULT_VALUE;
     private int reconnectPercentOfMax = 70;
 
@@ -94,6 +97,15 @@ public class JMSConfiguration {
     private boolean jmsProviderTibcoEms;
     private boolean oneSessionPerConnection;
 
+    /**
+     * Number of client requests sent in one transacted batch. Values below 2 disable batching.
+     */
+    private int batchSize;
+    /**
+     * Maximum time in ms to wait for a batch to fill up
+     */
+    private long batchLinger = 5;
+
     private TransactionManager transactionManager;
 
     // For jms spec. Do not configure manually
@@ -334,6 +346,36 @@ public class JMSConfiguration {
         this.concurrentConsumers = concurrentConsumers;
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    /**
+     * Upper limit for the number of polling consumers of the destination. More consumers are only
+     * started while the others have messages to process, which needs a low consumer prefetch on the
+     * connection factory, see
+     * {@link org.apache.cxf.transport.jms.util.AbstractMessageListenerContainer#setMaxConcurrentConsumers(int)}.
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public long getIdleConsumerTimeout() {
+        return idleConsumerTimeout;
+    }
+
+    public void setIdleConsumerTimeout(long idleConsumerTimeout) {
+        this.idleConsumerTimeout = idleConsumerTimeout;
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = receiveBatchSize;
+    }
+
     public int getMaxSuspendedContinuations() {
         return maxSuspendedContinuations;
     }
@@ -521,6 +563,22 @@ public class JMSConfiguration {
         this.retryInterval = retryInterval;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchLinger() {
+        return batchLinger;
+    }
+
+    public void setBatchLinger(long batchLinger) {
+        this.batchLinger = batchLinger;
+    }
+
     public boolean isIgnoreTimeoutException() {
         return ignoreTimeoutException;
     }
@@ -145,6 +145,9 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             }
 
             container.setConcurrentConsumers(jmsConfig.getConcurrentConsumers());
+            container.setMaxConcurrentConsumers(jmsConfig.getMaxConcurrentConsumers());
+            container.setIdleConsumerTimeout(jmsConfig.getIdleConsumerTimeout());
+            container.setReceiveBatchSize(jmsConfig.getReceiveBatchSize());
             container.setTransactionManager(jmsConfig.getTransactionManager());
             container.setMessageSelector(jmsConfig.getMessageSelector());
             container.setTransacted(jmsConfig.isSessionTransacted());
@@ -154,6 +157,11 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             Object executor = bus.getProperty(JMSFactory.JMS_DESTINATION_EXECUTOR);
             if (executor instanceof Executor) {
                 container.setExecutor((Executor) executor);
+            } else {
+                Object workQueue = bus.getProperty(JMSFactory.JMS_DESTINATION_WORKQUEUE);
+                if (workQueue instanceof String) {
+                    container.setExecutor(JMSFactory.createWorkQueueExecutor(bus, (String) workQueue));
+                }
             }
             container.setJndiEnvironment(jmsConfig.getJndiEnvironment());
             container.start();
@@ -36,6 +36,11 @@ import org.apache.cxf.workqueue.WorkQueueManager;
  */
 public final class JMSFactory {
     public static final String JMS_DESTINATION_EXECUTOR = "org.apache.cxf.extensions.jms.destination.executor";
+    /**
+     * Name of a bus work queue whose threads run the destination consumers. Used when no
+     * executor is set with JMS_DESTINATION_EXECUTOR.
+     */
+    public static final String JMS_DESTINATION_WORKQUEUE = "org.apache.cxf.extensions.jms.destination.workqueue";
     public static final String JMS_CONDUIT_EXECUTOR = "org.apache.cxf.extensions.jms.conduit.executor";
 
     static final String MESSAGE_ENDPOINT_FACTORY = "MessageEndpointFactory";
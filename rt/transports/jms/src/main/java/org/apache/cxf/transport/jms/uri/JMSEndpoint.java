@@ -86,8 +86,13 @@ public class JMSEndpoint {
     private boolean useConduitIdSelector = true;
     private String username;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private long idleConsumerTimeout = 60000L;
+    private int receiveBatchSize = 1;
     private String messageSelector;
     private int retryInterval = 5000;
+    private int batchSize;
+    private long batchLinger = 5;
     private boolean oneSessionPerConnection;
     private boolean ignoreTimeoutException;
 
@@ -377,6 +382,42 @@ public class JMSEndpoint {
         this.concurrentConsumers = Integer.parseInt(concurrentConsumers);
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(String maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = Integer.parseInt(maxConcurrentConsumers);
+    }
+
+    public long getIdleConsumerTimeout() {
+        return idleConsumerTimeout;
+    }
+
+    public void setIdleConsumerTimeout(long idleConsumerTimeout) {
+        this.idleConsumerTimeout = idleConsumerTimeout;
+    }
+
+    public void setIdleConsumerTimeout(String idleConsumerTimeout) {
+        this.idleConsumerTimeout = Long.parseLong(idleConsumerTimeout);
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = receiveBatchSize;
+    }
+
+    public void setReceiveBatchSize(String receiveBatchSize) {
+        this.receiveBatchSize = Integer.parseInt(receiveBatchSize);
+    }
+
     public String getPassword() {
         return password;
     }
@@ -498,6 +539,26 @@ public class JMSEndpoint {
         this.retryInterval = Integer.parseInt(retryInterval);
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public void setBatchSize(String batchSize) {
+        this.batchSize = Integer.parseInt(batchSize);
+    }
+
+    public long getBatchLinger() {
+        return batchLinger;
+    }
+    public void setBatchLinger(long batchLinger) {
+        this.batchLinger = batchLinger;
+    }
+    public void setBatchLinger(String batchLinger) {
+        this.batchLinger = Long.parseLong(batchLinger);
+    }
+
     public boolean isOneSessionPerConnection() {
         return oneSessionPerConnection;
     }
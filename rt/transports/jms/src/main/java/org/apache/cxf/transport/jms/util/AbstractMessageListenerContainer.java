@@ -53,6 +53,9 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     private Executor executor;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private long idleConsumerTimeout = 60000L;
+    private int receiveBatchSize = 1;
     private boolean internalExecutor;
 
     public AbstractMessageListenerContainer() {
@@ -80,7 +83,7 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     protected Executor getExecutor() {
         if (executor == null) {
-            executor = Executors.newFixedThreadPool(concurrentConsumers);
+            executor = Executors.newFixedThreadPool(getMaxConcurrentConsumers());
             internalExecutor = true;
         }
         return executor;
@@ -158,4 +161,44 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
         return concurrentConsumers;
     }
 
+    /**
+     * Upper limit for the number of consumers when the container scales with the backlog.
+     * Values below concurrentConsumers disable scaling.
+     * <p>
+     * The backlog is only visible to new consumers while the broker has not dispatched it yet, so
+     * scaling needs a low consumer prefetch, e.g. jms.prefetchPolicy.all=1 with ActiveMQ. With the
+     * default prefetch the first consumer buffers the whole backlog and the added ones stay idle.
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getMaxConcurrentConsumers() {
+        return Math.max(concurrentConsumers, maxConcurrentConsumers);
+    }
+
+    /**
+     * Time in ms after which a consumer that did not receive a message is stopped, as long as more than
+     * concurrentConsumers are running.
+     */
+    public void setIdleConsumerTimeout(long idleConsumerTimeout) {
+        this.idleConsumerTimeout = idleConsumerTimeout;
+    }
+
+    public long getIdleConsumerTimeout() {
+        return idleConsumerTimeout;
+    }
+
+    /**
+     * Maximum number of messages a consumer receives and processes in one transaction.
+     * Only used for transacted sessions and XA transactions.
+     */
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = receiveBatchSize;
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
 }
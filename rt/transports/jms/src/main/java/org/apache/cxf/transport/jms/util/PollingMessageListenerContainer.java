@@ -18,6 +18,8 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,12 +39,19 @@ import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.transport.jms.JMSConfiguration;
 import org.apache.cxf.transport.jms.JMSFactory;
 
+/**
+ * Receives messages with polling consumers. Starts concurrentConsumers pollers and, if maxConcurrentConsumers
+ * is higher, adds pollers while messages arrive faster than the idle pollers can take them. Pollers above
+ * concurrentConsumers stop again after idleConsumerTimeout without a message.
+ */
 public class PollingMessageListenerContainer extends AbstractMessageListenerContainer {
     private static final Logger LOG = LogUtils.getL7dLogger(PollingMessageListenerContainer.class);
     private ExceptionListener exceptionListener;
 
     private JMSConfiguration jmsConfig;
     private boolean reply;
+    private final AtomicInteger activeConsumers = new AtomicInteger();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
 
     public PollingMessageListenerContainer(JMSConfiguration jmsConfig, boolean isReply,
                                            MessageListener listenerHandler) {
@@ -69,6 +78,7 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
         @Override
         public void run() {
+            long lastMessage = System.currentTimeMillis();
             while (running) {
                 try (ResourceCloser closer = new ResourceCloser()) {
                     closer.register(createInitialContext());
@@ -83,14 +93,22 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
 
                     while (running) {
-                        Message message = consumer.receive(1000);
+                        Message message = receive(consumer);
+                        if (message == null) {
+                            if (retireIfIdle(lastMessage)) {
+                                return;
+                            }
+                            continue;
+                        }
+                        lastMessage = System.currentTimeMillis();
+                        scaleUp();
                         try {
-                            if (message != null) {
-                                listenerHandler.onMessage(message);
+                            // Several messages can only share the commit of a transacted session
+                            int batchSize = session.getTransacted() ? getReceiveBatchSize() : 1;
+                            processBatch(consumer, message, batchSize);
 
-                                if (session.getTransacted()) {
-                                    session.commit();
-                                }
+                            if (session.getTransacted()) {
+                                session.commit();
                             }
                         } catch (Throwable e) {
                             LOG.log(Level.WARNING, "Exception while processing jms message in cxf. Rolling back", e);
@@ -124,7 +142,9 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
         @Override
         public void run() {
+            long lastMessage = System.currentTimeMillis();
             while (running) {
+                boolean received = false;
                 try (ResourceCloser closer = new ResourceCloser()) {
                     closer.register(createInitialContext());
                     final Transaction externalTransaction = transactionManager.getTransaction();
@@ -147,10 +167,12 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                      */
                     Session session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
-                    Message message = consumer.receive(1000);
+                    Message message = receive(consumer);
                     try {
                         if (message != null) {
-                            listenerHandler.onMessage(message);
+                            received = true;
+                            scaleUp();
+                            processBatch(consumer, message, getReceiveBatchSize());
                         }
                         transactionManager.commit();
                     } catch (Throwable e) {
@@ -161,6 +183,11 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     safeRollBack();
                     handleException(e);
                 }
+                if (received) {
+                    lastMessage = System.currentTimeMillis();
+                } else if (retireIfIdle(lastMessage)) {
+                    return;
+                }
             }
 
         }
@@ -175,6 +202,79 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
     }
 
+    private Message receive(MessageConsumer consumer) throws JMSException {
+        waitingConsumers.incrementAndGet();
+        try {
+            return consumer.receive(1000);
+        } finally {
+            waitingConsumers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Hand the first message and up to batchSize - 1 messages that are already available to the listener
+     */
+    private void processBatch(MessageConsumer consumer, Message first, int batchSize) throws JMSException {
+        listenerHandler.onMessage(first);
+        for (int c = 1; c < batchSize; c++) {
+            Message message = consumer.receiveNoWait();
+            if (message == null) {
+                return;
+            }
+            listenerHandler.onMessage(message);
+        }
+    }
+
+    /**
+     * Start an additional consumer if a message arrived while no other consumer was waiting for one.
+     * Topics are not scaled as every consumer would get a copy of each message.
+     */
+    private void scaleUp() {
+        if (waitingConsumers.get() > 0 || isTopic()) {
+            return;
+        }
+        int active = activeConsumers.get();
+        while (running && active < getMaxConcurrentConsumers()) {
+            if (activeConsumers.compareAndSet(active, active + 1)) {
+                try {
+                    getExecutor().execute(createPoller());
+                    LOG.fine("Started additional consumer, now running " + (active + 1));
+                } catch (RejectedExecutionException e) {
+                    activeConsumers.decrementAndGet();
+                }
+                return;
+            }
+            active = activeConsumers.get();
+        }
+    }
+
+    /**
+     * @return true if the calling consumer was idle too long and should stop
+     */
+    private boolean retireIfIdle(long lastMessage) {
+        if (System.currentTimeMillis() - lastMessage < getIdleConsumerTimeout()) {
+            return false;
+        }
+        int active = activeConsumers.get();
+        while (active > getConcurrentConsumers()) {
+            if (activeConsumers.compareAndSet(active, active - 1)) {
+                LOG.fine("Stopped idle consumer, now running " + (active - 1));
+                return true;
+            }
+            active = activeConsumers.get();
+        }
+        return false;
+    }
+
+    private boolean isTopic() {
+        return destination instanceof Topic
+            || destination == null && jmsConfig != null && jmsConfig.isPubSubDomain();
+    }
+
+    private Runnable createPoller() {
+        return (transactionManager != null) ? new XAPoller() : new Poller();
+    }
+
     private MessageConsumer createConsumer(final Connection connection, final Session session)
             throws JMSException {
         final MessageConsumer consumer;
@@ -240,9 +340,9 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
             return;
         }
         running = true;
+        activeConsumers.set(getConcurrentConsumers());
         for (int c = 0; c < getConcurrentConsumers(); c++) {
-            Runnable poller = (transactionManager != null) ? new XAPoller() : new Poller();
-            getExecutor().execute(poller);
+            getExecutor().execute(createPoller());
         }
     }
 
@@ -20,6 +20,14 @@
 package org.apache.cxf.transport.jms;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
@@ -31,6 +39,10 @@ import org.apache.cxf.transport.MessageObserver;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 public class RequestResponseTest extends AbstractJMSTester {
 
     @Test
@@ -64,10 +76,103 @@ public class RequestResponseTest extends AbstractJMSTester {
         sendAndReceiveMessages(ei, false);
     }
 
+    @Test
+    public void testBatchedRequestQueueResponseStaticQueue() throws Exception {
+        EndpointInfo ei = setupServiceInfo("http://cxf.apache.org/jms_simple", "/wsdl/jms_spec_testsuite.wsdl",
+                         "JMSSimpleService002X", "SimplePortQueueRequestQueueResponse");
+        sendAndReceiveMessages(ei, true, 10);
+        sendAndReceiveMessages(ei, false, 10);
+    }
+
+    @Test
+    public void testConcurrentRequestsShareABatch() throws Exception {
+        EndpointInfo ei = setupServiceInfo("http://cxf.apache.org/jms_simple", "/wsdl/jms_spec_testsuite.wsdl",
+                         "JMSSimpleService002X", "SimplePortQueueRequestQueueResponse");
+        final JMSConduit conduit = setupJMSConduitWithObserver(ei);
+        conduit.getJmsConfig().setBatchSize(5);
+        // a batch which is not full is only sent after the linger time
+        conduit.getJmsConfig().setBatchLinger(20000L);
+        final JMSDestination destination = setupJMSDestination(ei);
+        final AtomicInteger received = new AtomicInteger();
+        destination.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message m) {
+                received.incrementAndGet();
+                Exchange exchange = new ExchangeImpl();
+                exchange.setInMessage(m);
+                m.setExchange(exchange);
+                try {
+                    sendOneWayMessage(destination.getBackChannel(m), new MessageImpl());
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Callable<Void>> requests = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                requests.add(() -> {
+                    sendMessageSync(conduit, createMessage());
+                    return null;
+                });
+            }
+            long start = System.currentTimeMillis();
+            for (Future<Void> f : executor.invokeAll(requests, 15, TimeUnit.SECONDS)) {
+                f.get();
+            }
+            // the five requests filled one batch and were committed together
+            assertTrue(System.currentTimeMillis() - start < 15000L);
+            assertEquals(5, received.get());
+        } finally {
+            executor.shutdownNow();
+            conduit.close();
+            destination.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchTimeoutWithdrawsTheRequest() throws Exception {
+        EndpointInfo ei = setupServiceInfo("http://cxf.apache.org/jms_simple", "/wsdl/jms_spec_testsuite.wsdl",
+                         "JMSSimpleService002X", "SimplePortQueueRequestQueueResponse");
+        JMSConduit conduit = setupJMSConduitWithObserver(ei);
+        conduit.getJmsConfig().setBatchSize(5);
+        conduit.getJmsConfig().setBatchLinger(2000L);
+        conduit.getJmsConfig().setReceiveTimeout(300L);
+        JMSDestination destination = setupJMSDestination(ei);
+        final AtomicInteger received = new AtomicInteger();
+        destination.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message m) {
+                received.incrementAndGet();
+            }
+        });
+
+        try {
+            try {
+                sendOneWayMessage(conduit, createMessage());
+                fail("The request waiting for its batch does not time out");
+            } catch (RuntimeException | IOException ex) {
+                // expected
+            }
+            // the batch is flushed after the linger time without the withdrawn request
+            Thread.sleep(3000L);
+            assertEquals(0, received.get());
+        } finally {
+            conduit.close();
+            destination.shutdown();
+        }
+    }
+
     private void sendAndReceiveMessages(EndpointInfo ei, boolean synchronous)
             throws IOException, InterruptedException {
+        sendAndReceiveMessages(ei, synchronous, 0);
+    }
+
+    private void sendAndReceiveMessages(EndpointInfo ei, boolean synchronous, int batchSize)
+            throws IOException, InterruptedException {
         // set up the conduit send to be true
         JMSConduit conduit = setupJMSConduitWithObserver(ei);
+        conduit.getJmsConfig().setBatchSize(batchSize);
         final Message outMessage = createMessage();
         final JMSDestination destination = setupJMSDestination(ei);
 
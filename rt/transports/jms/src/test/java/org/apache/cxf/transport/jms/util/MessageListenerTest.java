@@ -19,6 +19,7 @@
 package org.apache.cxf.transport.jms.util;
 
 import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.Destination;
@@ -117,6 +118,30 @@ public class MessageListenerTest {
         connection.close();
     }
 
+    @Test
+    public void testScaleConsumers() throws JMSException, InterruptedException {
+        // with the default prefetch the first consumer would take the whole backlog
+        Connection connection = createConnection("brokerScale", "&jms.prefetchPolicy.all=1");
+        Queue dest = JMSUtil.createQueue(connection, "test");
+
+        SlowMessageListener listenerHandler = new SlowMessageListener();
+        PollingMessageListenerContainer container = new PollingMessageListenerContainer(connection, dest,
+                                                                                        listenerHandler, null);
+        container.setConcurrentConsumers(1);
+        container.setMaxConcurrentConsumers(4);
+        container.start();
+
+        for (int c = 0; c < 20; c++) {
+            sendMessage(connection, dest, TestMessage.OK);
+        }
+        assertNumMessagesInQueue("All messages should be consumed", connection, dest, 0, 5000L);
+        assertTrue("Expected more than one consumer", listenerHandler.maxConcurrent.get() > 1);
+        assertTrue("Expected at most four consumers", listenerHandler.maxConcurrent.get() <= 4);
+
+        container.stop();
+        connection.close();
+    }
+
     @Test
     public void testNoTransaction() throws JMSException, XAException, InterruptedException {
         Connection connection = createConnection("brokerNoTransaction");
@@ -174,8 +199,12 @@ public class MessageListenerTest {
     }
 
     private static Connection createConnection(String name) throws JMSException {
+        return createConnection(name, "");
+    }
+
+    private static Connection createConnection(String name, String options) throws JMSException {
         ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory("vm://" + name
-                                                                     + "?broker.persistent=false");
+                                                                     + "?broker.persistent=false" + options);
         cf.setRedeliveryPolicy(redeliveryPolicy());
         Connection connection = cf.createConnection();
         connection.start();
@@ -259,6 +288,23 @@ public class MessageListenerTest {
         }
     }
 
+    private static final class SlowMessageListener implements MessageListener {
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public void onMessage(Message message) {
+            maxConcurrent.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100L);
+            } catch (InterruptedException e) {
+                // Ignore
+            } finally {
+                current.decrementAndGet();
+            }
+        }
+    }
+
     private static final class TestExceptionListener implements ExceptionListener {
         JMSException exception;
         @Override
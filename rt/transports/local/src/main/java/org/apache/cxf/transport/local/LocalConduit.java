@@ -19,6 +19,7 @@
 
 package org.apache.cxf.transport.local;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,6 +28,8 @@ import java.io.PipedOutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
@@ -39,6 +42,7 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.transport.AbstractConduit;
+import org.apache.cxf.transport.MessageObserver;
 import org.apache.cxf.workqueue.SynchronousExecutor;
 
 public class LocalConduit extends AbstractConduit {
@@ -188,9 +192,60 @@ public class LocalConduit extends AbstractConduit {
         ex.put(LocalConduit.DIRECT_DISPATCH, true);
         ex.setDestination(destination);
 
-        destination.getMessageObserver().onMessage(copy);
+        Exchange exchange = message.getExchange();
+        if (exchange != null && !exchange.isSynchronous()) {
+            dispatchDirectAsync(copy);
+        } else {
+            destination.getMessageObserver().onMessage(copy);
+        }
     }
 
+    /**
+     * The request is already fully buffered, so asynchronous exchanges do not need to wait for the
+     * service. The invocation is handed to the transport work queue; if its bounded queue is full
+     * the caller runs it itself.
+     */
+    private void dispatchDirectAsync(final Message copy) {
+        final MessageObserver observer = destination.getMessageObserver();
+        Runnable receiver = new Runnable() {
+            public void run() {
+                try {
+                    observer.onMessage(copy);
+                } catch (Throwable t) {
+                    LOG.log(Level.WARNING, "Exception while dispatching local message", t);
+                    dispatchErrorResponse(copy);
+                }
+            }
+        };
+        Executor ex = transportFactory.getExecutor(destination.getBus());
+        if (ex != null && !SynchronousExecutor.isA(ex)) {
+            try {
+                ex.execute(receiver);
+                return;
+            } catch (RejectedExecutionException e) {
+                LOG.fine("Local transport work queue is full, dispatching in the calling thread");
+            }
+        }
+        observer.onMessage(copy);
+    }
+
+    /**
+     * Completes the client exchange with a 500 response when the service failed before responding,
+     * the asynchronous caller would otherwise wait until its timeout.
+     */
+    private void dispatchErrorResponse(Message request) {
+        Exchange exchange = (Exchange)request.getExchange().get(IN_EXCHANGE);
+        if (exchange == null || exchange.getInMessage() != null || getMessageObserver() == null) {
+            return;
+        }
+        MessageImpl inMsg = new MessageImpl();
+        inMsg.put(Message.RESPONSE_CODE, 500);
+        inMsg.put(Message.PROTOCOL_HEADERS, new HashMap<String, List<String>>());
+        inMsg.setContent(InputStream.class, new ByteArrayInputStream(new byte[0]));
+        exchange.put(Message.RESPONSE_CODE, 500);
+        exchange.setInMessage(inMsg);
+        getMessageObserver().onMessage(inMsg);
+    }
 
     private void dispatchViaPipe(final Message message) throws IOException {
         final LocalConduit conduit = this;
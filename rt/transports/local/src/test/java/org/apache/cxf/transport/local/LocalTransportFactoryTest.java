@@ -40,6 +40,8 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class LocalTransportFactoryTest {
@@ -53,7 +55,53 @@ public class LocalTransportFactoryTest {
         testInvocation(true);
     }
 
+    @Test
+    public void testLocalTransportWithAsyncDirectDispatch() throws Exception {
+        testInvocation(true, false);
+    }
+
+    @Test
+    public void testAsyncDirectDispatchFailureCompletesTheExchange() throws Exception {
+        Bus bus = BusFactory.getDefaultBus();
+        LocalTransportFactory factory = new LocalTransportFactory();
+
+        EndpointInfo ei = new EndpointInfo(null, "http://schemas.xmlsoap.org/soap/http");
+        ei.setAddress("http://localhost/test-failure");
+
+        LocalDestination d = (LocalDestination) factory.getDestination(ei, bus);
+        d.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message message) {
+                throw new IllegalStateException("service failure");
+            }
+        });
+
+        Conduit conduit = factory.getConduit(ei, bus);
+        TestMessageObserver obs = new TestMessageObserver();
+        conduit.setMessageObserver(obs);
+
+        MessageImpl m = new MessageImpl();
+        m.put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        m.setDestination(d);
+        Exchange ex = new ExchangeImpl();
+        ex.put(Bus.class, bus);
+        ex.setSynchronous(false);
+        m.setExchange(ex);
+        conduit.prepare(m);
+        OutputStream out = m.getContent(OutputStream.class);
+        out.write("hello".getBytes());
+        out.close();
+        conduit.close(m);
+
+        assertEquals(0, obs.getResponseStream().size());
+        assertEquals(500, obs.inMessage.get(Message.RESPONSE_CODE));
+        assertSame(obs.inMessage, ex.getInMessage());
+    }
+
     private void testInvocation(boolean isDirectDispatch) throws Exception {
+        testInvocation(isDirectDispatch, true);
+    }
+
+    private void testInvocation(boolean isDirectDispatch, boolean synchronous) throws Exception {
         // Need to create a DefaultBus
         Bus bus = BusFactory.getDefaultBus();
         LocalTransportFactory factory = new LocalTransportFactory();
@@ -76,6 +124,7 @@ public class LocalTransportFactoryTest {
         m.setDestination(d);
         Exchange ex = new ExchangeImpl();
         ex.put(Bus.class, bus);
+        ex.setSynchronous(synchronous);
         m.setExchange(ex);
         conduit.prepare(m);
 
@@ -121,8 +170,9 @@ public class LocalTransportFactoryTest {
 
         public synchronized ByteArrayOutputStream getResponseStream() throws Exception {
             if (!written) {
-                wait();
+                wait(10000L);
             }
+            assertTrue("No response received", written);
             return response;
         }
 
@@ -21,6 +21,7 @@ package org.apache.cxf.transport.udp;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.future.CloseFuture;
@@ -60,7 +61,8 @@ class IoSessionOutputStream extends OutputStream {
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        write(IoBuffer.wrap(b.clone(), off, len));
+        // the caller may reuse the array, copy just the written range
+        write(IoBuffer.wrap(Arrays.copyOfRange(b, off, off + len)));
     }
 
     @Override
@@ -68,6 +68,15 @@ public class UDPConduit extends AbstractConduit {
      */
     public static final String NETWORK_INTERFACE = UDPConduit.class.getName() + ".NETWORK_INTERFACE";
 
+    /**
+     * Size of the pooled buffers that receive the responses to broadcast/multicast requests. Responses
+     * larger than this are truncated. Defaults to the maximum datagram size.
+     */
+    public static final String RECEIVE_BUFFER_SIZE = UDPConduit.class.getName() + ".RECEIVE_BUFFER_SIZE";
+
+    static final int MAX_DATAGRAM_SIZE = 64 * 1024 - 42;
+    static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+
     private static final String CXF_MESSAGE_ATTR = "CXFMessage";
     private static final String MULTI_RESPONSE_TIMEOUT = "udp.multi.response.timeout";
     private static final String HOST_PORT = UDPConduit.class + ".host:port";
@@ -77,6 +86,7 @@ public class UDPConduit extends AbstractConduit {
     NioDatagramConnector connector = new NioDatagramConnector();
     ConcurrentHashMap<String, Queue<ConnectFuture>> connections
         = new ConcurrentHashMap<>();
+    final Queue<byte[]> receiveBuffers = new ArrayBlockingQueue<>(16);
 
     public UDPConduit(EndpointReferenceType t,
                       final Bus bus) {
@@ -224,6 +234,64 @@ public class UDPConduit extends AbstractConduit {
 
     }
 
+    private static int getIntProperty(Message message, String name, int defaultValue) {
+        Object o = message.getContextualProperty(name);
+        if (o instanceof String) {
+            return Integer.parseInt((String)o);
+        } else if (o instanceof Integer) {
+            return (Integer)o;
+        }
+        return defaultValue;
+    }
+
+    byte[] acquireReceiveBuffer(Message message) {
+        int size = getIntProperty(message, RECEIVE_BUFFER_SIZE, 64 * 1024);
+        byte[] bytes = receiveBuffers.poll();
+        return bytes != null && bytes.length == size ? bytes : new byte[size];
+    }
+
+    void releaseReceiveBuffer(byte[] bytes) {
+        // the received data has been copied into the IoSessionInputStream of the response
+        receiveBuffers.offer(bytes);
+    }
+
+    /**
+     * Receives the responses to a broadcast or multicast request into a pooled buffer.
+     */
+    void receiveResponses(Message message, DatagramSocket socket) throws IOException {
+        byte[] bytes = acquireReceiveBuffer(message);
+        try {
+            receive(message, socket, bytes);
+        } finally {
+            releaseReceiveBuffer(bytes);
+        }
+    }
+
+    private void receive(Message message, DatagramSocket socket, byte[] bytes) throws IOException {
+        DatagramPacket p = new DatagramPacket(bytes, bytes.length);
+        int i = getIntProperty(message, MULTI_RESPONSE_TIMEOUT, 0);
+        if (i <= 0 || message.getExchange().isSynchronous()) {
+            socket.setSoTimeout(30000);
+            socket.receive(p);
+            dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, false);
+        } else {
+            socket.setSoTimeout(i);
+            boolean found = false;
+            try {
+                while (true) {
+                    p.setLength(bytes.length);
+                    socket.receive(p);
+                    dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, true);
+                    found = true;
+                }
+            } catch (java.net.SocketTimeoutException ex) {
+                if (!found) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
     private final class UDPBroadcastOutputStream extends LoadingByteArrayOutputStream {
         private final int port;
         private final Message message;
@@ -257,6 +325,8 @@ public class UDPConduit extends AbstractConduit {
                     }
                 }
 
+                // one packet over the serialized message is shared by all the targets
+                DatagramPacket sendPacket = new DatagramPacket(this.getRawBytes(), 0, this.size());
                 if (multicast == null) {
                     List<NetworkInterface> interfaces = netInf == null 
                         ? Collections.list(NetworkInterface.getNetworkInterfaces()) : Collections.singletonList(netInf);
@@ -269,11 +339,8 @@ public class UDPConduit extends AbstractConduit {
                             if (broadcast == null) {
                                 continue;
                             }
-                            DatagramPacket sendPacket = new DatagramPacket(this.getRawBytes(),
-                                                                           0,
-                                                                           this.size(),
-                                                                           broadcast,
-                                                                           port);
+                            sendPacket.setAddress(broadcast);
+                            sendPacket.setPort(port);
 
                             try {
                                 socket.send(sendPacket);
@@ -283,10 +350,7 @@ public class UDPConduit extends AbstractConduit {
                         }
                     }
                 } else {
-                    DatagramPacket sendPacket = new DatagramPacket(this.getRawBytes(),
-                                                                   0,
-                                                                   this.size(),
-                                                                   multicast);
+                    sendPacket.setSocketAddress(multicast);
 
                     try {
                         socket.send(sendPacket);
@@ -296,34 +360,7 @@ public class UDPConduit extends AbstractConduit {
                 }
 
                 if (!message.getExchange().isOneWay()) {
-                    byte[] bytes = new byte[64 * 1024];
-                    DatagramPacket p = new DatagramPacket(bytes, bytes.length);
-                    Object to = message.getContextualProperty(MULTI_RESPONSE_TIMEOUT);
-                    Integer i = null;
-                    if (to instanceof String) {
-                        i = Integer.parseInt((String)to);
-                    } else if (to instanceof Integer) {
-                        i = (Integer)to;
-                    }
-                    if (i == null || i <= 0 || message.getExchange().isSynchronous()) {
-                        socket.setSoTimeout(30000);
-                        socket.receive(p);
-                        dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, false);
-                    } else {
-                        socket.setSoTimeout(i);
-                        boolean found = false;
-                        try {
-                            while (true) {
-                                socket.receive(p);
-                                dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, true);
-                                found = true;
-                            }
-                        } catch (java.net.SocketTimeoutException ex) {
-                            if (!found) {
-                                throw ex;
-                            }
-                        }
-                    }
+                    receiveResponses(message, socket);
                 }
             }
         }
@@ -334,24 +371,34 @@ public class UDPConduit extends AbstractConduit {
 
     static class UDPConduitOutputStream extends OutputStream {
         final ConnectFuture future;
-        IoBuffer buffer = IoBuffer.allocate(64 * 1024 - 42); //max size
+        // grows up to the max datagram size, most messages are much smaller
+        IoBuffer buffer = newBuffer();
         boolean closed;
 
         UDPConduitOutputStream(ConnectFuture connFuture) {
             this.future = connFuture;
         }
 
+        static IoBuffer newBuffer() {
+            return IoBuffer.allocate(INITIAL_BUFFER_SIZE).setAutoExpand(true);
+        }
+
         public void write(int b) throws IOException {
-            buffer.put(new byte[] {(byte)b}, 0, 1);
+            if (buffer.position() >= MAX_DATAGRAM_SIZE) {
+                send();
+                buffer = newBuffer();
+            }
+            buffer.put((byte)b);
         }
         public void write(byte[] b, int off, int len) throws IOException {
-            while (len > buffer.remaining()) {
-                int nlen = buffer.remaining();
-                buffer.put(b, off, nlen);
-                len -= nlen;
-                off += nlen;
+            int room = MAX_DATAGRAM_SIZE - buffer.position();
+            while (len > room) {
+                buffer.put(b, off, room);
+                len -= room;
+                off += room;
                 send();
-                buffer = IoBuffer.allocate((64 * 1024) - 42);
+                buffer = newBuffer();
+                room = MAX_DATAGRAM_SIZE;
             }
             buffer.put(b, off, len);
         }
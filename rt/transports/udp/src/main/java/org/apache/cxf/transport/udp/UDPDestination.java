@@ -32,6 +32,7 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.logging.Logger;
@@ -64,6 +65,10 @@ import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
  */
 public class UDPDestination extends AbstractDestination {
     public static final String NETWORK_INTERFACE = UDPDestination.class.getName() + ".NETWORK_INTERFACE";
+    /**
+     * Size of the buffer used to read incoming datagrams. Defaults to the maximum datagram size.
+     */
+    public static final String RECEIVE_BUFFER_SIZE = UDPDestination.class.getName() + ".RECEIVE_BUFFER_SIZE";
 
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
     private static final AttributeKey KEY_IN = new AttributeKey(StreamIoHandler.class, "in");
@@ -79,14 +84,16 @@ public class UDPDestination extends AbstractDestination {
 
     class MCastListener implements Runnable {
         public void run() {
+            // the receive buffer is reused, each message only gets a copy of its own datagram
+            byte[] buffer = new byte[getReceiveBufferSize()];
             while (true) {
                 if (mcast == null) {
                     return;
                 }
                 try {
-                    byte[] bytes = new byte[64 * 1024];
-                    final DatagramPacket p = new DatagramPacket(bytes, bytes.length);
+                    final DatagramPacket p = new DatagramPacket(buffer, buffer.length);
                     mcast.receive(p);
+                    byte[] bytes = Arrays.copyOf(buffer, p.getLength());
 
                     LoadingByteArrayOutputStream out = new LoadingByteArrayOutputStream() {
                         public void close() throws IOException {
@@ -104,7 +111,7 @@ public class UDPDestination extends AbstractDestination {
                     exchange.setDestination(UDPDestination.this);
                     m.setDestination(UDPDestination.this);
                     exchange.setInMessage(m);
-                    m.setContent(InputStream.class, new ByteArrayInputStream(bytes, 0, p.getLength()));
+                    m.setContent(InputStream.class, new ByteArrayInputStream(bytes));
                     m.put(OutputStream.class, out);
                     queue.execute(() -> getMessageObserver().onMessage(m));
                 } catch (IOException ex) {
@@ -177,7 +184,7 @@ public class UDPDestination extends AbstractDestination {
 
                 acceptor.setDefaultLocalAddress(isa);
                 DatagramSessionConfig dcfg = acceptor.getSessionConfig();
-                dcfg.setReadBufferSize(64 * 1024);
+                dcfg.setReadBufferSize(getReceiveBufferSize());
                 dcfg.setSendBufferSize(64 * 1024);
                 dcfg.setReuseAddress(true);
                 acceptor.bind();
@@ -188,6 +195,16 @@ public class UDPDestination extends AbstractDestination {
             throw new RuntimeException(ex);
         }
     }
+    private int getReceiveBufferSize() {
+        Object size = this.getEndpointInfo().getProperty(UDPDestination.RECEIVE_BUFFER_SIZE);
+        if (size instanceof String) {
+            return Integer.parseInt((String)size);
+        } else if (size instanceof Integer) {
+            return (Integer)size;
+        }
+        return 64 * 1024;
+    }
+
     private NetworkInterface findNetworkInterface() throws SocketException {
         String name = (String)this.getEndpointInfo().getProperty(UDPDestination.NETWORK_INTERFACE);
         NetworkInterface ret = null;
@@ -315,7 +332,8 @@ public class UDPDestination extends AbstractDestination {
 
     static class UDPDestinationOutputStream extends OutputStream {
         final OutputStream out;
-        IoBuffer buffer = IoBuffer.allocate(64 * 1024 - 42); //max size
+        // grows up to the max datagram size and is reused as the session stream copies the data
+        IoBuffer buffer = IoBuffer.allocate(UDPConduit.INITIAL_BUFFER_SIZE).setAutoExpand(true);
         boolean closed;
 
         UDPDestinationOutputStream(OutputStream out) {
@@ -323,22 +341,26 @@ public class UDPDestination extends AbstractDestination {
         }
 
         public void write(int b) throws IOException {
-            buffer.put(new byte[] {(byte)b}, 0, 1);
+            if (buffer.position() >= UDPConduit.MAX_DATAGRAM_SIZE) {
+                send();
+            }
+            buffer.put((byte)b);
         }
         public void write(byte[] b, int off, int len) throws IOException {
-            while (len > buffer.remaining()) {
-                int nlen = buffer.remaining();
-                buffer.put(b, off, nlen);
-                len -= nlen;
-                off += nlen;
+            int room = UDPConduit.MAX_DATAGRAM_SIZE - buffer.position();
+            while (len > room) {
+                buffer.put(b, off, room);
+                len -= room;
+                off += room;
                 send();
-                buffer = IoBuffer.allocate((64 * 1024) - 42);
+                room = UDPConduit.MAX_DATAGRAM_SIZE;
             }
             buffer.put(b, off, len);
         }
         private void send() throws IOException {
             buffer.flip();
-            out.write(buffer.array(), 0, buffer.limit());
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.limit());
+            buffer.clear();
         }
         public void close() throws IOException {
             if (closed) {
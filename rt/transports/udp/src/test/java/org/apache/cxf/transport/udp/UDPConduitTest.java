@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.udp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.ws.addressing.EndpointReferenceType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class UDPConduitTest {
+    private UDPConduit conduit;
+    private final List<InputStream> responses = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        conduit = new UDPConduit(new EndpointReferenceType(), BusFactory.getDefaultBus());
+        conduit.setMessageObserver(m -> responses.add(m.getContent(InputStream.class)));
+    }
+
+    @After
+    public void tearDown() {
+        conduit.close();
+    }
+
+    @Test
+    public void testMultipleResponsesOfDifferentSizes() throws Exception {
+        // the small response first: a packet length left at its size would truncate the others
+        String[] first = {response('a', 10), response('b', 3000), response('c', 500)};
+        String[] second = {response('d', 2000), response('e', 20)};
+
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            DatagramSocket sender = new DatagramSocket()) {
+            send(sender, socket, first);
+            conduit.receiveResponses(createMessage(), socket);
+            // the second request reuses the pooled receive buffer of the first one
+            send(sender, socket, second);
+            conduit.receiveResponses(createMessage(), socket);
+        }
+
+        List<String> expected = new ArrayList<>(Arrays.asList(first));
+        expected.addAll(Arrays.asList(second));
+        List<String> received = new ArrayList<>();
+        for (InputStream in : responses) {
+            received.add(IOUtils.toString(in));
+        }
+        assertEquals(expected, received);
+    }
+
+    private static String response(char c, int size) {
+        char[] chars = new char[size];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static void send(DatagramSocket sender, DatagramSocket target, String... responses)
+        throws IOException {
+        for (String r : responses) {
+            byte[] bytes = r.getBytes("UTF-8");
+            sender.send(new DatagramPacket(bytes, bytes.length, target.getLocalSocketAddress()));
+        }
+    }
+
+    private static Message createMessage() {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setSynchronous(false);
+        exchange.setOutMessage(message);
+        message.setExchange(exchange);
+        message.put("udp.multi.response.timeout", 500);
+        return message;
+    }
+}
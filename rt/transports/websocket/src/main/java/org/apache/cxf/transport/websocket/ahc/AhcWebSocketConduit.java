@@ -76,6 +76,11 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
         super(b, ei, t);
     }
 
+    @Override
+    protected boolean isWarmUpSupported() {
+        return false;
+    }
+
     @Override
     protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy)
         throws IOException {
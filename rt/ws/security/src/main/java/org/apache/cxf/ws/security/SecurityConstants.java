@@ -87,10 +87,20 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
     /**
      * Whether to enable streaming WS-Security. If set to false (the default), the old DOM
      * implementation is used. If set to true, the new streaming (StAX) implementation is used.
+     * If set to "auto", the streaming implementation is used unless the effective security policy
+     * contains an assertion that it does not support (for example XPath-based SignedElements or
+     * EncryptedElements, or a SecureConversation/SpnegoContextToken bootstrap), in which case the
+     * DOM implementation is used. The choice is made once per exchange.
      */
     public static final String ENABLE_STREAMING_SECURITY =
         "ws-security.enable.streaming";
 
+    /**
+     * The value of the ENABLE_STREAMING_SECURITY property that selects the streaming implementation
+     * when the effective security policy allows it, and the DOM implementation otherwise.
+     */
+    public static final String STREAMING_SECURITY_AUTO = "auto";
+
     /**
      * Whether to return the security error message to the client, and not the default error message.
      * The "real" security errors should not be returned to the client in a deployment scenario,
@@ -116,6 +126,15 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
      */
     public static final String ENABLE_SAML_ONE_TIME_USE_CACHE = "ws-security.enable.saml.cache";
 
+    /**
+     * Whether to cache the results of validating a received SAML Assertion or BinarySecurityToken, so
+     * that the same token (for example an STS-issued token sent on a number of requests) is not fully
+     * re-validated for every request. Entries expire with the SAML NotOnOrAfter Condition or the
+     * certificate validity, and after the security token lifetime at the latest. SAML Assertions with a
+     * "OneTimeUse" or "DoNotCache" Condition are never cached. The default is "false".
+     */
+    public static final String ENABLE_TOKEN_VALIDATION_CACHE = "ws-security.enable.token.validation.cache";
+
     /**
      * Whether to store bytes (CipherData or BinarySecurityToken) in an attachment. The default is
      * true if MTOM is enabled. Set it to false to BASE-64 encode the bytes and "inlined" them in
@@ -161,6 +180,13 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
      */
     public static final String EXPAND_XOP_INCLUDE = "ws-security.expand.xop.include";
 
+    /**
+     * Whether to encrypt the attachments of an outbound message in parallel, using the "ws-security"
+     * work queue of the bus (or the default work queue if it is not configured). The encrypted attachments
+     * are written in the same order as they would be otherwise. The default is "false".
+     */
+    public static final String PARALLEL_ATTACHMENT_PROCESSING = "ws-security.attachments.parallel";
+
     //
     // Non-boolean WS-Security Configuration parameters
     //
@@ -217,6 +243,12 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
      */
     public static final String SAML_ONE_TIME_USE_CACHE_INSTANCE = "ws-security.saml.cache.instance";
 
+    /**
+     * This holds a reference to a TokenValidationCache instance used to cache the results of validating
+     * received SAML Assertions and BinarySecurityTokens. The default instance holds 1000 entries.
+     */
+    public static final String TOKEN_VALIDATION_CACHE_INSTANCE = "ws-security.token.validation.cache.instance";
+
     /**
      * Set this property to point to a configuration file for the underlying caching implementation for the
      * TokenStore. The default configuration file that is used is cxf-ehcache.xml in this module.
@@ -432,7 +464,8 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
             KERBEROS_IS_USERNAME_IN_SERVICENAME_FORM, KERBEROS_REQUEST_CREDENTIAL_DELEGATION,
             POLICY_VALIDATOR_MAP, STORE_BYTES_IN_ATTACHMENT, USE_ATTACHMENT_ENCRYPTION_CONTENT_ONLY_TRANSFORM,
             SYMMETRIC_SIGNATURE_ALGORITHM, SECURITY_CONTEXT_CREATOR, SECURITY_TOKEN_LIFETIME,
-            DISABLE_REQ_CLIENT_CERT_CHECK, EXPAND_XOP_INCLUDE
+            DISABLE_REQ_CLIENT_CERT_CHECK, EXPAND_XOP_INCLUDE, ENABLE_TOKEN_VALIDATION_CACHE,
+            TOKEN_VALIDATION_CACHE_INSTANCE, PARALLEL_ATTACHMENT_PROCESSING
         }));
         for (String commonProperty : COMMON_PROPERTIES) {
             s.add(commonProperty);
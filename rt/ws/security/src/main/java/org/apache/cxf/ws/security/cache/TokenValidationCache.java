@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.security.auth.Subject;
+
+import org.w3c.dom.Element;
+
+import org.apache.wss4j.common.util.DOM2Writer;
+import org.apache.wss4j.dom.WSDataRef;
+
+/**
+ * A bounded in-memory cache of the results of validating received security tokens, keyed by a digest
+ * of the token and the scope it was validated in. When the cache is full the least recently used entry
+ * is evicted. Each entry expires at the time given when it was stored, but never later than the TTL of
+ * the cache.
+ *
+ * Only what the validation established is cached, see ValidatedToken. Nothing that refers to the DOM of
+ * the request the token was first received in is kept, so an entry doesn't hold on to that request.
+ */
+public class TokenValidationCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL = 60L * 5L;
+
+    private final Map<String, CacheEntry> entries;
+    private long ttl = DEFAULT_TTL;
+
+    public TokenValidationCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TokenValidationCache(final int maxEntries) {
+        entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Set a new (default) TTL value in seconds
+     * @param newTtl a new (default) TTL value in seconds
+     */
+    public void setTTL(long newTtl) {
+        ttl = newTtl;
+    }
+
+    /**
+     * Get the validated token stored for the given key, or null if there is none or it has expired.
+     */
+    public ValidatedToken get(String key) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.getExpiry().isBefore(Instant.now())) {
+                entries.remove(key);
+                entry = null;
+            }
+            return entry == null ? null : entry.getToken();
+        }
+    }
+
+    /**
+     * Store the validated token for the given key until the given expiry (which may be null).
+     */
+    public void put(String key, ValidatedToken token, Instant expires) {
+        if (key == null || token == null) {
+            return;
+        }
+        Instant maxExpiry = Instant.now().plusSeconds(ttl);
+        if (expires == null || expires.isAfter(maxExpiry)) {
+            expires = maxExpiry;
+        }
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(token, expires));
+        }
+    }
+
+    public void remove(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get a key for the given token, which is the SHA-256 digest of its serialized form and of the scope.
+     * The scope identifies the endpoint and validator the token is validated for, so that a token validated
+     * under the trust settings of one endpoint isn't accepted from a shared cache by another endpoint.
+     */
+    public static String getKey(Element token, String scope) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (scope != null) {
+                digest.update(scope.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte)0);
+            }
+            byte[] bytes = digest.digest(DOM2Writer.nodeToString(token).getBytes(StandardCharsets.UTF_8));
+            return org.apache.xml.security.utils.XMLUtils.encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 must be supported so not going to happen...
+            return null;
+        }
+    }
+
+    /**
+     * What is kept of a validated token: the Principal and the Subject (which carries the roles) the
+     * validator established, the certificates of a BinarySecurityToken and the signature references of a
+     * signed SAML Assertion. The engine result is rebuilt from these and the token element of the request.
+     */
+    public static class ValidatedToken {
+        private final Principal principal;
+        private final Subject subject;
+        private final X509Certificate[] certificates;
+        private final List<WSDataRef> dataRefs;
+
+        /**
+         * @param principal the principal, or null if it is rebuilt from the token
+         * @param subject the subject, may be null
+         * @param certificates the certificates, may be null
+         * @param dataRefs the signature references, may be null. Their DOM elements are not kept.
+         */
+        public ValidatedToken(Principal principal, Subject subject, X509Certificate[] certificates,
+                              List<WSDataRef> dataRefs) {
+            this.principal = principal;
+            this.subject = subject;
+            this.certificates = certificates == null ? null : certificates.clone();
+            this.dataRefs = dataRefs == null ? null : Collections.unmodifiableList(copy(dataRefs, null));
+        }
+
+        public Principal getPrincipal() {
+            return principal;
+        }
+
+        public Subject getSubject() {
+            return subject;
+        }
+
+        public X509Certificate[] getCertificates() {
+            return certificates == null ? null : certificates.clone();
+        }
+
+        /**
+         * Get copies of the signature references, which refer to the given protected element.
+         */
+        public List<WSDataRef> getDataRefs(Element protectedElement) {
+            return dataRefs == null ? null : copy(dataRefs, protectedElement);
+        }
+
+        private static List<WSDataRef> copy(List<WSDataRef> dataRefs, Element protectedElement) {
+            List<WSDataRef> copies = new ArrayList<>(dataRefs.size());
+            for (WSDataRef dataRef : dataRefs) {
+                WSDataRef copy = new WSDataRef();
+                copy.setWsuId(dataRef.getWsuId());
+                copy.setName(dataRef.getName());
+                copy.setXpath(dataRef.getXpath());
+                copy.setContent(dataRef.isContent());
+                copy.setAlgorithm(dataRef.getAlgorithm());
+                copy.setDigestAlgorithm(dataRef.getDigestAlgorithm());
+                copy.setTransformAlgorithms(dataRef.getTransformAlgorithms());
+                copy.setAttachment(dataRef.isAttachment());
+                copy.setDigestValue(dataRef.getDigestValue());
+                if (protectedElement != null) {
+                    copy.setProtectedElement(protectedElement);
+                }
+                copies.add(copy);
+            }
+            return copies;
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final ValidatedToken token;
+        private final Instant expires;
+
+        CacheEntry(ValidatedToken token, Instant expires) {
+            this.token = token;
+            this.expires = expires;
+        }
+
+        public ValidatedToken getToken() {
+            return token;
+        }
+
+        public Instant getExpiry() {
+            return expires;
+        }
+
+    }
+
+}
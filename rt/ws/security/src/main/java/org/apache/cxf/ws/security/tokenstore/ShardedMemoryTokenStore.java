@@ -0,0 +1,409 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.tokenstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.w3c.dom.Element;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.wss4j.common.util.DOM2Writer;
+
+/**
+ * A TokenStore for a large number of tokens that are accessed concurrently. Tokens are stored in a
+ * number of segments, and reads don't take any locks. Expired tokens are removed by a timer wheel
+ * (with a tick of one second), which is advanced when tokens are added. When a segment is full, a
+ * token which expires soon is evicted from it. Tokens can optionally be stored serialized off the
+ * Java heap, in which case getToken returns a new copy of the token each time.
+ *
+ * A token that is removed, replaced, evicted or expired stays in the timer wheel until its slot comes
+ * round, but the token itself is released at once: an on-heap token is no longer referenced and the
+ * buffer of an off-heap token is zeroed. So only the identifier and the expiry of the token are kept.
+ *
+ * A token expires at its own expiry date, but no later than the max TTL. Tokens without an expiry
+ * date expire after the default TTL. The default TTL is 5 minutes and the max TTL is 1 hour.
+ */
+public class ShardedMemoryTokenStore implements TokenStore {
+    public static final long DEFAULT_TTL = 60L * 5L;
+    public static final long MAX_TTL = DEFAULT_TTL * 12L;
+    public static final int DEFAULT_SEGMENTS = 16;
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ShardedMemoryTokenStore.class);
+    private static final int WHEEL_SIZE = 512;
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final Segment[] segments;
+    private final int maxSegmentEntries;
+    private final boolean offHeap;
+    private final Queue<CacheEntry>[] wheel;
+    private final AtomicLong currentTick;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long ttl = DEFAULT_TTL;
+
+    public ShardedMemoryTokenStore() {
+        this(DEFAULT_SEGMENTS, DEFAULT_MAX_ENTRIES, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ShardedMemoryTokenStore(int segmentCount, int maxEntries, boolean offHeap) {
+        int count = Integer.highestOneBit(Math.max(1, segmentCount - 1) << 1);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        maxSegmentEntries = Math.max(1, (maxEntries + count - 1) / count);
+        this.offHeap = offHeap;
+
+        wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        currentTick = new AtomicLong(toTick(System.currentTimeMillis()));
+    }
+
+    /**
+     * Set a new (default) TTL value in seconds
+     * @param newTtl a new (default) TTL value in seconds
+     */
+    public void setTTL(long newTtl) {
+        ttl = newTtl;
+    }
+
+    public void add(SecurityToken token) {
+        if (token != null) {
+            add(token.getId(), token);
+        }
+    }
+
+    public void add(String identifier, SecurityToken token) {
+        if (token == null || StringUtils.isEmpty(identifier)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        advanceWheel(now);
+
+        CacheEntry entry = createCacheEntry(identifier, token, now);
+        Segment segment = getSegment(identifier);
+        CacheEntry replaced = segment.entries.put(identifier, entry);
+        if (replaced != null) {
+            replaced.release();
+        }
+        long slotTick = Math.max(toTick(entry.expires), currentTick.get() + 1);
+        wheel[(int)(slotTick % WHEEL_SIZE)].add(entry);
+
+        while (segment.entries.size() > maxSegmentEntries) {
+            if (!evict(segment)) {
+                break;
+            }
+        }
+    }
+
+    public void remove(String identifier) {
+        if (!StringUtils.isEmpty(identifier)) {
+            CacheEntry entry = getSegment(identifier).entries.remove(identifier);
+            if (entry != null) {
+                entry.release();
+            }
+        }
+    }
+
+    public Collection<String> getTokenIdentifiers() {
+        long now = System.currentTimeMillis();
+        advanceWheel(now);
+
+        List<String> identifiers = new ArrayList<>();
+        for (Segment segment : segments) {
+            for (CacheEntry entry : segment.entries.values()) {
+                if (entry.expires > now) {
+                    identifiers.add(entry.identifier);
+                }
+            }
+        }
+        return identifiers;
+    }
+
+    public SecurityToken getToken(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        Segment segment = getSegment(identifier);
+        CacheEntry entry = segment.entries.get(identifier);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expires <= System.currentTimeMillis()) {
+            if (segment.entries.remove(identifier, entry)) {
+                expirations.increment();
+                entry.release();
+            }
+            misses.increment();
+            return null;
+        }
+        SecurityToken token = entry.getSecurityToken();
+        if (token == null) {
+            // Removed or replaced concurrently
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    /**
+     * Get the number of tokens in the store, which may include expired tokens that have not
+     * been removed yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.entries.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of tokens that were removed because they expired
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Get the number of tokens that were removed before they expired, as the store was full
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment getSegment(String identifier) {
+        int h = identifier.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private CacheEntry createCacheEntry(String identifier, SecurityToken token, long now) {
+        long maxExpires = now + MAX_TTL * 1000L;
+        long expires = now + ttl * 1000L;
+        if (token.getExpires() != null) {
+            expires = token.getExpires().toEpochMilli();
+        }
+        if (expires > maxExpires) {
+            expires = maxExpires;
+        }
+
+        if (offHeap) {
+            try {
+                return new CacheEntry(identifier, null, serialize(token), expires);
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, "Storing token " + identifier + " on the heap as it can't be serialized", ex);
+            }
+        }
+        return new CacheEntry(identifier, token, null, expires);
+    }
+
+    /**
+     * Remove the tokens in the wheel slots for the ticks that have passed since the wheel
+     * was last advanced. Only one thread advances the wheel at a time.
+     */
+    private void advanceWheel(long now) {
+        long tick = toTick(now);
+        long last = currentTick.get();
+        if (tick <= last || !currentTick.compareAndSet(last, tick)) {
+            return;
+        }
+        long first = Math.max(last + 1, tick - WHEEL_SIZE + 1);
+        for (long t = first; t <= tick; t++) {
+            Queue<CacheEntry> slot = wheel[(int)(t % WHEEL_SIZE)];
+            List<CacheEntry> later = null;
+            for (CacheEntry entry = slot.poll(); entry != null; entry = slot.poll()) {
+                Segment segment = getSegment(entry.identifier);
+                if (segment.entries.get(entry.identifier) != entry) {
+                    // Removed or replaced since
+                    continue;
+                }
+                if (entry.expires <= now) {
+                    if (segment.entries.remove(entry.identifier, entry)) {
+                        expirations.increment();
+                        entry.release();
+                    }
+                } else {
+                    // Expires in a later rotation of the wheel
+                    if (later == null) {
+                        later = new ArrayList<>();
+                    }
+                    later.add(entry);
+                }
+            }
+            if (later != null) {
+                slot.addAll(later);
+            }
+        }
+    }
+
+    private boolean evict(Segment segment) {
+        CacheEntry victim = null;
+        Iterator<CacheEntry> iterator = segment.entries.values().iterator();
+        for (int i = 0; i < EVICTION_SAMPLES && iterator.hasNext(); i++) {
+            CacheEntry entry = iterator.next();
+            if (victim == null || entry.expires < victim.expires) {
+                victim = entry;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        if (segment.entries.remove(victim.identifier, victim)) {
+            evictions.increment();
+            victim.release();
+        }
+        return true;
+    }
+
+    private static long toTick(long millis) {
+        return millis / 1000L;
+    }
+
+    private static ByteBuffer serialize(SecurityToken token) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(token);
+            // The secret, key and references are transient in SecurityToken
+            oos.writeObject(token.getSecret());
+            oos.writeObject(token.getKey());
+            oos.writeObject(toString(token.getAttachedReference()));
+            oos.writeObject(toString(token.getUnattachedReference()));
+        }
+        byte[] bytes = bos.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        Arrays.fill(bytes, (byte)0);
+        return buffer;
+    }
+
+    private static SecurityToken deserialize(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            SecurityToken token = (SecurityToken)ois.readObject();
+            token.setSecret((byte[])ois.readObject());
+            token.setKey((Key)ois.readObject());
+            token.setAttachedReference(toElement((String)ois.readObject()));
+            token.setUnattachedReference(toElement((String)ois.readObject()));
+            return token;
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Error reading a token from the store", ex);
+            return null;
+        } finally {
+            Arrays.fill(bytes, (byte)0);
+        }
+    }
+
+    private static String toString(Element element) {
+        return element == null ? null : DOM2Writer.nodeToString(element);
+    }
+
+    private static Element toElement(String str) throws Exception {
+        return str == null ? null : StaxUtils.read(new StringReader(str)).getDocumentElement();
+    }
+
+    private static class Segment {
+        private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    }
+
+    private static class CacheEntry {
+
+        private final String identifier;
+        private final long expires;
+        private volatile SecurityToken securityToken;
+        private ByteBuffer serializedToken;
+
+        CacheEntry(String identifier, SecurityToken securityToken, ByteBuffer serializedToken, long expires) {
+            this.identifier = identifier;
+            this.securityToken = securityToken;
+            this.serializedToken = serializedToken;
+            this.expires = expires;
+        }
+
+        /**
+         * Get the token, or null if the entry was released
+         */
+        SecurityToken getSecurityToken() {
+            SecurityToken token = securityToken;
+            if (token != null) {
+                return token;
+            }
+            synchronized (this) {
+                return serializedToken == null ? null : deserialize(serializedToken);
+            }
+        }
+
+        /**
+         * Release the token once the entry is no longer in the store, zeroing an off-heap token
+         */
+        void release() {
+            securityToken = null;
+            synchronized (this) {
+                if (serializedToken != null) {
+                    for (int i = 0; i < serializedToken.capacity(); i++) {
+                        serializedToken.put(i, (byte)0);
+                    }
+                    serializedToken = null;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.tokenstore;
+
+import org.apache.cxf.message.Message;
+
+
+/**
+ * A factory to return a ShardedMemoryTokenStore instance. The tokens are stored on the Java heap.
+ *
+ * A ShardedMemoryTokenStore created to store tokens off the heap keeps fewer objects on the heap, but
+ * it stores the secret and the Key of each token Java-serialized in a direct buffer, and deserializes
+ * them again on every getToken. The buffer is zeroed when the token leaves the store, but the copies
+ * returned by getToken are left to the garbage collector. Such a store is therefore not returned by this
+ * factory, and should only be used where the memory of the process is trusted.
+ */
+public class ShardedMemoryTokenStoreFactory extends TokenStoreFactory {
+
+    @Override
+    public TokenStore newTokenStore(String key, Message message) {
+        return new ShardedMemoryTokenStore();
+    }
+
+}
@@ -20,6 +20,8 @@
 package org.apache.cxf.ws.security.wss4j;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -27,35 +29,55 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.activation.DataHandler;
+import javax.activation.DataSource;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.CallbackHandler;
 import javax.security.auth.callback.UnsupportedCallbackException;
 
+import org.apache.cxf.Bus;
 import org.apache.cxf.attachment.AttachmentDataSource;
 import org.apache.cxf.message.Attachment;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.workqueue.WorkQueueManager;
+import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.wss4j.common.ext.AttachmentRemovalCallback;
 import org.apache.wss4j.common.ext.AttachmentRequestCallback;
 import org.apache.wss4j.common.ext.AttachmentResultCallback;
 
 /**
  * A CallbackHandler to be used to sign/encrypt SOAP Attachments.
+ *
+ * If SecurityConstants.PARALLEL_ATTACHMENT_PROCESSING is enabled for an outbound message, then the
+ * secured (encrypted) attachments are produced in parallel on the "ws-security" work queue (or the
+ * default work queue if it is not configured). The attachments are still added to the message in the
+ * order in which they were secured.
  */
 public class AttachmentCallbackHandler implements CallbackHandler {
 
     private final Collection<org.apache.cxf.message.Attachment> attachments;
+    private final Message message;
+    private final Executor executor;
 
     public AttachmentCallbackHandler(Message message) {
         if (message.getAttachments() == null) {
             message.setAttachments(new ArrayList<Attachment>());
         }
         attachments = message.getAttachments();
+        this.message = message;
+        executor = getExecutor(message);
     }
 
     public AttachmentCallbackHandler(Collection<org.apache.cxf.message.Attachment> attachments) {
         this.attachments = attachments;
+        message = null;
+        executor = null;
     }
 
     @Override
@@ -76,14 +98,17 @@ public class AttachmentCallbackHandler implements CallbackHandler {
             } else if (callback instanceof AttachmentResultCallback) {
                 AttachmentResultCallback attachmentResultCallback = (AttachmentResultCallback) callback;
 
+                DataSource dataSource =
+                    new AttachmentDataSource(
+                        attachmentResultCallback.getAttachment().getMimeType(),
+                        attachmentResultCallback.getAttachment().getSourceStream());
+                if (executor != null) {
+                    dataSource = new ParallelDataSource((AttachmentDataSource)dataSource);
+                }
                 org.apache.cxf.attachment.AttachmentImpl securedAttachment =
                     new org.apache.cxf.attachment.AttachmentImpl(
                         attachmentResultCallback.getAttachmentId(),
-                        new DataHandler(
-                            new AttachmentDataSource(
-                                attachmentResultCallback.getAttachment().getMimeType(),
-                                attachmentResultCallback.getAttachment().getSourceStream())
-                        )
+                        new DataHandler(dataSource)
                     );
 
                 Map<String, String> headers = attachmentResultCallback.getAttachment().getHeaders();
@@ -155,4 +180,72 @@ public class AttachmentCallbackHandler implements CallbackHandler {
         return URLDecoder.decode(attachmentId, StandardCharsets.UTF_8.name());
     }
 
+    private static Executor getExecutor(Message message) {
+        if (!MessageUtils.isOutbound(message)
+            || !MessageUtils.getContextualBoolean(message, SecurityConstants.PARALLEL_ATTACHMENT_PROCESSING, false)) {
+            return null;
+        }
+        Bus bus = message.getExchange() != null ? message.getExchange().getBus() : null;
+        WorkQueueManager manager = bus != null ? bus.getExtension(WorkQueueManager.class) : null;
+        if (manager == null) {
+            return null;
+        }
+        Executor executor = manager.getNamedWorkQueue("ws-security");
+        return executor != null ? executor : manager.getAutomaticWorkQueue();
+    }
+
+    /**
+     * A DataSource that reads (and so secures) the source stream of an attachment into a cache on
+     * the executor, and waits for that to complete before the attachment is written out. If the
+     * executor has not started the task by then, it is run by the thread writing the attachment.
+     */
+    private final class ParallelDataSource implements DataSource {
+        private final AttachmentDataSource dataSource;
+        private final FutureTask<Void> task;
+
+        ParallelDataSource(AttachmentDataSource dataSource) {
+            this.dataSource = dataSource;
+            task = new FutureTask<>(() -> {
+                dataSource.cache(message);
+                return null;
+            });
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                task.run();
+            }
+        }
+
+        public String getContentType() {
+            return dataSource.getContentType();
+        }
+
+        public InputStream getInputStream() throws IOException {
+            // Run the task here if no executor thread has picked it up yet, the current thread
+            // may be the one the queued task is waiting for. This is a no-op if the task has
+            // already started or completed.
+            task.run();
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException)ex.getCause();
+                }
+                throw new IOException(ex.getCause());
+            }
+            return dataSource.getInputStream();
+        }
+
+        public String getName() {
+            return dataSource.getName();
+        }
+
+        public OutputStream getOutputStream() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
 }
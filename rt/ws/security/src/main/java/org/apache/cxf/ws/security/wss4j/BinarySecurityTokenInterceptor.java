@@ -20,10 +20,15 @@
 package org.apache.cxf.ws.security.wss4j;
 
 import java.security.Principal;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.security.auth.Subject;
+import javax.xml.namespace.QName;
+
 import org.w3c.dom.Element;
 
 import org.apache.cxf.binding.soap.SoapMessage;
@@ -34,10 +39,14 @@ import org.apache.cxf.interceptor.security.DefaultSecurityContext;
 import org.apache.cxf.rt.security.utils.SecurityUtils;
 import org.apache.cxf.security.SecurityContext;
 import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.cxf.ws.security.cache.TokenValidationCache;
 import org.apache.cxf.ws.security.tokenstore.SecurityToken;
 import org.apache.cxf.ws.security.tokenstore.TokenStore;
 import org.apache.wss4j.common.WSS4JConstants;
 import org.apache.wss4j.common.ext.WSSecurityException;
+import org.apache.wss4j.common.token.BinarySecurity;
+import org.apache.wss4j.common.token.PKIPathSecurity;
+import org.apache.wss4j.common.token.X509Security;
 import org.apache.wss4j.dom.WSConstants;
 import org.apache.wss4j.dom.WSDocInfo;
 import org.apache.wss4j.dom.engine.WSSConfig;
@@ -46,6 +55,7 @@ import org.apache.wss4j.dom.handler.RequestData;
 import org.apache.wss4j.dom.handler.WSHandlerConstants;
 import org.apache.wss4j.dom.handler.WSHandlerResult;
 import org.apache.wss4j.dom.processor.BinarySecurityTokenProcessor;
+import org.apache.wss4j.dom.validate.Validator;
 import org.apache.wss4j.policy.model.AbstractToken;
 
 /**
@@ -117,8 +127,85 @@ public class BinarySecurityTokenInterceptor extends AbstractTokenInterceptor {
         WSDocInfo wsDocInfo = new WSDocInfo(tokenElement.getOwnerDocument());
         data.setWsDocInfo(wsDocInfo);
 
+        TokenValidationCache cache = WSS4JUtils.getTokenValidationCache(message);
+        String cacheKey = null;
+        if (cache != null) {
+            Validator validator =
+                data.getValidator(new QName(tokenElement.getNamespaceURI(), tokenElement.getLocalName()));
+            cacheKey = WSS4JUtils.getTokenValidationCacheKey(message, tokenElement, validator);
+            TokenValidationCache.ValidatedToken validatedToken = cache.get(cacheKey);
+            if (validatedToken != null) {
+                return Collections.singletonList(createResult(tokenElement, data, validatedToken));
+            }
+        }
+
         BinarySecurityTokenProcessor p = new BinarySecurityTokenProcessor();
-        return p.handleToken(tokenElement, data);
+        List<WSSecurityEngineResult> results = p.handleToken(tokenElement, data);
+        if (cache != null && results != null && results.size() == 1 && isCacheable(results.get(0))) {
+            WSSecurityEngineResult result = results.get(0);
+            X509Certificate[] certs = (X509Certificate[])result.get(WSSecurityEngineResult.TAG_X509_CERTIFICATES);
+            TokenValidationCache.ValidatedToken validatedToken = new TokenValidationCache.ValidatedToken(
+                (Principal)result.get(WSSecurityEngineResult.TAG_PRINCIPAL),
+                (Subject)result.get(WSSecurityEngineResult.TAG_SUBJECT), certs, null);
+            cache.put(cacheKey, validatedToken, getNotAfter(result));
+        }
+        return results;
+    }
+
+    /**
+     * Only X.509 tokens are cached. Tokens that carry a secret or a delegation credential (such as Kerberos
+     * tokens), or that were transformed by the validator, are processed for every request.
+     */
+    private static boolean isCacheable(WSSecurityEngineResult result) {
+        return result.get(WSSecurityEngineResult.TAG_X509_CERTIFICATES) != null
+            && result.get(WSSecurityEngineResult.TAG_SECRET) == null
+            && result.get(WSSecurityEngineResult.TAG_DELEGATION_CREDENTIAL) == null
+            && result.get(WSSecurityEngineResult.TAG_TRANSFORMED_TOKEN) == null;
+    }
+
+    /**
+     * Rebuild the result of processing the given token from a cached validation, without validating
+     * the certificates again.
+     */
+    private static WSSecurityEngineResult createResult(Element tokenElement, RequestData data,
+                                                       TokenValidationCache.ValidatedToken validatedToken)
+        throws WSSecurityException {
+        String type = tokenElement.getAttributeNS(null, "ValueType");
+        final BinarySecurity token;
+        if (X509Security.X509_V3_TYPE.equals(type)) {
+            token = new X509Security(tokenElement, data.getBSPEnforcer());
+        } else if (PKIPathSecurity.getType().equals(type)) {
+            token = new PKIPathSecurity(tokenElement, data.getBSPEnforcer());
+        } else {
+            token = new BinarySecurity(tokenElement, data.getBSPEnforcer());
+        }
+
+        WSSecurityEngineResult result =
+            new WSSecurityEngineResult(WSConstants.BST, token, validatedToken.getCertificates());
+        String id = token.getID();
+        if (id != null && !id.isEmpty()) {
+            result.put(WSSecurityEngineResult.TAG_ID, id);
+        }
+        result.put(WSSecurityEngineResult.TAG_VALIDATED_TOKEN, Boolean.TRUE);
+        result.put(WSSecurityEngineResult.TAG_PRINCIPAL, validatedToken.getPrincipal());
+        result.put(WSSecurityEngineResult.TAG_SUBJECT, validatedToken.getSubject());
+        data.getWsDocInfo().addTokenElement(tokenElement);
+        data.getWsDocInfo().addResult(result);
+        return result;
+    }
+
+    private static Instant getNotAfter(WSSecurityEngineResult result) {
+        X509Certificate[] certs = (X509Certificate[])result.get(WSSecurityEngineResult.TAG_X509_CERTIFICATES);
+        Instant notAfter = null;
+        if (certs != null) {
+            for (X509Certificate cert : certs) {
+                Instant certNotAfter = cert.getNotAfter().toInstant();
+                if (notAfter == null || certNotAfter.isBefore(notAfter)) {
+                    notAfter = certNotAfter;
+                }
+            }
+        }
+        return notAfter;
     }
 
     protected AbstractToken assertTokens(SoapMessage message) {
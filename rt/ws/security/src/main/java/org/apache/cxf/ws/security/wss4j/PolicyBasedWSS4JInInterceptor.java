@@ -86,8 +86,7 @@ public class PolicyBasedWSS4JInInterceptor extends WSS4JInInterceptor {
 
     public void handleMessage(SoapMessage msg) throws Fault {
         AssertionInfoMap aim = msg.get(AssertionInfoMap.class);
-        boolean enableStax =
-            MessageUtils.getContextualBoolean(msg, SecurityConstants.ENABLE_STREAMING_SECURITY);
+        boolean enableStax = WSS4JUtils.isStreamingSecurity(msg);
         if (aim != null && !enableStax && !msg.containsKey(SECURITY_PROCESSED)
             && !isGET(msg) && msg.getExchange() != null) {
             try {
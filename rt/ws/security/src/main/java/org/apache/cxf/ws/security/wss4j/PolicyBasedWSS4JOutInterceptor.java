@@ -76,8 +76,7 @@ public class PolicyBasedWSS4JOutInterceptor extends AbstractPhaseInterceptor<Soa
 
 
     public void handleMessage(SoapMessage mc) throws Fault {
-        boolean enableStax =
-            MessageUtils.getContextualBoolean(mc, SecurityConstants.ENABLE_STREAMING_SECURITY);
+        boolean enableStax = WSS4JUtils.isStreamingSecurity(mc);
         if (!enableStax) {
             if (mc.getContent(SOAPMessage.class) == null) {
                 saajOut.handleMessage(mc);
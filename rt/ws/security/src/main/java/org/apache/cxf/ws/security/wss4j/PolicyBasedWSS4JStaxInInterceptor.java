@@ -72,8 +72,7 @@ public class PolicyBasedWSS4JStaxInInterceptor extends WSS4JStaxInInterceptor {
 
     public void handleMessage(SoapMessage msg) throws Fault {
         AssertionInfoMap aim = msg.get(AssertionInfoMap.class);
-        boolean enableStax =
-            MessageUtils.getContextualBoolean(msg, SecurityConstants.ENABLE_STREAMING_SECURITY);
+        boolean enableStax = WSS4JUtils.isStreamingSecurity(msg);
         if (aim != null && enableStax) {
             super.handleMessage(msg);
         }
@@ -22,12 +22,14 @@ package org.apache.cxf.ws.security.wss4j;
 import java.net.URL;
 import java.security.Principal;
 import java.security.cert.Certificate;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
+import javax.security.auth.Subject;
 import javax.security.auth.callback.CallbackHandler;
 import javax.xml.namespace.QName;
 
@@ -46,6 +48,7 @@ import org.apache.cxf.security.transport.TLSSessionInfo;
 import org.apache.cxf.ws.policy.AssertionInfo;
 import org.apache.cxf.ws.policy.AssertionInfoMap;
 import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.cxf.ws.security.cache.TokenValidationCache;
 import org.apache.cxf.ws.security.policy.PolicyUtils;
 import org.apache.wss4j.common.WSS4JConstants;
 import org.apache.wss4j.common.crypto.Crypto;
@@ -53,11 +56,14 @@ import org.apache.wss4j.common.crypto.CryptoFactory;
 import org.apache.wss4j.common.crypto.PasswordEncryptor;
 import org.apache.wss4j.common.ext.WSPasswordCallback;
 import org.apache.wss4j.common.ext.WSSecurityException;
+import org.apache.wss4j.common.principal.SAMLTokenPrincipal;
+import org.apache.wss4j.common.principal.SAMLTokenPrincipalImpl;
 import org.apache.wss4j.common.saml.SAMLCallback;
 import org.apache.wss4j.common.saml.SAMLUtil;
 import org.apache.wss4j.common.saml.SamlAssertionWrapper;
 import org.apache.wss4j.common.saml.bean.Version;
 import org.apache.wss4j.dom.WSConstants;
+import org.apache.wss4j.dom.WSDataRef;
 import org.apache.wss4j.dom.WSDocInfo;
 import org.apache.wss4j.dom.engine.WSSConfig;
 import org.apache.wss4j.dom.engine.WSSecurityEngineResult;
@@ -66,6 +72,8 @@ import org.apache.wss4j.dom.handler.WSHandlerConstants;
 import org.apache.wss4j.dom.handler.WSHandlerResult;
 import org.apache.wss4j.dom.processor.SAMLTokenProcessor;
 import org.apache.wss4j.dom.saml.DOMSAMLUtil;
+import org.apache.wss4j.dom.saml.WSSSAMLKeyInfoProcessor;
+import org.apache.wss4j.dom.validate.Validator;
 import org.apache.wss4j.policy.SPConstants;
 import org.apache.wss4j.policy.model.AbstractToken;
 import org.apache.wss4j.policy.model.SamlToken;
@@ -189,8 +197,95 @@ public class SamlTokenInterceptor extends AbstractTokenInterceptor {
         WSDocInfo wsDocInfo = new WSDocInfo(tokenElement.getOwnerDocument());
         data.setWsDocInfo(wsDocInfo);
 
+        TokenValidationCache cache = WSS4JUtils.getTokenValidationCache(message);
+        String cacheKey = null;
+        if (cache != null) {
+            Validator validator =
+                data.getValidator(new QName(tokenElement.getNamespaceURI(), tokenElement.getLocalName()));
+            cacheKey = WSS4JUtils.getTokenValidationCacheKey(message, tokenElement, validator);
+            TokenValidationCache.ValidatedToken validatedToken = cache.get(cacheKey);
+            if (validatedToken != null) {
+                return Collections.singletonList(createResult(tokenElement, data, validatedToken));
+            }
+        }
+
         SAMLTokenProcessor p = new SAMLTokenProcessor();
-        return p.handleToken(tokenElement, data);
+        List<WSSecurityEngineResult> results = p.handleToken(tokenElement, data);
+        if (cache != null && results != null && results.size() == 1) {
+            WSSecurityEngineResult result = results.get(0);
+            SamlAssertionWrapper wrapper =
+                (SamlAssertionWrapper)result.get(WSSecurityEngineResult.TAG_SAML_ASSERTION);
+            // a principal of a transformed token can't be rebuilt from the received token
+            if (wrapper != null && isCacheable(wrapper)
+                && result.get(WSSecurityEngineResult.TAG_TRANSFORMED_TOKEN) == null) {
+                Principal principal = (Principal)result.get(WSSecurityEngineResult.TAG_PRINCIPAL);
+                List<WSDataRef> dataRefs =
+                    CastUtils.cast((List<?>)result.get(WSSecurityEngineResult.TAG_DATA_REF_URIS));
+                TokenValidationCache.ValidatedToken validatedToken = new TokenValidationCache.ValidatedToken(
+                    principal instanceof SAMLTokenPrincipal ? null : principal,
+                    (Subject)result.get(WSSecurityEngineResult.TAG_SUBJECT), null, dataRefs);
+                cache.put(cacheKey, validatedToken, getNotOnOrAfter(wrapper));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Rebuild the result of processing the given Assertion from a cached validation. The signature
+     * and trust validation are skipped, the Subject is parsed again to get its key info.
+     */
+    private static WSSecurityEngineResult createResult(Element tokenElement, RequestData data,
+                                                       TokenValidationCache.ValidatedToken validatedToken)
+        throws WSSecurityException {
+        SamlAssertionWrapper wrapper = new SamlAssertionWrapper(tokenElement);
+        wrapper.parseSubject(new WSSSAMLKeyInfoProcessor(data), data.getSigVerCrypto(), data.getCallbackHandler());
+
+        WSSecurityEngineResult result;
+        if (wrapper.isSigned()) {
+            result = new WSSecurityEngineResult(WSConstants.ST_SIGNED, wrapper);
+            result.put(WSSecurityEngineResult.TAG_DATA_REF_URIS, validatedToken.getDataRefs(tokenElement));
+            result.put(WSSecurityEngineResult.TAG_SIGNATURE_VALUE, wrapper.getSignatureValue());
+        } else {
+            result = new WSSecurityEngineResult(WSConstants.ST_UNSIGNED, wrapper);
+        }
+        String id = wrapper.getId();
+        if (!StringUtils.isEmpty(id)) {
+            result.put(WSSecurityEngineResult.TAG_ID, id);
+        }
+        result.put(WSSecurityEngineResult.TAG_VALIDATED_TOKEN, Boolean.TRUE);
+        Principal principal = validatedToken.getPrincipal();
+        result.put(WSSecurityEngineResult.TAG_PRINCIPAL,
+                   principal != null ? principal : new SAMLTokenPrincipalImpl(wrapper));
+        result.put(WSSecurityEngineResult.TAG_SUBJECT, validatedToken.getSubject());
+        data.getWsDocInfo().addTokenElement(tokenElement);
+        data.getWsDocInfo().addResult(result);
+        return result;
+    }
+
+    /**
+     * An Assertion with a "OneTimeUse" (SAML 2.0) or "DoNotCache" (SAML 1.1) Condition must not be
+     * accepted again without going through the replay cache, so its validation results aren't cached.
+     */
+    private static boolean isCacheable(SamlAssertionWrapper wrapper) {
+        if (wrapper.getSaml2() != null) {
+            return wrapper.getSaml2().getConditions() == null
+                || wrapper.getSaml2().getConditions().getOneTimeUse() == null;
+        } else if (wrapper.getSaml1() != null) {
+            return wrapper.getSaml1().getConditions() == null
+                || wrapper.getSaml1().getConditions().getDoNotCacheConditions().isEmpty();
+        }
+        return false;
+    }
+
+    private static Instant getNotOnOrAfter(SamlAssertionWrapper wrapper) {
+        if (wrapper.getSaml2() != null && wrapper.getSaml2().getConditions() != null
+            && wrapper.getSaml2().getConditions().getNotOnOrAfter() != null) {
+            return Instant.ofEpochMilli(wrapper.getSaml2().getConditions().getNotOnOrAfter().getMillis());
+        } else if (wrapper.getSaml1() != null && wrapper.getSaml1().getConditions() != null
+            && wrapper.getSaml1().getConditions().getNotOnOrAfter() != null) {
+            return Instant.ofEpochMilli(wrapper.getSaml1().getConditions().getNotOnOrAfter().getMillis());
+        }
+        return null;
     }
 
     protected AbstractToken assertTokens(SoapMessage message) {
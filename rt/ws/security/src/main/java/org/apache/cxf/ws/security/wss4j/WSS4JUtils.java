@@ -26,13 +26,20 @@ import java.nio.file.Path;
 import java.security.Key;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import javax.crypto.SecretKey;
 import javax.security.auth.callback.CallbackHandler;
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Element;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.binding.soap.SoapFault;
@@ -41,12 +48,15 @@ import org.apache.cxf.binding.soap.SoapVersion;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.rt.security.utils.SecurityUtils;
 import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
 import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.cxf.ws.security.cache.CXFEHCacheReplayCache;
+import org.apache.cxf.ws.security.cache.TokenValidationCache;
 import org.apache.cxf.ws.security.tokenstore.SecurityToken;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreException;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreUtils;
@@ -62,6 +72,8 @@ import org.apache.wss4j.common.util.Loader;
 import org.apache.wss4j.dom.WSConstants;
 import org.apache.wss4j.dom.engine.WSSecurityEngineResult;
 import org.apache.wss4j.dom.handler.WSHandlerResult;
+import org.apache.wss4j.dom.validate.Validator;
+import org.apache.wss4j.policy.SP12Constants;
 import org.apache.wss4j.stax.ext.WSSConstants;
 import org.apache.wss4j.stax.securityToken.WSSecurityTokenConstants;
 import org.apache.xml.security.exceptions.XMLSecurityException;
@@ -74,10 +86,84 @@ public final class WSS4JUtils {
 
     private static final Logger LOG = LogUtils.getL7dLogger(WSS4JUtils.class);
 
+    /**
+     * The endpoint property that records which WS-Security implementation ("streaming" or "DOM")
+     * was selected when ENABLE_STREAMING_SECURITY is set to "auto".
+     */
+    private static final String STREAMING_SECURITY_ENGINE =
+        SecurityConstants.ENABLE_STREAMING_SECURITY + ".engine";
+
+    /**
+     * The local names of the policy assertions that the streaming implementation can't enforce.
+     */
+    private static final Set<String> NON_STREAMING_ASSERTIONS =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            SP12Constants.SIGNED_ELEMENTS.getLocalPart(),
+            SP12Constants.ENCRYPTED_ELEMENTS.getLocalPart(),
+            SP12Constants.CONTENT_ENCRYPTED_ELEMENTS.getLocalPart(),
+            SP12Constants.REQUIRED_ELEMENTS.getLocalPart(),
+            SP12Constants.SECURE_CONVERSATION_TOKEN.getLocalPart(),
+            SP12Constants.SPNEGO_CONTEXT_TOKEN.getLocalPart()
+        )));
+
     private WSS4JUtils() {
         // complete
     }
 
+    /**
+     * Whether the streaming (StAX) WS-Security implementation should process the given message,
+     * as configured by SecurityConstants.ENABLE_STREAMING_SECURITY. When it is set to "auto", the
+     * streaming implementation is selected unless the effective policy of the message contains an
+     * assertion that it does not support. The selection is stored on the exchange, so that the
+     * request and the response are processed by the same implementation.
+     */
+    public static boolean isStreamingSecurity(Message message) {
+        Object value = message.getContextualProperty(SecurityConstants.ENABLE_STREAMING_SECURITY);
+        if (value == null) {
+            return false;
+        }
+        if (!SecurityConstants.STREAMING_SECURITY_AUTO.equalsIgnoreCase(value.toString().trim())) {
+            return PropertyUtils.isTrue(value);
+        }
+
+        AssertionInfoMap aim = message.get(AssertionInfoMap.class);
+        if (aim == null) {
+            // No policy to inspect (yet), so fall back to the DOM implementation without
+            // recording the decision
+            return false;
+        }
+
+        String unsupported = null;
+        for (QName name : aim.keySet()) {
+            if (NON_STREAMING_ASSERTIONS.contains(name.getLocalPart())) {
+                unsupported = name.getLocalPart();
+                break;
+            }
+        }
+        boolean streaming = unsupported == null;
+
+        Exchange exchange = message.getExchange();
+        if (exchange != null) {
+            exchange.put(SecurityConstants.ENABLE_STREAMING_SECURITY, streaming);
+        } else {
+            message.put(SecurityConstants.ENABLE_STREAMING_SECURITY, streaming);
+        }
+
+        Endpoint endpoint = exchange != null ? exchange.getEndpoint() : null;
+        String engine = streaming ? "streaming" : "DOM";
+        if (endpoint != null && endpoint.putIfAbsent(STREAMING_SECURITY_ENGINE, engine) == null) {
+            if (streaming) {
+                LOG.info("Using the streaming WS-Security implementation for endpoint "
+                    + endpoint.getEndpointInfo().getName());
+            } else {
+                LOG.info("Using the DOM WS-Security implementation for endpoint "
+                    + endpoint.getEndpointInfo().getName() + " as the policy contains a "
+                    + unsupported + " assertion, which is not supported by the streaming implementation");
+            }
+        }
+        return streaming;
+    }
+
     /**
      * Get the security token lifetime value (in milliseconds). The default is "300000" (5 minutes).
      * @return the security token lifetime value in milliseconds
@@ -157,6 +243,53 @@ public final class WSS4JUtils {
         return replayCache;
     }
 
+    /**
+     * Get a TokenValidationCache instance, or null if caching of token validation results has not
+     * been enabled via SecurityConstants.ENABLE_TOKEN_VALIDATION_CACHE.
+     *
+     * It tries to get an instance via SecurityConstants.TOKEN_VALIDATION_CACHE_INSTANCE from a contextual
+     * property, and failing that the endpoint. If it can't find any, then it creates a new in-memory
+     * instance with a TTL of the security token lifetime and stores that on the endpoint.
+     */
+    public static TokenValidationCache getTokenValidationCache(SoapMessage message) {
+        if (!MessageUtils.getContextualBoolean(message, SecurityConstants.ENABLE_TOKEN_VALIDATION_CACHE, false)) {
+            return null;
+        }
+
+        TokenValidationCache cache =
+            (TokenValidationCache)message.getContextualProperty(SecurityConstants.TOKEN_VALIDATION_CACHE_INSTANCE);
+        Endpoint ep = message.getExchange().getEndpoint();
+        if (cache == null && ep != null && ep.getEndpointInfo() != null) {
+            EndpointInfo info = ep.getEndpointInfo();
+            synchronized (info) {
+                cache = (TokenValidationCache)info.getProperty(SecurityConstants.TOKEN_VALIDATION_CACHE_INSTANCE);
+                if (cache == null) {
+                    cache = new TokenValidationCache();
+                    cache.setTTL(getSecurityTokenLifetime(message) / 1000L);
+                    info.setProperty(SecurityConstants.TOKEN_VALIDATION_CACHE_INSTANCE, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the key of the given token in the TokenValidationCache. It is scoped to the endpoint of the
+     * message and to the Validator of the token, which determine the trust settings it is validated with.
+     */
+    public static String getTokenValidationCacheKey(SoapMessage message, Element token, Validator validator) {
+        StringBuilder scope = new StringBuilder();
+        Endpoint ep = message.getExchange().getEndpoint();
+        if (ep != null && ep.getEndpointInfo() != null) {
+            EndpointInfo info = ep.getEndpointInfo();
+            scope.append(info.getName()).append('@').append(info.getAddress());
+        }
+        if (validator != null) {
+            scope.append('#').append(validator.getClass().getName());
+        }
+        return TokenValidationCache.getKey(token, scope.toString());
+    }
+
     public static String parseAndStoreStreamingSecurityToken(
         org.apache.xml.security.stax.securityToken.SecurityToken securityToken,
         Message message
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.cache;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import javax.security.auth.Subject;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import org.apache.cxf.common.security.SimplePrincipal;
+import org.apache.cxf.helpers.DOMUtils;
+import org.apache.wss4j.dom.WSConstants;
+import org.apache.wss4j.dom.WSDataRef;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TokenValidationCacheTest {
+
+    @Test
+    public void testCacheResults() {
+        TokenValidationCache cache = new TokenValidationCache();
+        Subject subject = new Subject();
+        TokenValidationCache.ValidatedToken token =
+            new TokenValidationCache.ValidatedToken(new SimplePrincipal("alice"), subject, null, null);
+        cache.put("key", token, null);
+
+        TokenValidationCache.ValidatedToken cached = cache.get("key");
+        assertNotNull(cached);
+        assertEquals("alice", cached.getPrincipal().getName());
+        assertSame(subject, cached.getSubject());
+        assertNull(cached.getCertificates());
+        assertNull(cached.getDataRefs(null));
+
+        cache.remove("key");
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testDataRefsAreCopied() {
+        Document doc = DOMUtils.createDocument();
+        Element assertion = doc.createElementNS(WSConstants.SAML2_NS, "saml2:Assertion");
+        WSDataRef dataRef = new WSDataRef();
+        dataRef.setWsuId("_12345");
+        dataRef.setDigestAlgorithm(WSConstants.SHA256);
+        dataRef.setProtectedElement(assertion);
+
+        TokenValidationCache.ValidatedToken token =
+            new TokenValidationCache.ValidatedToken(null, null, null, Collections.singletonList(dataRef));
+
+        Element otherAssertion = doc.createElementNS(WSConstants.SAML2_NS, "saml2:Assertion");
+        List<WSDataRef> dataRefs = token.getDataRefs(otherAssertion);
+        assertEquals(1, dataRefs.size());
+        assertNotSame(dataRef, dataRefs.get(0));
+        assertEquals("_12345", dataRefs.get(0).getWsuId());
+        assertEquals(WSConstants.SHA256, dataRefs.get(0).getDigestAlgorithm());
+        assertSame(otherAssertion, dataRefs.get(0).getProtectedElement());
+        // The element the references were stored with is not kept
+        assertNull(token.getDataRefs(null).get(0).getProtectedElement());
+    }
+
+    @Test
+    public void testExpiry() {
+        TokenValidationCache cache = new TokenValidationCache();
+        TokenValidationCache.ValidatedToken token =
+            new TokenValidationCache.ValidatedToken(null, null, null, null);
+        cache.put("expired", token, Instant.now().minusSeconds(1L));
+        assertNull(cache.get("expired"));
+
+        cache.setTTL(-1L);
+        cache.put("ttl", token, Instant.now().plusSeconds(60L));
+        assertNull(cache.get("ttl"));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        TokenValidationCache cache = new TokenValidationCache(2);
+        TokenValidationCache.ValidatedToken token =
+            new TokenValidationCache.ValidatedToken(null, null, null, null);
+        cache.put("a", token, null);
+        cache.put("b", token, null);
+        // "a" is now the most recently used entry
+        assertNotNull(cache.get("a"));
+        cache.put("c", token, null);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testKey() {
+        Document doc = DOMUtils.createDocument();
+        Element token = doc.createElementNS(WSConstants.WSSE_NS, "wsse:BinarySecurityToken");
+        token.setTextContent("MIIC...");
+        Element otherToken = doc.createElementNS(WSConstants.WSSE_NS, "wsse:BinarySecurityToken");
+        otherToken.setTextContent("MIID...");
+
+        String key = TokenValidationCache.getKey(token, "endpoint");
+        assertEquals(key, TokenValidationCache.getKey((Element)token.cloneNode(true), "endpoint"));
+        assertNotEquals(key, TokenValidationCache.getKey(otherToken, "endpoint"));
+        assertNotEquals(key, TokenValidationCache.getKey(token, "otherEndpoint"));
+    }
+}
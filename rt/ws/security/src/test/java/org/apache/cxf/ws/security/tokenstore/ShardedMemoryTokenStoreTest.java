@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.tokenstore;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedMemoryTokenStoreTest {
+
+    @Test
+    public void testExpiredToken() {
+        ShardedMemoryTokenStore store = new ShardedMemoryTokenStore();
+        Instant now = Instant.now();
+        store.add(new SecurityToken("expired", now.minusSeconds(60L), now.minusSeconds(1L)));
+        store.add(new SecurityToken("valid", now, now.plusSeconds(60L)));
+
+        assertNull(store.getToken("expired"));
+        assertNotNull(store.getToken("valid"));
+        assertEquals(1, store.getTokenIdentifiers().size());
+        assertEquals(1L, store.getExpirationCount());
+        assertEquals(1L, store.getHitCount());
+        assertEquals(1L, store.getMissCount());
+    }
+
+    @Test
+    public void testEviction() {
+        ShardedMemoryTokenStore store = new ShardedMemoryTokenStore(4, 100, false);
+        for (int i = 0; i < 1000; i++) {
+            store.add(new SecurityToken("token" + i));
+        }
+
+        assertTrue(store.size() <= 100);
+        assertEquals(1000L - store.size(), store.getEvictionCount());
+    }
+
+    @Test
+    public void testOffHeapStorage() throws Exception {
+        ShardedMemoryTokenStore store = new ShardedMemoryTokenStore(4, 100, true);
+        SecurityToken token = new SecurityToken("token", Instant.now(), Instant.now().plusSeconds(60L));
+        token.setSecret("secret".getBytes(StandardCharsets.UTF_8));
+        token.setTokenType("http://docs.oasis-open.org/ws-sx/ws-secureconversation/200512/sct");
+        store.add(token);
+
+        SecurityToken storedToken = store.getToken("token");
+        assertNotNull(storedToken);
+        assertNotSame(token, storedToken);
+        assertEquals(token.getId(), storedToken.getId());
+        assertEquals(token.getTokenType(), storedToken.getTokenType());
+        assertEquals(token.getExpires(), storedToken.getExpires());
+        assertArrayEquals(token.getSecret(), storedToken.getSecret());
+
+        store.remove("token");
+        assertNull(store.getToken("token"));
+    }
+
+    @Test
+    public void testRemovedTokensAreReleased() throws Exception {
+        ShardedMemoryTokenStore store = new ShardedMemoryTokenStore(1, 2, false);
+        Instant expires = Instant.now().plusSeconds(60L);
+
+        SecurityToken token = new SecurityToken("removed", null, expires);
+        WeakReference<SecurityToken> removed = new WeakReference<>(token);
+        store.add(token);
+        store.remove("removed");
+
+        token = new SecurityToken("replaced", null, expires);
+        WeakReference<SecurityToken> replaced = new WeakReference<>(token);
+        store.add(token);
+        store.add(new SecurityToken("replaced", null, expires));
+
+        // Expires first, so it's evicted when the store is full
+        token = new SecurityToken("evicted", null, expires.minusSeconds(30L));
+        WeakReference<SecurityToken> evicted = new WeakReference<>(token);
+        store.add(token);
+        store.add(new SecurityToken("other", null, expires));
+        token = null;
+
+        assertEquals(2, store.size());
+        assertEquals(1L, store.getEvictionCount());
+        // The entries are still in the timer wheel, but don't hold on to the tokens
+        for (int i = 0; i < 50 && (removed.get() != null || replaced.get() != null || evicted.get() != null); i++) {
+            System.gc();
+            Thread.sleep(20L);
+        }
+        assertNull(removed.get());
+        assertNull(replaced.get());
+        assertNull(evicted.get());
+    }
+
+    @Test
+    public void testOffHeapReplace() throws Exception {
+        ShardedMemoryTokenStore store = new ShardedMemoryTokenStore(4, 100, true);
+        SecurityToken token = new SecurityToken("token", Instant.now(), Instant.now().plusSeconds(60L));
+        token.setSecret("secret".getBytes(StandardCharsets.UTF_8));
+        store.add(token);
+
+        SecurityToken newToken = new SecurityToken("token", Instant.now(), Instant.now().plusSeconds(60L));
+        newToken.setSecret("newSecret".getBytes(StandardCharsets.UTF_8));
+        store.add(newToken);
+
+        assertEquals(1, store.size());
+        assertArrayEquals(newToken.getSecret(), store.getToken("token").getSecret());
+        store.remove("token");
+        assertNull(store.getToken("token"));
+        assertFalse(store.getTokenIdentifiers().contains("token"));
+    }
+
+}
@@ -53,7 +53,9 @@ public class TokenStoreTest {
         message.setExchange(new ExchangeImpl());
         return Arrays.asList(
                 new MemoryTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message),
-                new EHCacheTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message)
+                new EHCacheTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message),
+                new ShardedMemoryTokenStoreFactory()
+                    .newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message)
         );
     }
 
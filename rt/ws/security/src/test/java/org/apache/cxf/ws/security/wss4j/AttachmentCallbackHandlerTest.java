@@ -19,16 +19,32 @@
 package org.apache.cxf.ws.security.wss4j;
 
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import javax.activation.CommandMap;
 import javax.activation.DataHandler;
 import javax.security.auth.callback.Callback;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
 import org.apache.cxf.attachment.AttachmentImpl;
+import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.message.Attachment;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.workqueue.AutomaticWorkQueueImpl;
+import org.apache.cxf.workqueue.WorkQueueManager;
+import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.wss4j.common.ext.AttachmentRequestCallback;
+import org.apache.wss4j.common.ext.AttachmentResultCallback;
 import org.apache.wss4j.common.util.AttachmentUtils;
 import org.apache.wss4j.dom.engine.WSSConfig;
 
@@ -84,4 +100,64 @@ public class AttachmentCallbackHandlerTest {
         EasyMock.verify(dataHandler);
     }
 
+    @Test
+    public void testParallelAttachmentResults() throws Exception {
+        Bus bus = BusFactory.newInstance().createBus();
+        try {
+            secureAndReadAttachments(bus);
+        } finally {
+            bus.shutdown(true);
+        }
+    }
+
+    @Test
+    public void testParallelAttachmentResultsOnSingleThreadQueue() throws Exception {
+        Bus bus = BusFactory.newInstance().createBus();
+        AutomaticWorkQueueImpl queue = new AutomaticWorkQueueImpl(-1, 0, 1, 1, 60000L, "ws-security");
+        bus.getExtension(WorkQueueManager.class).addNamedWorkQueue("ws-security", queue);
+        try {
+            // the attachments are written out on the only thread of the queue
+            FutureTask<Void> writer = new FutureTask<>(() -> {
+                secureAndReadAttachments(bus);
+                return null;
+            });
+            queue.execute(writer);
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            bus.shutdown(true);
+        }
+    }
+
+    private static void secureAndReadAttachments(Bus bus) throws Exception {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(Bus.class, bus);
+        exchange.setOutMessage(message);
+        message.setExchange(exchange);
+        message.put(SecurityConstants.PARALLEL_ATTACHMENT_PROCESSING, Boolean.TRUE);
+
+        AttachmentCallbackHandler callbackHandler = new AttachmentCallbackHandler(message);
+        Callback[] callbacks = new Callback[10];
+        for (int i = 0; i < callbacks.length; i++) {
+            org.apache.wss4j.common.ext.Attachment attachment = new org.apache.wss4j.common.ext.Attachment();
+            attachment.setMimeType("text/plain");
+            attachment.setSourceStream(
+                new ByteArrayInputStream(("attachment" + i).getBytes(StandardCharsets.UTF_8)));
+
+            AttachmentResultCallback attachmentResultCallback = new AttachmentResultCallback();
+            attachmentResultCallback.setAttachmentId("att" + i);
+            attachmentResultCallback.setAttachment(attachment);
+            callbacks[i] = attachmentResultCallback;
+        }
+        callbackHandler.handle(callbacks);
+
+        assertEquals(callbacks.length, message.getAttachments().size());
+        Iterator<Attachment> iterator = message.getAttachments().iterator();
+        for (int i = 0; i < callbacks.length; i++) {
+            Attachment attachment = iterator.next();
+            assertEquals("att" + i, attachment.getId());
+            assertEquals("attachment" + i, IOUtils.toString(attachment.getDataHandler().getInputStream()));
+        }
+    }
+
 }
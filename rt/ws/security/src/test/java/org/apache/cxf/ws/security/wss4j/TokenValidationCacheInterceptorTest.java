@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.wss4j;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.security.KeyStore;
+import java.security.Principal;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import org.apache.cxf.binding.soap.SoapHeader;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.DOMUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.cxf.ws.security.cache.TokenValidationCache;
+import org.apache.cxf.ws.security.wss4j.saml.SAML2CallbackHandler;
+import org.apache.neethi.Assertion;
+import org.apache.wss4j.common.WSS4JConstants;
+import org.apache.wss4j.common.saml.SAMLCallback;
+import org.apache.wss4j.common.saml.SAMLUtil;
+import org.apache.wss4j.common.saml.SamlAssertionWrapper;
+import org.apache.wss4j.common.token.BinarySecurity;
+import org.apache.wss4j.common.token.X509Security;
+import org.apache.wss4j.common.util.DOM2Writer;
+import org.apache.wss4j.dom.engine.WSSConfig;
+import org.apache.wss4j.dom.engine.WSSecurityEngineResult;
+import org.apache.wss4j.dom.handler.WSHandlerConstants;
+import org.apache.wss4j.dom.handler.WSHandlerResult;
+import org.apache.wss4j.dom.validate.Validator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Process the same token received in different requests with the TokenValidationCache enabled.
+ */
+public class TokenValidationCacheInterceptorTest extends AbstractSecurityTest {
+
+    private final AtomicInteger validations = new AtomicInteger();
+    private final Validator countingValidator = (credential, data) -> {
+        validations.incrementAndGet();
+        return credential;
+    };
+    private final TokenValidationCache cache = new TokenValidationCache();
+
+    @Before
+    public void setUpValidator() {
+        WSSConfig.init();
+        validations.set(0);
+    }
+
+    @Test
+    public void testSamlToken() throws Exception {
+        SAMLCallback samlCallback = new SAMLCallback();
+        SAMLUtil.doSAMLCallback(new SAML2CallbackHandler(), samlCallback);
+        SamlAssertionWrapper assertion = new SamlAssertionWrapper(samlCallback);
+        String token = DOM2Writer.nodeToString(assertion.toDOM(DOMUtils.createDocument()));
+
+        SamlTokenInterceptor interceptor = new SamlTokenInterceptor();
+        Endpoint endpoint = createEndpoint("DoubleItPort");
+
+        SoapMessage message = createMessage(endpoint, token, SecurityConstants.SAML2_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(1, validations.get());
+        assertEquals(1, cache.size());
+
+        // The same Assertion in a new request is not validated again, but the result refers to the new request
+        message = createMessage(endpoint, token, SecurityConstants.SAML2_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(1, validations.get());
+        WSSecurityEngineResult result = getResult(message);
+        Element tokenElement = getToken(message);
+        SamlAssertionWrapper wrapper = (SamlAssertionWrapper)result.get(WSSecurityEngineResult.TAG_SAML_ASSERTION);
+        assertSame(tokenElement, wrapper.getElement());
+        assertSame(tokenElement, result.get(WSSecurityEngineResult.TAG_TOKEN_ELEMENT));
+        assertEquals(assertion.getSubjectName(),
+                     ((Principal)result.get(WSSecurityEngineResult.TAG_PRINCIPAL)).getName());
+
+        // Another endpoint sharing the cache validates the Assertion with its own settings
+        message = createMessage(createEndpoint("OtherPort"), token, SecurityConstants.SAML2_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(2, validations.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testBinarySecurityToken() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream is = getClass().getResourceAsStream("/publicstore.jks")) {
+            keyStore.load(is, "keyStorePassword".toCharArray());
+        }
+        X509Certificate cert = (X509Certificate)keyStore.getCertificate("myalias");
+        X509Security bst = new X509Security(DOMUtils.createDocument());
+        bst.setX509Certificate(cert);
+        bst.setID("BST-1");
+        String token = DOM2Writer.nodeToString(bst.getElement());
+
+        BinarySecurityTokenInterceptor interceptor = new BinarySecurityTokenInterceptor();
+        Endpoint endpoint = createEndpoint("DoubleItPort");
+
+        SoapMessage message = createMessage(endpoint, token, SecurityConstants.BST_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(1, validations.get());
+        assertEquals(1, cache.size());
+
+        message = createMessage(endpoint, token, SecurityConstants.BST_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(1, validations.get());
+        WSSecurityEngineResult result = getResult(message);
+        BinarySecurity binarySecurity =
+            (BinarySecurity)result.get(WSSecurityEngineResult.TAG_BINARY_SECURITY_TOKEN);
+        assertSame(getToken(message), binarySecurity.getElement());
+        assertEquals("BST-1", result.get(WSSecurityEngineResult.TAG_ID));
+        X509Certificate[] certs = (X509Certificate[])result.get(WSSecurityEngineResult.TAG_X509_CERTIFICATES);
+        assertEquals(cert, certs[0]);
+
+        message = createMessage(createEndpoint("OtherPort"), token, SecurityConstants.BST_TOKEN_VALIDATOR);
+        interceptor.handleMessage(message);
+        assertEquals(2, validations.get());
+    }
+
+    private static Endpoint createEndpoint(String name) {
+        Endpoint endpoint = new AbstractPolicySecurityTest.MockEndpoint();
+        endpoint.getEndpointInfo().setName(new QName("http://cxf.apache.org/", name));
+        endpoint.getEndpointInfo().setAddress("http://localhost:8080/" + name);
+        return endpoint;
+    }
+
+    private SoapMessage createMessage(Endpoint endpoint, String token, String validatorProperty)
+        throws Exception {
+        Document doc = DOMUtils.createDocument();
+        Element security = doc.createElementNS(WSS4JConstants.WSSE_NS, "wsse:Security");
+        doc.appendChild(security);
+        Document tokenDoc = StaxUtils.read(new StringReader(token));
+        security.appendChild(doc.importNode(tokenDoc.getDocumentElement(), true));
+
+        SoapMessage message = new SoapMessage(new MessageImpl());
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(Endpoint.class, endpoint);
+        exchange.setInMessage(message);
+        message.setExchange(exchange);
+        message.getHeaders().add(new SoapHeader(new QName(WSS4JConstants.WSSE_NS, "Security"), security));
+        message.put(SecurityConstants.ENABLE_TOKEN_VALIDATION_CACHE, "true");
+        message.put(SecurityConstants.TOKEN_VALIDATION_CACHE_INSTANCE, cache);
+        message.put(validatorProperty, countingValidator);
+        message.put(AssertionInfoMap.class, new AssertionInfoMap(Collections.<Assertion>emptyList()));
+        return message;
+    }
+
+    private static WSSecurityEngineResult getResult(SoapMessage message) {
+        List<WSHandlerResult> results = CastUtils.cast((List<?>)message.get(WSHandlerConstants.RECV_RESULTS));
+        assertNotNull(results);
+        assertEquals(1, results.get(0).getResults().size());
+        return results.get(0).getResults().get(0);
+    }
+
+    private static Element getToken(SoapMessage message) {
+        Element security = (Element)message.getHeaders().get(0).getObject();
+        return DOMUtils.getFirstElement(security);
+    }
+}
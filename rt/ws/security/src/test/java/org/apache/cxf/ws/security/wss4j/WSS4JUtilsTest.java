@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.wss4j;
+
+import java.util.Arrays;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.builders.PrimitiveAssertion;
+import org.apache.wss4j.policy.SP12Constants;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Some tests for selecting between the DOM and streaming WS-Security implementations.
+ */
+public class WSS4JUtilsTest {
+
+    @Test
+    public void testStreamingSecurityFlag() {
+        Message message = createMessage();
+        assertFalse(WSS4JUtils.isStreamingSecurity(message));
+
+        message.put(SecurityConstants.ENABLE_STREAMING_SECURITY, "true");
+        assertTrue(WSS4JUtils.isStreamingSecurity(message));
+
+        message.put(SecurityConstants.ENABLE_STREAMING_SECURITY, Boolean.FALSE);
+        assertFalse(WSS4JUtils.isStreamingSecurity(message));
+    }
+
+    @Test
+    public void testAutoSelectsStreaming() {
+        Message message = createMessage(SP12Constants.ASYMMETRIC_BINDING, SP12Constants.SIGNED_PARTS);
+        message.getExchange().put(SecurityConstants.ENABLE_STREAMING_SECURITY,
+                                  SecurityConstants.STREAMING_SECURITY_AUTO);
+
+        assertTrue(WSS4JUtils.isStreamingSecurity(message));
+        assertSame(Boolean.TRUE, message.getExchange().get(SecurityConstants.ENABLE_STREAMING_SECURITY));
+    }
+
+    @Test
+    public void testAutoFallsBackToDOM() {
+        Message message = createMessage(SP12Constants.ASYMMETRIC_BINDING, SP12Constants.SIGNED_ELEMENTS);
+        message.getExchange().put(SecurityConstants.ENABLE_STREAMING_SECURITY,
+                                  SecurityConstants.STREAMING_SECURITY_AUTO);
+
+        assertFalse(WSS4JUtils.isStreamingSecurity(message));
+        assertSame(Boolean.FALSE, message.getExchange().get(SecurityConstants.ENABLE_STREAMING_SECURITY));
+
+        // The response on the same exchange is processed by the same implementation
+        Message response = new MessageImpl();
+        response.setExchange(message.getExchange());
+        message.getExchange().setOutMessage(response);
+        assertFalse(WSS4JUtils.isStreamingSecurity(response));
+    }
+
+    private static Message createMessage(QName... assertions) {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        message.setExchange(exchange);
+        Assertion[] policy = new Assertion[assertions.length];
+        for (int i = 0; i < assertions.length; i++) {
+            policy[i] = new PrimitiveAssertion(assertions[i]);
+        }
+        message.put(AssertionInfoMap.class, new AssertionInfoMap(Arrays.asList(policy)));
+        return message;
+    }
+}
@@ -102,8 +102,23 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         assertEquals("book", book.getName());
         assertEquals(123L, book.getId());
     }
+    @Test
+    public void testJweJwkBookBeanRSAInputStream() throws Exception {
+        String address = "https://localhost:" + PORT + "/jwejwkrsastream";
+        BookStore bs = createJweBookStore(address,
+                                       Collections.singletonList(new JacksonJsonProvider()),
+                                       true);
+        Book book = bs.echoBook(new Book("book", 123L));
+        assertEquals("book", book.getName());
+        assertEquals(123L, book.getId());
+    }
     private BookStore createJweBookStore(String address,
                                       List<?> mbProviders) throws Exception {
+        return createJweBookStore(address, mbProviders, false);
+    }
+    private BookStore createJweBookStore(String address,
+                                      List<?> mbProviders,
+                                      boolean useJweInputStream) throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
         SpringBusFactory bf = new SpringBusFactory();
         URL busFile = JAXRSJweJwsTest.class.getResource("client.xml");
@@ -115,7 +130,9 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         JweWriterInterceptor jweWriter = new JweWriterInterceptor();
         jweWriter.setUseJweOutputStream(true);
         providers.add(jweWriter);
-        providers.add(new JweClientResponseFilter());
+        JweClientResponseFilter jweReader = new JweClientResponseFilter();
+        jweReader.setUseJweInputStream(useJweInputStream);
+        providers.add(jweReader);
         if (mbProviders != null) {
             providers.addAll(mbProviders);
         }
@@ -320,6 +337,16 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         assertEquals("book", book.getName());
         assertEquals(123L, book.getId());
     }
+    @Test
+    public void testJwsJwkBookHMacInputStream() throws Exception {
+        String address = "https://localhost:" + PORT + "/jwsjwkhmacstream";
+        BookStore bs = createJwsBookStore(address,
+                                       Collections.singletonList(new JacksonJsonProvider()),
+                                       true, false, true);
+        Book book = bs.echoBook(new Book("book", 123L));
+        assertEquals("book", book.getName());
+        assertEquals(123L, book.getId());
+    }
     private BookStore createJwsBookStore(String address,
                                          List<?> mbProviders) throws Exception {
         return createJwsBookStore(address, mbProviders, true, false);
@@ -328,6 +355,13 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
                                          List<?> mbProviders,
                                          boolean encodePayload,
                                          boolean protectHttpHeaders) throws Exception {
+        return createJwsBookStore(address, mbProviders, encodePayload, protectHttpHeaders, false);
+    }
+    private BookStore createJwsBookStore(String address,
+                                         List<?> mbProviders,
+                                         boolean encodePayload,
+                                         boolean protectHttpHeaders,
+                                         boolean useJwsInputStream) throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
         SpringBusFactory bf = new SpringBusFactory();
         URL busFile = JAXRSJweJwsTest.class.getResource("client.xml");
@@ -341,7 +375,9 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         jwsWriter.setEncodePayload(encodePayload);
         jwsWriter.setUseJwsOutputStream(true);
         providers.add(jwsWriter);
-        providers.add(new JwsClientResponseFilter());
+        JwsClientResponseFilter jwsReader = new JwsClientResponseFilter();
+        jwsReader.setUseJwsInputStream(useJwsInputStream);
+        providers.add(jwsReader);
         if (mbProviders != null) {
             providers.addAll(mbProviders);
         }
@@ -104,6 +104,19 @@ public class JAXRSJwsJsonTest extends AbstractBusClientServerTestBase {
         assertEquals(123L, book.getId());
     }
     @Test
+    public void testJwsJsonBookBeanHmacInputStream() throws Exception {
+        String address = "https://localhost:" + PORT + "/jwsjsonhmacstream";
+        BookStore bs = createBookStore(address,
+                                       Collections.singletonMap(JoseConstants.RSSEC_SIGNATURE_PROPS,
+                                           "org/apache/cxf/systest/jaxrs/security/secret.jwk.properties"),
+                                       Collections.singletonList(new JacksonJsonProvider()),
+                                       true,
+                                       true);
+        Book book = bs.echoBook(new Book("book", 123L));
+        assertEquals("book", book.getName());
+        assertEquals(123L, book.getId());
+    }
+    @Test
     public void testJweCompactJwsJsonBookBeanHmac() throws Exception {
         if (!SecurityTestUtil.checkUnrestrictedPoliciesInstalled()) {
             return;
@@ -185,6 +198,13 @@ public class JAXRSJwsJsonTest extends AbstractBusClientServerTestBase {
                                       Map<String, Object> mapProperties,
                                       List<?> extraProviders,
                                       boolean encodePayload) throws Exception {
+        return createBookStore(address, mapProperties, extraProviders, encodePayload, false);
+    }
+    private BookStore createBookStore(String address,
+                                      Map<String, Object> mapProperties,
+                                      List<?> extraProviders,
+                                      boolean encodePayload,
+                                      boolean useJwsJsonInputStream) throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
         SpringBusFactory bf = new SpringBusFactory();
         URL busFile = JAXRSJwsJsonTest.class.getResource("client.xml");
@@ -197,7 +217,9 @@ public class JAXRSJwsJsonTest extends AbstractBusClientServerTestBase {
         writer.setUseJwsJsonOutputStream(true);
         writer.setEncodePayload(encodePayload);
         providers.add(writer);
-        providers.add(new JwsJsonClientResponseFilter());
+        JwsJsonClientResponseFilter reader = new JwsJsonClientResponseFilter();
+        reader.setUseJwsJsonInputStream(useJwsJsonInputStream);
+        providers.add(reader);
         if (extraProviders != null) {
             providers.addAll(extraProviders);
         }